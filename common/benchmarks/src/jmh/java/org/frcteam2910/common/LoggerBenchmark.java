@@ -0,0 +1,46 @@
+package org.frcteam2910.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks how long a log call blocks the calling thread.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggerBenchmark {
+	private final Logger logger = new Logger(LoggerBenchmark.class);
+
+	private double value = 0.0;
+
+	@Setup
+	public void setup() {
+		// Measure the cost to the caller, not the console
+		PrintStream nullStream = new PrintStream(OutputStream.nullOutputStream());
+		Logger.setOutputStream(nullStream);
+		Logger.setErrorStream(nullStream);
+		Logger.setMinimumSeverity(Logger.Severity.INFO);
+	}
+
+	@Benchmark
+	public void enabled() {
+		logger.info("Value: %.3f", value++);
+	}
+
+	@Benchmark
+	public void disabled() {
+		logger.debug("Value: %.3f", value++);
+	}
+
+	@TearDown
+	public void tearDown() {
+		Logger.flush();
+	}
+}
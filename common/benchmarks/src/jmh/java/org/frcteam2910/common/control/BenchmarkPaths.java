@@ -0,0 +1,47 @@
+package org.frcteam2910.common.control;
+
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+
+/**
+ * Paths and constraints shared between the benchmarks so that results from different suites are comparable.
+ */
+final class BenchmarkPaths {
+    static final TrajectoryConstraint[] CONSTRAINTS = {
+            new CentripetalAccelerationConstraint(7.5),
+            new MaxAccelerationConstraint(30.0),
+            new FeedforwardConstraint(10.0, 0.8, 0.1, true)
+    };
+
+    private BenchmarkPaths() {
+    }
+
+    /**
+     * Creates a path that is roughly the size of a full autonomous routine. It is made up of 10 hermite segments that
+     * weave across the field.
+     *
+     * @return the path
+     */
+    static Path createAutoPath() {
+        SplinePathBuilder builder = new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO);
+        for (int i = 1; i <= 10; i++) {
+            double y = (i % 2 == 0) ? 0.0 : 40.0;
+            Rotation2 heading = Rotation2.fromDegrees((i % 2 == 0) ? -30.0 : 30.0);
+
+            builder.hermite(new Vector2(60.0 * i, y), heading, Rotation2.fromDegrees(18.0 * i));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Creates the single segment path used by {@code TrajectoryTest}.
+     *
+     * @return the path
+     */
+    static Path createShortPath() {
+        return new SplinePathBuilder(Vector2.ZERO, Rotation2.fromDegrees(90.0), Rotation2.fromDegrees(90.0))
+                .hermite(new Vector2(50.0, 50.0), Rotation2.fromDegrees(90.0), Rotation2.ZERO)
+                .build();
+    }
+}
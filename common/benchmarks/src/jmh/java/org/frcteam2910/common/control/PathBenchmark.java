@@ -0,0 +1,34 @@
+package org.frcteam2910.common.control;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PathBenchmark {
+    private static final double STEP = 1.0e-2;
+
+    private Path path;
+
+    private double distance = 0.0;
+
+    @Setup
+    public void setup() {
+        path = BenchmarkPaths.createAutoPath();
+    }
+
+    @Benchmark
+    public Path.State calculate() {
+        distance += STEP;
+        if (distance > path.getLength()) {
+            distance = 0.0;
+        }
+
+        return path.calculate(distance);
+    }
+}
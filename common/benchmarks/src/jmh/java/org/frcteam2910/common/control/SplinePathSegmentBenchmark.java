@@ -0,0 +1,31 @@
+package org.frcteam2910.common.control;
+
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.math.spline.CubicHermiteSpline;
+import org.frcteam2910.common.math.spline.Spline;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SplinePathSegmentBenchmark {
+    private Spline spline;
+
+    @Setup
+    public void setup() {
+        spline = new CubicHermiteSpline(Vector2.ZERO, Rotation2.fromDegrees(90.0),
+                new Vector2(50.0, 50.0), Rotation2.fromDegrees(90.0));
+    }
+
+    @Benchmark
+    public double getLength() {
+        // The length is cached by the segment so a new segment has to be created every invocation
+        return new SplinePathSegment(spline).getLength();
+    }
+}
@@ -0,0 +1,82 @@
+package org.frcteam2910.common.control;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks trajectory generation and sampling.
+ * <p>
+ * Generation happens once per autonomous routine (usually while the robot is disabled) while sampling happens every
+ * update loop tick while a trajectory is being followed.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrajectoryBenchmark {
+    private static final double DT = 5.0e-3;
+
+    @Param({"1.0e-1", "1.0e-2", "1.0e-3", "1.0e-4"})
+    public double sampleDistance;
+
+    private Path path;
+    private Trajectory trajectory;
+    private Trajectory.Cursor cursor;
+
+    private double time = 0.0;
+
+    @Setup
+    public void setup() {
+        path = BenchmarkPaths.createAutoPath();
+        trajectory = new Trajectory(path, BenchmarkPaths.CONSTRAINTS, sampleDistance);
+        cursor = new Trajectory.Cursor(trajectory);
+    }
+
+    private double nextTime() {
+        // Step through the trajectory the same way a follower running at 200 Hz would
+        time += DT;
+        if (time > trajectory.getDuration()) {
+            time = 0.0;
+        }
+
+        return time;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Trajectory generate() {
+        return new Trajectory(path, BenchmarkPaths.CONSTRAINTS, sampleDistance);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Trajectory generateParallel() {
+        return new Trajectory(path, BenchmarkPaths.CONSTRAINTS, sampleDistance, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Trajectory.State calculate() {
+        return trajectory.calculate(nextTime());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Trajectory.State calculateCursor() {
+        return cursor.calculate(nextTime());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double moveCursor() {
+        cursor.moveTo(nextTime());
+        return cursor.getVelocity();
+    }
+}
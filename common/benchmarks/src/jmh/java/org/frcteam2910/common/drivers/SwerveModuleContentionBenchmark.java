@@ -0,0 +1,115 @@
+package org.frcteam2910.common.drivers;
+
+import org.frcteam2910.common.math.Vector2;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks sharing swerve module sensor readings between the update thread writing them and another thread reading
+ * them at the same time.
+ * <p>
+ * The <code>locked</code> group publishes the readings under a monitor lock like {@link SwerveModule} used to. The
+ * <code>lockFree</code> group uses the sequence lock in {@link SwerveModule}.
+ */
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwerveModuleContentionBenchmark {
+    private final LockedSensors lockedSensors = new LockedSensors();
+    private final BenchmarkSwerveModule module = new BenchmarkSwerveModule();
+
+    private double time = 0.0;
+
+    @State(Scope.Thread)
+    public static class ReaderState {
+        final SwerveModuleSnapshot snapshot = new SwerveModuleSnapshot();
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public void lockedWrite() {
+        time += 1.0;
+        lockedSensors.update(time, 1.0, 2.0, 3.0, 4.0);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public SwerveModuleSnapshot lockedRead(ReaderState state) {
+        return lockedSensors.get(state.snapshot);
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(1)
+    public void lockFreeWrite() {
+        time += 1.0;
+        module.updateSensors(time);
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(1)
+    public SwerveModuleSnapshot lockFreeRead(ReaderState state) {
+        return module.getSnapshot(state.snapshot);
+    }
+
+    /**
+     * Sensor readings shared with a monitor lock.
+     */
+    private static final class LockedSensors {
+        private final Object lock = new Object();
+        private final SwerveModuleSnapshot snapshot = new SwerveModuleSnapshot();
+
+        void update(double timestamp, double angle, double distance, double velocity, double driveCurrent) {
+            synchronized (lock) {
+                snapshot.set(timestamp, angle, distance, velocity, driveCurrent);
+            }
+        }
+
+        SwerveModuleSnapshot get(SwerveModuleSnapshot out) {
+            synchronized (lock) {
+                return out.set(snapshot);
+            }
+        }
+    }
+
+    private static final class BenchmarkSwerveModule extends SwerveModule {
+        BenchmarkSwerveModule() {
+            super(Vector2.ZERO);
+        }
+
+        @Override
+        protected double readAngle() {
+            return 1.0;
+        }
+
+        @Override
+        protected double readDistance() {
+            return 2.0;
+        }
+
+        @Override
+        protected double readVelocity() {
+            return 3.0;
+        }
+
+        @Override
+        protected double readDriveCurrent() {
+            return 4.0;
+        }
+
+        @Override
+        protected void setTargetAngle(double angle) {
+        }
+
+        @Override
+        protected void setDriveOutput(double output) {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.frcteam2910.common.io;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks how long logging one tick of signals takes in the update loop.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataLogBenchmark {
+    private static final int SIGNAL_COUNT = 300;
+
+    private Path directory;
+    private DataLog log;
+    private DataLog.Signal[] signals;
+
+    private double timestamp = 0.0;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("data-log-benchmark-");
+        // Keep a few segments so rolling over is included without filling the disk
+        log = new DataLog(directory, "benchmark", DataLog.DEFAULT_SEGMENT_SIZE, 2);
+
+        signals = new DataLog.Signal[SIGNAL_COUNT];
+        for (int i = 0; i < SIGNAL_COUNT; i++) {
+            signals[i] = log.addSignal("Signal " + i, DataLog.SignalType.DOUBLE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIGNAL_COUNT)
+    public void appendTick() {
+        double timestamp = this.timestamp += 5.0e-3;
+        for (int i = 0; i < SIGNAL_COUNT; i++) {
+            signals[i].append(timestamp, i * timestamp);
+        }
+    }
+}
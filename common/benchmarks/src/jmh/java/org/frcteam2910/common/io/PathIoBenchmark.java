@@ -0,0 +1,52 @@
+package org.frcteam2910.common.io;
+
+import org.frcteam2910.common.control.Path;
+import org.frcteam2910.common.control.SplinePathBuilder;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathIoBenchmark {
+    private Path path;
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        SplinePathBuilder builder = new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO);
+        for (int i = 1; i <= 10; i++) {
+            builder.hermite(new Vector2(i * 60.0, (i % 2) * 40.0), Rotation2.fromDegrees(i % 2 == 0 ? -30.0 : 30.0),
+                    Rotation2.fromDegrees(18.0 * i));
+        }
+        path = builder.build();
+
+        json = write();
+    }
+
+    @Benchmark
+    public Path read() throws IOException {
+        try (PathReader reader = new PathReader(new StringReader(json))) {
+            return reader.read();
+        }
+    }
+
+    @Benchmark
+    public String write() throws IOException {
+        StringWriter out = new StringWriter();
+        try (PathWriter writer = new PathWriter(out)) {
+            writer.write(path);
+        }
+
+        return out.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package org.frcteam2910.common.kinematics;
+
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the kinematics and odometry calculations the drivebase does every update loop tick.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KinematicsBenchmark {
+    private static final double DT = 5.0e-3;
+
+    private final SwerveKinematics kinematics = new SwerveKinematics(
+            new Vector2(-11.5, 11.5),
+            new Vector2(-11.5, -11.5),
+            new Vector2(11.5, 11.5),
+            new Vector2(11.5, -11.5)
+    );
+    private final SwerveOdometry odometry = new SwerveOdometry(kinematics);
+
+    private ChassisVelocity chassisVelocity;
+    private Vector2[] moduleVelocities;
+    private Rotation2 gyroAngle;
+
+    private final double[] moduleVelocityArray = new double[8];
+    private final double[] chassisVelocityArray = new double[3];
+
+    @Setup
+    public void setup() {
+        chassisVelocity = new ChassisVelocity(new Vector2(60.0, 24.0), 1.5);
+        moduleVelocities = kinematics.toModuleVelocities(chassisVelocity);
+        gyroAngle = Rotation2.fromDegrees(30.0);
+    }
+
+    @Benchmark
+    public Vector2[] toModuleVelocities() {
+        Vector2[] velocities = kinematics.toModuleVelocities(chassisVelocity);
+        SwerveKinematics.normalizeModuleVelocities(velocities, 1.0);
+        return velocities;
+    }
+
+    @Benchmark
+    public double[] toModuleVelocitiesArray() {
+        kinematics.toModuleVelocities(chassisVelocity.getTranslationalVelocity().x,
+                chassisVelocity.getTranslationalVelocity().y, chassisVelocity.getAngularVelocity(),
+                moduleVelocityArray);
+        SwerveKinematics.normalizeModuleVelocities(moduleVelocityArray, 1.0);
+        return moduleVelocityArray;
+    }
+
+    @Benchmark
+    public ChassisVelocity toChassisVelocity() {
+        return kinematics.toChassisVelocity(moduleVelocities);
+    }
+
+    @Benchmark
+    public double[] toChassisVelocityArray() {
+        for (int i = 0; i < moduleVelocities.length; i++) {
+            moduleVelocityArray[i * 2] = moduleVelocities[i].x;
+            moduleVelocityArray[i * 2 + 1] = moduleVelocities[i].y;
+        }
+        kinematics.toChassisVelocity(moduleVelocityArray, chassisVelocityArray);
+        return chassisVelocityArray;
+    }
+
+    @Benchmark
+    public RigidTransform2 updateOdometry() {
+        // Build the module velocities from angles and speeds like the drivebase does
+        Vector2[] velocities = new Vector2[moduleVelocities.length];
+        for (int i = 0; i < velocities.length; i++) {
+            velocities[i] = Vector2.fromAngle(moduleVelocities[i].getAngle()).scale(moduleVelocities[i].length);
+        }
+
+        return odometry.update(gyroAngle, DT, velocities);
+    }
+}
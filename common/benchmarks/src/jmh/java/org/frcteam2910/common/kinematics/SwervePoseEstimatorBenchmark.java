@@ -0,0 +1,71 @@
+package org.frcteam2910.common.kinematics;
+
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the pose estimator at the drivebase's update rate.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwervePoseEstimatorBenchmark {
+    private static final double DT = 5.0e-3;
+    private static final double ANGULAR_VELOCITY = 1.5;
+
+    /**
+     * The latency of a vision measurement in updates. 20 updates at 200 Hz is 100 ms.
+     */
+    private static final int VISION_LATENCY = 20;
+
+    private final SwerveKinematics kinematics = new SwerveKinematics(
+            new Vector2(-11.5, 11.5),
+            new Vector2(-11.5, -11.5),
+            new Vector2(11.5, 11.5),
+            new Vector2(11.5, -11.5)
+    );
+    private final double[] moduleDisplacements = new double[8];
+    private final RigidTransform2 visionPose = new RigidTransform2(new Vector2(100.0, 50.0), Rotation2.fromDegrees(30.0));
+
+    private SwervePoseEstimator estimator;
+    private int updates;
+
+    @Setup
+    public void setup() {
+        kinematics.toModuleVelocities(60.0 * DT, 24.0 * DT, ANGULAR_VELOCITY * DT, moduleDisplacements);
+        estimator = new SwervePoseEstimator(kinematics, RigidTransform2.ZERO, Rotation2.ZERO, 50);
+
+        // Fill the history so every benchmark starts with a full buffer
+        for (updates = 0; updates < 50; ) {
+            step();
+        }
+    }
+
+    private void step() {
+        updates++;
+        estimator.update(updates * DT, Rotation2.fromRadians(ANGULAR_VELOCITY * DT * updates), moduleDisplacements);
+    }
+
+    @Benchmark
+    public double update() {
+        step();
+        return estimator.getX();
+    }
+
+    /**
+     * An update followed by a vision measurement taken 100 ms ago, which replays 20 updates.
+     */
+    @Benchmark
+    public double updateWithDelayedVision() {
+        step();
+        estimator.addVisionMeasurement((updates - VISION_LATENCY) * DT, visionPose, 10.0, 0.1);
+        return estimator.getX();
+    }
+}
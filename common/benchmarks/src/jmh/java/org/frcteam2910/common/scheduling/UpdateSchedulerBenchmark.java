@@ -0,0 +1,50 @@
+package org.frcteam2910.common.scheduling;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the overhead the scheduler adds to every tick of the update loop.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UpdateSchedulerBenchmark {
+    private static final double PERIOD = 5.0e-3;
+
+    /**
+     * The amount of threads the scheduler uses. With more than one thread this measures the cost of handing the
+     * updatables to the workers and waiting for them.
+     */
+    @Param({"1", "2"})
+    public int threadCount;
+
+    private final SimulatedClock clock = new SimulatedClock();
+    private UpdateScheduler scheduler;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        scheduler = new UpdateScheduler(clock, PERIOD, threadCount);
+
+        // Four updatables at different rates, each doing a trivial amount of work
+        for (int i = 0; i < 4; i++) {
+            scheduler.register((time, dt) -> blackhole.consume(dt), i + 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    @Benchmark
+    public void tick() {
+        clock.advance(PERIOD);
+        scheduler.tick();
+    }
+}
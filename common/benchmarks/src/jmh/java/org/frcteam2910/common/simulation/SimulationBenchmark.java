@@ -0,0 +1,84 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.control.*;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.scheduling.SimulatedClock;
+import org.frcteam2910.common.scheduling.UpdateScheduler;
+import org.frcteam2910.common.util.DrivetrainFeedforwardConstants;
+import org.frcteam2910.common.util.HolonomicFeedforward;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks simulating a whole 15 second autonomous with the robot following a trajectory, alone and as a batch of
+ * Monte Carlo trials on the common pool.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimulationBenchmark {
+    private static final double PERIOD = 5.0e-3;
+    private static final double AUTONOMOUS_DURATION = 15.0;
+    private static final int TRIAL_COUNT = 64;
+
+    private Trajectory trajectory;
+
+    @Setup
+    public void setup() {
+        Path path = new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO)
+                .hermite(new Vector2(3.0, 1.0), Rotation2.fromDegrees(30.0), Rotation2.fromDegrees(90.0))
+                .hermite(new Vector2(6.0, 0.0), Rotation2.fromDegrees(-30.0), Rotation2.fromDegrees(180.0))
+                .build();
+        trajectory = new Trajectory(path, new TrajectoryConstraint[]{
+                new MaxVelocityConstraint(2.5),
+                new MaxAccelerationConstraint(3.0),
+                new CentripetalAccelerationConstraint(3.0)
+        }, 1.0e-2);
+    }
+
+    @Benchmark
+    public RigidTransform2 autonomous() {
+        SimulatedSwerveDrivetrain drivetrain = SimulatedSwerveDrivetrain.mk2(50.0, 0.5, 0.5);
+        double maxSpeed = drivetrain.getModule(0).getMaxSpeed(drivetrain.getBatteryVoltage());
+
+        HolonomicMotionProfiledTrajectoryFollower follower = new HolonomicMotionProfiledTrajectoryFollower(
+                new PidConstants(2.0, 0.0, 0.0),
+                new PidConstants(2.0, 0.0, 0.0),
+                new HolonomicFeedforward(new DrivetrainFeedforwardConstants(1.0 / maxSpeed, 0.0, 0.0))
+        );
+        SimulatedDrivebase drivebase = new SimulatedDrivebase(drivetrain);
+        drivebase.setFollower(follower);
+        follower.follow(trajectory);
+
+        SimulatedClock clock = new SimulatedClock();
+        UpdateScheduler scheduler = new UpdateScheduler(clock, PERIOD);
+        scheduler.register(drivebase);
+        new SimulationLoop(drivetrain, scheduler, clock).run(AUTONOMOUS_DURATION);
+
+        return drivetrain.getPose();
+    }
+
+    @Benchmark
+    public MonteCarloResults monteCarlo() {
+        double maxSpeed = SimulatedSwerveModule.mk2(Vector2.ZERO).getMaxSpeed(12.0);
+        MonteCarloEvaluator evaluator = new MonteCarloEvaluator(trajectory,
+                () -> SimulatedSwerveDrivetrain.mk2(50.0, 0.5, 0.5),
+                new PidConstants(2.0, 0.0, 0.0),
+                new PidConstants(2.0, 0.0, 0.0),
+                new HolonomicFeedforward(new DrivetrainFeedforwardConstants(1.0 / maxSpeed, 0.0, 0.0)));
+        evaluator.setFrictionCoefficientRange(0.6, 1.1);
+        evaluator.setGyroError(1.0e-3, 1.0e-4);
+        evaluator.setEncoderNoise(1.0e-3, 1.0e-4);
+        evaluator.setPeriodJitter(1.0e-3);
+        evaluator.setGainVariation(0.2);
+
+        return evaluator.evaluate(TRIAL_COUNT, 0, ForkJoinPool.commonPool());
+    }
+}
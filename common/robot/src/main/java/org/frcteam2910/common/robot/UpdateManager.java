@@ -2,43 +2,111 @@ package org.frcteam2910.common.robot;
 
 import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.Timer;
+import org.frcteam2910.common.scheduling.UpdateScheduler;
+import org.frcteam2910.common.scheduling.UpdateStatistics;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Runs {@link Updatable}s from a {@link Notifier} using an {@link UpdateScheduler} timed by the FPGA timer.
+ */
 public final class UpdateManager {
-	public final List<Updatable> updatables = new ArrayList<>();
+	private static final double DEFAULT_PERIOD = 5.0e-3;
+
+	/**
+	 * The updatables run every tick. The list is read-only because the updatables are registered with the scheduler
+	 * when the update manager is created, more updatables can be added with {@link #addUpdatable(Updatable, int)}.
+	 */
+	public final List<Updatable> updatables;
 
 	@FunctionalInterface
-	public interface Updatable {
-		void update(double time, double dt);
+	public interface Updatable extends org.frcteam2910.common.scheduling.Updatable {
 	}
 
-	private double lastTimestamp = 0.0;
+	private final UpdateScheduler scheduler;
 
-	private final Notifier updaterThread = new Notifier(() -> {
-		synchronized (UpdateManager.this) {
-			final double timestamp = Timer.getFPGATimestamp();
-			final double dt = timestamp - lastTimestamp;
-			lastTimestamp = timestamp;
-			updatables.forEach(s -> s.update(timestamp, dt));
-		}
-	});
+	private final Notifier updaterThread;
 
 	public UpdateManager(Updatable... updatables) {
 		this(Arrays.asList(updatables));
 	}
 
 	public UpdateManager(List<Updatable> updatables) {
-		this.updatables.addAll(updatables);
+		this(1, updatables);
+	}
+
+	/**
+	 * Creates an update manager that runs independent updatables concurrently.
+	 *
+	 * @param threadCount the amount of threads to run updatables on, including the notifier's thread
+	 * @param updatables  the updatables run every tick. They do not depend on each other.
+	 * @see UpdateScheduler
+	 */
+	public UpdateManager(int threadCount, Updatable... updatables) {
+		this(threadCount, Arrays.asList(updatables));
+	}
+
+	public UpdateManager(int threadCount, List<Updatable> updatables) {
+		this.scheduler = new UpdateScheduler(Timer::getFPGATimestamp, DEFAULT_PERIOD, threadCount);
+		this.updaterThread = new Notifier(scheduler::tick);
+
+		this.updatables = Collections.unmodifiableList(new ArrayList<>(updatables));
+		this.updatables.forEach(scheduler::register);
+	}
+
+	/**
+	 * Adds an updatable that is run every <code>rateDivisor</code> ticks of the loop.
+	 *
+	 * @param updatable   the updatable
+	 * @param rateDivisor how many ticks there are between each run of the updatable
+	 * @return the statistics of the updatable
+	 */
+	public UpdateStatistics addUpdatable(Updatable updatable, int rateDivisor) {
+		return scheduler.register(updatable, rateDivisor);
+	}
+
+	/**
+	 * Adds an updatable that is run every <code>rateDivisor</code> ticks of the loop after the updatables it depends
+	 * on. For example, fusing vision measurements should depend on the drivebase updating its odometry.
+	 *
+	 * @param updatable    the updatable
+	 * @param rateDivisor  how many ticks there are between each run of the updatable
+	 * @param dependencies the updatables that must be run before this updatable. They must already be added.
+	 * @return the statistics of the updatable
+	 */
+	public UpdateStatistics addUpdatable(Updatable updatable, int rateDivisor,
+										 org.frcteam2910.common.scheduling.Updatable... dependencies) {
+		return scheduler.register(updatable, rateDivisor, dependencies);
+	}
+
+	/**
+	 * Gets the scheduler running the updatables. The scheduler exposes the execution time, jitter and overruns of
+	 * every updatable and of the loop as a whole.
+	 *
+	 * @return the scheduler
+	 */
+	public UpdateScheduler getScheduler() {
+		return scheduler;
 	}
 
 	public void startLoop(double period) {
+		scheduler.setPeriod(period);
 		updaterThread.startPeriodic(period);
 	}
 
 	public void stopLoop() {
 		updaterThread.stop();
 	}
+
+	/**
+	 * Stops the loop and the worker threads. The update manager can't be used after it has been closed.
+	 */
+	public void close() {
+		stopLoop();
+		updaterThread.close();
+		scheduler.close();
+	}
 }
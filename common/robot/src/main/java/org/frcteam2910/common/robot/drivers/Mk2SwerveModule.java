@@ -107,12 +107,14 @@ public class Mk2SwerveModule extends SwerveModule {
         }
     }
 
+    @Override
     protected double readVelocity() {
         synchronized (canLock) {
             return driveVelocity;
         }
     }
 
+    @Override
     protected double readDriveCurrent() {
         double localDriveCurrent;
         synchronized (canLock) {
@@ -122,16 +124,6 @@ public class Mk2SwerveModule extends SwerveModule {
         return localDriveCurrent;
     }
 
-    @Override
-    public double getCurrentVelocity() {
-        return readVelocity();
-    }
-
-    @Override
-    public double getDriveCurrent() {
-        return readDriveCurrent();
-    }
-
     @Override
     protected void setTargetAngle(double angle) {
         angleController.setSetpoint(angle);
@@ -21,6 +21,8 @@ public abstract class SwerveDrivetrain extends HolonomicDrivetrain {
 
     private InterpolatingTreeMap<InterpolatingDouble, Vector2> positionSamples = new InterpolatingTreeMap<>(5);
 
+    private ModuleKeys[] moduleKeys = null;
+
     @Override
     public void holonomicDrive(Vector2 translation, double rotation, boolean fieldOriented) {
         if (fieldOriented) {
@@ -51,7 +53,7 @@ public abstract class SwerveDrivetrain extends HolonomicDrivetrain {
 
         Vector2 averageCenter = Vector2.ZERO;
         for (SwerveModule module : swerveModules) {
-            module.updateSensors();
+            module.updateSensors(timestamp);
             module.updateKinematics(robotRotation);
 
             Vector2 estimatedCenter = new RigidTransform2(module.getCurrentPosition(),
@@ -109,12 +111,46 @@ public abstract class SwerveDrivetrain extends HolonomicDrivetrain {
     @Override
     public void outputToSmartDashboard() {
         super.outputToSmartDashboard();
-        for (SwerveModule module : getSwerveModules()) {
-            SmartDashboard.putNumber(String.format("%s module angle", module.getName()), Math.toDegrees(module.getCurrentAngle()));
-            SmartDashboard.putNumber(String.format("%s module drive distance", module.getName()), module.getCurrentDistance());
-            SmartDashboard.putString(String.format("%s module position", module.getName()), module.getCurrentPosition().toString());
-            SmartDashboard.putNumber(String.format("%s module velocity", module.getName()), module.getCurrentVelocity());
-            SmartDashboard.putNumber(String.format("%s module drive current", module.getName()), module.getDriveCurrent() + Math.random() * MathUtils.EPSILON);
+        SwerveModule[] modules = getSwerveModules();
+        if (moduleKeys == null || moduleKeys.length != modules.length) {
+            moduleKeys = new ModuleKeys[modules.length];
+        }
+
+        for (int i = 0; i < modules.length; i++) {
+            SwerveModule module = modules[i];
+            // Only build the keys again if the module was renamed
+            ModuleKeys keys = moduleKeys[i];
+            if (keys == null || !keys.name.equals(module.getName())) {
+                keys = new ModuleKeys(module.getName());
+                moduleKeys[i] = keys;
+            }
+
+            SmartDashboard.putNumber(keys.angle, Math.toDegrees(module.getCurrentAngle()));
+            SmartDashboard.putNumber(keys.driveDistance, module.getCurrentDistance());
+            SmartDashboard.putString(keys.position, module.getCurrentPosition().toString());
+            SmartDashboard.putNumber(keys.velocity, module.getCurrentVelocity());
+            SmartDashboard.putNumber(keys.driveCurrent, module.getDriveCurrent() + Math.random() * MathUtils.EPSILON);
+        }
+    }
+
+    /**
+     * The SmartDashboard keys of a module's values.
+     */
+    private static final class ModuleKeys {
+        final String name;
+        final String angle;
+        final String driveDistance;
+        final String position;
+        final String velocity;
+        final String driveCurrent;
+
+        ModuleKeys(String name) {
+            this.name = name;
+            this.angle = String.format("%s module angle", name);
+            this.driveDistance = String.format("%s module drive distance", name);
+            this.position = String.format("%s module position", name);
+            this.velocity = String.format("%s module velocity", name);
+            this.driveCurrent = String.format("%s module drive current", name);
         }
     }
 }
@@ -0,0 +1,150 @@
+package org.frcteam2910.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free queue of log events that any amount of threads can add to and one thread removes from.
+ * <p>
+ * Every event is preallocated. Adding an event claims a slot with a single compare and set and never blocks. When the
+ * queue is full the event is dropped and counted instead.
+ */
+final class LogQueue {
+	private final Event[] events;
+	/**
+	 * The sequence of each slot. A slot can be written by the producer that claimed position <code>p</code> when its
+	 * sequence is <code>p</code> and read by the consumer when its sequence is <code>p + 1</code>.
+	 */
+	private final AtomicLongArray sequences;
+	private final int mask;
+
+	private final AtomicLong producerPosition = new AtomicLong();
+	// Only written by the consumer
+	private volatile long consumerPosition = 0;
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	/**
+	 * @param capacity the maximum amount of events in the queue. Must be a power of two.
+	 */
+	LogQueue(int capacity) {
+		if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("The capacity must be a positive power of two");
+		}
+
+		events = new Event[capacity];
+		sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			events[i] = new Event();
+			sequences.set(i, i);
+		}
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Adds an event to the queue.
+	 *
+	 * @return false if the queue was full and the event was dropped
+	 */
+	boolean offer(Logger.Severity severity, long time, String name, String format, Object[] args,
+				  Throwable throwable) {
+		long position = producerPosition.get();
+		while (true) {
+			int index = (int) (position & mask);
+			long difference = sequences.getAcquire(index) - position;
+			if (difference == 0) {
+				if (producerPosition.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = producerPosition.get();
+			} else if (difference < 0) {
+				// The consumer has not read the event from the last time around yet
+				droppedCount.incrementAndGet();
+				return false;
+			} else {
+				// Another producer claimed this position
+				position = producerPosition.get();
+			}
+		}
+
+		int index = (int) (position & mask);
+		Event event = events[index];
+		event.severity = severity;
+		event.time = time;
+		event.name = name;
+		event.format = format;
+		event.args = args;
+		event.throwable = throwable;
+		sequences.setRelease(index, position + 1);
+
+		return true;
+	}
+
+	/**
+	 * Removes the oldest event from the queue. Must only be called by one thread.
+	 *
+	 * @param out the event to copy the oldest event into
+	 * @return false if the queue was empty
+	 */
+	boolean poll(Event out) {
+		long position = consumerPosition;
+		int index = (int) (position & mask);
+		if (sequences.getAcquire(index) != position + 1) {
+			return false;
+		}
+
+		Event event = events[index];
+		out.set(event);
+		event.clear();
+		sequences.setRelease(index, position + events.length);
+		consumerPosition = position + 1;
+
+		return true;
+	}
+
+	/**
+	 * Gets the amount of events that have been added to the queue, including ones that have been removed.
+	 */
+	long getProducerPosition() {
+		return producerPosition.get();
+	}
+
+	/**
+	 * Gets the amount of events that have been removed from the queue.
+	 */
+	long getConsumerPosition() {
+		return consumerPosition;
+	}
+
+	long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	static final class Event {
+		Logger.Severity severity;
+		long time;
+		String name;
+		String format;
+		Object[] args;
+		Throwable throwable;
+
+		void set(Event other) {
+			severity = other.severity;
+			time = other.time;
+			name = other.name;
+			format = other.format;
+			args = other.args;
+			throwable = other.throwable;
+		}
+
+		/**
+		 * Releases the references held by the event so they can be garbage collected.
+		 */
+		void clear() {
+			name = null;
+			format = null;
+			args = null;
+			throwable = null;
+		}
+	}
+}
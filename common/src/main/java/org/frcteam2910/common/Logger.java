@@ -3,19 +3,56 @@ package org.frcteam2910.common;
 import com.google.errorprone.annotations.FormatMethod;
 
 import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.IllegalFormatException;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Logs messages asynchronously.
+ * <p>
+ * Logging a message only adds an event holding the format string and its arguments to a preallocated lock-free queue.
+ * A background thread formats the message and writes it to the output or error stream, so logging from a control loop
+ * never waits on console I/O. The background thread parks while the queue is empty and is only woken by the message
+ * that ends the idle period. Messages below the minimum severity are discarded before anything is added to the queue.
+ * If the queue is full the message is dropped and counted instead of waiting for space.
+ * <p>
+ * Because messages are formatted later, arguments should not be modified after they are logged.
+ */
 public class Logger {
 	private static final UUID RUN_INSTANCE_UUID = UUID.randomUUID();
 
 	private static final Logger ANONYMOUS_LOGGER = new Logger();
 
+	private static final int QUEUE_CAPACITY = 1024;
+	private static final long FLUSH_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private static final LogQueue queue = new LogQueue(QUEUE_CAPACITY);
+
+	private static volatile Severity minimumSeverity = Severity.DEBUG;
+	// Only written by the writer thread
+	private static volatile long writtenCount = 0;
+	// Set by the writer thread while it is parked waiting for events
+	private static volatile boolean writerIdle = false;
+
 	private static final Object outputStreamLock = new Object();
 	private static PrintStream outputStream = new PrintStream(System.out);
 	private static final Object errorStreamLock = new Object();
 	private static PrintStream errorStream = new PrintStream(System.err);
 
+	private static final Thread writerThread = new Thread(Logger::writeEvents, "Logger");
+
+	static {
+		writerThread.setDaemon(true);
+		writerThread.start();
+
+		// Write what is left in the queue when the program exits
+		Runtime.getRuntime().addShutdownHook(new Thread(Logger::flush, "Logger-shutdown"));
+	}
+
 	private final String name;
 
 	public Logger() {
@@ -46,49 +83,106 @@ public class Logger {
 		}
 	}
 
-	private static void log(PrintStream out, Severity severity, String name, String msg) {
-		if (name == null)
-			out.format("<%s> (%s) [%s]: %s%n", RUN_INSTANCE_UUID, new Date(), severity, msg);
-		else
-			out.format("<%s> (%s) [%s/%s]: %s%n", RUN_INSTANCE_UUID, new Date(), name, severity, msg);
+	public static Severity getMinimumSeverity() {
+		return minimumSeverity;
 	}
 
-	private void log(Severity severity, String msg) {
-		switch (severity) {
-			case DEBUG:
-			case INFO:
-				synchronized (outputStreamLock) {
-					log(outputStream, severity, name, msg);
-				}
+	/**
+	 * Sets the lowest severity that is logged. Messages with a lower severity are discarded without being formatted.
+	 *
+	 * @param minimumSeverity the lowest severity to log
+	 */
+	public static void setMinimumSeverity(Severity minimumSeverity) {
+		if (minimumSeverity == null) {
+			throw new IllegalArgumentException("The minimum severity can't be null");
+		}
 
-				break;
-			case WARNING:
-			case ERROR:
-				synchronized (errorStreamLock) {
-					log(errorStream, severity, name, msg);
+		Logger.minimumSeverity = minimumSeverity;
+	}
+
+	/**
+	 * Checks if messages with a severity are logged. This can be used to avoid building the arguments of a message that
+	 * would be discarded.
+	 *
+	 * @param severity the severity
+	 * @return true if messages with the severity are logged
+	 */
+	public static boolean isEnabled(Severity severity) {
+		return severity.compareTo(minimumSeverity) >= 0;
+	}
+
+	/**
+	 * Gets the amount of messages that were dropped because the queue was full.
+	 *
+	 * @return the amount of dropped messages
+	 */
+	public static long getDroppedCount() {
+		return queue.getDroppedCount();
+	}
+
+	/**
+	 * Waits until every message logged before this was called has been written, for up to a second.
+	 */
+	public static void flush() {
+		long target = queue.getProducerPosition();
+		long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+		while (writtenCount < target && System.nanoTime() - deadline < 0) {
+			LockSupport.parkNanos(FLUSH_POLL_NANOS);
+		}
+		flushStreams();
+	}
+
+	/**
+	 * Formats and writes events from the queue. Run by the background thread.
+	 */
+	private static void writeEvents() {
+		LogQueue.Event event = new LogQueue.Event();
+		boolean written = false;
+		while (true) {
+			if (queue.poll(event)) {
+				try {
+					write(event);
+				} catch (RuntimeException e) {
+					// Keep the writer alive, there is nowhere else to report this
+				}
+				event.clear();
+				writtenCount++;
+				written = true;
+			} else {
+				if (written) {
+					flushStreams();
+					written = false;
 				}
 
-				break;
-			default:
-				break;
+				writerIdle = true;
+				// Check the queue again after going idle. Claiming a slot is a compare and set so either this sees the
+				// event or its producer sees the flag and unparks this thread.
+				if (queue.getProducerPosition() == queue.getConsumerPosition()) {
+					LockSupport.park();
+				} else {
+					// A producer claimed a slot but has not finished writing the event yet
+					Thread.onSpinWait();
+				}
+				writerIdle = false;
+			}
 		}
 	}
 
-	private void log(Severity severity, Throwable throwable) {
-		switch (severity) {
+	private static void write(LogQueue.Event event) {
+		String msg = event.throwable != null ? "An unhandled exception has occurred." : format(event.format, event.args);
+
+		switch (event.severity) {
 			case DEBUG:
 			case INFO:
 				synchronized (outputStreamLock) {
-					log(outputStream, severity, name, "An unhandled exception has occurred.");
-					throwable.printStackTrace(outputStream);
+					write(outputStream, event, msg);
 				}
 
 				break;
 			case WARNING:
 			case ERROR:
 				synchronized (errorStreamLock) {
-					log(errorStream, severity, name, "An unhandled exception has occurred.");
-					throwable.printStackTrace(errorStream);
+					write(errorStream, event, msg);
 				}
 
 				break;
@@ -97,9 +191,59 @@ public class Logger {
 		}
 	}
 
+	private static void write(PrintStream out, LogQueue.Event event, String msg) {
+		if (event.name == null)
+			out.format("<%s> (%s) [%s]: %s%n", RUN_INSTANCE_UUID, new Date(event.time), event.severity, msg);
+		else
+			out.format("<%s> (%s) [%s/%s]: %s%n", RUN_INSTANCE_UUID, new Date(event.time), event.name, event.severity, msg);
+
+		if (event.throwable != null) {
+			event.throwable.printStackTrace(out);
+		}
+	}
+
+	private static String format(String format, Object[] args) {
+		try {
+			return String.format(format, args);
+		} catch (IllegalFormatException e) {
+			// The caller can't be told about a bad format string any more so log it as is
+			return format + " " + Arrays.toString(args) + " (" + e + ")";
+		}
+	}
+
+	private static void flushStreams() {
+		synchronized (outputStreamLock) {
+			outputStream.flush();
+		}
+		synchronized (errorStreamLock) {
+			errorStream.flush();
+		}
+	}
+
+	/**
+	 * Unparks the writer thread if it is waiting for events. Producers only pay for the unpark when the writer is idle.
+	 */
+	private static void wakeWriter() {
+		if (writerIdle) {
+			LockSupport.unpark(writerThread);
+		}
+	}
+
+	private void log(Severity severity, String format, Object[] args) {
+		if (isEnabled(severity) && queue.offer(severity, System.currentTimeMillis(), name, format, args, null)) {
+			wakeWriter();
+		}
+	}
+
+	private void log(Severity severity, Throwable throwable) {
+		if (isEnabled(severity) && queue.offer(severity, System.currentTimeMillis(), name, null, null, throwable)) {
+			wakeWriter();
+		}
+	}
+
 	@FormatMethod
 	public void debug(String format, Object... args) {
-		log(Severity.DEBUG, String.format(format, args));
+		log(Severity.DEBUG, format, args);
 	}
 
 	public void debug(Throwable throwable) {
@@ -108,7 +252,7 @@ public class Logger {
 
 	@FormatMethod
 	public void info(String format, Object... args) {
-		log(Severity.INFO, String.format(format, args));
+		log(Severity.INFO, format, args);
 	}
 
 	public void info(Throwable throwable) {
@@ -117,7 +261,7 @@ public class Logger {
 
 	@FormatMethod
 	public void warn(String format, Object... args) {
-		log(Severity.WARNING, String.format(format, args));
+		log(Severity.WARNING, format, args);
 	}
 
 	public void warn(Throwable throwable) {
@@ -126,7 +270,7 @@ public class Logger {
 
 	@FormatMethod
 	public void error(String format, Object... args) {
-		log(Severity.ERROR, String.format(format, args));
+		log(Severity.ERROR, format, args);
 	}
 
 	public void error(Throwable throwable) {
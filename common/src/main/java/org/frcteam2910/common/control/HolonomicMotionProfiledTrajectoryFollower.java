@@ -12,6 +12,7 @@ public class HolonomicMotionProfiledTrajectoryFollower extends TrajectoryFollowe
 
     private HolonomicFeedforward feedforward;
 
+    private Trajectory.Cursor cursor = null;
     private Trajectory.State lastState = null;
 
     private boolean finished = false;
@@ -36,7 +37,10 @@ public class HolonomicMotionProfiledTrajectoryFollower extends TrajectoryFollowe
             return new HolonomicDriveSignal(Vector2.ZERO, 0.0, false);
         }
 
-        lastState = trajectory.calculate(time);
+        if (cursor == null || cursor.getTrajectory() != trajectory) {
+            cursor = new Trajectory.Cursor(trajectory);
+        }
+        lastState = cursor.calculate(time);
 
         Vector2 segmentVelocity = Vector2.fromAngle(lastState.getPathState().getHeading()).scale(lastState.getVelocity());
         Vector2 segmentAcceleration = Vector2.fromAngle(lastState.getPathState().getHeading()).scale(lastState.getAcceleration());
@@ -72,6 +76,7 @@ public class HolonomicMotionProfiledTrajectoryFollower extends TrajectoryFollowe
         strafeController.reset();
         rotationController.reset();
 
+        cursor = null;
         finished = false;
     }
 }
@@ -2,14 +2,18 @@ package org.frcteam2910.common.control;
 
 import org.frcteam2910.common.math.Rotation2;
 import org.frcteam2910.common.math.Vector2;
-import org.frcteam2910.common.util.InterpolatingDouble;
-import org.frcteam2910.common.util.InterpolatingTreeMap;
+import org.frcteam2910.common.util.InterpolatingDoubleMap;
 
 import java.util.Map;
 
 public class Path {
+    /**
+     * The maximum amount of segments a cursor will step through before falling back to a binary search.
+     */
+    private static final int MAX_CURSOR_STEPS = 4;
+
     private final PathSegment[] segments;
-    private final InterpolatingTreeMap<InterpolatingDouble, Rotation2> rotationMap = new InterpolatingTreeMap<>();
+    private final InterpolatingDoubleMap<Rotation2> rotationMap = new InterpolatingDoubleMap<>();
     private final double[] distancesFromStart;
 
     private final double length;
@@ -18,7 +22,7 @@ public class Path {
         this.segments = segments;
 
         for (Map.Entry<Double, Rotation2> rotationEntry : rotationMap.entrySet()) {
-            this.rotationMap.put(new InterpolatingDouble(rotationEntry.getKey()), rotationEntry.getValue());
+            this.rotationMap.put(rotationEntry.getKey(), rotationEntry.getValue());
         }
 
         distancesFromStart = new double[segments.length];
@@ -58,8 +62,38 @@ public class Path {
         return mid;
     }
 
+    /**
+     * Finds the segment at a distance, starting the search at a segment that is likely to be close to it.
+     * <p>
+     * If the distance is within a few segments of the hint, the segments are stepped through one at a time. Otherwise a
+     * binary search is used.
+     */
+    private int getSegmentAtDistance(double distance, int hint) {
+        int segment = hint;
+        for (int i = 0; i < MAX_CURSOR_STEPS; i++) {
+            if (distance > getDistanceToSegmentEnd(segment)) {
+                if (segment == segments.length - 1) {
+                    return segment;
+                }
+                segment++;
+            } else if (distance < getDistanceToSegmentStart(segment)) {
+                if (segment == 0) {
+                    return segment;
+                }
+                segment--;
+            } else {
+                return segment;
+            }
+        }
+
+        return getSegmentAtDistance(distance);
+    }
+
     public State calculate(double distance) {
-        int currentSegment = getSegmentAtDistance(distance);
+        return calculate(getSegmentAtDistance(distance), distance);
+    }
+
+    private State calculate(int currentSegment, double distance) {
         PathSegment segment = segments[currentSegment];
         double segmentDistance = distance - getDistanceToSegmentStart(currentSegment);
 
@@ -69,7 +103,7 @@ public class Path {
                 distance,
                 state.getPosition(),
                 state.getHeading(),
-                rotationMap.getInterpolated(new InterpolatingDouble(distance)),
+                rotationMap.getInterpolated(distance),
                 state.getCurvature()
         );
     }
@@ -82,7 +116,7 @@ public class Path {
         return segments;
     }
 
-    public InterpolatingTreeMap<InterpolatingDouble, Rotation2> getRotationMap() {
+    public InterpolatingDoubleMap<Rotation2> getRotationMap() {
         return rotationMap;
     }
 
@@ -121,4 +155,33 @@ public class Path {
             return curvature;
         }
     }
+
+    /**
+     * A cursor calculates states along a path when the distances being calculated are close to each other, which is
+     * usually the case when following a path.
+     * <p>
+     * The cursor remembers which segment the last distance was on. The segment for the next distance is found by
+     * stepping from the last segment which takes constant time if the distances are close together. If the distance is
+     * far from the last one, a binary search is used.
+     * <p>
+     * Cursors are not thread-safe.
+     */
+    public static final class Cursor {
+        private final Path path;
+
+        private int segment = 0;
+
+        public Cursor(Path path) {
+            this.path = path;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public State calculate(double distance) {
+            segment = path.getSegmentAtDistance(distance, segment);
+            return path.calculate(segment, distance);
+        }
+    }
 }
@@ -1,22 +1,184 @@
 package org.frcteam2910.common.control;
 
-import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.math.MathUtils;
 import org.frcteam2910.common.math.spline.Spline;
 
+import java.util.Arrays;
+
+/**
+ * A path segment that follows a spline.
+ * <p>
+ * Splines are not parameterized by arc length, meaning that moving along the spline at a constant rate of t does not
+ * move along the spline at a constant speed. In order to sample the spline at a distance, a table mapping distance
+ * to t is built when the segment is created. The table is used to get an initial guess which is then refined using
+ * Newton's method.
+ */
 public final class SplinePathSegment extends PathSegment {
-    private static final double LENGTH_SAMPLE_STEP = 1.0e-4;
+    /**
+     * The amount of intervals the arc length table is split into. The intervals are evenly spaced in t.
+     */
+    private static final int ARC_LENGTH_TABLE_INTERVALS = 64;
+
+    /**
+     * The maximum error allowed when integrating the length of an interval of the spline.
+     */
+    private static final double LENGTH_TOLERANCE = 1.0e-9;
+    private static final int MAX_LENGTH_RECURSION_DEPTH = 12;
+
+    /**
+     * How close the distance at the calculated t must be to the requested distance.
+     */
+    private static final double DISTANCE_TOLERANCE = 1.0e-9;
+    private static final int MAX_NEWTON_ITERATIONS = 10;
+
+    /**
+     * The nodes of 5-point Gauss-Legendre quadrature on the interval [-1, 1].
+     */
+    private static final double[] GAUSS_LEGENDRE_NODES = {
+            -0.9061798459386640,
+            -0.5384693101056831,
+            0.0,
+            0.5384693101056831,
+            0.9061798459386640
+    };
+    /**
+     * The weights of 5-point Gauss-Legendre quadrature on the interval [-1, 1].
+     */
+    private static final double[] GAUSS_LEGENDRE_WEIGHTS = {
+            0.2369268850561891,
+            0.4786286704993665,
+            0.5688888888888889,
+            0.4786286704993665,
+            0.2369268850561891
+    };
 
     private final Spline spline;
 
-    private transient double length = Double.NaN;
+    /**
+     * The distance along the spline at t = i / {@value #ARC_LENGTH_TABLE_INTERVALS} for each index i.
+     */
+    private final transient double[] arcLengthTable;
+
+    private final transient double length;
 
     public SplinePathSegment(Spline spline) {
         this.spline = spline;
+
+        arcLengthTable = new double[ARC_LENGTH_TABLE_INTERVALS + 1];
+        for (int i = 1; i <= ARC_LENGTH_TABLE_INTERVALS; i++) {
+            double start = (i - 1.0) / ARC_LENGTH_TABLE_INTERVALS;
+            double end = ((double) i) / ARC_LENGTH_TABLE_INTERVALS;
+
+            arcLengthTable[i] = arcLengthTable[i - 1] + integrateLength(start, end);
+        }
+        length = arcLengthTable[ARC_LENGTH_TABLE_INTERVALS];
+    }
+
+    /**
+     * Integrates the length of the spline between two values of t using 5-point Gauss-Legendre quadrature.
+     */
+    private double gaussLegendreLength(double start, double end) {
+        double halfWidth = 0.5 * (end - start);
+        double center = 0.5 * (end + start);
+
+        double sum = 0.0;
+        for (int i = 0; i < GAUSS_LEGENDRE_NODES.length; i++) {
+            sum += GAUSS_LEGENDRE_WEIGHTS[i] * spline.getDerivativeMagnitude(center + halfWidth * GAUSS_LEGENDRE_NODES[i]);
+        }
+
+        return halfWidth * sum;
+    }
+
+    /**
+     * Integrates the length of the spline between two values of t. The interval is recursively split in half until
+     * the integral of both halves agrees with the integral of the entire interval.
+     */
+    private double integrateLength(double start, double end) {
+        return integrateLength(start, end, gaussLegendreLength(start, end), LENGTH_TOLERANCE, MAX_LENGTH_RECURSION_DEPTH);
+    }
+
+    private double integrateLength(double start, double end, double whole, double tolerance, int depth) {
+        double middle = 0.5 * (start + end);
+        double left = gaussLegendreLength(start, middle);
+        double right = gaussLegendreLength(middle, end);
+
+        if (depth <= 0 || Math.abs(left + right - whole) <= tolerance) {
+            return left + right;
+        }
+
+        return integrateLength(start, middle, left, 0.5 * tolerance, depth - 1) +
+                integrateLength(middle, end, right, 0.5 * tolerance, depth - 1);
+    }
+
+    /**
+     * Finds the value of t that is a distance along the spline.
+     *
+     * @param distance the distance along the spline
+     * @return the value of t at the distance
+     */
+    private double getT(double distance) {
+        if (distance <= 0.0) {
+            return 0.0;
+        } else if (distance >= length) {
+            return 1.0;
+        }
+
+        // Find the interval of the table that contains the distance
+        int index = Arrays.binarySearch(arcLengthTable, distance);
+        if (index >= 0) {
+            return ((double) index) / ARC_LENGTH_TABLE_INTERVALS;
+        }
+        index = -index - 2;
+
+        double startDistance = arcLengthTable[index];
+        double intervalLength = arcLengthTable[index + 1] - startDistance;
+
+        double lower = ((double) index) / ARC_LENGTH_TABLE_INTERVALS;
+        double upper = (index + 1.0) / ARC_LENGTH_TABLE_INTERVALS;
+        if (MathUtils.epsilonEquals(intervalLength, 0.0)) {
+            return lower;
+        }
+
+        // Linearly interpolate inside of the interval for an initial guess
+        double t = MathUtils.lerp(lower, upper, (distance - startDistance) / intervalLength);
+
+        // Refine the guess using Newton's method. The derivative of the distance w.r.t. t is the magnitude of the
+        // spline's first derivative. If a step would leave the interval we know the answer is in (which can happen
+        // near cusps), bisect instead.
+        //
+        // The intervals are short enough that a single Gauss-Legendre step is as accurate as the adaptive integration
+        // used to build the table.
+        for (int i = 0; i < MAX_NEWTON_ITERATIONS; i++) {
+            double error = startDistance + gaussLegendreLength(lower, t) - distance;
+            if (Math.abs(error) < DISTANCE_TOLERANCE) {
+                break;
+            }
+
+            if (error > 0.0) {
+                upper = t;
+            } else {
+                lower = t;
+            }
+
+            double derivative = spline.getDerivativeMagnitude(t);
+            double next = t - error / derivative;
+            if (!(next > lower && next < upper)) {
+                next = 0.5 * (lower + upper);
+            }
+
+            // The integral is now calculated from the new lower bound
+            if (error < 0.0) {
+                startDistance = distance + error;
+            }
+            t = next;
+        }
+
+        return t;
     }
 
     @Override
     public State calculate(double distance) {
-        double t = distance / getLength();
+        double t = getT(distance);
 
         return new State(
                 spline.getPoint(t),
@@ -27,17 +189,6 @@ public final class SplinePathSegment extends PathSegment {
 
     @Override
     public double getLength() {
-        if (!Double.isFinite(length)) {
-            length = 0.0;
-            Vector2 p0 = spline.getPoint(0.0);
-            for (double t = LENGTH_SAMPLE_STEP; t <= 1.0; t += LENGTH_SAMPLE_STEP) {
-                Vector2 p1 = spline.getPoint(t);
-                length += p1.subtract(p0).length;
-
-                p0 = p1;
-            }
-        }
-
         return length;
     }
 
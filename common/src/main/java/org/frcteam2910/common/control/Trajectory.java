@@ -2,53 +2,103 @@ package org.frcteam2910.common.control;
 
 import org.frcteam2910.common.math.MathUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class Trajectory {
+    /**
+     * The minimum amount of samples that are evaluated by a single task when generating a trajectory in parallel.
+     */
+    private static final int PARALLEL_SAMPLE_THRESHOLD = 1024;
+
+    /**
+     * The maximum amount of profiles a cursor will step through before falling back to a binary search.
+     */
+    private static final int MAX_CURSOR_STEPS = 16;
+
     private final Path path;
 
     private final double duration;
 
-    private List<ConstrainedPathState> constrainedPathStates = new ArrayList<>();
-    private double[] pathStateStartTimes;
+    // The trajectory is made up of many short constant acceleration profiles. Each profile is stored as an index into
+    // these arrays instead of as an object so long trajectories do not create hundreds of thousands of objects.
+    private final double[] profileStartDistances;
+    private final double[] profileLengths;
+    private final double[] profileStartingVelocities;
+    private final double[] profileAccelerations;
+    private final double[] profileStartTimes;
 
     public Trajectory(Path path, TrajectoryConstraint[] trajectoryConstraints, double sampleDistance) {
+        this(path, trajectoryConstraints, sampleDistance, null);
+    }
+
+    /**
+     * Creates a trajectory, evaluating the path and the velocity constraints at every sample using a fork/join pool.
+     * <p>
+     * Evaluating the path and constraints is the most expensive part of generating a trajectory and every sample can be
+     * evaluated independently. Once every sample has been evaluated the forward and backward passes are ran on the
+     * calling thread. The generated trajectory is identical to one generated without a pool.
+     *
+     * @param path                  the path to follow
+     * @param trajectoryConstraints the constraints the trajectory must obey
+     * @param sampleDistance        the distance between each sample
+     * @param pool                  the pool to evaluate samples in. If null, samples are evaluated on the calling
+     *                              thread.
+     */
+    public Trajectory(Path path, TrajectoryConstraint[] trajectoryConstraints, double sampleDistance, ForkJoinPool pool) {
         this.path = path;
 
+        // Calculate the distances of every sample up front. This is done serially so the distances are exactly the
+        // same no matter how the samples are evaluated.
+        double[] sampleDistances = new double[(int) Math.ceil(path.getLength() / sampleDistance) + 2];
+        double[] sampleLengths = new double[sampleDistances.length];
+        int sampleCount = 1;
         double distance = 0.0;
-        ConstrainedPathState lastState = new ConstrainedPathState(
-                path.calculate(distance),
-                0.0,
-                0.0,
-                0.0, // Trajectory starting velocity
-                0.0
-        );
         while (distance < path.getLength()) {
-            Path.State startingState = path.calculate(distance);
-
             double profileLength = sampleDistance;
             if (distance + sampleDistance > path.getLength()) {
                 profileLength = path.getLength() - distance;
             }
 
-            Path.State endingState = path.calculate(distance + profileLength);
+            if (sampleCount == sampleDistances.length) {
+                sampleDistances = Arrays.copyOf(sampleDistances, sampleDistances.length * 2);
+                sampleLengths = Arrays.copyOf(sampleLengths, sampleLengths.length * 2);
+            }
+            sampleLengths[sampleCount - 1] = profileLength;
+            sampleDistances[sampleCount++] = distance + profileLength;
+
+            distance += profileLength;
+        }
 
-            double startingVelocity = lastState.endingVelocity;
+        // Only the maximum velocity of each sample is kept. Keeping the path state of every sample would create one
+        // object per sample, so the states are recalculated with a cursor in the passes that need them.
+        double[] sampleMaxVelocities = new double[sampleCount];
+        SampleTask sampleTask = new SampleTask(path, trajectoryConstraints, sampleDistances, sampleMaxVelocities, 0,
+                sampleCount);
+        if (pool == null) {
+            sampleTask.compute();
+        } else {
+            pool.invoke(sampleTask);
+        }
 
-            double maxEndingVelocity = Double.POSITIVE_INFINITY;
+        int profileCount = sampleCount - 1;
+        double[] startingVelocities = new double[profileCount];
+        double[] endingVelocities = new double[profileCount];
+        double[] accelerations = new double[profileCount];
 
-            for (TrajectoryConstraint constraint : trajectoryConstraints) {
-                maxEndingVelocity = Math.min(constraint.getMaxVelocity(endingState), maxEndingVelocity);
-            }
+        Path.Cursor pathCursor = new Path.Cursor(path);
+
+        double lastEndingVelocity = 0.0; // Trajectory starting velocity
+        for (int i = 0; i < profileCount; i++) {
+            double profileLength = sampleLengths[i];
+
+            double startingVelocity = lastEndingVelocity;
 
-            ConstrainedPathState state = new ConstrainedPathState(
-                    startingState,
-                    profileLength,
-                    startingVelocity,
-                    maxEndingVelocity,
-                    0.0
-            );
+            double maxEndingVelocity = sampleMaxVelocities[i + 1];
+
+            startingVelocities[i] = startingVelocity;
+            endingVelocities[i] = maxEndingVelocity;
 
             // If the max ending velocity is lower than the starting velocity we know that we have to decelerate
             double maxDeltaVelocity = maxEndingVelocity - startingVelocity;
@@ -57,10 +107,13 @@ public class Trajectory {
             double optimalAcceleration = Math.pow(maxDeltaVelocity, 2.0) / (2.0 * profileLength) + (startingVelocity / profileLength) * maxDeltaVelocity;
             if (MathUtils.epsilonEquals(optimalAcceleration, 0.0)) {
                 // We are neither accelerating or decelerating
-                state.acceleration = 0.0;
-                state.endingVelocity = state.startingVelocity;
+                accelerations[i] = 0.0;
+                endingVelocities[i] = startingVelocity;
             } else if (optimalAcceleration > 0.0) {
                 // We are accelerating
+                Path.State startingState = pathCursor.calculate(sampleDistances[i]);
+                Path.State endingState = pathCursor.calculate(sampleDistances[i + 1]);
+
                 double maxStartingAcceleration = Double.POSITIVE_INFINITY;
                 double maxEndingAcceleration = Double.POSITIVE_INFINITY;
                 for (TrajectoryConstraint constraint : trajectoryConstraints) {
@@ -78,141 +131,233 @@ public class Trajectory {
                 double[] roots = MathUtils.quadratic(0.5 * acceleration, startingVelocity, -profileLength);
                 double duration = Math.max(roots[0], roots[1]);
 
-                state.endingVelocity = startingVelocity + acceleration * duration;
-                state.acceleration = acceleration;
+                endingVelocities[i] = startingVelocity + acceleration * duration;
+                accelerations[i] = acceleration;
             } else {
                 // If we can decelerate before we reach the end of the profile, use that deceleration.
                 // This acceleration may not be achievable. When we go over the trajectory in reverse we will take care
                 // of this.
-                state.acceleration = optimalAcceleration;
+                accelerations[i] = optimalAcceleration;
             }
 
-            constrainedPathStates.add(state);
-            lastState = state;
-
-            distance += profileLength;
+            lastEndingVelocity = endingVelocities[i];
         }
 
-        for (int i = constrainedPathStates.size() - 1; i >= 0; i--) {
-            ConstrainedPathState constrainedState = constrainedPathStates.get(i);
-
-            constrainedState.endingVelocity = 0.0; // Trajectory ending velocity
-            if (i != constrainedPathStates.size() - 1) {
-                constrainedState.endingVelocity = constrainedPathStates.get(i + 1).startingVelocity;
+        for (int i = profileCount - 1; i >= 0; i--) {
+            endingVelocities[i] = 0.0; // Trajectory ending velocity
+            if (i != profileCount - 1) {
+                endingVelocities[i] = startingVelocities[i + 1];
             }
 
             // Check if we are decelerating
-            double deltaVelocity = constrainedState.endingVelocity - constrainedState.startingVelocity;
+            double deltaVelocity = endingVelocities[i] - startingVelocities[i];
             if (deltaVelocity < 0.0) {
                 // Use the deceleration constraint for when we decelerate
+                Path.State startingState = pathCursor.calculate(sampleDistances[i]);
                 double deceleration = Double.POSITIVE_INFINITY;
                 for (TrajectoryConstraint constraint : trajectoryConstraints) {
-                    deceleration = Math.min(deceleration, constraint.getMaxDeceleration(constrainedState.pathState, constrainedState.endingVelocity));
+                    deceleration = Math.min(deceleration, constraint.getMaxDeceleration(startingState, endingVelocities[i]));
                 }
 
                 // Find how long it takes for us to decelerate to the ending velocity
                 double decelTime = deltaVelocity / -deceleration;
 
                 // Find how far we travel while decelerating
-                double decelDist = 0.5 * deceleration * Math.pow(decelTime, 2.0) + constrainedState.endingVelocity * decelTime;
+                double decelDist = 0.5 * deceleration * Math.pow(decelTime, 2.0) + endingVelocities[i] * decelTime;
 
                 // If we travel too far we have to decrease the starting velocity
-                if (decelDist > constrainedState.length) {
+                if (decelDist > sampleLengths[i]) {
                     // We can't decelerate in time. Change the starting velocity of the segment so we can.
-                    double[] roots = MathUtils.quadratic(0.5 * deceleration, constrainedState.endingVelocity, -constrainedState.length);
+                    double[] roots = MathUtils.quadratic(0.5 * deceleration, endingVelocities[i], -sampleLengths[i]);
 
                     // Calculate the maximum time that we can decelerate
                     double maxAllowableDecelTime = Math.max(roots[0], roots[1]);
 
                     // Find what are starting velocity can be in order to end at our ending velocity
-                    constrainedState.acceleration = -deceleration;
-                    constrainedState.startingVelocity = constrainedState.endingVelocity + deceleration * maxAllowableDecelTime;
+                    accelerations[i] = -deceleration;
+                    startingVelocities[i] = endingVelocities[i] + deceleration * maxAllowableDecelTime;
                 }
             }
         }
 
-        pathStateStartTimes = new double[constrainedPathStates.size()];
+        profileStartDistances = Arrays.copyOf(sampleDistances, profileCount);
+        profileLengths = Arrays.copyOf(sampleLengths, profileCount);
+        profileStartingVelocities = startingVelocities;
+        profileAccelerations = accelerations;
+        profileStartTimes = new double[profileCount];
 
         double duration = 0.0;
-        for (int i = 0; i < constrainedPathStates.size(); i++) {
-            pathStateStartTimes[i] = duration;
-            duration += constrainedPathStates.get(i).getDuration();
+        for (int i = 0; i < profileCount; i++) {
+            profileStartTimes[i] = duration;
+            duration += getProfileDuration(profileLengths[i], startingVelocities[i], endingVelocities[i],
+                    accelerations[i]);
         }
         this.duration = duration;
     }
 
-    public State calculate(double time) {
+    /**
+     * Creates a trajectory from profiles that have already been generated. This is used to load trajectories that were
+     * generated ahead of time.
+     *
+     * @param path                      the path the trajectory follows
+     * @param duration                  the duration of the trajectory
+     * @param profileStartDistances     the distance along the path each profile starts at
+     * @param profileLengths            the length of each profile
+     * @param profileStartingVelocities the velocity at the start of each profile
+     * @param profileAccelerations      the acceleration during each profile
+     * @param profileStartTimes         the time each profile starts at
+     */
+    public Trajectory(Path path, double duration, double[] profileStartDistances, double[] profileLengths,
+                      double[] profileStartingVelocities, double[] profileAccelerations, double[] profileStartTimes) {
+        int profileCount = profileStartDistances.length;
+        if (profileCount == 0) {
+            throw new IllegalArgumentException("A trajectory must have at least one profile");
+        }
+        if (profileLengths.length != profileCount || profileStartingVelocities.length != profileCount ||
+                profileAccelerations.length != profileCount || profileStartTimes.length != profileCount) {
+            throw new IllegalArgumentException("Every profile array must be the same length");
+        }
+
+        this.path = path;
+        this.duration = duration;
+        this.profileStartDistances = profileStartDistances.clone();
+        this.profileLengths = profileLengths.clone();
+        this.profileStartingVelocities = profileStartingVelocities.clone();
+        this.profileAccelerations = profileAccelerations.clone();
+        this.profileStartTimes = profileStartTimes.clone();
+    }
+
+    private static double getProfileDuration(double length, double startingVelocity, double endingVelocity,
+                                              double acceleration) {
+        if (MathUtils.epsilonEquals(acceleration, 0.0)) {
+            return length / startingVelocity;
+        }
+
+        if (MathUtils.epsilonEquals(endingVelocity, 0.0)) {
+            return (startingVelocity / -acceleration);
+        }
+
+        double[] roots = MathUtils.quadratic(0.5 * acceleration, startingVelocity, -length);
+
+        if (acceleration > 0.0) {
+            return Math.max(roots[0], roots[1]);
+        } else {
+            return Math.min(roots[0], roots[1]);
+        }
+    }
+
+    /**
+     * Gets the time that a profile ends at.
+     */
+    private double getProfileEndTime(int profile) {
+        if (profile == profileStartTimes.length - 1) {
+            return duration;
+        }
+
+        return profileStartTimes[profile + 1];
+    }
+
+    /**
+     * Finds the profile at a time, starting the search at a profile that is likely to be close to it.
+     * <p>
+     * If the time is within a few profiles of the hint, the profiles are stepped through one at a time. Otherwise a
+     * binary search is used.
+     */
+    private int getProfileAtTime(double time, int hint) {
+        int profile = hint;
+        for (int i = 0; i < MAX_CURSOR_STEPS; i++) {
+            if (time > getProfileEndTime(profile)) {
+                if (profile == profileStartTimes.length - 1) {
+                    return profile;
+                }
+                profile++;
+            } else if (time < profileStartTimes[profile]) {
+                if (profile == 0) {
+                    return profile;
+                }
+                profile--;
+            } else {
+                return profile;
+            }
+        }
+
+        return getProfileAtTime(time);
+    }
+
+    private int getProfileAtTime(double time) {
         int start = 0;
-        int end = constrainedPathStates.size() - 1;
+        int end = profileStartTimes.length - 1;
         int mid = start + (end - start) / 2;
         while (start <= end) {
             mid = (start + end) / 2;
 
-            if (time > pathStateStartTimes[mid] + constrainedPathStates.get(mid).getDuration()) {
+            if (time > getProfileEndTime(mid)) {
                 start = mid + 1;
-            } else if (time < pathStateStartTimes[mid]) {
+            } else if (time < profileStartTimes[mid]) {
                 end = mid - 1;
             } else {
                 break;
             }
         }
 
-        ConstrainedPathState constrainedPathState = constrainedPathStates.get(mid);
-        return constrainedPathState.calculate(time - pathStateStartTimes[mid]);
+        return mid;
     }
 
-    public double getDuration() {
-        return duration;
+    private double getProfileTime(int profile, double time) {
+        return MathUtils.clamp(time - profileStartTimes[profile], 0.0,
+                getProfileEndTime(profile) - profileStartTimes[profile]);
     }
 
-    public Path getPath() {
-        return path;
+    private double getProfileDistance(int profile, double profileTime) {
+        return 0.5 * profileAccelerations[profile] * Math.pow(profileTime, 2.0) +
+                profileStartingVelocities[profile] * profileTime + profileStartDistances[profile];
     }
 
-    class ConstrainedPathState {
-        public Path.State pathState;
-        public double length;
-        public double startingVelocity;
-        public double endingVelocity;
-        public double acceleration;
+    private double getProfileVelocity(int profile, double profileTime) {
+        return profileAccelerations[profile] * profileTime + profileStartingVelocities[profile];
+    }
 
-        public ConstrainedPathState(Path.State pathState, double length, double startingVelocity, double endingVelocity, double acceleration) {
-            this.pathState = pathState;
-            this.length = length;
-            this.startingVelocity = startingVelocity;
-            this.endingVelocity = endingVelocity;
-            this.acceleration = acceleration;
-        }
+    public State calculate(double time) {
+        int profile = getProfileAtTime(time);
+        double profileTime = getProfileTime(profile, time);
 
-        public double getDuration() {
-            if (MathUtils.epsilonEquals(acceleration, 0.0)) {
-                return length / startingVelocity;
-            }
+        return new State(
+                path.calculate(getProfileDistance(profile, profileTime)),
+                getProfileVelocity(profile, profileTime),
+                profileAccelerations[profile]
+        );
+    }
 
-            if (MathUtils.epsilonEquals(endingVelocity, 0.0)) {
-                return (startingVelocity / -acceleration);
-            }
+    public double getDuration() {
+        return duration;
+    }
 
-            double[] roots = MathUtils.quadratic(0.5 * acceleration, startingVelocity, -length);
+    public int getProfileCount() {
+        return profileStartTimes.length;
+    }
 
-            if (acceleration > 0.0) {
-                return Math.max(roots[0], roots[1]);
-            } else {
-                return Math.min(roots[0], roots[1]);
-            }
-        }
+    public double getProfileStartDistance(int profile) {
+        return profileStartDistances[profile];
+    }
 
-        public State calculate(double time) {
-            time = MathUtils.clamp(time, 0.0, getDuration());
+    public double getProfileLength(int profile) {
+        return profileLengths[profile];
+    }
 
-            double distance = 0.5 * acceleration * Math.pow(time, 2.0) + startingVelocity * time + pathState.getDistance();
+    public double getProfileStartingVelocity(int profile) {
+        return profileStartingVelocities[profile];
+    }
 
-            return new State(
-                    path.calculate(distance),
-                    acceleration * time + startingVelocity,
-                    acceleration
-            );
-        }
+    public double getProfileAcceleration(int profile) {
+        return profileAccelerations[profile];
+    }
+
+    public double getProfileStartTime(int profile) {
+        return profileStartTimes[profile];
+    }
+
+    public Path getPath() {
+        return path;
     }
 
     public static class State {
@@ -238,4 +383,147 @@ public class Trajectory {
             return acceleration;
         }
     }
+
+    /**
+     * A cursor calculates states along a trajectory when the times being calculated are close to each other, which is
+     * the case when a trajectory is being followed.
+     * <p>
+     * The cursor remembers which profile the last time was in and steps from it to find the profile for the next time.
+     * This takes constant time when the times are close together. If the time is far from the last one, a binary search
+     * is used.
+     * <p>
+     * The distance, velocity and acceleration of the last time moved to are stored in the cursor so they can be read
+     * without allocating. The path state is only calculated when it is requested.
+     * <p>
+     * Cursors are not thread-safe.
+     */
+    public static final class Cursor {
+        private final Trajectory trajectory;
+        private final Path.Cursor pathCursor;
+
+        private int profile = 0;
+
+        private double distance = 0.0;
+        private double velocity = 0.0;
+        private double acceleration = 0.0;
+
+        public Cursor(Trajectory trajectory) {
+            this.trajectory = trajectory;
+            this.pathCursor = new Path.Cursor(trajectory.getPath());
+        }
+
+        public Trajectory getTrajectory() {
+            return trajectory;
+        }
+
+        /**
+         * Moves the cursor to a time along the trajectory.
+         *
+         * @param time the time since the start of the trajectory
+         */
+        public void moveTo(double time) {
+            profile = trajectory.getProfileAtTime(time, profile);
+
+            double profileTime = trajectory.getProfileTime(profile, time);
+            distance = trajectory.getProfileDistance(profile, profileTime);
+            velocity = trajectory.getProfileVelocity(profile, profileTime);
+            acceleration = trajectory.profileAccelerations[profile];
+        }
+
+        /**
+         * Moves the cursor to a time along the trajectory and calculates the state at that time.
+         *
+         * @param time the time since the start of the trajectory
+         * @return the state of the trajectory at the time
+         */
+        public State calculate(double time) {
+            moveTo(time);
+
+            return new State(getPathState(), velocity, acceleration);
+        }
+
+        /**
+         * Gets the distance along the path at the time the cursor was last moved to.
+         *
+         * @return the distance
+         */
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * Gets the velocity at the time the cursor was last moved to.
+         *
+         * @return the velocity
+         */
+        public double getVelocity() {
+            return velocity;
+        }
+
+        /**
+         * Gets the acceleration at the time the cursor was last moved to.
+         *
+         * @return the acceleration
+         */
+        public double getAcceleration() {
+            return acceleration;
+        }
+
+        /**
+         * Calculates the path state at the time the cursor was last moved to.
+         *
+         * @return the path state
+         */
+        public Path.State getPathState() {
+            return pathCursor.calculate(distance);
+        }
+    }
+
+    /**
+     * Evaluates the maximum velocity allowed by the constraints for a range of samples. The range is split into smaller
+     * tasks when ran in a fork/join pool.
+     */
+    private static final class SampleTask extends RecursiveAction {
+        private static final long serialVersionUID = 3180448317283457815L;
+
+        private final Path path;
+        private final TrajectoryConstraint[] constraints;
+        private final double[] distances;
+        private final double[] maxVelocities;
+        private final int start;
+        private final int end;
+
+        SampleTask(Path path, TrajectoryConstraint[] constraints, double[] distances, double[] maxVelocities,
+                   int start, int end) {
+            this.path = path;
+            this.constraints = constraints;
+            this.distances = distances;
+            this.maxVelocities = maxVelocities;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (getPool() != null && end - start > PARALLEL_SAMPLE_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                invokeAll(
+                        new SampleTask(path, constraints, distances, maxVelocities, start, middle),
+                        new SampleTask(path, constraints, distances, maxVelocities, middle, end)
+                );
+                return;
+            }
+
+            Path.Cursor cursor = new Path.Cursor(path);
+            for (int i = start; i < end; i++) {
+                Path.State state = cursor.calculate(distances[i]);
+
+                double maxVelocity = Double.POSITIVE_INFINITY;
+                for (TrajectoryConstraint constraint : constraints) {
+                    maxVelocity = Math.min(constraint.getMaxVelocity(state), maxVelocity);
+                }
+                maxVelocities[i] = maxVelocity;
+            }
+        }
+    }
 }
@@ -2,9 +2,15 @@ package org.frcteam2910.common.drivers;
 
 import org.frcteam2910.common.math.Rotation2;
 
+/**
+ * A gyroscope.
+ * <p>
+ * The adjustment angle and inversion are volatile so they can be changed from one thread while another thread reads the
+ * angle without either of them locking.
+ */
 public abstract class Gyroscope {
-	private Rotation2 adjustmentAngle = Rotation2.ZERO;
-	private boolean inverted;
+	private volatile Rotation2 adjustmentAngle = Rotation2.ZERO;
+	private volatile boolean inverted;
 
 	public abstract void calibrate();
 
@@ -28,7 +34,18 @@ public abstract class Gyroscope {
 	public abstract double getUnadjustedRate();
 
 	public final Rotation2 getAngle() {
-		Rotation2 angle = getUnadjustedAngle().rotateBy(adjustmentAngle.inverse());
+		return adjust(getUnadjustedAngle());
+	}
+
+	/**
+	 * Applies the adjustment angle and inversion to an angle read from the gyroscope. This allows the unadjusted angle
+	 * to be recorded without reading the gyroscope twice.
+	 *
+	 * @param unadjustedAngle the angle returned by {@link #getUnadjustedAngle()}
+	 * @return the adjusted angle
+	 */
+	public final Rotation2 adjust(Rotation2 unadjustedAngle) {
+		Rotation2 angle = unadjustedAngle.rotateBy(adjustmentAngle.inverse());
 
 		if (inverted) {
 			return angle.inverse();
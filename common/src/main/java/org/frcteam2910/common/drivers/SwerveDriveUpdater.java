@@ -0,0 +1,242 @@
+package org.frcteam2910.common.drivers;
+
+import org.frcteam2910.common.kinematics.SwerveKinematics;
+import org.frcteam2910.common.kinematics.SwerveOdometry;
+import org.frcteam2910.common.math.MathUtils;
+import org.frcteam2910.common.math.MutableRotation2;
+import org.frcteam2910.common.math.MutableVector2;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.util.HolonomicDriveSignal;
+
+import java.util.Arrays;
+
+/**
+ * The steps of one update of a swerve drivebase.
+ * <p>
+ * {@link #updateOdometry(double, Rotation2)} reads every module's sensors once into a snapshot and integrates how far
+ * each module has driven since the last update with the gyroscope angle. {@link #updateModules(HolonomicDriveSignal,
+ * double)} turns a drive signal into module outputs. Field oriented translations are rotated from the field into the
+ * robot's frame as set by {@link FieldOrientedRotation}. Modules that are not moving point forwards.
+ * <p>
+ * The robot, the replay engine and the simulator all update their drivebase through this class so they stay the
+ * same. Like odometry, it is not thread-safe and should only be used by the thread updating the drivebase.
+ */
+public final class SwerveDriveUpdater {
+    /**
+     * How field oriented translations are rotated into the robot's frame.
+     */
+    public enum FieldOrientedRotation {
+        /**
+         * Rotates by the inverse of the pose's rotation, undoing the rotation odometry applies to the movement of the
+         * robot.
+         */
+        INVERSE_HEADING,
+        /**
+         * Rotates by the pose's rotation. This is for robots whose module layout or gyroscope flips the sense of
+         * rotation relative to odometry.
+         */
+        HEADING
+    }
+
+    private static final double MAX_MODULE_OUTPUT = 1.0;
+
+    private final SwerveModule[] modules;
+    private final SwerveKinematics kinematics;
+    private final SwerveOdometry odometry;
+    private final FieldOrientedRotation fieldOrientedRotation;
+
+    // Reused every update to avoid allocating
+    private final SwerveModuleSnapshot[] moduleSnapshots;
+    private final double[] previousModuleDistances;
+    private final double[] moduleDisplacements;
+    private final double[] moduleVelocities;
+    private final double[] moduleOutputs;
+    private final double[] chassisVelocity = new double[3];
+    private final MutableVector2 translation = new MutableVector2();
+    private final MutableRotation2 fieldToRobot = new MutableRotation2();
+
+    private RigidTransform2 pose;
+
+    /**
+     * Creates an updater that rotates field oriented translations with
+     * {@link FieldOrientedRotation#INVERSE_HEADING}.
+     *
+     * @param integrationMethod how the odometry integrates the movement of the robot
+     * @param initialPose       the pose of the robot before the first update
+     * @param modules           the modules of the drivebase
+     */
+    public SwerveDriveUpdater(SwerveOdometry.IntegrationMethod integrationMethod, RigidTransform2 initialPose,
+                              SwerveModule... modules) {
+        this(integrationMethod, FieldOrientedRotation.INVERSE_HEADING, initialPose, modules);
+    }
+
+    /**
+     * @param integrationMethod     how the odometry integrates the movement of the robot
+     * @param fieldOrientedRotation how field oriented translations are rotated into the robot's frame
+     * @param initialPose           the pose of the robot before the first update
+     * @param modules               the modules of the drivebase
+     */
+    public SwerveDriveUpdater(SwerveOdometry.IntegrationMethod integrationMethod,
+                              FieldOrientedRotation fieldOrientedRotation, RigidTransform2 initialPose,
+                              SwerveModule... modules) {
+        if (modules.length < 1) {
+            throw new IllegalArgumentException("A drivebase needs at least one module");
+        }
+
+        this.modules = modules.clone();
+        this.fieldOrientedRotation = fieldOrientedRotation;
+
+        Vector2[] modulePositions = new Vector2[modules.length];
+        moduleSnapshots = new SwerveModuleSnapshot[modules.length];
+        for (int i = 0; i < modules.length; i++) {
+            modulePositions[i] = modules[i].getModulePosition();
+            moduleSnapshots[i] = new SwerveModuleSnapshot();
+        }
+        kinematics = new SwerveKinematics(modulePositions);
+        odometry = new SwerveOdometry(kinematics, initialPose, integrationMethod);
+        pose = initialPose;
+
+        previousModuleDistances = new double[modules.length];
+        Arrays.fill(previousModuleDistances, Double.NaN);
+        moduleDisplacements = new double[modules.length * 2];
+        moduleVelocities = new double[modules.length * 2];
+        moduleOutputs = new double[modules.length * 2];
+    }
+
+    public int getModuleCount() {
+        return modules.length;
+    }
+
+    public FieldOrientedRotation getFieldOrientedRotation() {
+        return fieldOrientedRotation;
+    }
+
+    public SwerveKinematics getKinematics() {
+        return kinematics;
+    }
+
+    /**
+     * Gets the sensor readings of a module from the most recent update.
+     *
+     * @param module the index of the module
+     * @return the module's snapshot. It is overwritten by the next update.
+     */
+    public SwerveModuleSnapshot getModuleSnapshot(int module) {
+        return moduleSnapshots[module];
+    }
+
+    public RigidTransform2 getPose() {
+        return pose;
+    }
+
+    /**
+     * Resets the pose of the robot.
+     *
+     * @param pose the new pose of the robot
+     */
+    public void resetPose(RigidTransform2 pose) {
+        odometry.resetPose(pose);
+        this.pose = pose;
+    }
+
+    /**
+     * Resets the rotation of the robot. This should be called before the next update when the gyroscope is reset so
+     * the change in its angle is not integrated as a rotation of the robot.
+     *
+     * @param rotation the new rotation of the robot
+     */
+    public void resetRotation(Rotation2 rotation) {
+        odometry.resetRotation(rotation);
+        pose = odometry.getPose();
+    }
+
+    /**
+     * Reads the sensors of every module and updates the pose.
+     *
+     * @param timestamp the time of the update in seconds
+     * @param gyroAngle the adjusted angle of the gyroscope
+     * @return the new pose of the robot
+     */
+    public RigidTransform2 updateOdometry(double timestamp, Rotation2 gyroAngle) {
+        for (int i = 0; i < modules.length; i++) {
+            // Read every sensor on the module once, everything else this update uses the snapshot
+            SwerveModule module = modules[i];
+            module.updateSensors(timestamp);
+            SwerveModuleSnapshot snapshot = module.getSnapshot(moduleSnapshots[i]);
+
+            // Use how far each module has driven since the last update instead of velocity * dt
+            double distance = snapshot.getDistance();
+            double deltaDistance = Double.isNaN(previousModuleDistances[i]) ? 0.0 : distance - previousModuleDistances[i];
+            previousModuleDistances[i] = distance;
+
+            double angle = snapshot.getAngle();
+            double cos = Math.cos(angle);
+            double sin = Math.sin(angle);
+            moduleDisplacements[i * 2] = cos * deltaDistance;
+            moduleDisplacements[i * 2 + 1] = sin * deltaDistance;
+            moduleVelocities[i * 2] = cos * snapshot.getVelocity();
+            moduleVelocities[i * 2 + 1] = sin * snapshot.getVelocity();
+        }
+
+        pose = odometry.updateFromDistances(gyroAngle, moduleDisplacements);
+        kinematics.toChassisVelocity(moduleVelocities, chassisVelocity);
+
+        return pose;
+    }
+
+    /**
+     * Gets the velocity of the robot measured by the modules in the most recent update.
+     *
+     * @return the velocity relative to the field
+     */
+    public Vector2 getVelocity() {
+        return translation.set(chassisVelocity[0], chassisVelocity[1]).rotateBy(pose.rotation).toVector2();
+    }
+
+    /**
+     * Gets the angular velocity of the robot measured by the modules in the most recent update.
+     *
+     * @return the angular velocity in radians per second
+     */
+    public double getAngularVelocity() {
+        return chassisVelocity[2];
+    }
+
+    /**
+     * Turns a drive signal into module outputs and updates the modules.
+     *
+     * @param signal the drive signal or null to stop
+     * @param dt     the time since the last update
+     */
+    public void updateModules(HolonomicDriveSignal signal, double dt) {
+        translation.set(0.0, 0.0);
+        double rotation = 0.0;
+        if (signal != null) {
+            translation.set(signal.getTranslation());
+            if (signal.isFieldOriented()) {
+                if (fieldOrientedRotation == FieldOrientedRotation.HEADING) {
+                    translation.rotateBy(pose.rotation);
+                } else {
+                    translation.rotateBy(fieldToRobot.set(pose.rotation).inverse());
+                }
+            }
+
+            rotation = signal.getRotation();
+        }
+
+        kinematics.toModuleVelocities(translation.getX(), translation.getY(), rotation, moduleOutputs);
+        SwerveKinematics.normalizeModuleVelocities(moduleOutputs, MAX_MODULE_OUTPUT);
+
+        for (int i = 0; i < modules.length; i++) {
+            double moduleX = moduleOutputs[i * 2];
+            double moduleY = moduleOutputs[i * 2 + 1];
+            double speed = Math.sqrt(moduleX * moduleX + moduleY * moduleY);
+
+            // Point the module forwards when it is not moving, the same as setTargetVelocity(Vector2) does
+            modules[i].setTargetVelocity(speed, speed > MathUtils.EPSILON ? Math.atan2(moduleY, moduleX) : 0.0);
+            modules[i].updateState(dt);
+        }
+    }
+}
@@ -3,19 +3,31 @@ package org.frcteam2910.common.drivers;
 import org.frcteam2910.common.math.Rotation2;
 import org.frcteam2910.common.math.Vector2;
 
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A swerve module.
+ * <p>
+ * State is shared between threads without locks so the update thread and the threads reading the module never wait on
+ * each other. The sensor readings are written by one thread in {@link #updateSensors(double)} and published with a
+ * sequence lock, the target velocity is an immutable object behind a volatile reference and the position is updated
+ * with compare-and-set.
+ */
 public abstract class SwerveModule {
     private final Vector2 modulePosition;
 
-    private final Object sensorMutex = new Object();
-    private double currentAngle = 0.0;
-    private double currentDistance = 0.0;
+    /**
+     * The sequence number of the sensor snapshot. It is odd while the snapshot is being written. Readers retry if it
+     * changed while they were reading.
+     */
+    private volatile long sensorSequence = 0;
+    private final SwerveModuleSnapshot snapshot = new SwerveModuleSnapshot();
 
-    private final Object stateMutex = new Object();
-    private double targetSpeed = 0.0;
-    private double targetAngle = 0.0;
+    private volatile TargetState targetState = new TargetState(0.0, 0.0);
 
-    private final Object kinematicsMutex = new Object();
-    private Vector2 currentPosition = Vector2.ZERO;
+    private final AtomicReference<Vector2> currentPosition = new AtomicReference<>(Vector2.ZERO);
+    // Only used by the thread calling updateKinematics()
     private double previousDistance;
 
     private String name = "Unknown";
@@ -58,6 +70,25 @@ public abstract class SwerveModule {
      */
     protected abstract double readDistance();
 
+    /**
+     * Reads the velocity of the module wheel. Modules that can't measure their velocity don't need to override this.
+     *
+     * @return the velocity of the module in inches per second or 0 if it can't be measured
+     */
+    protected double readVelocity() {
+        return 0.0;
+    }
+
+    /**
+     * Reads the amount of current being drawn by the drive motor. Modules that can't measure their current draw don't
+     * need to override this.
+     *
+     * @return the current drawn by the drive motor in amps or 0 if it can't be measured
+     */
+    protected double readDriveCurrent() {
+        return 0.0;
+    }
+
     /**
      * Sets the target angle.
      *
@@ -87,9 +118,14 @@ public abstract class SwerveModule {
      * @return The current angle of the module.
      */
     public final double getCurrentAngle() {
-        synchronized (sensorMutex) {
-            return currentAngle;
-        }
+        long sequence;
+        double value;
+        do {
+            sequence = beginSensorRead();
+            value = snapshot.getAngle();
+        } while (!endSensorRead(sequence));
+
+        return value;
     }
 
     /**
@@ -98,41 +134,97 @@ public abstract class SwerveModule {
      * @return the distance driven
      */
     public final double getCurrentDistance() {
-        synchronized (sensorMutex) {
-            return currentDistance;
-        }
+        long sequence;
+        double value;
+        do {
+            sequence = beginSensorRead();
+            value = snapshot.getDistance();
+        } while (!endSensorRead(sequence));
+
+        return value;
     }
 
     /**
      * Gets the current velocity of the wheel.
      *
-     * TODO: Allow implementors to specify the current velocity without overriding this method.
      * @return the velocity of the module.
+     * @see #readVelocity()
      */
     public double getCurrentVelocity() {
-        return 0;
+        long sequence;
+        double value;
+        do {
+            sequence = beginSensorRead();
+            value = snapshot.getVelocity();
+        } while (!endSensorRead(sequence));
+
+        return value;
     }
 
     /**
      * Gets the amount of current being drawn by the drive motor.
      *
-     * TODO: Allow implementors to specify current draw without overriding this method.
      * @return the amount of current being drawn by the drive motor.
+     * @see #readDriveCurrent()
      */
     public double getDriveCurrent() {
-        return 0;
+        long sequence;
+        double value;
+        do {
+            sequence = beginSensorRead();
+            value = snapshot.getDriveCurrent();
+        } while (!endSensorRead(sequence));
+
+        return value;
     }
 
-    public Vector2 getTargetVelocity() {
-        double targetAngle;
-        double targetSpeed;
+    /**
+     * Copies the sensor readings from the last call to {@link #updateSensors(double)}. All of the readings are from the
+     * same update.
+     *
+     * @param out the snapshot to copy the readings into
+     * @return the snapshot
+     */
+    public final SwerveModuleSnapshot getSnapshot(SwerveModuleSnapshot out) {
+        long sequence;
+        do {
+            sequence = beginSensorRead();
+            out.set(snapshot);
+        } while (!endSensorRead(sequence));
+
+        return out;
+    }
 
-        synchronized (stateMutex) {
-            targetAngle = this.targetAngle;
-            targetSpeed = this.targetSpeed;
+    /**
+     * Waits until the sensor snapshot is not being written.
+     *
+     * @return the sequence number to pass to {@link #endSensorRead(long)}
+     */
+    private long beginSensorRead() {
+        long sequence;
+        while (((sequence = sensorSequence) & 1) != 0) {
+            Thread.onSpinWait();
         }
 
-        return Vector2.fromAngle(Rotation2.fromRadians(targetAngle)).scale(targetSpeed);
+        return sequence;
+    }
+
+    /**
+     * Checks that the sensor snapshot was not written while it was being read.
+     *
+     * @param sequence the sequence number from {@link #beginSensorRead()}
+     * @return true if the values that were read are consistent
+     */
+    private boolean endSensorRead(long sequence) {
+        // Make sure the snapshot is read before the sequence number is checked again
+        VarHandle.loadLoadFence();
+        return sensorSequence == sequence;
+    }
+
+    public Vector2 getTargetVelocity() {
+        TargetState targetState = this.targetState;
+
+        return Vector2.fromAngle(Rotation2.fromRadians(targetState.angle)).scale(targetState.speed);
     }
 
     /**
@@ -141,10 +233,7 @@ public abstract class SwerveModule {
      * @param velocity the target velocity
      */
     public final void setTargetVelocity(Vector2 velocity) {
-        synchronized (stateMutex) {
-            targetSpeed = velocity.length;
-            targetAngle = velocity.getAngle().toRadians();
-        }
+        targetState = new TargetState(velocity.length, velocity.getAngle().toRadians());
     }
 
     public final void setTargetVelocity(double speed, double angle) {
@@ -159,10 +248,7 @@ public abstract class SwerveModule {
             angle += 2.0 * Math.PI;
         }
 
-        synchronized (stateMutex) {
-            targetSpeed = speed;
-            targetAngle = angle;
-        }
+        targetState = new TargetState(speed, angle);
     }
 
     /**
@@ -171,9 +257,7 @@ public abstract class SwerveModule {
      * @return the current position
      */
     public final Vector2 getCurrentPosition() {
-        synchronized (kinematicsMutex) {
-            return currentPosition;
-        }
+        return currentPosition.get();
     }
 
     /**
@@ -189,19 +273,39 @@ public abstract class SwerveModule {
      * @param position the position to reset to
      */
     public void resetKinematics(Vector2 position) {
-        synchronized (kinematicsMutex) {
-            currentPosition = position;
-        }
+        currentPosition.set(position);
     }
 
     /**
-     * Updates the sensor readings that the module uses.
+     * Updates the sensor readings that the module uses without recording when they were read.
+     *
+     * @see #updateSensors(double)
      */
     public void updateSensors() {
-        synchronized (sensorMutex) {
-            currentAngle = readAngle();
-            currentDistance = readDistance();
-        }
+        updateSensors(Double.NaN);
+    }
+
+    /**
+     * Reads every sensor of the module once and stores the readings in the module's snapshot.
+     * <p>
+     * This should be called once per update before anything uses the module's readings. It must only be called from
+     * one thread at a time. The sensors are read before the snapshot is written so other threads reading the snapshot
+     * only retry while the values are being copied.
+     *
+     * @param timestamp the time the sensors are being read at
+     */
+    public void updateSensors(double timestamp) {
+        double angle = readAngle();
+        double distance = readDistance();
+        double velocity = readVelocity();
+        double driveCurrent = readDriveCurrent();
+
+        long sequence = sensorSequence;
+        sensorSequence = sequence + 1;
+        // Make sure the sequence number is odd before any of the snapshot is written
+        VarHandle.storeStoreFence();
+        snapshot.set(timestamp, angle, distance, velocity, driveCurrent);
+        sensorSequence = sequence + 2;
     }
 
     /**
@@ -216,10 +320,12 @@ public abstract class SwerveModule {
 
         Vector2 deltaPosition = Vector2.fromAngle(Rotation2.fromRadians(currentAngle)).scale(deltaDistance);
 
-        synchronized (kinematicsMutex) {
-            currentPosition = currentPosition.add(deltaPosition);
-            previousDistance = currentDistance;
-        }
+        // Retry if the position was reset while it was being updated
+        Vector2 position;
+        do {
+            position = currentPosition.get();
+        } while (!currentPosition.compareAndSet(position, position.add(deltaPosition)));
+        previousDistance = currentDistance;
     }
 
     /**
@@ -228,13 +334,9 @@ public abstract class SwerveModule {
      * @param dt update loop delta time
      */
     public void updateState(double dt) {
-        double targetAngle;
-        double targetSpeed;
-
-        synchronized (stateMutex) {
-            targetAngle = this.targetAngle;
-            targetSpeed = this.targetSpeed;
-        }
+        TargetState targetState = this.targetState;
+        double targetAngle = targetState.angle;
+        double targetSpeed = targetState.speed;
 
         final double currentAngle = getCurrentAngle();
 
@@ -265,4 +367,17 @@ public abstract class SwerveModule {
         setTargetAngle(targetAngle);
         setDriveOutput(targetSpeed);
     }
+
+    /**
+     * The target speed and angle of the module. It is immutable so both are always read together.
+     */
+    private static final class TargetState {
+        final double speed;
+        final double angle;
+
+        TargetState(double speed, double angle) {
+            this.speed = speed;
+            this.angle = angle;
+        }
+    }
 }
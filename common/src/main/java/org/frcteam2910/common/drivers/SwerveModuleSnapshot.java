@@ -0,0 +1,79 @@
+package org.frcteam2910.common.drivers;
+
+import java.text.DecimalFormat;
+
+/**
+ * The sensor readings of a swerve module at one point in time.
+ * <p>
+ * A module reads its sensors once per update into a snapshot (see {@link SwerveModule#updateSensors(double)}) and
+ * everything that needs the readings copies them with {@link SwerveModule#getSnapshot(SwerveModuleSnapshot)}. This
+ * way the sensors are only read once per update and odometry, control and telemetry all see the same values.
+ * <p>
+ * Snapshots are mutable so they can be reused every update and are not thread-safe.
+ */
+public final class SwerveModuleSnapshot {
+    private double timestamp = Double.NaN;
+    private double angle = 0.0;
+    private double distance = 0.0;
+    private double velocity = 0.0;
+    private double driveCurrent = 0.0;
+
+    /**
+     * Gets the time the sensors were read at.
+     *
+     * @return the timestamp in seconds or NaN if it is unknown
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the angle of the module in radians, in the range [0, 2&pi;)
+     */
+    public double getAngle() {
+        return angle;
+    }
+
+    /**
+     * @return the distance the module has driven
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the velocity of the module's wheel
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * @return the current drawn by the drive motor in amps
+     */
+    public double getDriveCurrent() {
+        return driveCurrent;
+    }
+
+    public SwerveModuleSnapshot set(double timestamp, double angle, double distance, double velocity,
+                                    double driveCurrent) {
+        this.timestamp = timestamp;
+        this.angle = angle;
+        this.distance = distance;
+        this.velocity = velocity;
+        this.driveCurrent = driveCurrent;
+        return this;
+    }
+
+    public SwerveModuleSnapshot set(SwerveModuleSnapshot other) {
+        return set(other.timestamp, other.angle, other.distance, other.velocity, other.driveCurrent);
+    }
+
+    @Override
+    public String toString() {
+        DecimalFormat fmt = new DecimalFormat("#0.000");
+        return "{t: " + fmt.format(timestamp) + ", angle: " + fmt.format(Math.toDegrees(angle)) + '\u00b0' +
+                ", distance: " + fmt.format(distance) + ", velocity: " + fmt.format(velocity) +
+                ", current: " + fmt.format(driveCurrent) + '}';
+    }
+}
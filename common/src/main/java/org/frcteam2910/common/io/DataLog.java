@@ -0,0 +1,530 @@
+package org.frcteam2910.common.io;
+
+import org.frcteam2910.common.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Records timestamped values of signals to binary files at a high rate.
+ * <p>
+ * Signals are added once with a name and a type and are given a numeric id. Every value is appended as a fixed width
+ * record to a segment file that is mapped into memory, so appending a value is a few stores into memory and never
+ * waits on the disk. When a segment is full the log rolls over to a new segment. Only the newest segments are kept if
+ * a maximum amount of segments is set.
+ * <p>
+ * Rolling over never waits on the file system either. A background thread creates and maps the next segment while the
+ * current one is being filled, and truncates, closes and deletes old segments after the log has moved on. Because of
+ * this the next segment's file exists, empty, next to the segments being kept.
+ * <p>
+ * The files of a log named <code>name</code> are:
+ * <ul>
+ * <li><code>name.signals</code>, a text file with a <code>id,type,name</code> line for every signal</li>
+ * <li><code>name-0000.dlog</code>, <code>name-0001.dlog</code>, ... the segments in the order they were written</li>
+ * </ul>
+ * All values in a segment are stored in big-endian byte order. Every segment starts with a {@value #HEADER_SIZE} byte
+ * header:
+ * <pre>
+ * int    magic number ({@code 'DLOG'})
+ * int    format version
+ * int    record size
+ * int    segment index
+ * </pre>
+ * The header is followed by {@value #RECORD_SIZE} byte records:
+ * <pre>
+ * double timestamp
+ * int    signal id
+ * int    signal type
+ * long   value
+ * </pre>
+ * Signal ids start at 1. A record with a signal id of 0 marks the end of a segment that was not closed.
+ * <p>
+ * Data logs are not thread-safe. All signals of a log should be appended to from one thread, usually the thread
+ * updating the robot.
+ *
+ * @see DataLogReader
+ */
+public final class DataLog implements Closeable {
+    private static final Logger LOGGER = new Logger(DataLog.class);
+
+    static final int MAGIC = 0x444C4F47;
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 24;
+
+    static final String SIGNALS_SUFFIX = ".signals";
+    static final String SEGMENT_SUFFIX = ".dlog";
+
+    /**
+     * The default size of a segment. A segment this size holds about 700,000 records, around ten seconds of 300 signals
+     * at 200 Hz.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 16L * 1024 * 1024;
+
+    private final Path directory;
+    private final String name;
+    private final long segmentSize;
+    private final int maxSegments;
+
+    private final Writer signalsWriter;
+    private final List<Signal> signals = new ArrayList<>();
+
+    private final ExecutorService fileExecutor;
+    // The segment after the current one, created by the file executor
+    private CompletableFuture<Segment> nextSegment;
+
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int position;
+
+    private long recordCount = 0;
+    private boolean open = true;
+
+    /**
+     * Creates a log that keeps every segment.
+     *
+     * @param directory the directory to write the log's files to
+     * @param name      the name of the log's files
+     * @throws IOException if the log's files could not be created
+     */
+    public DataLog(Path directory, String name) throws IOException {
+        this(directory, name, DEFAULT_SEGMENT_SIZE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param directory   the directory to write the log's files to
+     * @param name        the name of the log's files
+     * @param segmentSize the size of each segment in bytes
+     * @param maxSegments the amount of segments to keep. The oldest segment is deleted when a new segment would
+     *                    exceed this.
+     * @throws IOException if the log's files could not be created
+     */
+    public DataLog(Path directory, String name, long segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The segment size must fit the header and a record and be less than 2 GB");
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("The maximum amount of segments must be positive");
+        }
+
+        this.directory = directory;
+        this.name = name;
+        // Segments only hold whole records
+        this.segmentSize = HEADER_SIZE + (segmentSize - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        this.maxSegments = maxSegments;
+
+        Files.createDirectories(directory);
+        // Remove the segments of an earlier log with the same name so they aren't read as part of this one
+        for (Path file : findSegmentFiles(directory, name)) {
+            Files.delete(file);
+        }
+        signalsWriter = Files.newBufferedWriter(directory.resolve(name + SIGNALS_SUFFIX), StandardCharsets.UTF_8);
+        Segment firstSegment;
+        try {
+            firstSegment = createSegment(0);
+        } catch (IOException e) {
+            signalsWriter.close();
+            throw e;
+        }
+
+        fileExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DataLog-" + name);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        useSegment(firstSegment);
+    }
+
+    static Path getSegmentFile(Path directory, String name, int index) {
+        return directory.resolve(String.format("%s-%04d%s", name, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Finds the segments of a log that exist.
+     *
+     * @return the segment files in the order they were written
+     */
+    static List<Path> findSegmentFiles(Path directory, String name) throws IOException {
+        String prefix = name + "-";
+        SortedMap<Integer, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                String index = fileName.substring(prefix.length(), fileName.length() - SEGMENT_SUFFIX.length());
+                if (!index.isEmpty() && index.chars().allMatch(Character::isDigit)) {
+                    files.put(Integer.parseInt(index), file);
+                }
+            }
+        }
+
+        return new ArrayList<>(files.values());
+    }
+
+    /**
+     * Deletes the oldest logs in a directory whose names start with a prefix until the rest fit in a size budget.
+     * <p>
+     * The maximum amount of segments only limits the size of one log. A program that creates a log with a new name
+     * every time it runs should call this before creating its log so the logs of earlier runs don't fill the disk.
+     * Logs are ordered by when their signals file was last modified and the newest logs that fit are kept.
+     *
+     * @param directory  the directory the logs are in
+     * @param namePrefix the prefix of the names of the logs to delete
+     * @param maxBytes   the total size in bytes the logs that are kept may take up
+     * @throws IOException if the logs could not be listed or deleted
+     */
+    public static void deleteOldLogs(Path directory, String namePrefix, long maxBytes) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        Map<Path, FileTime> signalsFiles = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, namePrefix + "*" + SIGNALS_SUFFIX)) {
+            for (Path file : stream) {
+                signalsFiles.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+
+        List<Path> newestFirst = new ArrayList<>(signalsFiles.keySet());
+        newestFirst.sort(Comparator.comparing(signalsFiles::get, Comparator.reverseOrder()));
+
+        long totalSize = 0;
+        for (Path signalsFile : newestFirst) {
+            String fileName = signalsFile.getFileName().toString();
+            List<Path> files = findSegmentFiles(directory,
+                    fileName.substring(0, fileName.length() - SIGNALS_SUFFIX.length()));
+            files.add(signalsFile);
+
+            for (Path file : files) {
+                totalSize += Files.size(file);
+            }
+            if (totalSize > maxBytes) {
+                // This log and every older log are deleted
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a signal to the log. Signals should be added before the control loop starts.
+     *
+     * @param name the name of the signal
+     * @param type the type of the signal's values
+     * @return the signal
+     * @throws IOException              if the signal could not be written to the log's signals file
+     * @throws IllegalArgumentException if there is already a signal with the same name
+     */
+    public Signal addSignal(String name, SignalType type) throws IOException {
+        for (Signal signal : signals) {
+            if (signal.name.equals(name)) {
+                throw new IllegalArgumentException("There is already a signal named " + name);
+            }
+        }
+
+        Signal signal = new Signal(signals.size() + 1, name, type);
+        signalsWriter.write(signal.id + "," + type + "," + name + "\n");
+        signalsWriter.flush();
+        signals.add(signal);
+
+        return signal;
+    }
+
+    public List<Signal> getSignals() {
+        return Collections.unmodifiableList(signals);
+    }
+
+    /**
+     * Gets the amount of records that have been appended to the log, including records in deleted segments.
+     *
+     * @return the amount of records
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getSegmentIndex() {
+        return segmentIndex;
+    }
+
+    /**
+     * Checks if values are still being recorded. A log stops recording when it is closed or a new segment could not be
+     * created.
+     *
+     * @return true if values are being recorded
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Creates a segment file, maps it and writes its header.
+     */
+    private Segment createSegment(int index) throws IOException {
+        Path file = getSegmentFile(directory, name, index);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, index);
+
+        return new Segment(index, channel, buffer);
+    }
+
+    /**
+     * Starts appending to a segment and starts creating the segment after it in the background.
+     */
+    private void useSegment(Segment next) {
+        segmentChannel = next.channel;
+        segment = next.buffer;
+        segmentIndex = next.index;
+        position = HEADER_SIZE;
+
+        int nextIndex = next.index + 1;
+        nextSegment = CompletableFuture.supplyAsync(() -> {
+            try {
+                return createSegment(nextIndex);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, fileExecutor);
+    }
+
+    /**
+     * Moves to the segment that was created in the background and hands the full segment to the background thread
+     * to be closed.
+     */
+    private void rollOver() {
+        Segment next;
+        try {
+            // Only waits if the disk could not create a segment in the time it took to fill the current one
+            next = nextSegment.join();
+        } catch (CompletionException e) {
+            LOGGER.error("Unable to roll over data log %s, no more values will be recorded", name);
+            LOGGER.error(e.getCause());
+            open = false;
+            return;
+        }
+
+        FileChannel fullChannel = segmentChannel;
+        int fullLength = position;
+        int deletedIndex = next.index - maxSegments;
+        fileExecutor.execute(() -> {
+            try {
+                closeSegment(fullChannel, fullLength);
+                if (deletedIndex >= 0) {
+                    Files.deleteIfExists(getSegmentFile(directory, name, deletedIndex));
+                }
+            } catch (IOException e) {
+                LOGGER.error("Unable to close a segment of data log %s", name);
+                LOGGER.error(e);
+            }
+        });
+
+        useSegment(next);
+    }
+
+    /**
+     * Closes a segment, truncating it to the records that were written.
+     */
+    private static void closeSegment(FileChannel channel, int length) throws IOException {
+        try {
+            channel.truncate(length);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void append(double timestamp, int id, SignalType type, long value) {
+        if (!open) {
+            return;
+        }
+
+        if (position + RECORD_SIZE > segmentSize) {
+            rollOver();
+            if (!open) {
+                return;
+            }
+        }
+
+        MappedByteBuffer segment = this.segment;
+        int position = this.position;
+        segment.putDouble(position, timestamp);
+        segment.putInt(position + 8, id);
+        segment.putInt(position + 12, type.ordinal());
+        segment.putLong(position + 16, value);
+        this.position = position + RECORD_SIZE;
+        recordCount++;
+    }
+
+    /**
+     * Writes the records to the disk. This can take a while and should not be called from the control loop.
+     */
+    public void force() {
+        if (open) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Closes the log, truncating the last segment to the records that were written. Values appended after the log is
+     * closed are ignored.
+     *
+     * @throws IOException if the files could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (segmentChannel != null) {
+                segment = null;
+                FileChannel channel = segmentChannel;
+                segmentChannel = null;
+                closeSegment(channel, position);
+            }
+        } finally {
+            open = false;
+            try {
+                discardNextSegment();
+            } finally {
+                signalsWriter.close();
+            }
+        }
+    }
+
+    /**
+     * Waits for the background thread to finish and deletes the segment it created ahead of time.
+     */
+    private void discardNextSegment() throws IOException {
+        if (nextSegment == null) {
+            return;
+        }
+
+        // The next segment is always the newest task so every segment closed before it is closed too
+        Segment next = nextSegment.handle((segment, e) -> segment).join();
+        nextSegment = null;
+        fileExecutor.shutdown();
+
+        if (next != null) {
+            next.channel.close();
+            Files.deleteIfExists(getSegmentFile(directory, name, next.index));
+        }
+    }
+
+    private static final class Segment {
+        private final int index;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(int index, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    public enum SignalType {
+        DOUBLE,
+        LONG,
+        BOOLEAN
+    }
+
+    /**
+     * A signal in a data log. Values are appended to the log through the signal.
+     */
+    public final class Signal {
+        private final int id;
+        private final String name;
+        private final SignalType type;
+
+        private Signal(int id, String name, SignalType type) {
+            this.id = id;
+            this.name = name;
+            this.type = type;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public SignalType getType() {
+            return type;
+        }
+
+        /**
+         * Appends a value of a {@link SignalType#DOUBLE} signal.
+         *
+         * @param timestamp the time of the value in seconds
+         * @param value     the value
+         */
+        public void append(double timestamp, double value) {
+            checkType(SignalType.DOUBLE);
+            DataLog.this.append(timestamp, id, type, Double.doubleToRawLongBits(value));
+        }
+
+        /**
+         * Appends a value of a {@link SignalType#LONG} signal.
+         *
+         * @param timestamp the time of the value in seconds
+         * @param value     the value
+         */
+        public void append(double timestamp, long value) {
+            checkType(SignalType.LONG);
+            DataLog.this.append(timestamp, id, type, value);
+        }
+
+        /**
+         * Appends a value of a {@link SignalType#BOOLEAN} signal.
+         *
+         * @param timestamp the time of the value in seconds
+         * @param value     the value
+         */
+        public void append(double timestamp, boolean value) {
+            checkType(SignalType.BOOLEAN);
+            DataLog.this.append(timestamp, id, type, value ? 1 : 0);
+        }
+
+        private void checkType(SignalType expected) {
+            if (type != expected) {
+                throw new IllegalStateException("Signal " + name + " is a " + type + " signal, not " + expected);
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.frcteam2910.common.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the records of a log written by {@link DataLog}.
+ * <p>
+ * The segments that still exist are read in the order they were written. A segment that was not closed, for example
+ * because the robot lost power, is read up to the last record that was written. The last segment is ignored if its
+ * header was never written because the log was still creating it.
+ */
+public final class DataLogReader implements Closeable {
+    private final List<Signal> signals = new ArrayList<>();
+    private final Map<Integer, Signal> signalsById = new HashMap<>();
+    private final Map<String, Signal> signalsByName = new HashMap<>();
+
+    private final List<Path> segmentFiles;
+    private int nextSegment = 0;
+
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+
+    /**
+     * @param directory the directory the log's files are in
+     * @param name      the name of the log's files
+     * @throws IOException if the log's signals file could not be read
+     */
+    public DataLogReader(Path directory, String name) throws IOException {
+        for (String line : Files.readAllLines(directory.resolve(name + DataLog.SIGNALS_SUFFIX), StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] parts = line.split(",", 3);
+            if (parts.length != 3) {
+                throw new IOException("Invalid signal definition: " + line);
+            }
+
+            Signal signal;
+            try {
+                signal = new Signal(Integer.parseInt(parts[0]), parts[2], DataLog.SignalType.valueOf(parts[1]));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid signal definition: " + line, e);
+            }
+            signals.add(signal);
+            signalsById.put(signal.id, signal);
+            signalsByName.put(signal.name, signal);
+        }
+
+        // Older segments may have been deleted so find the segments that are left
+        segmentFiles = DataLog.findSegmentFiles(directory, name);
+    }
+
+    public List<Signal> getSignals() {
+        return Collections.unmodifiableList(signals);
+    }
+
+    /**
+     * Gets a signal by its name.
+     *
+     * @param name the name of the signal
+     * @return the signal or null if there is no signal with the name
+     */
+    public Signal getSignal(String name) {
+        return signalsByName.get(name);
+    }
+
+    /**
+     * Gets a signal by its id.
+     *
+     * @param id the id of the signal
+     * @return the signal or null if there is no signal with the id
+     */
+    public Signal getSignal(int id) {
+        return signalsById.get(id);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @param out the record to read into
+     * @return false if there are no more records
+     * @throws IOException if a segment could not be read or is not a valid segment
+     */
+    public boolean next(Record out) throws IOException {
+        while (true) {
+            if (segment != null && segment.remaining() >= DataLog.RECORD_SIZE) {
+                double timestamp = segment.getDouble();
+                int id = segment.getInt();
+                int type = segment.getInt();
+                long value = segment.getLong();
+
+                if (id != 0) {
+                    Signal signal = signalsById.get(id);
+                    if (signal == null || type < 0 || type >= DataLog.SignalType.values().length) {
+                        throw new IOException("Record for unknown signal " + id);
+                    }
+
+                    out.timestamp = timestamp;
+                    out.signal = signal;
+                    out.value = value;
+                    return true;
+                }
+
+                // The rest of the segment was never written
+                segment.position(segment.limit());
+            }
+
+            if (!openNextSegment()) {
+                return false;
+            }
+        }
+    }
+
+    private boolean openNextSegment() throws IOException {
+        closeSegment();
+        if (nextSegment == segmentFiles.size()) {
+            return false;
+        }
+
+        Path file = segmentFiles.get(nextSegment++);
+        segmentChannel = FileChannel.open(file, StandardOpenOption.READ);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size());
+        if (nextSegment == segmentFiles.size() && (segment.remaining() < DataLog.HEADER_SIZE || segment.getInt(0) == 0)) {
+            // The log creates its next segment ahead of time, it has nothing in it if it is still being created
+            closeSegment();
+            return false;
+        }
+        if (segment.remaining() < DataLog.HEADER_SIZE || segment.getInt() != DataLog.MAGIC) {
+            throw new IOException(file + " is not a data log segment");
+        }
+        if (segment.getInt() != DataLog.VERSION || segment.getInt() != DataLog.RECORD_SIZE) {
+            throw new IOException(file + " was written by an unsupported version");
+        }
+        segment.getInt(); // Segment index
+
+        return true;
+    }
+
+    private void closeSegment() throws IOException {
+        segment = null;
+        if (segmentChannel != null) {
+            segmentChannel.close();
+            segmentChannel = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+        nextSegment = segmentFiles.size();
+    }
+
+    /**
+     * The definition of a signal in a log.
+     */
+    public static final class Signal {
+        private final int id;
+        private final String name;
+        private final DataLog.SignalType type;
+
+        private Signal(int id, String name, DataLog.SignalType type) {
+            this.id = id;
+            this.name = name;
+            this.type = type;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataLog.SignalType getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * A record read from a log. Records are reused so they must be copied to be kept.
+     */
+    public static final class Record {
+        private double timestamp;
+        private Signal signal;
+        private long value;
+
+        public double getTimestamp() {
+            return timestamp;
+        }
+
+        public Signal getSignal() {
+            return signal;
+        }
+
+        public double getDouble() {
+            return signal.type == DataLog.SignalType.DOUBLE ? Double.longBitsToDouble(value) : value;
+        }
+
+        public long getLong() {
+            return value;
+        }
+
+        public boolean getBoolean() {
+            return value != 0;
+        }
+    }
+}
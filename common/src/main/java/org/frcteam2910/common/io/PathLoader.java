@@ -0,0 +1,108 @@
+package org.frcteam2910.common.io;
+
+import org.frcteam2910.common.control.Path;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads every path in a directory at once.
+ * <p>
+ * Paths are read concurrently so loading all of the paths an autonomous routine needs at startup takes about as long
+ * as loading the largest path.
+ */
+public final class PathLoader {
+    /**
+     * The file extension of path files.
+     */
+    public static final String PATH_EXTENSION = ".json";
+
+    private PathLoader() {
+    }
+
+    /**
+     * Loads every path in a directory and its subdirectories using the common fork/join pool.
+     *
+     * @param directory the directory to load paths from
+     * @return the paths that were loaded
+     * @throws IOException if the directory could not be searched or a path could not be read
+     * @see #loadAll(java.nio.file.Path, Executor)
+     */
+    public static Map<String, Path> loadAll(java.nio.file.Path directory) throws IOException {
+        return loadAll(directory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads every path in a directory and its subdirectories.
+     * <p>
+     * Paths are named by their location relative to the directory without the {@value #PATH_EXTENSION} extension using
+     * <code>/</code> as the separator. For example, <code>autos/left.json</code> is named <code>autos/left</code>.
+     *
+     * @param directory the directory to load paths from
+     * @param executor  the executor to read paths on
+     * @return the paths that were loaded, sorted by name
+     * @throws IOException if the directory could not be searched or a path could not be read
+     */
+    public static Map<String, Path> loadAll(java.nio.file.Path directory, Executor executor) throws IOException {
+        List<java.nio.file.Path> files;
+        try (Stream<java.nio.file.Path> stream = Files.walk(directory)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(PATH_EXTENSION))
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, CompletableFuture<Path>> futures = new TreeMap<>();
+        for (java.nio.file.Path file : files) {
+            futures.put(getName(directory, file), CompletableFuture.supplyAsync(() -> {
+                try {
+                    return read(file);
+                } catch (IOException e) {
+                    throw new CompletionException(new IOException("Unable to read path " + file, e));
+                }
+            }, executor));
+        }
+
+        Map<String, Path> paths = new TreeMap<>();
+        for (Map.Entry<String, CompletableFuture<Path>> future : futures.entrySet()) {
+            try {
+                paths.put(future.getKey(), future.getValue().join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        return paths;
+    }
+
+    private static Path read(java.nio.file.Path file) throws IOException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             PathReader reader = new PathReader(in)) {
+            return reader.read();
+        }
+    }
+
+    private static String getName(java.nio.file.Path directory, java.nio.file.Path file) {
+        StringJoiner name = new StringJoiner("/");
+        for (java.nio.file.Path part : directory.relativize(file)) {
+            name.add(part.toString());
+        }
+
+        String fileName = name.toString();
+        return fileName.substring(0, fileName.length() - PATH_EXTENSION.length());
+    }
+}
@@ -1,61 +1,173 @@
 package org.frcteam2910.common.io;
 
-import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.ejml.simple.SimpleMatrix;
 import org.frcteam2910.common.control.Path;
 import org.frcteam2910.common.control.PathSegment;
-import org.frcteam2910.common.io.json.InterpolatingDoubleJsonHandler;
-import org.frcteam2910.common.io.json.PathSegmentJsonHandler;
-import org.frcteam2910.common.io.json.Rotation2JsonHandler;
-import org.frcteam2910.common.io.json.SimpleMatrixJsonHandler;
+import org.frcteam2910.common.control.SplinePathSegment;
 import org.frcteam2910.common.math.Rotation2;
-import org.frcteam2910.common.util.InterpolatingDouble;
+import org.frcteam2910.common.math.spline.Spline;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+/**
+ * Reads paths written by a {@link PathWriter}.
+ * <p>
+ * The path is decoded while it is being read instead of building a JSON tree first and binding the tree to objects.
+ */
 public final class PathReader implements AutoCloseable {
-    private final Gson gson;
-    private final Reader in;
+    private final JsonReader in;
 
     public PathReader(Reader in) {
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(InterpolatingDouble.class, new InterpolatingDoubleJsonHandler())
-                .registerTypeHierarchyAdapter(PathSegment.class, new PathSegmentJsonHandler())
-                .registerTypeAdapter(Rotation2.class, new Rotation2JsonHandler())
-                .registerTypeAdapter(SimpleMatrix.class, new SimpleMatrixJsonHandler())
-                .create();
-        this.in = in;
+        this.in = new JsonReader(in);
     }
 
     public Path read() throws IOException {
         try {
-            JsonElement rootElement = JsonParser.parseReader(in);
-            if (!rootElement.isJsonObject()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
                 throw new IOException("Path must be a JSON object");
             }
 
-            JsonObject root = rootElement.getAsJsonObject();
-            if (!root.has("segments") || !root.has("rotations")) {
-                throw new IOException("Path is not valid");
-            }
+            PathSegment[] pathSegments = null;
+            Map<Double, Rotation2> rotations = null;
 
-            PathSegment[] pathSegments = gson.fromJson(root.get("segments"), PathSegment[].class);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "segments":
+                        pathSegments = readSegments();
+                        break;
+                    case "rotations":
+                        rotations = readRotations();
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
 
-            Type rotationMapType = new TypeToken<TreeMap<Double, Rotation2>>() {
-            }.getType();
-            Map<Double, Rotation2> rotations = gson.fromJson(root.get("rotations"), rotationMapType);
+            if (pathSegments == null || rotations == null) {
+                throw new IOException("Path is not valid");
+            }
 
             return new Path(pathSegments, rotations);
-        } catch (JsonIOException | JsonSyntaxException e) {
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            // The reader throws IllegalStateException when the JSON does not have the structure we expect
             throw new IOException(e);
         }
     }
 
+    private PathSegment[] readSegments() throws IOException {
+        List<PathSegment> segments = new ArrayList<>();
+
+        in.beginArray();
+        while (in.hasNext()) {
+            segments.add(readSegment());
+        }
+        in.endArray();
+
+        return segments.toArray(new PathSegment[0]);
+    }
+
+    private PathSegment readSegment() throws IOException {
+        String type = null;
+        double[][] basis = null;
+        double[][] weights = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    type = in.nextString();
+                    break;
+                case "basis":
+                    basis = readMatrix();
+                    break;
+                case "weights":
+                    weights = readMatrix();
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        if (type == null) {
+            throw new IOException("Segment does not have a type");
+        }
+
+        if (type.equals("spline")) {
+            if (basis == null || weights == null) {
+                throw new IOException("Spline segment must have a basis and weights");
+            }
+
+            return new SplinePathSegment(new Spline(new SimpleMatrix(basis), new SimpleMatrix(weights)));
+        } else {
+            throw new IOException(String.format("Unknown segment type \"%s\"", type));
+        }
+    }
+
+    private double[][] readMatrix() throws IOException {
+        List<double[]> rows = new ArrayList<>();
+
+        in.beginArray();
+        while (in.hasNext()) {
+            double[] row = new double[4];
+            int columns = 0;
+
+            in.beginArray();
+            while (in.hasNext()) {
+                if (columns == row.length) {
+                    row = Arrays.copyOf(row, row.length * 2);
+                }
+                row[columns++] = in.nextDouble();
+            }
+            in.endArray();
+
+            rows.add(Arrays.copyOf(row, columns));
+        }
+        in.endArray();
+
+        if (rows.isEmpty()) {
+            throw new IOException("Matrix must have at least one row");
+        }
+        for (double[] row : rows) {
+            if (row.length != rows.get(0).length) {
+                throw new IOException("Every row of a matrix must have the same amount of columns");
+            }
+        }
+
+        return rows.toArray(new double[0][]);
+    }
+
+    private Map<Double, Rotation2> readRotations() throws IOException {
+        Map<Double, Rotation2> rotations = new TreeMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            double distance;
+            try {
+                distance = Double.parseDouble(in.nextName());
+            } catch (NumberFormatException e) {
+                throw new IOException("Rotation distance is not a number", e);
+            }
+
+            rotations.put(distance, Rotation2.fromDegrees(in.nextDouble()));
+        }
+        in.endObject();
+
+        return rotations;
+    }
+
     @Override
     public void close() throws IOException {
         in.close();
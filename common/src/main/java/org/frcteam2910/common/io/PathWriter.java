@@ -1,47 +1,86 @@
 package org.frcteam2910.common.io;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonIOException;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import org.ejml.simple.SimpleMatrix;
 import org.frcteam2910.common.control.Path;
 import org.frcteam2910.common.control.PathSegment;
-import org.frcteam2910.common.io.json.InterpolatingDoubleJsonHandler;
-import org.frcteam2910.common.io.json.PathSegmentJsonHandler;
-import org.frcteam2910.common.io.json.Rotation2JsonHandler;
-import org.frcteam2910.common.io.json.SimpleMatrixJsonHandler;
+import org.frcteam2910.common.control.SplinePathSegment;
 import org.frcteam2910.common.math.Rotation2;
-import org.frcteam2910.common.util.InterpolatingDouble;
+import org.frcteam2910.common.math.spline.Spline;
+import org.frcteam2910.common.util.InterpolatingDoubleMap;
 
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.Writer;
 
+/**
+ * Writes paths so they can be read by a {@link PathReader}.
+ * <p>
+ * The path is encoded directly to the output instead of building a JSON tree first.
+ */
 public final class PathWriter implements AutoCloseable, Flushable {
-    private final Gson gson;
     private final Writer out;
+    private final JsonWriter json;
 
     public PathWriter(Writer out) {
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(InterpolatingDouble.class, new InterpolatingDoubleJsonHandler())
-                .registerTypeHierarchyAdapter(PathSegment.class, new PathSegmentJsonHandler())
-                .registerTypeAdapter(Rotation2.class, new Rotation2JsonHandler())
-                .registerTypeAdapter(SimpleMatrix.class, new SimpleMatrixJsonHandler())
-                .enableComplexMapKeySerialization()
-                .create();
         this.out = out;
+        this.json = new JsonWriter(out);
+
+        // Allow multiple paths to be written to the same output
+        this.json.setLenient(true);
     }
 
     public void write(Path path) throws IOException {
-        try {
-            JsonObject root = new JsonObject();
-            root.add("segments", gson.toJsonTree(path.getSegments()));
-            root.add("rotations", gson.toJsonTree(path.getRotationMap()));
-            gson.toJson(root, out);
-        } catch (JsonIOException e) {
-            throw new IOException(e);
+        json.beginObject();
+
+        json.name("segments");
+        json.beginArray();
+        for (PathSegment segment : path.getSegments()) {
+            writeSegment(segment);
+        }
+        json.endArray();
+
+        json.name("rotations");
+        json.beginObject();
+        InterpolatingDoubleMap<Rotation2> rotations = path.getRotationMap();
+        for (int i = 0; i < rotations.size(); i++) {
+            json.name(String.valueOf(rotations.getKey(i)));
+            json.value(rotations.getValue(i).toDegrees());
+        }
+        json.endObject();
+
+        json.endObject();
+    }
+
+    private void writeSegment(PathSegment segment) throws IOException {
+        String type;
+        json.beginObject();
+        if (segment instanceof SplinePathSegment) {
+            type = "spline";
+            Spline spline = ((SplinePathSegment) segment).getSpline();
+
+            json.name("basis");
+            writeMatrix(spline.getBasisMatrix());
+            json.name("weights");
+            writeMatrix(spline.getBasisWeightMatrix());
+        } else {
+            throw new IllegalArgumentException("Tried to serialize unknown path segment type " + segment.getClass().getTypeName());
+        }
+
+        json.name("type").value(type);
+        json.endObject();
+    }
+
+    private void writeMatrix(SimpleMatrix matrix) throws IOException {
+        json.beginArray();
+        for (int row = 0; row < matrix.numRows(); row++) {
+            json.beginArray();
+            for (int col = 0; col < matrix.numCols(); col++) {
+                json.value(matrix.get(row, col));
+            }
+            json.endArray();
         }
+        json.endArray();
     }
 
     @Override
@@ -0,0 +1,242 @@
+package org.frcteam2910.common.io;
+
+import com.google.gson.Gson;
+import org.frcteam2910.common.Logger;
+import org.frcteam2910.common.control.Path;
+import org.frcteam2910.common.control.Trajectory;
+import org.frcteam2910.common.control.TrajectoryConstraint;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+
+/**
+ * Stores generated trajectories in a binary file so they do not have to be regenerated every time they are used.
+ * <p>
+ * Generating a trajectory can take seconds. Trajectories can be generated ahead of time and loaded by mapping the file
+ * into memory. The file stores a hash of the path and the constraints used to generate the trajectory. If either of
+ * them have changed the trajectory is regenerated.
+ * <p>
+ * All values are stored in big-endian byte order. The file starts with a {@value #HEADER_SIZE} byte header:
+ * <pre>
+ * int    magic number ({@code 'TRAJ'})
+ * int    format version
+ * long   path hash
+ * long   constraint hash
+ * double sample distance
+ * double duration
+ * int    profile count
+ * int    reserved
+ * </pre>
+ * The header is followed by a {@value #RECORD_SIZE} byte record for every profile containing the start distance,
+ * length, starting velocity, acceleration and start time of the profile as doubles.
+ */
+public final class TrajectoryCache {
+    private static final Logger LOGGER = new Logger(TrajectoryCache.class);
+
+    private static final int MAGIC = 0x5452414A;
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 48;
+    private static final int RECORD_SIZE = 5 * Double.BYTES;
+
+    private TrajectoryCache() {
+    }
+
+    /**
+     * Loads a trajectory from a file. If the file does not exist, cannot be read or was generated from a different path
+     * or constraints, the trajectory is generated and written to the file.
+     *
+     * @param file                  the file the trajectory is stored in
+     * @param path                  the path the trajectory follows
+     * @param trajectoryConstraints the constraints the trajectory must obey
+     * @param sampleDistance        the distance between each sample
+     * @return the trajectory
+     */
+    public static Trajectory loadOrGenerate(java.nio.file.Path file, Path path,
+                                            TrajectoryConstraint[] trajectoryConstraints, double sampleDistance) {
+        if (Files.exists(file)) {
+            try {
+                Optional<Trajectory> trajectory = read(file, path, trajectoryConstraints, sampleDistance);
+                if (trajectory.isPresent()) {
+                    return trajectory.get();
+                }
+
+                LOGGER.info("Trajectory in %s is out of date, regenerating", file);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to read trajectory from %s, regenerating", file);
+                LOGGER.warn(e);
+            }
+        }
+
+        Trajectory trajectory = new Trajectory(path, trajectoryConstraints, sampleDistance);
+        try {
+            write(file, trajectory, trajectoryConstraints, sampleDistance);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to write trajectory to %s", file);
+            LOGGER.warn(e);
+        }
+
+        return trajectory;
+    }
+
+    /**
+     * Reads a trajectory from a file.
+     *
+     * @param file                  the file to read
+     * @param path                  the path the trajectory follows
+     * @param trajectoryConstraints the constraints the trajectory must obey
+     * @param sampleDistance        the distance between each sample
+     * @return the trajectory or nothing if the trajectory in the file was generated from a different path, constraints
+     * or sample distance.
+     * @throws IOException if the file could not be read or is not a valid trajectory file
+     */
+    public static Optional<Trajectory> read(java.nio.file.Path file, Path path,
+                                            TrajectoryConstraint[] trajectoryConstraints,
+                                            double sampleDistance) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Trajectory file is too small");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File is not a trajectory file");
+            }
+            if (buffer.getInt() != VERSION) {
+                return Optional.empty();
+            }
+
+            long pathHash = buffer.getLong();
+            long constraintHash = buffer.getLong();
+            double fileSampleDistance = buffer.getDouble();
+            if (pathHash != hashPath(path) || constraintHash != hashConstraints(trajectoryConstraints) ||
+                    Double.compare(fileSampleDistance, sampleDistance) != 0) {
+                return Optional.empty();
+            }
+
+            double duration = buffer.getDouble();
+            int profileCount = buffer.getInt();
+            buffer.getInt(); // Reserved
+
+            if (profileCount <= 0 || channel.size() != HEADER_SIZE + (long) profileCount * RECORD_SIZE) {
+                throw new IOException("Trajectory file is corrupt");
+            }
+
+            double[] startDistances = new double[profileCount];
+            double[] lengths = new double[profileCount];
+            double[] startingVelocities = new double[profileCount];
+            double[] accelerations = new double[profileCount];
+            double[] startTimes = new double[profileCount];
+            for (int i = 0; i < profileCount; i++) {
+                startDistances[i] = buffer.getDouble();
+                lengths[i] = buffer.getDouble();
+                startingVelocities[i] = buffer.getDouble();
+                accelerations[i] = buffer.getDouble();
+                startTimes[i] = buffer.getDouble();
+            }
+
+            return Optional.of(new Trajectory(path, duration, startDistances, lengths, startingVelocities,
+                    accelerations, startTimes));
+        }
+    }
+
+    /**
+     * Writes a trajectory to a file. The trajectory is written to a temporary file first which then replaces the file
+     * so a partially written file is never read.
+     *
+     * @param file                  the file to write
+     * @param trajectory            the trajectory to write
+     * @param trajectoryConstraints the constraints the trajectory was generated with
+     * @param sampleDistance        the sample distance the trajectory was generated with
+     * @throws IOException if the file could not be written
+     */
+    public static void write(java.nio.file.Path file, Trajectory trajectory,
+                             TrajectoryConstraint[] trajectoryConstraints, double sampleDistance) throws IOException {
+        int profileCount = trajectory.getProfileCount();
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + profileCount * RECORD_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(hashPath(trajectory.getPath()));
+        buffer.putLong(hashConstraints(trajectoryConstraints));
+        buffer.putDouble(sampleDistance);
+        buffer.putDouble(trajectory.getDuration());
+        buffer.putInt(profileCount);
+        buffer.putInt(0); // Reserved
+
+        for (int i = 0; i < profileCount; i++) {
+            buffer.putDouble(trajectory.getProfileStartDistance(i));
+            buffer.putDouble(trajectory.getProfileLength(i));
+            buffer.putDouble(trajectory.getProfileStartingVelocity(i));
+            buffer.putDouble(trajectory.getProfileAcceleration(i));
+            buffer.putDouble(trajectory.getProfileStartTime(i));
+        }
+        buffer.flip();
+
+        java.nio.file.Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+
+        java.nio.file.Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Hashes a path by hashing its JSON representation.
+     */
+    static long hashPath(Path path) throws IOException {
+        StringWriter out = new StringWriter();
+        try (PathWriter writer = new PathWriter(out)) {
+            writer.write(path);
+        }
+
+        MessageDigest digest = createDigest();
+        digest.update(out.toString().getBytes(StandardCharsets.UTF_8));
+        return toLong(digest.digest());
+    }
+
+    /**
+     * Hashes constraints by hashing the name and fields of every constraint.
+     */
+    static long hashConstraints(TrajectoryConstraint[] trajectoryConstraints) {
+        Gson gson = new Gson();
+
+        MessageDigest digest = createDigest();
+        for (TrajectoryConstraint constraint : trajectoryConstraints) {
+            digest.update(constraint.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            digest.update(gson.toJson(constraint).getBytes(StandardCharsets.UTF_8));
+        }
+        return toLong(digest.digest());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java implementation is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long toLong(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+}
@@ -4,6 +4,7 @@ import org.ejml.simple.SimpleMatrix;
 import org.frcteam2910.common.math.Vector2;
 
 import java.util.Arrays;
+import java.util.NoSuchElementException;
 
 /**
  * Helper class that converts a chassis velocity (translational and rotation velocities) into individual swerve module
@@ -22,8 +23,15 @@ import java.util.Arrays;
 public class SwerveKinematics {
     private final Vector2[] moduleOffsets;
 
-    private final SimpleMatrix inverseKinematics;
-    private final SimpleMatrix forwardKinematics;
+    /**
+     * The inverse kinematics matrix stored in row-major order. It has 2 rows for every module and 3 columns.
+     */
+    private final double[] inverseKinematics;
+    /**
+     * The forward kinematics matrix (the pseudo-inverse of the inverse kinematics matrix) stored in row-major order. It
+     * has 3 rows and 2 columns for every module.
+     */
+    private final double[] forwardKinematics;
 
     public SwerveKinematics(Vector2... moduleOffsets) {
         if (moduleOffsets.length < 1) {
@@ -32,12 +40,32 @@ public class SwerveKinematics {
 
         this.moduleOffsets = Arrays.copyOf(moduleOffsets, moduleOffsets.length);
 
-        inverseKinematics = new SimpleMatrix(moduleOffsets.length * 2, 3);
+        SimpleMatrix inverseKinematics = new SimpleMatrix(moduleOffsets.length * 2, 3);
         for (int i = 0; i < moduleOffsets.length; i++) {
             inverseKinematics.setRow(i * 2 + 0, 0, 1.0, 0.0, -moduleOffsets[i].y);
             inverseKinematics.setRow(i * 2 + 1, 0, 0.0, 1.0, moduleOffsets[i].x);
         }
-        forwardKinematics = inverseKinematics.pseudoInverse();
+        SimpleMatrix forwardKinematics = inverseKinematics.pseudoInverse();
+
+        // The matrices never change so they are copied into flat arrays once. Multiplying by hand avoids creating
+        // matrices every update.
+        this.inverseKinematics = toArray(inverseKinematics);
+        this.forwardKinematics = toArray(forwardKinematics);
+    }
+
+    private static double[] toArray(SimpleMatrix matrix) {
+        double[] array = new double[matrix.numRows() * matrix.numCols()];
+        for (int row = 0; row < matrix.numRows(); row++) {
+            for (int col = 0; col < matrix.numCols(); col++) {
+                array[row * matrix.numCols() + col] = matrix.get(row, col);
+            }
+        }
+
+        return array;
+    }
+
+    public int getModuleCount() {
+        return moduleOffsets.length;
     }
 
     /**
@@ -49,25 +77,44 @@ public class SwerveKinematics {
      * {@link #normalizeModuleVelocities(Vector2[], double) normalizeModuleVelocities} method to resolve this issue.
      */
     public Vector2[] toModuleVelocities(ChassisVelocity velocity) {
-        SimpleMatrix chassisVelocityVector = new SimpleMatrix(3, 1);
-        chassisVelocityVector.setColumn(0, 0,
-                velocity.getTranslationalVelocity().x,
-                velocity.getTranslationalVelocity().y,
-                velocity.getAngularVelocity());
+        double[] moduleVelocitiesArray = new double[moduleOffsets.length * 2];
+        toModuleVelocities(velocity.getTranslationalVelocity().x, velocity.getTranslationalVelocity().y,
+                velocity.getAngularVelocity(), moduleVelocitiesArray);
 
-        SimpleMatrix moduleVelocitiesMatrix = inverseKinematics.mult(chassisVelocityVector);
         Vector2[] moduleVelocities = new Vector2[moduleOffsets.length];
-
         for (int i = 0; i < moduleOffsets.length; i++) {
             moduleVelocities[i] = new Vector2(
-                    moduleVelocitiesMatrix.get(i * 2 + 0),
-                    moduleVelocitiesMatrix.get(i * 2 + 1)
+                    moduleVelocitiesArray[i * 2 + 0],
+                    moduleVelocitiesArray[i * 2 + 1]
             );
         }
 
         return moduleVelocities;
     }
 
+    /**
+     * Performs inverse kinematics to convert a desired chassis velocity into a set of swerve module velocities without
+     * allocating.
+     *
+     * @param x                The desired forward velocity of the robot.
+     * @param y                The desired sideways velocity of the robot.
+     * @param angularVelocity  The desired angular velocity of the robot.
+     * @param moduleVelocities The array to store the module velocities in. The x and y components of the velocity of
+     *                         module i are stored at indices 2i and 2i + 1. Must have a length of at least twice the
+     *                         amount of modules.
+     */
+    public void toModuleVelocities(double x, double y, double angularVelocity, double[] moduleVelocities) {
+        if (moduleVelocities.length < moduleOffsets.length * 2) {
+            throw new IllegalArgumentException("Module velocity array is too small for the amount of modules");
+        }
+
+        for (int row = 0; row < moduleOffsets.length * 2; row++) {
+            moduleVelocities[row] = inverseKinematics[row * 3 + 0] * x +
+                    inverseKinematics[row * 3 + 1] * y +
+                    inverseKinematics[row * 3 + 2] * angularVelocity;
+        }
+    }
+
     /**
      * Performs forward kinematics to convert a set of swerve module velocities into a chassis velocity.
      *
@@ -79,24 +126,48 @@ public class SwerveKinematics {
             throw new IllegalArgumentException("Amount of module velocities given does not match the amount of modules specified in the constructor");
         }
 
-        SimpleMatrix moduleVelocitiesMatrix = new SimpleMatrix(moduleOffsets.length * 2, 1);
+        double[] moduleVelocitiesArray = new double[moduleOffsets.length * 2];
         for (int i = 0; i < moduleOffsets.length; i++) {
-            moduleVelocitiesMatrix.setColumn(0, i * 2,
-                    moduleVelocities[i].x,
-                    moduleVelocities[i].y
-            );
+            moduleVelocitiesArray[i * 2 + 0] = moduleVelocities[i].x;
+            moduleVelocitiesArray[i * 2 + 1] = moduleVelocities[i].y;
         }
 
-        SimpleMatrix chassisVelocityVector = forwardKinematics.mult(moduleVelocitiesMatrix);
+        double[] chassisVelocity = new double[3];
+        toChassisVelocity(moduleVelocitiesArray, chassisVelocity);
+
         return new ChassisVelocity(
                 new Vector2(
-                        chassisVelocityVector.get(0),
-                        chassisVelocityVector.get(1)
+                        chassisVelocity[0],
+                        chassisVelocity[1]
                 ),
-                chassisVelocityVector.get(2)
+                chassisVelocity[2]
         );
     }
 
+    /**
+     * Performs forward kinematics to convert a set of swerve module velocities into a chassis velocity without
+     * allocating.
+     *
+     * @param moduleVelocities The velocities of the modules w.r.t the robot. The x and y components of the velocity of
+     *                         module i are at indices 2i and 2i + 1.
+     * @param chassisVelocity  The array to store the forward velocity, sideways velocity and angular velocity of the
+     *                         robot in, in that order. Must have a length of at least 3.
+     */
+    public void toChassisVelocity(double[] moduleVelocities, double[] chassisVelocity) {
+        int columns = moduleOffsets.length * 2;
+        if (moduleVelocities.length != columns) {
+            throw new IllegalArgumentException("Amount of module velocities given does not match the amount of modules specified in the constructor");
+        }
+
+        for (int row = 0; row < 3; row++) {
+            double sum = 0.0;
+            for (int col = 0; col < columns; col++) {
+                sum += forwardKinematics[row * columns + col] * moduleVelocities[col];
+            }
+            chassisVelocity[row] = sum;
+        }
+    }
+
     /**
      * Normalizes the module velocities using some maximum velocity.
      * <p>
@@ -109,11 +180,46 @@ public class SwerveKinematics {
      * @param maximumVelocity  The absolute maximum velocity that a module can reach.
      */
     public static void normalizeModuleVelocities(Vector2[] moduleVelocities, double maximumVelocity) {
-        double realMaxVelocity = Arrays.stream(moduleVelocities).mapToDouble(m -> m.length).max().orElseThrow();
+        if (moduleVelocities.length == 0) {
+            throw new NoSuchElementException("No module velocities were given");
+        }
+
+        double realMaxVelocity = Double.NEGATIVE_INFINITY;
+        for (Vector2 moduleVelocity : moduleVelocities) {
+            realMaxVelocity = Math.max(realMaxVelocity, moduleVelocity.length);
+        }
         if (realMaxVelocity > maximumVelocity) {
             for (int i = 0; i < moduleVelocities.length; i++) {
                 moduleVelocities[i] = moduleVelocities[i].scale(maximumVelocity / realMaxVelocity);
             }
         }
     }
+
+    /**
+     * Normalizes the module velocities using some maximum velocity without allocating.
+     *
+     * @param moduleVelocities An array containing the x and y components of the velocity of module i at indices 2i and
+     *                         2i + 1. This array will be mutated to contain the normalized velocities.
+     * @param maximumVelocity  The absolute maximum velocity that a module can reach.
+     * @see #normalizeModuleVelocities(Vector2[], double)
+     */
+    public static void normalizeModuleVelocities(double[] moduleVelocities, double maximumVelocity) {
+        if (moduleVelocities.length < 2) {
+            throw new NoSuchElementException("No module velocities were given");
+        }
+
+        double realMaxVelocity = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i + 1 < moduleVelocities.length; i += 2) {
+            double x = moduleVelocities[i];
+            double y = moduleVelocities[i + 1];
+            realMaxVelocity = Math.max(realMaxVelocity, Math.sqrt(x * x + y * y));
+        }
+
+        if (realMaxVelocity > maximumVelocity) {
+            double scale = maximumVelocity / realMaxVelocity;
+            for (int i = 0; i < moduleVelocities.length; i++) {
+                moduleVelocities[i] *= scale;
+            }
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package org.frcteam2910.common.kinematics;
 
+import org.frcteam2910.common.math.MathUtils;
 import org.frcteam2910.common.math.RigidTransform2;
 import org.frcteam2910.common.math.Rotation2;
 import org.frcteam2910.common.math.Vector2;
@@ -8,18 +9,61 @@ import org.frcteam2910.common.math.Vector2;
  * Helper class for swerve drive odometry.
  * <p>
  * Odometry allows a robot to track what it's position on the field is using the encoders on it's swerve modules.
+ * <p>
+ * Odometry is not thread-safe and should only be updated from one thread.
  */
 public class SwerveOdometry {
+    /**
+     * How the movement of the robot between two updates is integrated into its pose.
+     */
+    public enum IntegrationMethod {
+        /**
+         * Assumes the robot moved in a straight line in the direction it is facing at the end of the update.
+         * <p>
+         * This is accurate when the robot is not rotating but the error grows when the robot translates while
+         * rotating, so the update rate must be high.
+         */
+        EULER,
+        /**
+         * Assumes the robot moved along a circular arc while turning by the change in the gyroscope's angle over the
+         * update (the pose exponential of the robot's twist).
+         * <p>
+         * This is exact when the robot's velocity is constant over the update which allows a lower update rate.
+         */
+        ARC
+    }
+
     private final SwerveKinematics kinematics;
     private RigidTransform2 pose;
 
+    private IntegrationMethod integrationMethod;
+
+    /**
+     * Reused by {@link #updateFromDistances(Rotation2, double[])} to avoid allocating every update.
+     */
+    private final double[] chassisDisplacement = new double[3];
+
     public SwerveOdometry(SwerveKinematics kinematics) {
         this(kinematics, RigidTransform2.ZERO);
     }
 
     public SwerveOdometry(SwerveKinematics kinematics, RigidTransform2 initialPose) {
+        this(kinematics, initialPose, IntegrationMethod.EULER);
+    }
+
+    public SwerveOdometry(SwerveKinematics kinematics, RigidTransform2 initialPose,
+                          IntegrationMethod integrationMethod) {
         this.kinematics = kinematics;
         this.pose = initialPose;
+        this.integrationMethod = integrationMethod;
+    }
+
+    public IntegrationMethod getIntegrationMethod() {
+        return integrationMethod;
+    }
+
+    public void setIntegrationMethod(IntegrationMethod integrationMethod) {
+        this.integrationMethod = integrationMethod;
     }
 
     /**
@@ -81,15 +125,75 @@ public class SwerveOdometry {
      */
     public RigidTransform2 update(Rotation2 gyroAngle, double dt, Vector2... moduleVelocities) {
         ChassisVelocity velocity = kinematics.toChassisVelocity(moduleVelocities);
+        Vector2 translationalVelocity = velocity.getTranslationalVelocity();
+
+        return integrate(gyroAngle, translationalVelocity.x * dt, translationalVelocity.y * dt);
+    }
+
+    /**
+     * Updates the robot's position using forward kinematics on how far each module has driven since the last update.
+     * <p>
+     * Using the distances measured by the drive encoders avoids the error of multiplying a sampled velocity by the
+     * time between updates.
+     *
+     * @param gyroAngle           The angle from the gyroscope.
+     * @param moduleDisplacements How far each module has moved since the last update, relative to the robot. The x
+     *                            and y components of each module are interleaved (<code>x0, y0, x1, y1, ...</code>)
+     *                            and the modules must be in the same order that {@link SwerveKinematics} was given
+     *                            when it was instantiated. A module's displacement is usually the change in its drive
+     *                            distance in the direction of the module's angle.
+     * @return The new pose of the robot.
+     */
+    public RigidTransform2 updateFromDistances(Rotation2 gyroAngle, double[] moduleDisplacements) {
+        // Forward kinematics is linear so the same matrix that turns module velocities into a chassis velocity turns
+        // module displacements into a chassis displacement.
+        kinematics.toChassisVelocity(moduleDisplacements, chassisDisplacement);
+
+        return integrate(gyroAngle, chassisDisplacement[0], chassisDisplacement[1]);
+    }
+
+    /**
+     * Moves the pose by a displacement relative to the robot.
+     *
+     * @param gyroAngle The angle from the gyroscope at the end of the update.
+     * @param dx        The robot-relative x displacement over the update.
+     * @param dy        The robot-relative y displacement over the update.
+     * @return The new pose of the robot.
+     */
+    private RigidTransform2 integrate(Rotation2 gyroAngle, double dx, double dy) {
+        Vector2 fieldOrientedDisplacement;
+        switch (integrationMethod) {
+            case ARC: {
+                // The angle the robot turned over the update, in the range (-pi, pi]
+                Rotation2 startAngle = pose.rotation;
+                double dTheta = Math.atan2(
+                        startAngle.cos * gyroAngle.sin - startAngle.sin * gyroAngle.cos,
+                        startAngle.cos * gyroAngle.cos + startAngle.sin * gyroAngle.sin
+                );
 
-        // Calculate the field-oriented translational velocity of the robot
-        Vector2 fieldOrientedVelocity = velocity.getTranslationalVelocity().rotateBy(gyroAngle);
+                // sin(dTheta) / dTheta and (1 - cos(dTheta)) / dTheta, using their Taylor series when dTheta is
+                // small to avoid dividing by zero
+                double s;
+                double c;
+                if (Math.abs(dTheta) < MathUtils.EPSILON) {
+                    s = 1.0 - dTheta * dTheta / 6.0;
+                    c = dTheta / 2.0;
+                } else {
+                    s = Math.sin(dTheta) / dTheta;
+                    c = (1.0 - Math.cos(dTheta)) / dTheta;
+                }
 
-        // Integrate using dt to determine our new position
-        Vector2 newPosition = pose.translation
-                .add(fieldOrientedVelocity.scale(dt));
+                // Move along the arc in the frame the robot had at the start of the update
+                fieldOrientedDisplacement = new Vector2(dx * s - dy * c, dx * c + dy * s).rotateBy(startAngle);
+                break;
+            }
+            case EULER:
+            default:
+                fieldOrientedDisplacement = new Vector2(dx, dy).rotateBy(gyroAngle);
+                break;
+        }
 
-        pose = new RigidTransform2(newPosition, gyroAngle);
+        pose = new RigidTransform2(pose.translation.add(fieldOrientedDisplacement), gyroAngle);
 
         return pose;
     }
@@ -0,0 +1,410 @@
+package org.frcteam2910.common.kinematics;
+
+import org.frcteam2910.common.math.MathUtils;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+
+/**
+ * Estimates the pose of a swerve drive robot by fusing odometry, the gyroscope and delayed vision measurements with an
+ * extended Kalman filter.
+ * <p>
+ * The state of the filter is the x and y position of the robot and its angle. Every update the state is predicted by
+ * moving it by the chassis displacement measured by the modules and the change in the gyroscope's angle. Because the
+ * gyroscope is only used to measure how far the robot turned, vision measurements are able to correct the angle of the
+ * robot as well as its position.
+ * <p>
+ * Vision measurements arrive after some latency. The estimator keeps a bounded history of every update so when a
+ * vision measurement arrives it rewinds to the update at the time the measurement was taken, applies the measurement
+ * and then replays the updates since then.
+ * <p>
+ * The covariance and the history are stored in primitive arrays so an update does not allocate. The estimator is not
+ * thread-safe and should only be used from one thread.
+ */
+public class SwervePoseEstimator {
+    /**
+     * The default standard deviation of the error in position after driving one unit.
+     */
+    public static final double DEFAULT_TRANSLATION_STANDARD_DEVIATION = 0.1;
+    /**
+     * The default standard deviation of the error in angle after turning one radian.
+     */
+    public static final double DEFAULT_ROTATION_STANDARD_DEVIATION = 0.05;
+
+    private final SwerveKinematics kinematics;
+
+    private double translationVariance = DEFAULT_TRANSLATION_STANDARD_DEVIATION * DEFAULT_TRANSLATION_STANDARD_DEVIATION;
+    private double rotationVariance = DEFAULT_ROTATION_STANDARD_DEVIATION * DEFAULT_ROTATION_STANDARD_DEVIATION;
+
+    /**
+     * The current state. The angle is in radians and is not wrapped.
+     */
+    private double x;
+    private double y;
+    private double angle;
+    /**
+     * The current covariance as a row-major 3x3 matrix.
+     */
+    private final double[] covariance = new double[9];
+
+    private double previousGyroCos;
+    private double previousGyroSin;
+
+    /**
+     * The history is a ring buffer of the updates in the order they happened. Each entry stores the robot-relative
+     * displacement of the update and the state and covariance after the update.
+     */
+    private final int historySize;
+    private final double[] historyTimestamps;
+    private final double[] historyDisplacements;
+    private final double[] historyStates;
+    private final double[] historyCovariances;
+    private int historyHead = 0;
+    private int historyCount = 0;
+
+    // Reused to avoid allocating every update
+    private final double[] chassisDisplacement = new double[3];
+    private final double[] innovationCovariance = new double[9];
+    private final double[] innovationCovarianceInverse = new double[9];
+    private final double[] gain = new double[9];
+    private final double[] scratch = new double[9];
+
+    /**
+     * @param kinematics  the kinematics of the robot
+     * @param initialPose the initial pose of the robot
+     * @param gyroAngle   the angle of the gyroscope at the initial pose
+     * @param historySize the amount of updates to keep for replaying. This should cover the longest latency of a vision
+     *                    measurement at the rate the estimator is updated.
+     */
+    public SwervePoseEstimator(SwerveKinematics kinematics, RigidTransform2 initialPose, Rotation2 gyroAngle,
+                               int historySize) {
+        if (historySize < 1) {
+            throw new IllegalArgumentException("The history size must be positive");
+        }
+
+        this.kinematics = kinematics;
+        this.historySize = historySize;
+        this.historyTimestamps = new double[historySize];
+        this.historyDisplacements = new double[historySize * 3];
+        this.historyStates = new double[historySize * 3];
+        this.historyCovariances = new double[historySize * 9];
+
+        resetPose(initialPose, gyroAngle);
+    }
+
+    /**
+     * Sets how quickly the uncertainty of the estimate grows as the robot moves.
+     * <p>
+     * The variance of the position grows by the square of the translation standard deviation for every unit driven and
+     * the variance of the angle grows by the square of the rotation standard deviation for every radian turned. Larger
+     * values make the estimator trust vision measurements more.
+     *
+     * @param translationStandardDeviation the standard deviation of the error in position after driving one unit
+     * @param rotationStandardDeviation    the standard deviation of the error in angle after turning one radian
+     */
+    public void setOdometryStandardDeviations(double translationStandardDeviation, double rotationStandardDeviation) {
+        this.translationVariance = translationStandardDeviation * translationStandardDeviation;
+        this.rotationVariance = rotationStandardDeviation * rotationStandardDeviation;
+    }
+
+    /**
+     * Resets the estimate to a known pose. The history is cleared so vision measurements taken before the reset are
+     * ignored.
+     *
+     * @param pose      the robot's new pose
+     * @param gyroAngle the angle of the gyroscope at the new pose
+     */
+    public void resetPose(RigidTransform2 pose, Rotation2 gyroAngle) {
+        x = pose.translation.x;
+        y = pose.translation.y;
+        angle = pose.rotation.toRadians();
+        for (int i = 0; i < covariance.length; i++) {
+            covariance[i] = 0.0;
+        }
+
+        previousGyroCos = gyroAngle.cos;
+        previousGyroSin = gyroAngle.sin;
+
+        historyHead = 0;
+        historyCount = 0;
+    }
+
+    /**
+     * Predicts the new pose of the robot from how far its modules have moved since the last update.
+     *
+     * @param timestamp           the time of the update. Must be greater than the time of the previous update.
+     * @param gyroAngle           the angle from the gyroscope
+     * @param moduleDisplacements how far each module has moved since the last update, relative to the robot, in the
+     *                            same layout as {@link SwerveOdometry#updateFromDistances(Rotation2, double[])}
+     */
+    public void update(double timestamp, Rotation2 gyroAngle, double[] moduleDisplacements) {
+        if (historyCount > 0 && timestamp <= historyTimestamps[toHistoryIndex(historyCount - 1)]) {
+            throw new IllegalArgumentException("Timestamps must be increasing");
+        }
+
+        kinematics.toChassisVelocity(moduleDisplacements, chassisDisplacement);
+
+        // The angle the gyroscope turned since the last update, in the range (-pi, pi]
+        double dAngle = Math.atan2(
+                previousGyroCos * gyroAngle.sin - previousGyroSin * gyroAngle.cos,
+                previousGyroCos * gyroAngle.cos + previousGyroSin * gyroAngle.sin
+        );
+        previousGyroCos = gyroAngle.cos;
+        previousGyroSin = gyroAngle.sin;
+
+        predict(chassisDisplacement[0], chassisDisplacement[1], dAngle);
+
+        // Record the update, overwriting the oldest entry if the history is full
+        int index;
+        if (historyCount == historySize) {
+            index = historyHead;
+            historyHead = toHistoryIndex(1);
+        } else {
+            index = toHistoryIndex(historyCount);
+            historyCount++;
+        }
+        historyTimestamps[index] = timestamp;
+        historyDisplacements[index * 3] = chassisDisplacement[0];
+        historyDisplacements[index * 3 + 1] = chassisDisplacement[1];
+        historyDisplacements[index * 3 + 2] = dAngle;
+        saveState(index);
+    }
+
+    /**
+     * Corrects the estimate with a pose measured by vision.
+     * <p>
+     * The measurement is applied to the state of the latest update at or before its timestamp and the updates after it
+     * are replayed.
+     *
+     * @param timestamp                    the time the measurement was taken, on the same clock as the updates
+     * @param pose                         the measured pose of the robot
+     * @param translationStandardDeviation the standard deviation of the measured position
+     * @param rotationStandardDeviation    the standard deviation of the measured angle in radians
+     * @return true if the measurement was applied, false if it was taken before the oldest update in the history
+     */
+    public boolean addVisionMeasurement(double timestamp, RigidTransform2 pose, double translationStandardDeviation,
+                                        double rotationStandardDeviation) {
+        if (historyCount == 0 || timestamp < historyTimestamps[historyHead]) {
+            return false;
+        }
+
+        // Find the latest update at or before the measurement
+        int low = 0;
+        int high = historyCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (historyTimestamps[toHistoryIndex(mid)] <= timestamp) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        int index = toHistoryIndex(low);
+        loadState(index);
+        correct(pose.translation.x, pose.translation.y, pose.rotation.toRadians(),
+                translationStandardDeviation * translationStandardDeviation,
+                rotationStandardDeviation * rotationStandardDeviation);
+        saveState(index);
+
+        // Replay the updates since the measurement
+        for (int i = low + 1; i < historyCount; i++) {
+            index = toHistoryIndex(i);
+            predict(historyDisplacements[index * 3], historyDisplacements[index * 3 + 1],
+                    historyDisplacements[index * 3 + 2]);
+            saveState(index);
+        }
+
+        return true;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Gets the estimated angle of the robot.
+     *
+     * @return the angle in radians. The angle is not wrapped.
+     */
+    public double getAngle() {
+        return angle;
+    }
+
+    public RigidTransform2 getPose() {
+        return new RigidTransform2(new Vector2(x, y), Rotation2.fromRadians(angle));
+    }
+
+    /**
+     * Copies the covariance of the estimate.
+     *
+     * @param out the array to copy the row-major 3x3 covariance matrix of x, y and the angle into
+     */
+    public void getCovariance(double[] out) {
+        System.arraycopy(covariance, 0, out, 0, 9);
+    }
+
+    private int toHistoryIndex(int index) {
+        int arrayIndex = historyHead + index;
+        if (arrayIndex >= historySize) {
+            arrayIndex -= historySize;
+        }
+
+        return arrayIndex;
+    }
+
+    private void saveState(int index) {
+        historyStates[index * 3] = x;
+        historyStates[index * 3 + 1] = y;
+        historyStates[index * 3 + 2] = angle;
+        System.arraycopy(covariance, 0, historyCovariances, index * 9, 9);
+    }
+
+    private void loadState(int index) {
+        x = historyStates[index * 3];
+        y = historyStates[index * 3 + 1];
+        angle = historyStates[index * 3 + 2];
+        System.arraycopy(historyCovariances, index * 9, covariance, 0, 9);
+    }
+
+    /**
+     * Moves the state along an arc by a robot-relative displacement and grows the covariance.
+     */
+    private void predict(double dx, double dy, double dAngle) {
+        // sin(dAngle) / dAngle and (1 - cos(dAngle)) / dAngle, using their Taylor series when dAngle is small to avoid
+        // dividing by zero
+        double s;
+        double c;
+        if (Math.abs(dAngle) < MathUtils.EPSILON) {
+            s = 1.0 - dAngle * dAngle / 6.0;
+            c = dAngle / 2.0;
+        } else {
+            s = Math.sin(dAngle) / dAngle;
+            c = (1.0 - Math.cos(dAngle)) / dAngle;
+        }
+        double localX = dx * s - dy * c;
+        double localY = dx * c + dy * s;
+
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double fieldX = localX * cos - localY * sin;
+        double fieldY = localX * sin + localY * cos;
+
+        x += fieldX;
+        y += fieldY;
+        angle += dAngle;
+
+        // P = F * P * F^T + Q where F = [[1, 0, -fieldY], [0, 1, fieldX], [0, 0, 1]] is the Jacobian of the motion
+        double[] p = covariance;
+        double a = -fieldY;
+        double b = fieldX;
+
+        // Rows of F * P
+        double r00 = p[0] + a * p[6], r01 = p[1] + a * p[7], r02 = p[2] + a * p[8];
+        double r10 = p[3] + b * p[6], r11 = p[4] + b * p[7], r12 = p[5] + b * p[8];
+
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        double translationNoise = translationVariance * distance;
+
+        p[0] = r00 + a * r02 + translationNoise;
+        p[1] = r01 + b * r02;
+        p[2] = r02;
+        p[3] = r10 + a * r12;
+        p[4] = r11 + b * r12 + translationNoise;
+        p[5] = r12;
+        p[6] = p[6] + a * p[8];
+        p[7] = p[7] + b * p[8];
+        p[8] = p[8] + rotationVariance * Math.abs(dAngle);
+    }
+
+    /**
+     * Corrects the state with a measurement of the full pose.
+     */
+    private void correct(double measuredX, double measuredY, double measuredAngle, double translationVariance,
+                         double rotationVariance) {
+        double[] p = covariance;
+
+        // S = P + R because the measurement is the state
+        System.arraycopy(p, 0, innovationCovariance, 0, 9);
+        innovationCovariance[0] += translationVariance;
+        innovationCovariance[4] += translationVariance;
+        innovationCovariance[8] += rotationVariance;
+        if (!invert(innovationCovariance, innovationCovarianceInverse)) {
+            // Both the estimate and the measurement are certain so there is nothing to weigh
+            return;
+        }
+
+        // K = P * S^-1
+        multiply(p, innovationCovarianceInverse, gain);
+
+        double residualX = measuredX - x;
+        double residualY = measuredY - y;
+        double residualAngle = Math.IEEEremainder(measuredAngle - angle, 2.0 * Math.PI);
+
+        x += gain[0] * residualX + gain[1] * residualY + gain[2] * residualAngle;
+        y += gain[3] * residualX + gain[4] * residualY + gain[5] * residualAngle;
+        angle += gain[6] * residualX + gain[7] * residualY + gain[8] * residualAngle;
+
+        // P = (I - K) * P
+        multiply(gain, p, scratch);
+        for (int i = 0; i < 9; i++) {
+            p[i] -= scratch[i];
+        }
+
+        // Keep the covariance symmetric despite rounding errors
+        double p01 = (p[1] + p[3]) / 2.0;
+        double p02 = (p[2] + p[6]) / 2.0;
+        double p12 = (p[5] + p[7]) / 2.0;
+        p[1] = p01;
+        p[3] = p01;
+        p[2] = p02;
+        p[6] = p02;
+        p[5] = p12;
+        p[7] = p12;
+    }
+
+    /**
+     * Multiplies two row-major 3x3 matrices.
+     */
+    private static void multiply(double[] a, double[] b, double[] out) {
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                out[row * 3 + column] = a[row * 3] * b[column] +
+                        a[row * 3 + 1] * b[3 + column] +
+                        a[row * 3 + 2] * b[6 + column];
+            }
+        }
+    }
+
+    /**
+     * Inverts a row-major 3x3 matrix.
+     *
+     * @return false if the matrix is singular
+     */
+    private static boolean invert(double[] m, double[] out) {
+        double c00 = m[4] * m[8] - m[5] * m[7];
+        double c01 = m[5] * m[6] - m[3] * m[8];
+        double c02 = m[3] * m[7] - m[4] * m[6];
+
+        double determinant = m[0] * c00 + m[1] * c01 + m[2] * c02;
+        if (determinant == 0.0) {
+            return false;
+        }
+        double inverseDeterminant = 1.0 / determinant;
+
+        out[0] = c00 * inverseDeterminant;
+        out[1] = (m[2] * m[7] - m[1] * m[8]) * inverseDeterminant;
+        out[2] = (m[1] * m[5] - m[2] * m[4]) * inverseDeterminant;
+        out[3] = c01 * inverseDeterminant;
+        out[4] = (m[0] * m[8] - m[2] * m[6]) * inverseDeterminant;
+        out[5] = (m[2] * m[3] - m[0] * m[5]) * inverseDeterminant;
+        out[6] = c02 * inverseDeterminant;
+        out[7] = (m[1] * m[6] - m[0] * m[7]) * inverseDeterminant;
+        out[8] = (m[0] * m[4] - m[1] * m[3]) * inverseDeterminant;
+        return true;
+    }
+}
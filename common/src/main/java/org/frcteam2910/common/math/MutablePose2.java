@@ -0,0 +1,96 @@
+package org.frcteam2910.common.math;
+
+/**
+ * A mutable version of {@link RigidTransform2}.
+ * <p>
+ * Every operation modifies the pose in place and returns it so operations can be chained. The translation and rotation
+ * of the pose can also be modified directly.
+ * <p>
+ * Mutable poses are not thread-safe.
+ */
+public final class MutablePose2 {
+    private final MutableVector2 translation;
+    private final MutableRotation2 rotation;
+
+    /**
+     * Creates a pose at the origin with an angle of 0 degrees.
+     */
+    public MutablePose2() {
+        this.translation = new MutableVector2();
+        this.rotation = new MutableRotation2();
+    }
+
+    public MutablePose2(RigidTransform2 pose) {
+        this.translation = new MutableVector2(pose.translation);
+        this.rotation = new MutableRotation2(pose.rotation);
+    }
+
+    public MutableVector2 getTranslation() {
+        return translation;
+    }
+
+    public MutableRotation2 getRotation() {
+        return rotation;
+    }
+
+    public MutablePose2 set(RigidTransform2 pose) {
+        translation.set(pose.translation);
+        rotation.set(pose.rotation);
+        return this;
+    }
+
+    public MutablePose2 set(MutablePose2 pose) {
+        translation.set(pose.translation);
+        rotation.set(pose.rotation);
+        return this;
+    }
+
+    /**
+     * Applies the effects of another transform, represented by its components, after this pose.
+     *
+     * @param x   the x coordinate of the other transform's translation
+     * @param y   the y coordinate of the other transform's translation
+     * @param cos the cosine of the other transform's rotation
+     * @param sin the sine of the other transform's rotation
+     * @return this pose
+     * @see RigidTransform2#transformBy(RigidTransform2)
+     */
+    public MutablePose2 transformBy(double x, double y, double cos, double sin) {
+        double thisCos = rotation.getCos();
+        double thisSin = rotation.getSin();
+
+        translation.add(x * thisCos - y * thisSin, x * thisSin + y * thisCos);
+        rotation.rotateBy(cos, sin);
+        return this;
+    }
+
+    public MutablePose2 transformBy(RigidTransform2 other) {
+        return transformBy(other.translation.x, other.translation.y, other.rotation.cos, other.rotation.sin);
+    }
+
+    public MutablePose2 transformBy(MutablePose2 other) {
+        return transformBy(other.translation.getX(), other.translation.getY(), other.rotation.getCos(),
+                other.rotation.getSin());
+    }
+
+    /**
+     * Changes this pose to the transform that would undo its effects.
+     *
+     * @return this pose
+     * @see RigidTransform2#inverse()
+     */
+    public MutablePose2 inverse() {
+        rotation.inverse();
+        translation.inverse().rotateBy(rotation);
+        return this;
+    }
+
+    public RigidTransform2 toRigidTransform2() {
+        return new RigidTransform2(translation.toVector2(), rotation.toRotation2());
+    }
+
+    @Override
+    public String toString() {
+        return "{T: " + translation + ", R: " + rotation + "}";
+    }
+}
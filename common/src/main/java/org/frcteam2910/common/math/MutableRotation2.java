@@ -0,0 +1,150 @@
+package org.frcteam2910.common.math;
+
+import java.text.DecimalFormat;
+
+/**
+ * A mutable version of {@link Rotation2}.
+ * <p>
+ * Every operation modifies the rotation in place and returns it so operations can be chained. Unlike {@link Rotation2}
+ * the tangent is only calculated when it is requested.
+ * <p>
+ * Mutable rotations are not thread-safe.
+ */
+public final class MutableRotation2 {
+    private double cos;
+    private double sin;
+
+    /**
+     * Creates a rotation with an angle of 0 degrees.
+     */
+    public MutableRotation2() {
+        this.cos = 1.0;
+        this.sin = 0.0;
+    }
+
+    public MutableRotation2(Rotation2 rotation) {
+        this.cos = rotation.cos;
+        this.sin = rotation.sin;
+    }
+
+    public double getCos() {
+        return cos;
+    }
+
+    public double getSin() {
+        return sin;
+    }
+
+    public double getTan() {
+        // Match the special cases used by Rotation2
+        if (MathUtils.epsilonEquals(cos, 0.0)) {
+            return sin >= 0.0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        }
+
+        return sin / cos;
+    }
+
+    /**
+     * Sets this rotation from a point, normalizing it to be on the unit circle if necessary.
+     *
+     * @param x         the x coordinate or cosine
+     * @param y         the y coordinate or sine
+     * @param normalize whether or not to normalize the coordinates. Should be true if it is uncertain if the point is
+     *                  on the unit circle.
+     * @return this rotation
+     */
+    public MutableRotation2 set(double x, double y, boolean normalize) {
+        if (normalize) {
+            double length = Math.sqrt(x * x + y * y);
+
+            // If the length is so small that we are unsure if the point has a direction, default to an angle of 0 degrees.
+            if (length > MathUtils.EPSILON) {
+                x /= length;
+                y /= length;
+            } else {
+                x = 1.0;
+                y = 0.0;
+            }
+        }
+
+        this.cos = x;
+        this.sin = y;
+        return this;
+    }
+
+    public MutableRotation2 set(Rotation2 rotation) {
+        return set(rotation.cos, rotation.sin, false);
+    }
+
+    public MutableRotation2 set(MutableRotation2 rotation) {
+        return set(rotation.cos, rotation.sin, false);
+    }
+
+    public MutableRotation2 setRadians(double angle) {
+        return set(Math.cos(angle), Math.sin(angle), false);
+    }
+
+    public MutableRotation2 setDegrees(double angle) {
+        return setRadians(Math.toRadians(angle));
+    }
+
+    /**
+     * Rotates this rotation by another rotation represented by its cosine and sine.
+     *
+     * @param cos the cosine of the other rotation
+     * @param sin the sine of the other rotation
+     * @return this rotation
+     */
+    public MutableRotation2 rotateBy(double cos, double sin) {
+        return set(this.cos * cos - this.sin * sin, this.cos * sin + this.sin * cos, true);
+    }
+
+    public MutableRotation2 rotateBy(Rotation2 other) {
+        return rotateBy(other.cos, other.sin);
+    }
+
+    public MutableRotation2 rotateBy(MutableRotation2 other) {
+        return rotateBy(other.cos, other.sin);
+    }
+
+    public MutableRotation2 normal() {
+        return set(-sin, cos, false);
+    }
+
+    public MutableRotation2 inverse() {
+        return set(cos, -sin, false);
+    }
+
+    /**
+     * Gets the angle of this rotation in radians.
+     *
+     * @return the angle in the range [0, 2&pi;)
+     */
+    public double toRadians() {
+        double angle = Math.atan2(sin, cos);
+
+        if (angle < 0.0) {
+            angle += 2.0 * Math.PI;
+        }
+
+        return angle;
+    }
+
+    public double toDegrees() {
+        return Math.toDegrees(toRadians());
+    }
+
+    public Rotation2 toRotation2() {
+        return new Rotation2(cos, sin, false);
+    }
+
+    public boolean equals(Rotation2 other) {
+        return MathUtils.epsilonEquals(cos, other.cos) && MathUtils.epsilonEquals(sin, other.sin);
+    }
+
+    @Override
+    public String toString() {
+        DecimalFormat fmt = new DecimalFormat("#0.000");
+        return fmt.format(toDegrees()) + '\u00b0';
+    }
+}
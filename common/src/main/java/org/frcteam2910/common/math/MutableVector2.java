@@ -0,0 +1,181 @@
+package org.frcteam2910.common.math;
+
+import java.text.DecimalFormat;
+
+/**
+ * A mutable version of {@link Vector2}.
+ * <p>
+ * Every operation modifies the vector in place and returns it so operations can be chained. This allows code that runs
+ * every update loop tick to reuse vectors instead of allocating new ones.
+ * <p>
+ * Mutable vectors are not thread-safe.
+ */
+public final class MutableVector2 {
+    private double x;
+    private double y;
+
+    /**
+     * Creates a vector with a length of zero.
+     */
+    public MutableVector2() {
+        this(0.0, 0.0);
+    }
+
+    public MutableVector2(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public MutableVector2(Vector2 vector) {
+        this(vector.x, vector.y);
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getLength() {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    public MutableVector2 set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    public MutableVector2 set(Vector2 vector) {
+        return set(vector.x, vector.y);
+    }
+
+    public MutableVector2 set(MutableVector2 vector) {
+        return set(vector.x, vector.y);
+    }
+
+    /**
+     * Sets this vector to a unit vector with the angle of a rotation.
+     *
+     * @param rotation the rotation
+     * @return this vector
+     */
+    public MutableVector2 setFromAngle(Rotation2 rotation) {
+        return set(rotation.cos, rotation.sin);
+    }
+
+    /**
+     * Sets this vector to a unit vector with the angle of a rotation.
+     *
+     * @param rotation the rotation
+     * @return this vector
+     */
+    public MutableVector2 setFromAngle(MutableRotation2 rotation) {
+        return set(rotation.getCos(), rotation.getSin());
+    }
+
+    public MutableVector2 add(double x, double y) {
+        return set(this.x + x, this.y + y);
+    }
+
+    public MutableVector2 add(Vector2 vector) {
+        return add(vector.x, vector.y);
+    }
+
+    public MutableVector2 add(MutableVector2 vector) {
+        return add(vector.x, vector.y);
+    }
+
+    public MutableVector2 subtract(double x, double y) {
+        return set(this.x - x, this.y - y);
+    }
+
+    public MutableVector2 subtract(Vector2 vector) {
+        return subtract(vector.x, vector.y);
+    }
+
+    public MutableVector2 subtract(MutableVector2 vector) {
+        return subtract(vector.x, vector.y);
+    }
+
+    public MutableVector2 multiply(double x, double y) {
+        return set(this.x * x, this.y * y);
+    }
+
+    public MutableVector2 scale(double scalar) {
+        return multiply(scalar, scalar);
+    }
+
+    public MutableVector2 inverse() {
+        return set(-x, -y);
+    }
+
+    /**
+     * Scales this vector so its length is one. A vector with a length of zero is not changed.
+     *
+     * @return this vector
+     */
+    public MutableVector2 normalize() {
+        double length = getLength();
+        if (length == 0.0) {
+            return this;
+        }
+
+        return set(x / length, y / length);
+    }
+
+    /**
+     * Rotates this vector by a rotation represented by its cosine and sine.
+     *
+     * @param cos the cosine of the rotation
+     * @param sin the sine of the rotation
+     * @return this vector
+     */
+    public MutableVector2 rotateBy(double cos, double sin) {
+        return set(x * cos - y * sin, x * sin + y * cos);
+    }
+
+    public MutableVector2 rotateBy(Rotation2 rotation) {
+        return rotateBy(rotation.cos, rotation.sin);
+    }
+
+    public MutableVector2 rotateBy(MutableRotation2 rotation) {
+        return rotateBy(rotation.getCos(), rotation.getSin());
+    }
+
+    /**
+     * Moves this vector a fraction of the way towards another vector.
+     *
+     * @param other the vector to move towards
+     * @param t     the fraction of the way to move. Not clamped.
+     * @return this vector
+     */
+    public MutableVector2 extrapolate(MutableVector2 other, double t) {
+        return set(x + (other.x - x) * t, y + (other.y - y) * t);
+    }
+
+    public double dot(MutableVector2 other) {
+        return x * other.x + y * other.y;
+    }
+
+    public double cross(MutableVector2 other) {
+        return x * other.y - y * other.x;
+    }
+
+    public Vector2 toVector2() {
+        return new Vector2(x, y);
+    }
+
+    public boolean equals(Vector2 other, double allowableError) {
+        return MathUtils.epsilonEquals(x, other.x, allowableError) &&
+                MathUtils.epsilonEquals(y, other.y, allowableError);
+    }
+
+    @Override
+    public String toString() {
+        DecimalFormat fmt = new DecimalFormat("#0.000");
+        return '(' + fmt.format(x) + ", " + fmt.format(y) + ')';
+    }
+}
@@ -53,10 +53,18 @@ public final class Vector2 implements Interpolable<Vector2>, Serializable {
      * @since 0.1
      */
 	public Vector2(double x, double y) {
+		// Math.hypot guards against overflow and underflow which is not a concern for the magnitudes we work with but
+		// makes it much slower than a square root. Vectors are created constantly so this adds up.
+		this(x, y, Math.sqrt(x * x + y * y));
+	}
+
+	/**
+	 * Creates a new vector whose length is already known.
+	 */
+	private Vector2(double x, double y, double length) {
 		this.x = x;
 		this.y = y;
-
-		this.length = Math.hypot(x, y);
+		this.length = length;
 	}
 
 	/**
@@ -182,7 +190,7 @@ public final class Vector2 implements Interpolable<Vector2>, Serializable {
      * @since 0.1
      */
 	public Vector2 inverse() {
-		return new Vector2(-x, -y);
+		return new Vector2(-x, -y, length);
 	}
 
     /**
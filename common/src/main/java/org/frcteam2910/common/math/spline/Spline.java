@@ -8,6 +8,18 @@ public class Spline {
     private final SimpleMatrix basisMatrix;
     private final SimpleMatrix basisWeightMatrix;
 
+    /**
+     * The polynomial coefficients of the x component of the spline. The coefficient for t<sup>i</sup> is at index i.
+     * <p>
+     * The coefficients are calculated once when the spline is created so that evaluating the spline does not require
+     * any matrix multiplication.
+     */
+    private final double[] xCoefficients;
+    /**
+     * The polynomial coefficients of the y component of the spline. The coefficient for t<sup>i</sup> is at index i.
+     */
+    private final double[] yCoefficients;
+
     private Spline derivative;
 
     public Spline(SimpleMatrix basisMatrix, SimpleMatrix basisWeightMatrix) {
@@ -23,6 +35,62 @@ public class Spline {
 
         this.basisMatrix = basisMatrix;
         this.basisWeightMatrix = basisWeightMatrix;
+
+        SimpleMatrix coefficients = basisMatrix.mult(basisWeightMatrix);
+        this.xCoefficients = new double[coefficients.numRows()];
+        this.yCoefficients = new double[coefficients.numRows()];
+        for (int i = 0; i < coefficients.numRows(); i++) {
+            xCoefficients[i] = coefficients.get(i, 0);
+            yCoefficients[i] = coefficients.get(i, 1);
+        }
+    }
+
+    /**
+     * Evaluates a polynomial using Horner's method.
+     *
+     * @param coefficients The coefficients of the polynomial. The coefficient for t<sup>i</sup> is at index i.
+     * @param t            The value to evaluate the polynomial at.
+     * @return The value of the polynomial.
+     */
+    private static double evaluate(double[] coefficients, double t) {
+        double result = 0.0;
+        for (int i = coefficients.length - 1; i >= 0; i--) {
+            result = result * t + coefficients[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * Evaluates the first derivative of a polynomial using Horner's method.
+     *
+     * @param coefficients The coefficients of the polynomial. The coefficient for t<sup>i</sup> is at index i.
+     * @param t            The value to evaluate the derivative at.
+     * @return The value of the derivative.
+     */
+    private static double evaluateDerivative(double[] coefficients, double t) {
+        double result = 0.0;
+        for (int i = coefficients.length - 1; i >= 1; i--) {
+            result = result * t + i * coefficients[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * Evaluates the second derivative of a polynomial using Horner's method.
+     *
+     * @param coefficients The coefficients of the polynomial. The coefficient for t<sup>i</sup> is at index i.
+     * @param t            The value to evaluate the second derivative at.
+     * @return The value of the second derivative.
+     */
+    private static double evaluateSecondDerivative(double[] coefficients, double t) {
+        double result = 0.0;
+        for (int i = coefficients.length - 1; i >= 2; i--) {
+            result = result * t + i * (i - 1) * coefficients[i];
+        }
+
+        return result;
     }
 
     public int getDegree() {
@@ -59,26 +127,82 @@ public class Spline {
     }
 
     public Vector2 getPoint(double t) {
-        SimpleMatrix result = SplineHelper.createPowerMatrix(getDegree(), t).mult(basisMatrix).mult(basisWeightMatrix);
+        return new Vector2(getX(t), getY(t));
+    }
+
+    /**
+     * Gets the x component of the point on the spline at t.
+     * <p>
+     * Unlike {@link #getPoint(double)} this does not allocate.
+     *
+     * @param t The parameter of the spline in the range [0, 1].
+     * @return The x coordinate of the point.
+     */
+    public double getX(double t) {
+        return evaluate(xCoefficients, t);
+    }
 
-        return new Vector2(result.get(0), result.get(1));
+    /**
+     * Gets the y component of the point on the spline at t.
+     * <p>
+     * Unlike {@link #getPoint(double)} this does not allocate.
+     *
+     * @param t The parameter of the spline in the range [0, 1].
+     * @return The y coordinate of the point.
+     */
+    public double getY(double t) {
+        return evaluate(yCoefficients, t);
+    }
+
+    /**
+     * Gets the first derivative of the spline w.r.t. t at t.
+     *
+     * @param t The parameter of the spline in the range [0, 1].
+     * @return The first derivative of the spline.
+     */
+    public Vector2 getFirstDerivative(double t) {
+        return new Vector2(evaluateDerivative(xCoefficients, t), evaluateDerivative(yCoefficients, t));
+    }
+
+    /**
+     * Gets the second derivative of the spline w.r.t. t at t.
+     *
+     * @param t The parameter of the spline in the range [0, 1].
+     * @return The second derivative of the spline.
+     */
+    public Vector2 getSecondDerivative(double t) {
+        return new Vector2(evaluateSecondDerivative(xCoefficients, t), evaluateSecondDerivative(yCoefficients, t));
+    }
+
+    /**
+     * Gets the magnitude of the first derivative of the spline at t. This is the rate that the distance along the
+     * spline changes w.r.t. t.
+     *
+     * @param t The parameter of the spline in the range [0, 1].
+     * @return The magnitude of the first derivative.
+     */
+    public double getDerivativeMagnitude(double t) {
+        double dx = evaluateDerivative(xCoefficients, t);
+        double dy = evaluateDerivative(yCoefficients, t);
+
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
     public Rotation2 getHeading(double t) {
-        return derivative().getPoint(t).getAngle();
+        return new Rotation2(evaluateDerivative(xCoefficients, t), evaluateDerivative(yCoefficients, t), true);
     }
 
     public double getCurvature(double t) {
-        Spline d = derivative(); // 1st derivative
-        Spline dd = d.derivative(); // 2nd derivative
-
-        Vector2 dv = d.getPoint(t);
-        Vector2 ddv = dd.getPoint(t);
+        double dx = evaluateDerivative(xCoefficients, t);
+        double dy = evaluateDerivative(yCoefficients, t);
+        double ddx = evaluateSecondDerivative(xCoefficients, t);
+        double ddy = evaluateSecondDerivative(yCoefficients, t);
 
         // Curvature can be calculated using the following equation:
         // k = (dv x ddv) / (dv . dv)^(3/2)
         //
         // https://en.wikipedia.org/wiki/Curvature#In_terms_of_a_general_parametrization
-        return dv.cross(ddv) / (dv.dot(dv) * dv.length);
+        double dot = dx * dx + dy * dy;
+        return (dx * ddy - dy * ddx) / (dot * Math.sqrt(dot));
     }
 }
@@ -0,0 +1,230 @@
+package org.frcteam2910.common.replay;
+
+import org.frcteam2910.common.control.HolonomicMotionProfiledTrajectoryFollower;
+import org.frcteam2910.common.drivers.SwerveDriveUpdater;
+import org.frcteam2910.common.kinematics.SwerveOdometry;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.util.HolonomicDriveSignal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Optional;
+
+/**
+ * Replays recorded {@link ReplayFrame}s through the drivebase's odometry, kinematics and trajectory follower.
+ * <p>
+ * Each frame is run through the same {@link SwerveDriveUpdater} as an update of the robot's swerve drivebase: the
+ * module readings go through {@link org.frcteam2910.common.drivers.SwerveModule}, the gyroscope reading has the
+ * recorded adjustment applied, the odometry integrates the module displacements and the drive signal is turned into
+ * module outputs. If a follower is set and is following a trajectory, its drive signal replaces the recorded one so
+ * changes to the controller can be compared.
+ * <p>
+ * Nothing depends on the real time so replaying is deterministic and runs as fast as the frames can be read. The
+ * results can be written as CSV with {@link #run(ReplayReader, Writer)}. Values are written with
+ * {@link Double#toString(double)} so any change in the results shows up when the output of two runs is diffed.
+ */
+public final class ReplayEngine {
+    private final ReplaySwerveModule[] modules;
+    private final ReplayGyroscope gyroscope = new ReplayGyroscope();
+    private final SwerveDriveUpdater updater;
+
+    private HolonomicMotionProfiledTrajectoryFollower follower = null;
+
+    // Reused every frame to avoid allocating
+    private final StringBuilder row = new StringBuilder();
+
+    private RigidTransform2 pose;
+    private HolonomicDriveSignal driveSignal = null;
+    private double previousGyroAdjustment = Double.NaN;
+    private long frameCount = 0;
+
+    /**
+     * Creates an engine that integrates odometry with {@link SwerveOdometry.IntegrationMethod#ARC} from the origin and
+     * rotates field oriented translations with {@link SwerveDriveUpdater.FieldOrientedRotation#HEADING}, like the
+     * robot does.
+     *
+     * @param modulePositions the positions of the modules relative to the center of the robot, in the order they were
+     *                        recorded
+     */
+    public ReplayEngine(Vector2... modulePositions) {
+        this(SwerveOdometry.IntegrationMethod.ARC, RigidTransform2.ZERO, modulePositions);
+    }
+
+    /**
+     * Creates an engine that rotates field oriented translations with
+     * {@link SwerveDriveUpdater.FieldOrientedRotation#HEADING}, like the robot does.
+     *
+     * @param integrationMethod how the odometry integrates the movement of the robot
+     * @param initialPose       the pose of the robot before the first frame
+     * @param modulePositions   the positions of the modules relative to the center of the robot, in the order they
+     *                          were recorded
+     */
+    public ReplayEngine(SwerveOdometry.IntegrationMethod integrationMethod, RigidTransform2 initialPose,
+                        Vector2... modulePositions) {
+        this(integrationMethod, SwerveDriveUpdater.FieldOrientedRotation.HEADING, initialPose, modulePositions);
+    }
+
+    /**
+     * @param integrationMethod     how the odometry integrates the movement of the robot
+     * @param fieldOrientedRotation how field oriented translations were rotated into the robot's frame when the frames
+     *                              were recorded
+     * @param initialPose           the pose of the robot before the first frame
+     * @param modulePositions       the positions of the modules relative to the center of the robot, in the order
+     *                              they were recorded
+     */
+    public ReplayEngine(SwerveOdometry.IntegrationMethod integrationMethod,
+                        SwerveDriveUpdater.FieldOrientedRotation fieldOrientedRotation, RigidTransform2 initialPose,
+                        Vector2... modulePositions) {
+        modules = new ReplaySwerveModule[modulePositions.length];
+        for (int i = 0; i < modules.length; i++) {
+            modules[i] = new ReplaySwerveModule(modulePositions[i]);
+        }
+
+        updater = new SwerveDriveUpdater(integrationMethod, fieldOrientedRotation, initialPose, modules);
+        pose = initialPose;
+    }
+
+    public int getModuleCount() {
+        return modules.length;
+    }
+
+    /**
+     * Sets the follower whose drive signal replaces the recorded drive signal while it is following a trajectory.
+     *
+     * @param follower the follower or null to always use the recorded drive signal
+     */
+    public void setFollower(HolonomicMotionProfiledTrajectoryFollower follower) {
+        this.follower = follower;
+    }
+
+    /**
+     * Runs one frame through the drivebase.
+     *
+     * @param frame the frame. Must have the same amount of modules as the engine.
+     */
+    public void update(ReplayFrame frame) {
+        if (frame.getModuleCount() != modules.length) {
+            throw new IllegalArgumentException("The frame does not have the same amount of modules as the engine");
+        }
+
+        double timestamp = frame.getTimestamp();
+        double dt = frame.getDt();
+
+        for (int i = 0; i < modules.length; i++) {
+            modules[i].setReadings(frame.getModuleAngle(i), frame.getModuleDistance(i), frame.getModuleVelocity(i));
+        }
+
+        gyroscope.setReading(frame);
+        if (!Double.isNaN(previousGyroAdjustment) && frame.getGyroAdjustment() != previousGyroAdjustment) {
+            // The gyroscope was reset, the drivebase resets the odometry's rotation along with it
+            updater.resetRotation(gyroscope.getAngle());
+        }
+        previousGyroAdjustment = frame.getGyroAdjustment();
+        pose = updater.updateOdometry(timestamp, gyroscope.getAngle());
+
+        HolonomicDriveSignal signal = frame.toDriveSignal();
+        if (follower != null) {
+            Optional<HolonomicDriveSignal> followerSignal = follower.update(pose, updater.getVelocity(),
+                    updater.getAngularVelocity(), timestamp, dt);
+            if (followerSignal.isPresent()) {
+                signal = followerSignal.get();
+            }
+        }
+        driveSignal = signal;
+
+        updater.updateModules(signal, dt);
+        frameCount++;
+    }
+
+    public RigidTransform2 getPose() {
+        return pose;
+    }
+
+    /**
+     * Gets the drive signal used by the most recent frame.
+     *
+     * @return the drive signal or null if there was none
+     */
+    public HolonomicDriveSignal getDriveSignal() {
+        return driveSignal;
+    }
+
+    /**
+     * @param module the index of the module
+     * @return the angle the module was told to turn to in the most recent frame in radians
+     */
+    public double getModuleTargetAngle(int module) {
+        return modules[module].getTargetAngle();
+    }
+
+    /**
+     * @param module the index of the module
+     * @return the output the module's drive motor was set to in the most recent frame
+     */
+    public double getModuleDriveOutput(int module) {
+        return modules[module].getDriveOutput();
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Replays every frame of a log and writes the results of each frame as a CSV row.
+     *
+     * @param reader the frames to replay
+     * @param out    the writer to write the CSV to
+     * @return the amount of frames that were replayed
+     * @throws IOException if the frames could not be read or the CSV could not be written
+     */
+    public long run(ReplayReader reader, Writer out) throws IOException {
+        writeCsvHeader(out);
+
+        ReplayFrame frame = new ReplayFrame(reader.getModuleCount());
+        long frames = 0;
+        while (reader.next(frame)) {
+            update(frame);
+            writeCsvRow(frame.getTimestamp(), out);
+            frames++;
+        }
+        out.flush();
+
+        return frames;
+    }
+
+    private void writeCsvHeader(Writer out) throws IOException {
+        row.setLength(0);
+        row.append("timestamp,pose_x,pose_y,pose_angle,signal_x,signal_y,signal_rotation,signal_field_oriented");
+        for (int i = 0; i < modules.length; i++) {
+            row.append(",module_").append(i).append("_target_angle");
+            row.append(",module_").append(i).append("_drive_output");
+        }
+        row.append('\n');
+        out.append(row);
+    }
+
+    private void writeCsvRow(double timestamp, Writer out) throws IOException {
+        row.setLength(0);
+        row.append(timestamp);
+        row.append(',').append(pose.translation.x);
+        row.append(',').append(pose.translation.y);
+        row.append(',').append(pose.rotation.toDegrees());
+
+        if (driveSignal == null) {
+            row.append(",,,,");
+        } else {
+            row.append(',').append(driveSignal.getTranslation().x);
+            row.append(',').append(driveSignal.getTranslation().y);
+            row.append(',').append(driveSignal.getRotation());
+            row.append(',').append(driveSignal.isFieldOriented());
+        }
+
+        for (ReplaySwerveModule module : modules) {
+            row.append(',').append(Math.toDegrees(module.getTargetAngle()));
+            row.append(',').append(module.getDriveOutput());
+        }
+        row.append('\n');
+        out.append(row);
+    }
+}
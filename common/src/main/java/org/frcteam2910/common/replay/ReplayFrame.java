@@ -0,0 +1,220 @@
+package org.frcteam2910.common.replay;
+
+import org.frcteam2910.common.drivers.SwerveModuleSnapshot;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.util.HolonomicDriveSignal;
+
+/**
+ * The raw inputs consumed by one update of a swerve drivebase.
+ * <p>
+ * A frame holds the time of the update, the sensor readings of every module, the unadjusted gyroscope angle along with
+ * the adjustment that was applied to it and the drive signal that was requested. Replaying these through the same code
+ * reproduces the update exactly.
+ * <p>
+ * Frames are mutable so they can be reused every update without allocating.
+ */
+public final class ReplayFrame {
+    private double timestamp = Double.NaN;
+    private double dt = Double.NaN;
+
+    private final double[] moduleAngles;
+    private final double[] moduleDistances;
+    private final double[] moduleVelocities;
+
+    private double gyroAngle = 0.0;
+    private double gyroAdjustment = 0.0;
+    private boolean gyroInverted = false;
+
+    private boolean hasDriveSignal = false;
+    private double driveTranslationX = 0.0;
+    private double driveTranslationY = 0.0;
+    private double driveRotation = 0.0;
+    private boolean driveFieldOriented = false;
+
+    /**
+     * @param moduleCount the amount of swerve modules on the drivebase
+     */
+    public ReplayFrame(int moduleCount) {
+        if (moduleCount < 1) {
+            throw new IllegalArgumentException("The module count must be positive");
+        }
+
+        moduleAngles = new double[moduleCount];
+        moduleDistances = new double[moduleCount];
+        moduleVelocities = new double[moduleCount];
+    }
+
+    public int getModuleCount() {
+        return moduleAngles.length;
+    }
+
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    public double getDt() {
+        return dt;
+    }
+
+    /**
+     * Sets the time of the update.
+     *
+     * @param timestamp the time of the update in seconds
+     * @param dt        the time since the previous update in seconds, as given to the update
+     */
+    public void setTime(double timestamp, double dt) {
+        this.timestamp = timestamp;
+        this.dt = dt;
+    }
+
+    public double getModuleAngle(int module) {
+        return moduleAngles[module];
+    }
+
+    public double getModuleDistance(int module) {
+        return moduleDistances[module];
+    }
+
+    public double getModuleVelocity(int module) {
+        return moduleVelocities[module];
+    }
+
+    /**
+     * Sets the sensor readings of a module.
+     *
+     * @param module   the index of the module
+     * @param angle    the angle of the module in radians
+     * @param distance the distance the module has driven
+     * @param velocity the velocity of the module
+     */
+    public void setModule(int module, double angle, double distance, double velocity) {
+        moduleAngles[module] = angle;
+        moduleDistances[module] = distance;
+        moduleVelocities[module] = velocity;
+    }
+
+    /**
+     * Sets the sensor readings of a module from its snapshot.
+     *
+     * @param module   the index of the module
+     * @param snapshot the module's snapshot
+     */
+    public void setModule(int module, SwerveModuleSnapshot snapshot) {
+        setModule(module, snapshot.getAngle(), snapshot.getDistance(), snapshot.getVelocity());
+    }
+
+    /**
+     * @return the unadjusted gyroscope angle in radians
+     */
+    public double getGyroAngle() {
+        return gyroAngle;
+    }
+
+    /**
+     * @return the gyroscope's adjustment angle in radians
+     */
+    public double getGyroAdjustment() {
+        return gyroAdjustment;
+    }
+
+    public boolean isGyroInverted() {
+        return gyroInverted;
+    }
+
+    /**
+     * Sets the gyroscope reading.
+     *
+     * @param unadjustedAngle the unadjusted angle of the gyroscope
+     * @param adjustment      the gyroscope's adjustment angle
+     * @param inverted        if the gyroscope is inverted
+     */
+    public void setGyro(Rotation2 unadjustedAngle, Rotation2 adjustment, boolean inverted) {
+        setGyro(unadjustedAngle.toRadians(), adjustment.toRadians(), inverted);
+    }
+
+    /**
+     * Sets the gyroscope reading.
+     *
+     * @param unadjustedAngle the unadjusted angle of the gyroscope in radians
+     * @param adjustment      the gyroscope's adjustment angle in radians
+     * @param inverted        if the gyroscope is inverted
+     */
+    public void setGyro(double unadjustedAngle, double adjustment, boolean inverted) {
+        this.gyroAngle = unadjustedAngle;
+        this.gyroAdjustment = adjustment;
+        this.gyroInverted = inverted;
+    }
+
+    public boolean hasDriveSignal() {
+        return hasDriveSignal;
+    }
+
+    public double getDriveTranslationX() {
+        return driveTranslationX;
+    }
+
+    public double getDriveTranslationY() {
+        return driveTranslationY;
+    }
+
+    public double getDriveRotation() {
+        return driveRotation;
+    }
+
+    public boolean isDriveFieldOriented() {
+        return driveFieldOriented;
+    }
+
+    /**
+     * Sets the requested drive signal.
+     *
+     * @param translationX  the x component of the requested translation
+     * @param translationY  the y component of the requested translation
+     * @param rotation      the requested rotation
+     * @param fieldOriented if the translation is field oriented
+     */
+    public void setDriveSignal(double translationX, double translationY, double rotation, boolean fieldOriented) {
+        this.hasDriveSignal = true;
+        this.driveTranslationX = translationX;
+        this.driveTranslationY = translationY;
+        this.driveRotation = rotation;
+        this.driveFieldOriented = fieldOriented;
+    }
+
+    /**
+     * Sets the requested drive signal.
+     *
+     * @param signal the drive signal or null if no signal was requested
+     */
+    public void setDriveSignal(HolonomicDriveSignal signal) {
+        if (signal == null) {
+            clearDriveSignal();
+        } else {
+            setDriveSignal(signal.getTranslation().x, signal.getTranslation().y, signal.getRotation(),
+                    signal.isFieldOriented());
+        }
+    }
+
+    public void clearDriveSignal() {
+        hasDriveSignal = false;
+        driveTranslationX = 0.0;
+        driveTranslationY = 0.0;
+        driveRotation = 0.0;
+        driveFieldOriented = false;
+    }
+
+    /**
+     * Creates the requested drive signal.
+     *
+     * @return the drive signal or null if no signal was requested
+     */
+    public HolonomicDriveSignal toDriveSignal() {
+        if (!hasDriveSignal) {
+            return null;
+        }
+
+        return new HolonomicDriveSignal(new Vector2(driveTranslationX, driveTranslationY), driveRotation,
+                driveFieldOriented);
+    }
+}
@@ -0,0 +1,32 @@
+package org.frcteam2910.common.replay;
+
+import org.frcteam2910.common.drivers.Gyroscope;
+import org.frcteam2910.common.math.Rotation2;
+
+/**
+ * A gyroscope that returns the reading of a {@link ReplayFrame}.
+ */
+final class ReplayGyroscope extends Gyroscope {
+    private Rotation2 unadjustedAngle = Rotation2.ZERO;
+
+    void setReading(ReplayFrame frame) {
+        unadjustedAngle = Rotation2.fromRadians(frame.getGyroAngle());
+        setAdjustmentAngle(Rotation2.fromRadians(frame.getGyroAdjustment()));
+        setInverted(frame.isGyroInverted());
+    }
+
+    @Override
+    public void calibrate() {
+    }
+
+    @Override
+    public Rotation2 getUnadjustedAngle() {
+        return unadjustedAngle;
+    }
+
+    @Override
+    public double getUnadjustedRate() {
+        // Nothing in the update loop uses the rate
+        return 0.0;
+    }
+}
@@ -0,0 +1,155 @@
+package org.frcteam2910.common.replay;
+
+import org.frcteam2910.common.io.DataLogReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the {@link ReplayFrame}s recorded by a {@link ReplayRecorder} from a data log. Records of other signals in the
+ * log are skipped.
+ */
+public final class ReplayReader implements Closeable {
+    private final DataLogReader reader;
+    private final int moduleCount;
+
+    private final DataLogReader.Signal frameSignal;
+    private final DataLogReader.Signal dtSignal;
+    private final DataLogReader.Signal[] moduleAngleSignals;
+    private final DataLogReader.Signal[] moduleDistanceSignals;
+    private final DataLogReader.Signal[] moduleVelocitySignals;
+    private final DataLogReader.Signal gyroAngleSignal;
+    private final DataLogReader.Signal gyroAdjustmentSignal;
+    private final DataLogReader.Signal gyroInvertedSignal;
+    private final DataLogReader.Signal driveTranslationXSignal;
+    private final DataLogReader.Signal driveTranslationYSignal;
+    private final DataLogReader.Signal driveRotationSignal;
+    private final DataLogReader.Signal driveFieldOrientedSignal;
+
+    private final DataLogReader.Record record = new DataLogReader.Record();
+
+    /**
+     * @param reader the reader of the log the frames were recorded to
+     * @throws IOException if the log does not have the signals of a recorder
+     */
+    public ReplayReader(DataLogReader reader) throws IOException {
+        this.reader = reader;
+
+        int moduleCount = 0;
+        while (reader.getSignal(ReplayRecorder.getModuleAngleSignal(moduleCount)) != null) {
+            moduleCount++;
+        }
+        if (moduleCount == 0) {
+            throw new IOException("The log does not contain any replay frames");
+        }
+        this.moduleCount = moduleCount;
+
+        frameSignal = getSignal(ReplayRecorder.FRAME_SIGNAL);
+        dtSignal = getSignal(ReplayRecorder.DT_SIGNAL);
+
+        moduleAngleSignals = new DataLogReader.Signal[moduleCount];
+        moduleDistanceSignals = new DataLogReader.Signal[moduleCount];
+        moduleVelocitySignals = new DataLogReader.Signal[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            moduleAngleSignals[i] = getSignal(ReplayRecorder.getModuleAngleSignal(i));
+            moduleDistanceSignals[i] = getSignal(ReplayRecorder.getModuleDistanceSignal(i));
+            moduleVelocitySignals[i] = getSignal(ReplayRecorder.getModuleVelocitySignal(i));
+        }
+
+        gyroAngleSignal = getSignal(ReplayRecorder.GYRO_ANGLE_SIGNAL);
+        gyroAdjustmentSignal = getSignal(ReplayRecorder.GYRO_ADJUSTMENT_SIGNAL);
+        gyroInvertedSignal = getSignal(ReplayRecorder.GYRO_INVERTED_SIGNAL);
+        driveTranslationXSignal = getSignal(ReplayRecorder.DRIVE_TRANSLATION_X_SIGNAL);
+        driveTranslationYSignal = getSignal(ReplayRecorder.DRIVE_TRANSLATION_Y_SIGNAL);
+        driveRotationSignal = getSignal(ReplayRecorder.DRIVE_ROTATION_SIGNAL);
+        driveFieldOrientedSignal = getSignal(ReplayRecorder.DRIVE_FIELD_ORIENTED_SIGNAL);
+    }
+
+    private DataLogReader.Signal getSignal(String name) throws IOException {
+        DataLogReader.Signal signal = reader.getSignal(name);
+        if (signal == null) {
+            throw new IOException("The log is missing the " + name + " signal");
+        }
+
+        return signal;
+    }
+
+    public int getModuleCount() {
+        return moduleCount;
+    }
+
+    /**
+     * Reads the next frame. A frame that was only partly written when the log ended is not returned.
+     *
+     * @param out the frame to read into. Must have the same amount of modules as the log.
+     * @return false if there are no more frames
+     * @throws IOException if the log could not be read
+     */
+    public boolean next(ReplayFrame out) throws IOException {
+        if (out.getModuleCount() != moduleCount) {
+            throw new IllegalArgumentException("The frame does not have the same amount of modules as the log");
+        }
+
+        out.clearDriveSignal();
+        double driveTranslationX = 0.0;
+        double driveTranslationY = 0.0;
+        double driveRotation = 0.0;
+        boolean driveFieldOriented = false;
+        boolean hasDriveSignal = false;
+
+        double dt = Double.NaN;
+        double gyroAngle = 0.0;
+        double gyroAdjustment = 0.0;
+        boolean gyroInverted = false;
+
+        while (reader.next(record)) {
+            DataLogReader.Signal signal = record.getSignal();
+            if (signal == frameSignal) {
+                out.setTime(record.getTimestamp(), dt);
+                out.setGyro(gyroAngle, gyroAdjustment, gyroInverted);
+                if (hasDriveSignal) {
+                    out.setDriveSignal(driveTranslationX, driveTranslationY, driveRotation, driveFieldOriented);
+                }
+                return true;
+            } else if (signal == dtSignal) {
+                dt = record.getDouble();
+            } else if (signal == gyroAngleSignal) {
+                gyroAngle = record.getDouble();
+            } else if (signal == gyroAdjustmentSignal) {
+                gyroAdjustment = record.getDouble();
+            } else if (signal == gyroInvertedSignal) {
+                gyroInverted = record.getBoolean();
+            } else if (signal == driveTranslationXSignal) {
+                driveTranslationX = record.getDouble();
+                hasDriveSignal = true;
+            } else if (signal == driveTranslationYSignal) {
+                driveTranslationY = record.getDouble();
+            } else if (signal == driveRotationSignal) {
+                driveRotation = record.getDouble();
+            } else if (signal == driveFieldOrientedSignal) {
+                driveFieldOriented = record.getBoolean();
+            } else {
+                readModuleRecord(out, signal);
+            }
+        }
+
+        return false;
+    }
+
+    private void readModuleRecord(ReplayFrame out, DataLogReader.Signal signal) {
+        for (int i = 0; i < moduleCount; i++) {
+            if (signal == moduleAngleSignals[i]) {
+                out.setModule(i, record.getDouble(), out.getModuleDistance(i), out.getModuleVelocity(i));
+            } else if (signal == moduleDistanceSignals[i]) {
+                out.setModule(i, out.getModuleAngle(i), record.getDouble(), out.getModuleVelocity(i));
+            } else if (signal == moduleVelocitySignals[i]) {
+                out.setModule(i, out.getModuleAngle(i), out.getModuleDistance(i), record.getDouble());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,127 @@
+package org.frcteam2910.common.replay;
+
+import org.frcteam2910.common.io.DataLog;
+
+import java.io.IOException;
+
+/**
+ * Records {@link ReplayFrame}s to a {@link DataLog} so they can be replayed later by a {@link ReplayEngine}.
+ * <p>
+ * The inputs are recorded as signals whose names start with {@value #SIGNAL_PREFIX}, so a log can hold other signals
+ * too. Every frame ends with a record of the {@value #FRAME_SIGNAL} signal holding the index of the frame.
+ * <p>
+ * Like the data log, a recorder is not thread-safe and should be used from the thread updating the drivebase.
+ */
+public final class ReplayRecorder {
+    static final String SIGNAL_PREFIX = "Replay/";
+    static final String FRAME_SIGNAL = SIGNAL_PREFIX + "Frame";
+    static final String DT_SIGNAL = SIGNAL_PREFIX + "Dt";
+    static final String GYRO_ANGLE_SIGNAL = SIGNAL_PREFIX + "Gyro Angle";
+    static final String GYRO_ADJUSTMENT_SIGNAL = SIGNAL_PREFIX + "Gyro Adjustment";
+    static final String GYRO_INVERTED_SIGNAL = SIGNAL_PREFIX + "Gyro Inverted";
+    static final String DRIVE_TRANSLATION_X_SIGNAL = SIGNAL_PREFIX + "Drive Translation X";
+    static final String DRIVE_TRANSLATION_Y_SIGNAL = SIGNAL_PREFIX + "Drive Translation Y";
+    static final String DRIVE_ROTATION_SIGNAL = SIGNAL_PREFIX + "Drive Rotation";
+    static final String DRIVE_FIELD_ORIENTED_SIGNAL = SIGNAL_PREFIX + "Drive Field Oriented";
+
+    private final DataLog.Signal frameSignal;
+    private final DataLog.Signal dtSignal;
+    private final DataLog.Signal[] moduleAngleSignals;
+    private final DataLog.Signal[] moduleDistanceSignals;
+    private final DataLog.Signal[] moduleVelocitySignals;
+    private final DataLog.Signal gyroAngleSignal;
+    private final DataLog.Signal gyroAdjustmentSignal;
+    private final DataLog.Signal gyroInvertedSignal;
+    private final DataLog.Signal driveTranslationXSignal;
+    private final DataLog.Signal driveTranslationYSignal;
+    private final DataLog.Signal driveRotationSignal;
+    private final DataLog.Signal driveFieldOrientedSignal;
+
+    private long frameCount = 0;
+
+    /**
+     * Adds the signals of the inputs to a log.
+     *
+     * @param log         the log to record to
+     * @param moduleCount the amount of swerve modules on the drivebase
+     * @throws IOException if the signals could not be added to the log
+     */
+    public ReplayRecorder(DataLog log, int moduleCount) throws IOException {
+        if (moduleCount < 1) {
+            throw new IllegalArgumentException("The module count must be positive");
+        }
+
+        dtSignal = log.addSignal(DT_SIGNAL, DataLog.SignalType.DOUBLE);
+
+        moduleAngleSignals = new DataLog.Signal[moduleCount];
+        moduleDistanceSignals = new DataLog.Signal[moduleCount];
+        moduleVelocitySignals = new DataLog.Signal[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            moduleAngleSignals[i] = log.addSignal(getModuleAngleSignal(i), DataLog.SignalType.DOUBLE);
+            moduleDistanceSignals[i] = log.addSignal(getModuleDistanceSignal(i), DataLog.SignalType.DOUBLE);
+            moduleVelocitySignals[i] = log.addSignal(getModuleVelocitySignal(i), DataLog.SignalType.DOUBLE);
+        }
+
+        gyroAngleSignal = log.addSignal(GYRO_ANGLE_SIGNAL, DataLog.SignalType.DOUBLE);
+        gyroAdjustmentSignal = log.addSignal(GYRO_ADJUSTMENT_SIGNAL, DataLog.SignalType.DOUBLE);
+        gyroInvertedSignal = log.addSignal(GYRO_INVERTED_SIGNAL, DataLog.SignalType.BOOLEAN);
+
+        driveTranslationXSignal = log.addSignal(DRIVE_TRANSLATION_X_SIGNAL, DataLog.SignalType.DOUBLE);
+        driveTranslationYSignal = log.addSignal(DRIVE_TRANSLATION_Y_SIGNAL, DataLog.SignalType.DOUBLE);
+        driveRotationSignal = log.addSignal(DRIVE_ROTATION_SIGNAL, DataLog.SignalType.DOUBLE);
+        driveFieldOrientedSignal = log.addSignal(DRIVE_FIELD_ORIENTED_SIGNAL, DataLog.SignalType.BOOLEAN);
+
+        // Added last so a reader knows every other signal when it sees the first frame end
+        frameSignal = log.addSignal(FRAME_SIGNAL, DataLog.SignalType.LONG);
+    }
+
+    static String getModuleAngleSignal(int module) {
+        return SIGNAL_PREFIX + "Module " + module + " Angle";
+    }
+
+    static String getModuleDistanceSignal(int module) {
+        return SIGNAL_PREFIX + "Module " + module + " Distance";
+    }
+
+    static String getModuleVelocitySignal(int module) {
+        return SIGNAL_PREFIX + "Module " + module + " Velocity";
+    }
+
+    /**
+     * Records a frame.
+     *
+     * @param frame the frame. Must have the same amount of modules as the recorder.
+     */
+    public void record(ReplayFrame frame) {
+        if (frame.getModuleCount() != moduleAngleSignals.length) {
+            throw new IllegalArgumentException("The frame does not have the same amount of modules as the recorder");
+        }
+
+        double timestamp = frame.getTimestamp();
+        dtSignal.append(timestamp, frame.getDt());
+
+        for (int i = 0; i < moduleAngleSignals.length; i++) {
+            moduleAngleSignals[i].append(timestamp, frame.getModuleAngle(i));
+            moduleDistanceSignals[i].append(timestamp, frame.getModuleDistance(i));
+            moduleVelocitySignals[i].append(timestamp, frame.getModuleVelocity(i));
+        }
+
+        gyroAngleSignal.append(timestamp, frame.getGyroAngle());
+        gyroAdjustmentSignal.append(timestamp, frame.getGyroAdjustment());
+        gyroInvertedSignal.append(timestamp, frame.isGyroInverted());
+
+        // No drive signal is recorded as the absence of one
+        if (frame.hasDriveSignal()) {
+            driveTranslationXSignal.append(timestamp, frame.getDriveTranslationX());
+            driveTranslationYSignal.append(timestamp, frame.getDriveTranslationY());
+            driveRotationSignal.append(timestamp, frame.getDriveRotation());
+            driveFieldOrientedSignal.append(timestamp, frame.isDriveFieldOriented());
+        }
+
+        frameSignal.append(timestamp, frameCount++);
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+}
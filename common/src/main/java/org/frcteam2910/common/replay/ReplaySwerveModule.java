@@ -0,0 +1,60 @@
+package org.frcteam2910.common.replay;
+
+import org.frcteam2910.common.drivers.SwerveModule;
+import org.frcteam2910.common.math.Vector2;
+
+/**
+ * A swerve module whose sensors return the readings of a {@link ReplayFrame} and whose outputs are stored so they can be
+ * compared.
+ */
+final class ReplaySwerveModule extends SwerveModule {
+    private double angle;
+    private double distance;
+    private double velocity;
+
+    private double targetAngle = 0.0;
+    private double driveOutput = 0.0;
+
+    ReplaySwerveModule(Vector2 modulePosition) {
+        super(modulePosition);
+    }
+
+    void setReadings(double angle, double distance, double velocity) {
+        this.angle = angle;
+        this.distance = distance;
+        this.velocity = velocity;
+    }
+
+    @Override
+    protected double readAngle() {
+        return angle;
+    }
+
+    @Override
+    protected double readDistance() {
+        return distance;
+    }
+
+    @Override
+    protected double readVelocity() {
+        return velocity;
+    }
+
+    @Override
+    protected void setTargetAngle(double angle) {
+        this.targetAngle = angle;
+    }
+
+    @Override
+    protected void setDriveOutput(double output) {
+        this.driveOutput = output;
+    }
+
+    double getTargetAngle() {
+        return targetAngle;
+    }
+
+    double getDriveOutput() {
+        return driveOutput;
+    }
+}
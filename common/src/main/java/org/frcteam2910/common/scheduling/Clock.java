@@ -0,0 +1,22 @@
+package org.frcteam2910.common.scheduling;
+
+/**
+ * A source of timestamps.
+ * <p>
+ * On a robot this is usually the FPGA timer. Replacing it with a {@link SimulatedClock} allows code that depends on
+ * time to run deterministically on a desktop JVM.
+ */
+@FunctionalInterface
+public interface Clock {
+    /**
+     * A clock based on {@link System#nanoTime()}.
+     */
+    Clock SYSTEM = () -> System.nanoTime() * 1.0e-9;
+
+    /**
+     * Gets the current time.
+     *
+     * @return the current time in seconds
+     */
+    double getTime();
+}
@@ -0,0 +1,41 @@
+package org.frcteam2910.common.scheduling;
+
+/**
+ * A clock whose time only changes when it is advanced.
+ */
+public final class SimulatedClock implements Clock {
+    private volatile double time;
+
+    /**
+     * Creates a clock starting at a time of 0 seconds.
+     */
+    public SimulatedClock() {
+        this(0.0);
+    }
+
+    public SimulatedClock(double time) {
+        this.time = time;
+    }
+
+    @Override
+    public double getTime() {
+        return time;
+    }
+
+    public void setTime(double time) {
+        this.time = time;
+    }
+
+    /**
+     * Moves the clock forwards.
+     *
+     * @param dt the amount of time to advance by in seconds
+     */
+    public void advance(double dt) {
+        if (dt < 0.0) {
+            throw new IllegalArgumentException("Cannot advance a clock backwards");
+        }
+
+        time += dt;
+    }
+}
@@ -0,0 +1,15 @@
+package org.frcteam2910.common.scheduling;
+
+/**
+ * Something that is updated periodically by an {@link UpdateScheduler}.
+ */
+@FunctionalInterface
+public interface Updatable {
+    /**
+     * Updates this object.
+     *
+     * @param time the time of the update in seconds
+     * @param dt   the time since this object was last updated in seconds
+     */
+    void update(double time, double dt);
+}
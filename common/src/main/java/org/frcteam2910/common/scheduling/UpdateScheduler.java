@@ -0,0 +1,418 @@
+package org.frcteam2910.common.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link Updatable}s at fixed rates and measures how long they take.
+ * <p>
+ * The scheduler does not own a thread. Every call to {@link #tick()} is one tick of the base period and something
+ * else, like a WPILib <code>Notifier</code> on a robot or a loop advancing a {@link SimulatedClock} in a test, calls it
+ * periodically. Each updatable has a rate divisor and is run every <code>rateDivisor</code> ticks, in the order they
+ * were registered. Because the schedule only depends on the amount of ticks and the clock, a simulated clock makes
+ * every run deterministic.
+ * <p>
+ * For every updatable and for the tick as a whole the execution time, jitter and overruns are recorded in
+ * {@link UpdateStatistics}. Ticks that the clock shows were skipped because a previous tick ran late are counted
+ * separately.
+ * <p>
+ * An updatable can depend on other updatables, which must be registered before it. Updatables are grouped into levels
+ * where every updatable is in a later level than all of its dependencies. With a single thread every updatable is run
+ * on the thread calling {@link #tick()} in the order they were registered. With more threads the updatables in a level
+ * are run concurrently on a fixed pool of worker threads, the thread calling {@link #tick()} included, and the next
+ * level does not start until every updatable in the level has finished. An updatable is always run after its
+ * dependencies in the same tick and sees everything they did.
+ */
+public final class UpdateScheduler implements AutoCloseable {
+    private static final AtomicInteger schedulerCount = new AtomicInteger();
+
+    private final Object lock = new Object();
+
+    private final Clock clock;
+
+    /**
+     * Every entry in the order it was registered. This is a valid order to run them in one thread.
+     */
+    private final List<Entry> entries = new ArrayList<>();
+    /**
+     * The entries grouped by how many levels of dependencies they have.
+     */
+    private final List<List<Entry>> levels = new ArrayList<>();
+
+    private final ExecutorService executor;
+
+    private final Object levelLock = new Object();
+    // Guarded by levelLock
+    private int pendingUpdates = 0;
+    private Throwable failure = null;
+
+    private final UpdateStatistics tickStatistics = new UpdateStatistics();
+
+    private volatile double period;
+
+    // Only written by the thread calling tick()
+    private volatile long tickCount = 0;
+    private volatile long missedTickCount = 0;
+    private double lastTickTime = Double.NaN;
+
+    /**
+     * @param clock  the clock to get the time of each tick from
+     * @param period the expected time between ticks in seconds
+     */
+    public UpdateScheduler(Clock clock, double period) {
+        this(clock, period, 1);
+    }
+
+    /**
+     * @param clock       the clock to get the time of each tick from
+     * @param period      the expected time between ticks in seconds
+     * @param threadCount the amount of threads to run updatables on, including the thread calling {@link #tick()}
+     */
+    public UpdateScheduler(Clock clock, double period, int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The thread count must be positive");
+        }
+
+        this.clock = clock;
+        setPeriod(period);
+
+        if (threadCount == 1) {
+            executor = null;
+        } else {
+            int schedulerId = schedulerCount.incrementAndGet();
+            AtomicInteger workerCount = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable,
+                        "UpdateScheduler-" + schedulerId + "-worker-" + workerCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+
+            executor = Executors.newFixedThreadPool(threadCount - 1, threadFactory);
+        }
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public double getPeriod() {
+        return period;
+    }
+
+    /**
+     * Sets the expected time between ticks. This is used to calculate the jitter and overruns and does not change how
+     * often {@link #tick()} is called.
+     *
+     * @param period the expected time between ticks in seconds
+     */
+    public void setPeriod(double period) {
+        if (period <= 0.0) {
+            throw new IllegalArgumentException("The period must be positive");
+        }
+
+        this.period = period;
+    }
+
+    /**
+     * Registers an updatable to be run every tick.
+     *
+     * @param updatable the updatable
+     * @return the statistics of the updatable
+     */
+    public UpdateStatistics register(Updatable updatable) {
+        return register(updatable, 1);
+    }
+
+    /**
+     * Registers an updatable to be run every <code>rateDivisor</code> ticks. The updatable is run on the first tick
+     * after it is registered whose index is a multiple of the divisor.
+     *
+     * @param updatable   the updatable
+     * @param rateDivisor how many ticks there are between each run of the updatable
+     * @return the statistics of the updatable
+     */
+    public UpdateStatistics register(Updatable updatable, int rateDivisor) {
+        return register(updatable, rateDivisor, new Updatable[0]);
+    }
+
+    /**
+     * Registers an updatable to be run every <code>rateDivisor</code> ticks after the updatables it depends on.
+     * <p>
+     * A dependency with a larger rate divisor is not run every time the updatable is. When it is not, the updatable
+     * sees the results of its last run.
+     *
+     * @param updatable    the updatable
+     * @param rateDivisor  how many ticks there are between each run of the updatable
+     * @param dependencies the updatables that must be run before this updatable. They must already be registered.
+     * @return the statistics of the updatable
+     */
+    public UpdateStatistics register(Updatable updatable, int rateDivisor, Updatable... dependencies) {
+        if (rateDivisor < 1) {
+            throw new IllegalArgumentException("The rate divisor must be positive");
+        }
+
+        synchronized (lock) {
+            int level = 0;
+            for (Updatable dependency : dependencies) {
+                Entry dependencyEntry = getEntry(dependency);
+                if (dependencyEntry == null) {
+                    throw new IllegalArgumentException(
+                            "Dependencies must be registered before the updatables that depend on them");
+                }
+
+                level = Math.max(level, dependencyEntry.level + 1);
+            }
+
+            Entry entry = new Entry(updatable, rateDivisor, level);
+            entries.add(entry);
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(entry);
+
+            return entry.statistics;
+        }
+    }
+
+    private Entry getEntry(Updatable updatable) {
+        for (Entry entry : entries) {
+            if (entry.updatable == updatable) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the statistics of a registered updatable.
+     *
+     * @param updatable the updatable
+     * @return the statistics or null if the updatable is not registered
+     */
+    public UpdateStatistics getStatistics(Updatable updatable) {
+        synchronized (lock) {
+            Entry entry = getEntry(updatable);
+            return entry == null ? null : entry.statistics;
+        }
+    }
+
+    /**
+     * Gets the statistics of whole ticks. A tick overruns when running every updatable in it takes longer than the
+     * period.
+     *
+     * @return the statistics of the ticks
+     */
+    public UpdateStatistics getTickStatistics() {
+        return tickStatistics;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets the amount of ticks that took longer to execute than the period.
+     *
+     * @return the amount of overruns
+     */
+    public long getOverrunCount() {
+        return tickStatistics.getOverrunCount();
+    }
+
+    /**
+     * Gets the amount of ticks that were skipped. A tick is skipped when the clock shows more than one period has
+     * passed since the previous tick, usually because it ran late.
+     *
+     * @return the amount of skipped ticks
+     */
+    public long getMissedTickCount() {
+        return missedTickCount;
+    }
+
+    /**
+     * Runs one tick, updating every updatable that is due.
+     */
+    public void tick() {
+        synchronized (lock) {
+            long tickStart = System.nanoTime();
+            double period = this.period;
+
+            double time = clock.getTime();
+            double tickDt = time - lastTickTime;
+            lastTickTime = time;
+            if (!Double.isNaN(tickDt)) {
+                long missed = Math.round(tickDt / period) - 1;
+                if (missed > 0) {
+                    missedTickCount += missed;
+                }
+            }
+
+            long index = tickCount++;
+            if (executor == null) {
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    if (entry.prepare(index, time, period)) {
+                        entry.update();
+                    }
+                }
+            } else {
+                for (int i = 0; i < levels.size(); i++) {
+                    runLevel(levels.get(i), index, time, period);
+                }
+            }
+
+            tickStatistics.record(System.nanoTime() - tickStart, tickDt, period);
+        }
+    }
+
+    /**
+     * Runs the entries in a level that are due concurrently and waits for them to finish.
+     */
+    private void runLevel(List<Entry> level, long index, double time, double period) {
+        // The last entry that is due is run on this thread instead of waiting idly for the workers
+        Entry last = null;
+        int submitted = 0;
+        for (int i = 0; i < level.size(); i++) {
+            Entry entry = level.get(i);
+            if (!entry.prepare(index, time, period)) {
+                continue;
+            }
+
+            if (last != null) {
+                synchronized (levelLock) {
+                    pendingUpdates++;
+                }
+                executor.execute(last);
+                submitted++;
+            }
+            last = entry;
+        }
+
+        if (last == null) {
+            return;
+        }
+
+        Throwable callerFailure = null;
+        try {
+            last.update();
+        } catch (Throwable t) {
+            callerFailure = t;
+        }
+
+        Throwable workerFailure = null;
+        if (submitted > 0) {
+            boolean interrupted = false;
+            synchronized (levelLock) {
+                while (pendingUpdates > 0) {
+                    try {
+                        levelLock.wait();
+                    } catch (InterruptedException e) {
+                        // Keep waiting, the next level can't start until this one is done
+                        interrupted = true;
+                    }
+                }
+
+                workerFailure = failure;
+                failure = null;
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Throwable levelFailure = callerFailure != null ? callerFailure : workerFailure;
+        if (levelFailure instanceof RuntimeException) {
+            throw (RuntimeException) levelFailure;
+        } else if (levelFailure instanceof Error) {
+            throw (Error) levelFailure;
+        } else if (levelFailure != null) {
+            throw new RuntimeException(levelFailure);
+        }
+    }
+
+    /**
+     * Stops the worker threads. The scheduler can't be ticked after it has been closed if it uses more than one
+     * thread.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private final class Entry implements Runnable {
+        final Updatable updatable;
+        final int rateDivisor;
+        final int level;
+        final UpdateStatistics statistics = new UpdateStatistics();
+
+        double lastTime = Double.NaN;
+
+        // The parameters of the pending update. Written before the entry is handed to a worker.
+        double updateTime;
+        double updateDt;
+        double updatePeriod;
+
+        Entry(Updatable updatable, int rateDivisor, int level) {
+            this.updatable = updatable;
+            this.rateDivisor = rateDivisor;
+            this.level = level;
+        }
+
+        /**
+         * Prepares the entry to be updated if it is due this tick.
+         *
+         * @return true if the entry is due
+         */
+        boolean prepare(long index, double time, double period) {
+            if (index % rateDivisor != 0) {
+                return false;
+            }
+
+            updateTime = time;
+            updateDt = time - lastTime;
+            updatePeriod = period * rateDivisor;
+            lastTime = time;
+            return true;
+        }
+
+        void update() {
+            long start = System.nanoTime();
+            // The first update of an updatable has no previous update so assume it ran one period ago
+            updatable.update(updateTime, Double.isNaN(updateDt) ? updatePeriod : updateDt);
+            statistics.record(System.nanoTime() - start, updateDt, updatePeriod);
+        }
+
+        /**
+         * Updates the entry on a worker thread.
+         */
+        @Override
+        public void run() {
+            Throwable updateFailure = null;
+            try {
+                update();
+            } catch (Throwable t) {
+                updateFailure = t;
+            }
+
+            synchronized (levelLock) {
+                if (updateFailure != null && failure == null) {
+                    failure = updateFailure;
+                }
+
+                pendingUpdates--;
+                if (pendingUpdates == 0) {
+                    levelLock.notifyAll();
+                }
+            }
+        }
+    }
+}
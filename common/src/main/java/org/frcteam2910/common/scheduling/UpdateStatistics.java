@@ -0,0 +1,162 @@
+package org.frcteam2910.common.scheduling;
+
+/**
+ * Timing statistics of something run by an {@link UpdateScheduler}.
+ * <p>
+ * Execution times are measured with {@link System#nanoTime()}. Jitter is how far the time between two runs, measured
+ * by the scheduler's clock, was from the expected period. An overrun is a run that took longer to execute than its
+ * period.
+ * <p>
+ * Statistics are written by the scheduler's thread and can be read from any thread.
+ */
+public final class UpdateStatistics {
+    private final Object lock = new Object();
+
+    private long updateCount = 0;
+    private long overrunCount = 0;
+
+    private long lastExecutionNanos = 0;
+    private long maxExecutionNanos = 0;
+    private long totalExecutionNanos = 0;
+
+    private long jitterCount = 0;
+    private double lastJitter = 0.0;
+    private double maxJitter = 0.0;
+    private double totalJitter = 0.0;
+
+    UpdateStatistics() {
+    }
+
+    /**
+     * Records a run.
+     *
+     * @param executionNanos how long the run took to execute
+     * @param dt             the time since the previous run or NaN if this is the first run
+     * @param period         the expected time between runs
+     */
+    void record(long executionNanos, double dt, double period) {
+        synchronized (lock) {
+            updateCount++;
+            lastExecutionNanos = executionNanos;
+            maxExecutionNanos = Math.max(maxExecutionNanos, executionNanos);
+            totalExecutionNanos += executionNanos;
+
+            if (executionNanos * 1.0e-9 > period) {
+                overrunCount++;
+            }
+
+            if (!Double.isNaN(dt)) {
+                double jitter = Math.abs(dt - period);
+                jitterCount++;
+                lastJitter = jitter;
+                maxJitter = Math.max(maxJitter, jitter);
+                totalJitter += jitter;
+            }
+        }
+    }
+
+    public long getUpdateCount() {
+        synchronized (lock) {
+            return updateCount;
+        }
+    }
+
+    /**
+     * Gets the amount of runs that took longer to execute than their period.
+     *
+     * @return the amount of overruns
+     */
+    public long getOverrunCount() {
+        synchronized (lock) {
+            return overrunCount;
+        }
+    }
+
+    /**
+     * @return the execution time of the most recent run in seconds
+     */
+    public double getLastExecutionTime() {
+        synchronized (lock) {
+            return lastExecutionNanos * 1.0e-9;
+        }
+    }
+
+    /**
+     * @return the longest execution time of a run in seconds
+     */
+    public double getMaxExecutionTime() {
+        synchronized (lock) {
+            return maxExecutionNanos * 1.0e-9;
+        }
+    }
+
+    /**
+     * @return the average execution time of a run in seconds or 0 if there have not been any runs
+     */
+    public double getAverageExecutionTime() {
+        synchronized (lock) {
+            if (updateCount == 0) {
+                return 0.0;
+            }
+
+            return totalExecutionNanos * 1.0e-9 / updateCount;
+        }
+    }
+
+    /**
+     * @return the jitter of the most recent run in seconds
+     */
+    public double getLastJitter() {
+        synchronized (lock) {
+            return lastJitter;
+        }
+    }
+
+    /**
+     * @return the largest jitter of a run in seconds
+     */
+    public double getMaxJitter() {
+        synchronized (lock) {
+            return maxJitter;
+        }
+    }
+
+    /**
+     * @return the average jitter in seconds or 0 if there have not been two runs
+     */
+    public double getAverageJitter() {
+        synchronized (lock) {
+            if (jitterCount == 0) {
+                return 0.0;
+            }
+
+            return totalJitter / jitterCount;
+        }
+    }
+
+    /**
+     * Clears every statistic.
+     */
+    public void reset() {
+        synchronized (lock) {
+            updateCount = 0;
+            overrunCount = 0;
+            lastExecutionNanos = 0;
+            maxExecutionNanos = 0;
+            totalExecutionNanos = 0;
+            jitterCount = 0;
+            lastJitter = 0.0;
+            maxJitter = 0.0;
+            totalJitter = 0.0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return String.format("{updates: %d, overruns: %d, average: %.3f ms, max: %.3f ms, max jitter: %.3f ms}",
+                    updateCount, overrunCount, getAverageExecutionTime() * 1.0e3, maxExecutionNanos * 1.0e-6,
+                    maxJitter * 1.0e3);
+        }
+    }
+}
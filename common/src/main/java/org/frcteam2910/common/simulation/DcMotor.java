@@ -0,0 +1,138 @@
+package org.frcteam2910.common.simulation;
+
+/**
+ * A model of one or more identical brushed or brushless DC motors driving the same shaft.
+ * <p>
+ * The motor is modelled as a resistance in series with a back-EMF proportional to its speed. Its torque is proportional
+ * to its current. The constants are calculated from the stall and free running characteristics in the motor's data
+ * sheet. All units are SI: newton meters, amps, volts and radians per second.
+ */
+public final class DcMotor {
+    private static final double NOMINAL_VOLTAGE = 12.0;
+
+    private final double stallTorque;
+    private final double freeSpeed;
+    private final int motorCount;
+
+    private final double resistance;
+    private final double velocityConstant;
+    private final double torqueConstant;
+
+    /**
+     * @param stallTorque  the torque of one motor when stalled at 12 V
+     * @param stallCurrent the current of one motor when stalled at 12 V
+     * @param freeSpeed    the speed of the motor when running freely at 12 V
+     * @param freeCurrent  the current of one motor when running freely at 12 V
+     * @param motorCount   the amount of motors driving the shaft
+     */
+    public DcMotor(double stallTorque, double stallCurrent, double freeSpeed, double freeCurrent, int motorCount) {
+        if (stallTorque <= 0.0 || stallCurrent <= freeCurrent || freeSpeed <= 0.0 || freeCurrent < 0.0) {
+            throw new IllegalArgumentException("The motor characteristics are not physically possible");
+        }
+        if (motorCount < 1) {
+            throw new IllegalArgumentException("The motor count must be positive");
+        }
+
+        this.stallTorque = stallTorque;
+        this.freeSpeed = freeSpeed;
+        this.motorCount = motorCount;
+
+        resistance = NOMINAL_VOLTAGE / (stallCurrent * motorCount);
+        velocityConstant = freeSpeed / (NOMINAL_VOLTAGE - resistance * freeCurrent * motorCount);
+        torqueConstant = stallTorque / stallCurrent;
+    }
+
+    /**
+     * Creates a model of REV Robotics NEO brushless motors.
+     *
+     * @param motorCount the amount of motors driving the shaft
+     * @return the model
+     */
+    public static DcMotor neo(int motorCount) {
+        return new DcMotor(2.6, 105.0, rpmToRadiansPerSecond(5676.0), 1.8, motorCount);
+    }
+
+    /**
+     * Creates a model of CIM motors.
+     *
+     * @param motorCount the amount of motors driving the shaft
+     * @return the model
+     */
+    public static DcMotor cim(int motorCount) {
+        return new DcMotor(2.42, 133.0, rpmToRadiansPerSecond(5310.0), 2.7, motorCount);
+    }
+
+    /**
+     * Creates a model of Mini CIM motors.
+     *
+     * @param motorCount the amount of motors driving the shaft
+     * @return the model
+     */
+    public static DcMotor miniCim(int motorCount) {
+        return new DcMotor(1.41, 89.0, rpmToRadiansPerSecond(5840.0), 3.0, motorCount);
+    }
+
+    private static double rpmToRadiansPerSecond(double rpm) {
+        return rpm * 2.0 * Math.PI / 60.0;
+    }
+
+    public int getMotorCount() {
+        return motorCount;
+    }
+
+    /**
+     * @return the combined stall torque of every motor at 12 V
+     */
+    public double getStallTorque() {
+        return stallTorque * motorCount;
+    }
+
+    /**
+     * @return the speed of the shaft when running freely at 12 V
+     */
+    public double getFreeSpeed() {
+        return freeSpeed;
+    }
+
+    /**
+     * @return the resistance of the motors in ohms
+     */
+    public double getResistance() {
+        return resistance;
+    }
+
+    /**
+     * @return the speed per volt of back-EMF
+     */
+    public double getVelocityConstant() {
+        return velocityConstant;
+    }
+
+    /**
+     * @return the torque of one motor per amp
+     */
+    public double getTorqueConstant() {
+        return torqueConstant;
+    }
+
+    /**
+     * Calculates the combined current drawn by the motors.
+     *
+     * @param speed   the speed of the shaft
+     * @param voltage the voltage applied to the motors
+     * @return the current
+     */
+    public double getCurrent(double speed, double voltage) {
+        return (voltage - speed / velocityConstant) / resistance;
+    }
+
+    /**
+     * Calculates the combined torque of the motors.
+     *
+     * @param current the combined current drawn by the motors
+     * @return the torque on the shaft
+     */
+    public double getTorque(double current) {
+        return current * torqueConstant;
+    }
+}
@@ -0,0 +1,339 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.control.HolonomicMotionProfiledTrajectoryFollower;
+import org.frcteam2910.common.control.Path;
+import org.frcteam2910.common.control.PidConstants;
+import org.frcteam2910.common.control.Trajectory;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.scheduling.SimulatedClock;
+import org.frcteam2910.common.scheduling.Updatable;
+import org.frcteam2910.common.scheduling.UpdateScheduler;
+import org.frcteam2910.common.util.HolonomicFeedforward;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Measures how robustly a trajectory is followed by simulating many autonomous runs with randomly varied conditions.
+ * <p>
+ * Every trial simulates a fresh drivetrain following the trajectory with a
+ * {@link HolonomicMotionProfiledTrajectoryFollower} and measures how far the robot ends from the end of the trajectory
+ * and how closely it tracked the trajectory along the way. Each trial randomly picks the friction between the wheels
+ * and the carpet, the gyroscope drift and how much the PID gains are off by. Encoder noise and loop jitter are added to
+ * every update. The ranges of the variations are set before evaluating; by default nothing is varied.
+ * <p>
+ * The random numbers of every trial come from a generator seeded by the evaluation's seed and the trial's index, so the
+ * results do not depend on which thread ran the trial. Trials are independent and are run in parallel on a fork/join
+ * pool.
+ */
+public final class MonteCarloEvaluator {
+    private static final double DEFAULT_PERIOD = 5.0e-3;
+    private static final double DEFAULT_DURATION = 15.0;
+
+    private final Trajectory trajectory;
+    private final Supplier<SimulatedSwerveDrivetrain> drivetrainFactory;
+    private final PidConstants translationConstants;
+    private final PidConstants rotationConstants;
+    private final HolonomicFeedforward feedforward;
+
+    private double period = DEFAULT_PERIOD;
+    private double duration = DEFAULT_DURATION;
+
+    private double minFrictionCoefficient = Double.NaN;
+    private double maxFrictionCoefficient = Double.NaN;
+    private double maxGyroDriftRate = 0.0;
+    private double gyroNoise = 0.0;
+    private double angleNoise = 0.0;
+    private double distanceNoise = 0.0;
+    private double periodJitter = 0.0;
+    private double gainVariation = 0.0;
+
+    /**
+     * @param trajectory           the trajectory to follow. It is followed from its starting pose.
+     * @param drivetrainFactory    creates the drivetrain for each trial. Called from the threads running the trials.
+     * @param translationConstants the follower's translation PID constants before they are varied
+     * @param rotationConstants    the follower's rotation PID constants before they are varied
+     * @param feedforward          the follower's feedforward
+     */
+    public MonteCarloEvaluator(Trajectory trajectory, Supplier<SimulatedSwerveDrivetrain> drivetrainFactory,
+                               PidConstants translationConstants, PidConstants rotationConstants,
+                               HolonomicFeedforward feedforward) {
+        this.trajectory = trajectory;
+        this.drivetrainFactory = drivetrainFactory;
+        this.translationConstants = translationConstants;
+        this.rotationConstants = rotationConstants;
+        this.feedforward = feedforward;
+    }
+
+    /**
+     * Sets the period of the robot code.
+     *
+     * @param period the period in seconds
+     */
+    public void setPeriod(double period) {
+        if (period <= 0.0) {
+            throw new IllegalArgumentException("The period must be positive");
+        }
+
+        this.period = period;
+    }
+
+    /**
+     * Sets how long each trial is simulated for. The robot keeps running after the trajectory has finished so the end
+     * error includes any overshoot.
+     *
+     * @param duration the duration in seconds
+     */
+    public void setDuration(double duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Sets the range the coefficient of friction between the wheels and the carpet is picked from. Lower coefficients
+     * make the wheels slip more.
+     *
+     * @param min the smallest coefficient of friction
+     * @param max the largest coefficient of friction
+     */
+    public void setFrictionCoefficientRange(double min, double max) {
+        if (min < 0.0 || max < min) {
+            throw new IllegalArgumentException("Invalid coefficient of friction range");
+        }
+
+        this.minFrictionCoefficient = min;
+        this.maxFrictionCoefficient = max;
+    }
+
+    /**
+     * Sets the errors of the gyroscope.
+     *
+     * @param maxDriftRate the most the gyroscope can drift in either direction in radians per second
+     * @param noise        the standard deviation of the noise of every reading in radians
+     */
+    public void setGyroError(double maxDriftRate, double noise) {
+        this.maxGyroDriftRate = maxDriftRate;
+        this.gyroNoise = noise;
+    }
+
+    /**
+     * Sets the noise of the module encoders.
+     *
+     * @param angleNoise    the standard deviation of the noise of the module angles in radians
+     * @param distanceNoise the standard deviation of the noise of the drive distances in meters
+     */
+    public void setEncoderNoise(double angleNoise, double distanceNoise) {
+        this.angleNoise = angleNoise;
+        this.distanceNoise = distanceNoise;
+    }
+
+    /**
+     * Sets how much the length of each period of the robot code varies.
+     *
+     * @param periodJitter the most a period can be longer or shorter than the period in seconds
+     * @see SimulationLoop#setPeriodJitter(double, Random)
+     */
+    public void setPeriodJitter(double periodJitter) {
+        this.periodJitter = periodJitter;
+    }
+
+    /**
+     * Sets how much the follower's PID gains can be off by. The translation and rotation gains are each multiplied by a
+     * random scale.
+     *
+     * @param gainVariation the most the scale can differ from 1, as a fraction
+     */
+    public void setGainVariation(double gainVariation) {
+        if (gainVariation < 0.0 || gainVariation > 1.0) {
+            throw new IllegalArgumentException("The gain variation must be between 0 and 1");
+        }
+
+        this.gainVariation = gainVariation;
+    }
+
+    /**
+     * Runs trials on the calling thread.
+     *
+     * @param trialCount the amount of trials to run
+     * @param seed       the seed the random variations are generated from
+     * @return the results of every trial
+     */
+    public MonteCarloResults evaluate(int trialCount, long seed) {
+        return evaluate(trialCount, seed, null);
+    }
+
+    /**
+     * Runs trials in parallel. The results are identical to running them on the calling thread.
+     *
+     * @param trialCount the amount of trials to run
+     * @param seed       the seed the random variations are generated from
+     * @param pool       the pool to run the trials in. If null, trials are run on the calling thread.
+     * @return the results of every trial
+     */
+    public MonteCarloResults evaluate(int trialCount, long seed, ForkJoinPool pool) {
+        if (trialCount < 1) {
+            throw new IllegalArgumentException("The trial count must be positive");
+        }
+        if (duration < trajectory.getDuration()) {
+            throw new IllegalArgumentException("The trials are shorter than the trajectory");
+        }
+        if (periodJitter >= period) {
+            throw new IllegalArgumentException("The period jitter must be less than the period");
+        }
+
+        MonteCarloResults results = new MonteCarloResults(trialCount, seed);
+        TrialTask task = new TrialTask(results, 0, trialCount);
+        if (pool == null) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+
+        return results;
+    }
+
+    private void runTrial(MonteCarloResults results, int trial) {
+        Random random = new Random(results.getSeed() ^ (trial * 0x9E3779B97F4A7C15L));
+
+        SimulatedSwerveDrivetrain drivetrain = drivetrainFactory.get();
+
+        double frictionCoefficient = drivetrain.getFrictionCoefficient();
+        if (!Double.isNaN(minFrictionCoefficient)) {
+            frictionCoefficient = minFrictionCoefficient +
+                    random.nextDouble() * (maxFrictionCoefficient - minFrictionCoefficient);
+            drivetrain.setFrictionCoefficient(frictionCoefficient);
+        }
+
+        double gyroDriftRate = (2.0 * random.nextDouble() - 1.0) * maxGyroDriftRate;
+        drivetrain.getGyroscope().setDriftRate(gyroDriftRate);
+        drivetrain.getGyroscope().setNoise(gyroNoise, random);
+
+        for (int i = 0; i < drivetrain.getModuleCount(); i++) {
+            drivetrain.getModule(i).setSensorNoise(angleNoise, distanceNoise, random);
+        }
+
+        double translationGainScale = 1.0 + (2.0 * random.nextDouble() - 1.0) * gainVariation;
+        double rotationGainScale = 1.0 + (2.0 * random.nextDouble() - 1.0) * gainVariation;
+        HolonomicMotionProfiledTrajectoryFollower follower = new HolonomicMotionProfiledTrajectoryFollower(
+                scale(translationConstants, translationGainScale),
+                scale(rotationConstants, rotationGainScale),
+                feedforward
+        );
+
+        SimulatedDrivebase drivebase = new SimulatedDrivebase(drivetrain);
+        Path.State start = trajectory.calculate(0.0).getPathState();
+        drivebase.resetPose(new RigidTransform2(start.getPosition(), start.getRotation()));
+        drivebase.setFollower(follower);
+        follower.follow(trajectory);
+
+        TrackingErrorMeter trackingErrorMeter = new TrackingErrorMeter(drivetrain, follower);
+
+        SimulatedClock clock = new SimulatedClock();
+        UpdateScheduler scheduler = new UpdateScheduler(clock, period);
+        scheduler.register(drivebase);
+        // The tracking error is measured from the pose the drivebase has just updated to
+        scheduler.register(trackingErrorMeter, 1, drivebase);
+
+        SimulationLoop loop = new SimulationLoop(drivetrain, scheduler, clock);
+        if (periodJitter > 0.0) {
+            loop.setPeriodJitter(periodJitter, random);
+        }
+        loop.run(duration);
+
+        Path.State end = trajectory.calculate(trajectory.getDuration()).getPathState();
+        RigidTransform2 pose = drivetrain.getPose();
+        double endRotationError = pose.rotation.toRadians() - end.getRotation().toRadians();
+        endRotationError = Math.atan2(Math.sin(endRotationError), Math.cos(endRotationError));
+
+        results.frictionCoefficients[trial] = frictionCoefficient;
+        results.gyroDriftRates[trial] = gyroDriftRate;
+        results.translationGainScales[trial] = translationGainScale;
+        results.rotationGainScales[trial] = rotationGainScale;
+        setMetric(results, MonteCarloResults.Metric.END_TRANSLATION_ERROR, trial,
+                end.getPosition().subtract(pose.translation).length);
+        setMetric(results, MonteCarloResults.Metric.END_ROTATION_ERROR, trial,
+                Math.toDegrees(Math.abs(endRotationError)));
+        setMetric(results, MonteCarloResults.Metric.RMS_TRACKING_ERROR, trial, trackingErrorMeter.getRmsError());
+        setMetric(results, MonteCarloResults.Metric.MAX_TRACKING_ERROR, trial, trackingErrorMeter.getMaxError());
+    }
+
+    private static void setMetric(MonteCarloResults results, MonteCarloResults.Metric metric, int trial, double value) {
+        results.metrics[metric.ordinal()][trial] = value;
+    }
+
+    private static PidConstants scale(PidConstants constants, double scale) {
+        return new PidConstants(constants.p * scale, constants.i * scale, constants.d * scale);
+    }
+
+    /**
+     * Measures the distance between the true position of the robot and the position the follower is trying to reach.
+     */
+    private static final class TrackingErrorMeter implements Updatable {
+        private final SimulatedSwerveDrivetrain drivetrain;
+        private final HolonomicMotionProfiledTrajectoryFollower follower;
+
+        private double sumOfSquares = 0.0;
+        private double maxError = 0.0;
+        private long count = 0;
+
+        TrackingErrorMeter(SimulatedSwerveDrivetrain drivetrain, HolonomicMotionProfiledTrajectoryFollower follower) {
+            this.drivetrain = drivetrain;
+            this.follower = follower;
+        }
+
+        @Override
+        public void update(double time, double dt) {
+            Trajectory.State state = follower.getLastState();
+            if (state == null || !follower.getCurrentTrajectory().isPresent()) {
+                return;
+            }
+
+            Vector2 position = drivetrain.getPose().translation;
+            double error = state.getPathState().getPosition().subtract(position).length;
+            sumOfSquares += error * error;
+            maxError = Math.max(maxError, error);
+            count++;
+        }
+
+        double getRmsError() {
+            return count == 0 ? 0.0 : Math.sqrt(sumOfSquares / count);
+        }
+
+        double getMaxError() {
+            return maxError;
+        }
+    }
+
+    private final class TrialTask extends RecursiveAction {
+        private static final long serialVersionUID = -8406317561253094072L;
+
+        private final MonteCarloResults results;
+        private final int start;
+        private final int end;
+
+        TrialTask(MonteCarloResults results, int start, int end) {
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            // A trial takes milliseconds so it is always worth splitting down to single trials
+            if (getPool() != null && end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(
+                        new TrialTask(results, start, middle),
+                        new TrialTask(results, middle, end)
+                );
+                return;
+            }
+
+            for (int i = start; i < end; i++) {
+                runTrial(results, i);
+            }
+        }
+    }
+}
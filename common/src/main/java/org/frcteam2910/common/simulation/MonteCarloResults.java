@@ -0,0 +1,224 @@
+package org.frcteam2910.common.simulation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * The results of every trial run by a {@link MonteCarloEvaluator}.
+ * <p>
+ * The parameters each trial was run with and the errors it measured are stored in arrays indexed by trial. Trials are
+ * always stored in the order of their index no matter how they were run so the results of the same evaluation are
+ * identical.
+ */
+public final class MonteCarloResults {
+    /**
+     * The percentiles written in the summary.
+     */
+    private static final double[] SUMMARY_PERCENTILES = {50.0, 90.0, 95.0, 99.0};
+
+    /**
+     * An error measured by every trial.
+     */
+    public enum Metric {
+        /**
+         * The distance between the robot and the end of the trajectory at the end of the trial in meters.
+         */
+        END_TRANSLATION_ERROR("end_translation_error"),
+        /**
+         * The difference between the robot's rotation and the rotation at the end of the trajectory at the end of the
+         * trial in degrees.
+         */
+        END_ROTATION_ERROR("end_rotation_error"),
+        /**
+         * The root mean square distance between the robot and where the trajectory wanted it to be while following the
+         * trajectory in meters.
+         */
+        RMS_TRACKING_ERROR("rms_tracking_error"),
+        /**
+         * The largest distance between the robot and where the trajectory wanted it to be while following the
+         * trajectory in meters.
+         */
+        MAX_TRACKING_ERROR("max_tracking_error");
+
+        private final String columnName;
+
+        Metric(String columnName) {
+            this.columnName = columnName;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+    }
+
+    private final long seed;
+
+    // Parameters
+    final double[] frictionCoefficients;
+    final double[] gyroDriftRates;
+    final double[] translationGainScales;
+    final double[] rotationGainScales;
+
+    // Metrics, indexed by the metric's ordinal and then by the trial
+    final double[][] metrics;
+
+    MonteCarloResults(int trialCount, long seed) {
+        this.seed = seed;
+
+        frictionCoefficients = new double[trialCount];
+        gyroDriftRates = new double[trialCount];
+        translationGainScales = new double[trialCount];
+        rotationGainScales = new double[trialCount];
+        metrics = new double[Metric.values().length][trialCount];
+    }
+
+    public int getTrialCount() {
+        return frictionCoefficients.length;
+    }
+
+    /**
+     * @return the seed the random parameters of every trial were generated from
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getFrictionCoefficient(int trial) {
+        return frictionCoefficients[trial];
+    }
+
+    /**
+     * @param trial the index of the trial
+     * @return the rate the gyroscope drifted at in radians per second
+     */
+    public double getGyroDriftRate(int trial) {
+        return gyroDriftRates[trial];
+    }
+
+    /**
+     * @param trial the index of the trial
+     * @return the amount the translation PID gains were multiplied by
+     */
+    public double getTranslationGainScale(int trial) {
+        return translationGainScales[trial];
+    }
+
+    /**
+     * @param trial the index of the trial
+     * @return the amount the rotation PID gains were multiplied by
+     */
+    public double getRotationGainScale(int trial) {
+        return rotationGainScales[trial];
+    }
+
+    public double get(Metric metric, int trial) {
+        return metrics[metric.ordinal()][trial];
+    }
+
+    public double getMean(Metric metric) {
+        double[] values = metrics[metric.ordinal()];
+
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+
+        return sum / values.length;
+    }
+
+    /**
+     * Calculates a percentile of a metric over every trial, interpolating between the closest trials.
+     *
+     * @param metric     the metric
+     * @param percentile the percentile between 0 and 100
+     * @return the value of the metric at the percentile
+     */
+    public double getPercentile(Metric metric, double percentile) {
+        return getPercentile(sort(metric), percentile);
+    }
+
+    private double[] sort(Metric metric) {
+        double[] sorted = metrics[metric.ordinal()].clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static double getPercentile(double[] sorted, double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100");
+        }
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+
+        double index = percentile / 100.0 * (sorted.length - 1);
+        int lower = (int) Math.floor(index);
+        int upper = (int) Math.ceil(index);
+
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (index - lower);
+    }
+
+    /**
+     * Writes the parameters and metrics of every trial as CSV, one row per trial.
+     *
+     * @param out the writer to write the CSV to
+     * @throws IOException if the CSV could not be written
+     */
+    public void writeTrialsCsv(Writer out) throws IOException {
+        StringBuilder row = new StringBuilder();
+        row.append("trial,friction_coefficient,gyro_drift_rate,translation_gain_scale,rotation_gain_scale");
+        for (Metric metric : Metric.values()) {
+            row.append(',').append(metric.getColumnName());
+        }
+        row.append('\n');
+        out.append(row);
+
+        for (int i = 0; i < getTrialCount(); i++) {
+            row.setLength(0);
+            row.append(i);
+            row.append(',').append(frictionCoefficients[i]);
+            row.append(',').append(gyroDriftRates[i]);
+            row.append(',').append(translationGainScales[i]);
+            row.append(',').append(rotationGainScales[i]);
+            for (double[] values : metrics) {
+                row.append(',').append(values[i]);
+            }
+            row.append('\n');
+            out.append(row);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the distribution of every metric as CSV, one row per metric with its mean, percentiles and maximum.
+     *
+     * @param out the writer to write the CSV to
+     * @throws IOException if the CSV could not be written
+     */
+    public void writeSummaryCsv(Writer out) throws IOException {
+        StringBuilder row = new StringBuilder();
+        row.append("metric,trials,mean");
+        for (double percentile : SUMMARY_PERCENTILES) {
+            row.append(",p").append((int) percentile);
+        }
+        row.append(",max\n");
+        out.append(row);
+
+        for (Metric metric : Metric.values()) {
+            double[] sorted = sort(metric);
+
+            row.setLength(0);
+            row.append(metric.getColumnName());
+            row.append(',').append(sorted.length);
+            row.append(',').append(getMean(metric));
+            for (double percentile : SUMMARY_PERCENTILES) {
+                row.append(',').append(getPercentile(sorted, percentile));
+            }
+            row.append(',').append(sorted.length == 0 ? Double.NaN : sorted[sorted.length - 1]);
+            row.append('\n');
+            out.append(row);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,129 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.control.HolonomicMotionProfiledTrajectoryFollower;
+import org.frcteam2910.common.drivers.SwerveDriveUpdater;
+import org.frcteam2910.common.drivers.SwerveModule;
+import org.frcteam2910.common.kinematics.SwerveOdometry;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.scheduling.Updatable;
+import org.frcteam2910.common.util.HolonomicDriveSignal;
+
+import java.util.Optional;
+
+/**
+ * The robot code controlling a {@link SimulatedSwerveDrivetrain}.
+ * <p>
+ * Every update goes through the same {@link SwerveDriveUpdater} as the robot's swerve drivebase using only what the
+ * robot can measure: the module sensors are read through {@link SwerveModule}, the odometry integrates the module
+ * displacements with the gyroscope angle and the drive signal is turned into module outputs. While the follower is
+ * following a trajectory its drive signal replaces the one that was set.
+ */
+public final class SimulatedDrivebase implements Updatable {
+    private final SimulatedSwerveDrivetrain drivetrain;
+    private final SwerveDriveUpdater updater;
+
+    private HolonomicMotionProfiledTrajectoryFollower follower = null;
+
+    private RigidTransform2 pose = RigidTransform2.ZERO;
+    private Vector2 velocity = Vector2.ZERO;
+    private HolonomicDriveSignal driveSignal = null;
+
+    /**
+     * Creates a drivebase whose odometry integrates with {@link SwerveOdometry.IntegrationMethod#ARC}.
+     *
+     * @param drivetrain the drivetrain to control
+     */
+    public SimulatedDrivebase(SimulatedSwerveDrivetrain drivetrain) {
+        this(drivetrain, SwerveOdometry.IntegrationMethod.ARC);
+    }
+
+    /**
+     * @param drivetrain        the drivetrain to control
+     * @param integrationMethod how the odometry integrates the movement of the robot
+     */
+    public SimulatedDrivebase(SimulatedSwerveDrivetrain drivetrain, SwerveOdometry.IntegrationMethod integrationMethod) {
+        this.drivetrain = drivetrain;
+
+        SwerveModule[] modules = new SwerveModule[drivetrain.getModuleCount()];
+        for (int i = 0; i < modules.length; i++) {
+            modules[i] = drivetrain.getModule(i);
+        }
+        updater = new SwerveDriveUpdater(integrationMethod, RigidTransform2.ZERO, modules);
+    }
+
+    public SimulatedSwerveDrivetrain getDrivetrain() {
+        return drivetrain;
+    }
+
+    /**
+     * Sets the follower whose drive signal replaces the drive signal while it is following a trajectory.
+     *
+     * @param follower the follower or null to always use the drive signal
+     */
+    public void setFollower(HolonomicMotionProfiledTrajectoryFollower follower) {
+        this.follower = follower;
+    }
+
+    /**
+     * Sets the drive signal used when the follower is not following a trajectory.
+     *
+     * @param driveSignal the drive signal or null to stop
+     */
+    public void setDriveSignal(HolonomicDriveSignal driveSignal) {
+        this.driveSignal = driveSignal;
+    }
+
+    /**
+     * @return the drive signal set by {@link #setDriveSignal(HolonomicDriveSignal)} or null if there is none. The
+     * follower's drive signal is used instead while it is following a trajectory.
+     */
+    public HolonomicDriveSignal getDriveSignal() {
+        return driveSignal;
+    }
+
+    /**
+     * @return the pose of the robot measured by odometry
+     */
+    public RigidTransform2 getPose() {
+        return pose;
+    }
+
+    /**
+     * @return the velocity of the robot relative to the field measured by the modules
+     */
+    public Vector2 getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Resets the measured pose and the gyroscope. The simulated drivetrain is moved to the same pose.
+     *
+     * @param pose the new pose of the robot
+     */
+    public void resetPose(RigidTransform2 pose) {
+        drivetrain.resetPose(pose);
+        drivetrain.getGyroscope().calibrate();
+        drivetrain.getGyroscope().setAdjustmentAngle(drivetrain.getGyroscope().getUnadjustedAngle()
+                .rotateBy(pose.rotation.inverse()));
+        updater.resetPose(pose);
+        this.pose = pose;
+    }
+
+    @Override
+    public void update(double time, double dt) {
+        pose = updater.updateOdometry(time, drivetrain.getGyroscope().getAngle());
+        velocity = updater.getVelocity();
+
+        HolonomicDriveSignal signal = driveSignal;
+        if (follower != null) {
+            Optional<HolonomicDriveSignal> followerSignal = follower.update(pose, velocity,
+                    updater.getAngularVelocity(), time, dt);
+            if (followerSignal.isPresent()) {
+                signal = followerSignal.get();
+            }
+        }
+
+        updater.updateModules(signal, dt);
+    }
+}
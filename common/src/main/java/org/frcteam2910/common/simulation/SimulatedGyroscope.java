@@ -0,0 +1,75 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.drivers.Gyroscope;
+import org.frcteam2910.common.math.Rotation2;
+
+import java.util.Random;
+
+/**
+ * A gyroscope measuring the angle of a {@link SimulatedSwerveDrivetrain}.
+ * <p>
+ * The measured angle can drift away from the true angle at a constant rate and have random noise added to every
+ * reading. The noise is generated by a seeded random number generator so a simulation is repeatable.
+ */
+public final class SimulatedGyroscope extends Gyroscope {
+    private double angle = 0.0;
+    private double rate = 0.0;
+    private double drift = 0.0;
+
+    private double driftRate = 0.0;
+    private double noise = 0.0;
+    private Random random = new Random(0);
+
+    @Override
+    public void calibrate() {
+        drift = 0.0;
+    }
+
+    /**
+     * Sets how fast the measured angle drifts away from the true angle.
+     *
+     * @param driftRate the drift in radians per second
+     */
+    public void setDriftRate(double driftRate) {
+        this.driftRate = driftRate;
+    }
+
+    /**
+     * Sets the noise added to every reading.
+     *
+     * @param noise  the standard deviation of the noise in radians
+     * @param random the random number generator to generate the noise with
+     */
+    public void setNoise(double noise, Random random) {
+        this.noise = noise;
+        this.random = random;
+    }
+
+    /**
+     * Moves the gyroscope with the drivetrain.
+     *
+     * @param angle the true angle of the drivetrain in radians
+     * @param rate  the true angular velocity of the drivetrain in radians per second
+     * @param dt    the time since the last update in seconds
+     */
+    void update(double angle, double rate, double dt) {
+        this.angle = angle;
+        this.rate = rate;
+        this.drift += driftRate * dt;
+    }
+
+    @Override
+    public Rotation2 getUnadjustedAngle() {
+        double measuredAngle = angle + drift;
+        if (noise > 0.0) {
+            measuredAngle += random.nextGaussian() * noise;
+        }
+
+        return Rotation2.fromRadians(measuredAngle);
+    }
+
+    @Override
+    public double getUnadjustedRate() {
+        return rate + driftRate;
+    }
+}
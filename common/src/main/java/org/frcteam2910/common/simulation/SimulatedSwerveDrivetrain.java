@@ -0,0 +1,238 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+
+/**
+ * A physics model of a swerve drivetrain driving on flat carpet.
+ * <p>
+ * The chassis is a rigid body pushed around by the tire forces of its {@link SimulatedSwerveModule}s. Its weight is
+ * shared evenly between the modules. The drivetrain is stepped forwards with small fixed physics steps so the stiff
+ * tire model stays stable no matter how often the robot code is run. Everything is deterministic: the same commands and
+ * the same steps always produce the same motion.
+ * <p>
+ * All units are SI. The pose is in meters and is the true pose of the robot, unlike the pose measured by odometry.
+ */
+public final class SimulatedSwerveDrivetrain {
+    private static final double GRAVITY = 9.80665;
+
+    /**
+     * The default length of a physics step in seconds.
+     */
+    public static final double DEFAULT_PHYSICS_PERIOD = 1.0e-3;
+
+    private static final double DEFAULT_FRICTION_COEFFICIENT = 1.1;
+    private static final double DEFAULT_BATTERY_VOLTAGE = 12.0;
+
+    private final double mass;
+    private final double momentOfInertia;
+    private final SimulatedSwerveModule[] modules;
+    private final SimulatedGyroscope gyroscope = new SimulatedGyroscope();
+
+    private double physicsPeriod = DEFAULT_PHYSICS_PERIOD;
+    private double frictionCoefficient = DEFAULT_FRICTION_COEFFICIENT;
+    private double batteryVoltage = DEFAULT_BATTERY_VOLTAGE;
+
+    // The state of the chassis relative to the field
+    private double x = 0.0;
+    private double y = 0.0;
+    private double angle = 0.0;
+    private double velocityX = 0.0;
+    private double velocityY = 0.0;
+    private double angularVelocity = 0.0;
+
+    /**
+     * @param mass            the mass of the robot in kilograms
+     * @param momentOfInertia the moment of inertia of the robot about its center in kilogram square meters
+     * @param modules         the modules of the drivetrain
+     */
+    public SimulatedSwerveDrivetrain(double mass, double momentOfInertia, SimulatedSwerveModule... modules) {
+        if (mass <= 0.0 || momentOfInertia <= 0.0) {
+            throw new IllegalArgumentException("The mass and moment of inertia must be positive");
+        }
+        if (modules.length == 0) {
+            throw new IllegalArgumentException("A drivetrain needs at least one module");
+        }
+
+        this.mass = mass;
+        this.momentOfInertia = momentOfInertia;
+        this.modules = modules.clone();
+    }
+
+    /**
+     * Creates a drivetrain with four {@link SimulatedSwerveModule#mk2(Vector2) Mk2} modules on the corners of a
+     * rectangle.
+     *
+     * @param mass       the mass of the robot in kilograms
+     * @param trackwidth the distance between the left and right modules in meters
+     * @param wheelbase  the distance between the front and back modules in meters
+     * @return the drivetrain. The modules are in the order front left, front right, back left, back right.
+     */
+    public static SimulatedSwerveDrivetrain mk2(double mass, double trackwidth, double wheelbase) {
+        // A uniform rectangular chassis a little larger than the module layout
+        double length = wheelbase + 0.15;
+        double width = trackwidth + 0.15;
+        double momentOfInertia = mass * (length * length + width * width) / 12.0;
+
+        return new SimulatedSwerveDrivetrain(mass, momentOfInertia,
+                SimulatedSwerveModule.mk2(new Vector2(wheelbase / 2.0, trackwidth / 2.0)),
+                SimulatedSwerveModule.mk2(new Vector2(wheelbase / 2.0, -trackwidth / 2.0)),
+                SimulatedSwerveModule.mk2(new Vector2(-wheelbase / 2.0, trackwidth / 2.0)),
+                SimulatedSwerveModule.mk2(new Vector2(-wheelbase / 2.0, -trackwidth / 2.0)));
+    }
+
+    public int getModuleCount() {
+        return modules.length;
+    }
+
+    public SimulatedSwerveModule getModule(int index) {
+        return modules[index];
+    }
+
+    public SimulatedGyroscope getGyroscope() {
+        return gyroscope;
+    }
+
+    public double getMass() {
+        return mass;
+    }
+
+    public double getMomentOfInertia() {
+        return momentOfInertia;
+    }
+
+    public double getPhysicsPeriod() {
+        return physicsPeriod;
+    }
+
+    /**
+     * Sets the longest physics step. Longer steps are faster but the tire model becomes unstable above a few
+     * milliseconds.
+     *
+     * @param physicsPeriod the length of a physics step in seconds
+     */
+    public void setPhysicsPeriod(double physicsPeriod) {
+        if (physicsPeriod <= 0.0) {
+            throw new IllegalArgumentException("The physics period must be positive");
+        }
+
+        this.physicsPeriod = physicsPeriod;
+    }
+
+    public double getFrictionCoefficient() {
+        return frictionCoefficient;
+    }
+
+    /**
+     * Sets the coefficient of friction between the wheels and the ground. Lower values make the wheels slip sooner.
+     *
+     * @param frictionCoefficient the coefficient of friction
+     */
+    public void setFrictionCoefficient(double frictionCoefficient) {
+        if (frictionCoefficient < 0.0) {
+            throw new IllegalArgumentException("The coefficient of friction cannot be negative");
+        }
+
+        this.frictionCoefficient = frictionCoefficient;
+    }
+
+    public double getBatteryVoltage() {
+        return batteryVoltage;
+    }
+
+    public void setBatteryVoltage(double batteryVoltage) {
+        this.batteryVoltage = batteryVoltage;
+    }
+
+    /**
+     * @return the true pose of the robot on the field
+     */
+    public RigidTransform2 getPose() {
+        return new RigidTransform2(new Vector2(x, y), Rotation2.fromRadians(angle));
+    }
+
+    /**
+     * @return the true velocity of the robot relative to the field in meters per second
+     */
+    public Vector2 getVelocity() {
+        return new Vector2(velocityX, velocityY);
+    }
+
+    /**
+     * @return the true angular velocity of the robot in radians per second
+     */
+    public double getAngularVelocity() {
+        return angularVelocity;
+    }
+
+    /**
+     * Moves the robot to a pose and stops it. The modules are not changed and the gyroscope keeps its drift.
+     *
+     * @param pose the new pose of the robot
+     */
+    public void resetPose(RigidTransform2 pose) {
+        x = pose.translation.x;
+        y = pose.translation.y;
+        angle = pose.rotation.toRadians();
+        velocityX = 0.0;
+        velocityY = 0.0;
+        angularVelocity = 0.0;
+
+        gyroscope.update(angle, angularVelocity, 0.0);
+    }
+
+    /**
+     * Steps the drivetrain forwards in time. The time is split into physics steps no longer than the physics period.
+     *
+     * @param dt the amount of time to step forwards in seconds
+     */
+    public void step(double dt) {
+        if (dt < 0.0) {
+            throw new IllegalArgumentException("Cannot step backwards in time");
+        }
+
+        int steps = (int) Math.ceil(dt / physicsPeriod);
+        double h = dt / steps;
+        for (int i = 0; i < steps; i++) {
+            stepPhysics(h);
+        }
+
+        gyroscope.update(angle, angularVelocity, dt);
+    }
+
+    private void stepPhysics(double dt) {
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+
+        // The velocity of the chassis relative to itself
+        double chassisX = velocityX * cos + velocityY * sin;
+        double chassisY = -velocityX * sin + velocityY * cos;
+
+        double normalForce = mass * GRAVITY / modules.length;
+
+        double forceX = 0.0;
+        double forceY = 0.0;
+        double torque = 0.0;
+        for (SimulatedSwerveModule module : modules) {
+            Vector2 position = module.getModulePosition();
+
+            // The velocity of the module is the chassis velocity plus the velocity from the chassis rotating
+            double moduleX = chassisX - angularVelocity * position.y;
+            double moduleY = chassisY + angularVelocity * position.x;
+            module.step(dt, moduleX, moduleY, normalForce, frictionCoefficient, batteryVoltage);
+
+            forceX += module.getForceX();
+            forceY += module.getForceY();
+            torque += position.x * module.getForceY() - position.y * module.getForceX();
+        }
+
+        velocityX += (forceX * cos - forceY * sin) / mass * dt;
+        velocityY += (forceX * sin + forceY * cos) / mass * dt;
+        angularVelocity += torque / momentOfInertia * dt;
+
+        x += velocityX * dt;
+        y += velocityY * dt;
+        angle += angularVelocity * dt;
+    }
+}
@@ -0,0 +1,249 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.drivers.SwerveModule;
+import org.frcteam2910.common.math.Vector2;
+
+import java.util.Random;
+
+/**
+ * A swerve module on a {@link SimulatedSwerveDrivetrain}.
+ * <p>
+ * The steering and drive motors are modelled with {@link DcMotor}s through a reduction. The steering motor is controlled
+ * by a proportional controller like the one running on a motor controller. The wheel is connected to the ground by a
+ * tire whose force grows with the slip between the wheel and the ground until it reaches the limit of friction, so the
+ * wheel slips when it is driven too hard.
+ * <p>
+ * The sensors can have random noise added to every reading. The noise is generated by a seeded random number generator
+ * so a simulation is repeatable. All units are SI.
+ */
+public final class SimulatedSwerveModule extends SwerveModule {
+    /**
+     * The slip speed between the wheel and the ground at which the tire reaches the limit of friction.
+     */
+    private static final double SATURATION_SLIP_SPEED = 5.0e-2;
+
+    private static final double DEFAULT_STEERING_GAIN = 10.0;
+
+    private final DcMotor driveMotor;
+    private final double driveReduction;
+    private final double wheelRadius;
+    private final double wheelInertia;
+
+    private final DcMotor steerMotor;
+    private final double steerReduction;
+    private final double steerInertia;
+
+    private double steeringGain = DEFAULT_STEERING_GAIN;
+
+    private double angleNoise = 0.0;
+    private double distanceNoise = 0.0;
+    private Random random = new Random(0);
+
+    // Set by the code controlling the module
+    private double targetAngle = 0.0;
+    private double driveOutput = 0.0;
+
+    private double steerAngle = 0.0;
+    private double steerVelocity = 0.0;
+    private double wheelRotation = 0.0;
+    private double wheelSpeed = 0.0;
+    private double driveCurrent = 0.0;
+
+    // The force of the ground on the module relative to the robot from the latest step
+    private double forceX = 0.0;
+    private double forceY = 0.0;
+
+    /**
+     * @param modulePosition the position of the module relative to the center of the robot in meters
+     * @param driveMotor     the motors driving the wheel
+     * @param driveReduction the reduction between the drive motors and the wheel
+     * @param wheelRadius    the radius of the wheel in meters
+     * @param wheelInertia   the moment of inertia of the wheel and everything turning with it, as seen by the wheel
+     * @param steerMotor     the motors steering the module
+     * @param steerReduction the reduction between the steering motors and the module
+     * @param steerInertia   the moment of inertia of the module about its steering axis, as seen by the module
+     */
+    public SimulatedSwerveModule(Vector2 modulePosition,
+                                 DcMotor driveMotor, double driveReduction, double wheelRadius, double wheelInertia,
+                                 DcMotor steerMotor, double steerReduction, double steerInertia) {
+        super(modulePosition);
+
+        if (driveReduction <= 0.0 || wheelRadius <= 0.0 || wheelInertia <= 0.0 || steerReduction <= 0.0 ||
+                steerInertia <= 0.0) {
+            throw new IllegalArgumentException("Reductions, radii and inertias must be positive");
+        }
+
+        this.driveMotor = driveMotor;
+        this.driveReduction = driveReduction;
+        this.wheelRadius = wheelRadius;
+        this.wheelInertia = wheelInertia;
+        this.steerMotor = steerMotor;
+        this.steerReduction = steerReduction;
+        this.steerInertia = steerInertia;
+    }
+
+    /**
+     * Creates a model of an SDS Mk2 module with a NEO driving and a NEO steering the module.
+     *
+     * @param modulePosition the position of the module relative to the center of the robot in meters
+     * @return the module
+     */
+    public static SimulatedSwerveModule mk2(Vector2 modulePosition) {
+        return new SimulatedSwerveModule(modulePosition,
+                DcMotor.neo(1), 8.31, 0.0508, 1.0e-2,
+                DcMotor.neo(1), 18.0, 4.0e-2);
+    }
+
+    public double getWheelRadius() {
+        return wheelRadius;
+    }
+
+    /**
+     * Gets the fastest the module can drive when the wheel isn't slipping.
+     *
+     * @param voltage the voltage applied to the drive motors
+     * @return the speed in meters per second
+     */
+    public double getMaxSpeed(double voltage) {
+        return driveMotor.getVelocityConstant() * voltage / driveReduction * wheelRadius;
+    }
+
+    /**
+     * Sets the gain of the steering controller.
+     *
+     * @param steeringGain the volts applied to the steering motors per radian of error
+     */
+    public void setSteeringGain(double steeringGain) {
+        this.steeringGain = steeringGain;
+    }
+
+    /**
+     * Sets the noise added to every reading of the sensors.
+     *
+     * @param angleNoise    the standard deviation of the noise of the angle in radians
+     * @param distanceNoise the standard deviation of the noise of the distance in meters
+     * @param random        the random number generator to generate the noise with
+     */
+    public void setSensorNoise(double angleNoise, double distanceNoise, Random random) {
+        this.angleNoise = angleNoise;
+        this.distanceNoise = distanceNoise;
+        this.random = random;
+    }
+
+    @Override
+    protected double readAngle() {
+        double angle = steerAngle;
+        if (angleNoise > 0.0) {
+            angle += random.nextGaussian() * angleNoise;
+        }
+
+        angle %= 2.0 * Math.PI;
+        if (angle < 0.0) {
+            angle += 2.0 * Math.PI;
+        }
+
+        return angle;
+    }
+
+    @Override
+    protected double readDistance() {
+        double distance = wheelRotation * wheelRadius;
+        if (distanceNoise > 0.0) {
+            distance += random.nextGaussian() * distanceNoise;
+        }
+
+        return distance;
+    }
+
+    @Override
+    protected double readVelocity() {
+        return wheelSpeed * wheelRadius;
+    }
+
+    @Override
+    protected double readDriveCurrent() {
+        return Math.abs(driveCurrent);
+    }
+
+    @Override
+    protected void setTargetAngle(double angle) {
+        targetAngle = angle;
+    }
+
+    @Override
+    protected void setDriveOutput(double output) {
+        driveOutput = Math.max(-1.0, Math.min(1.0, output));
+    }
+
+    /**
+     * @return the true angle of the module in radians
+     */
+    public double getTrueAngle() {
+        return steerAngle;
+    }
+
+    /**
+     * @return the true speed of the surface of the wheel in meters per second
+     */
+    public double getTrueWheelSpeed() {
+        return wheelSpeed * wheelRadius;
+    }
+
+    double getForceX() {
+        return forceX;
+    }
+
+    double getForceY() {
+        return forceY;
+    }
+
+    /**
+     * Steps the module forwards in time.
+     *
+     * @param dt             the time step in seconds
+     * @param velocityX      the velocity of the module over the ground along the robot's x axis
+     * @param velocityY      the velocity of the module over the ground along the robot's y axis
+     * @param normalForce    the weight on the wheel in newtons
+     * @param friction       the coefficient of friction between the wheel and the ground
+     * @param batteryVoltage the voltage of the battery
+     */
+    void step(double dt, double velocityX, double velocityY, double normalForce, double friction, double batteryVoltage) {
+        // Steering
+        double error = (targetAngle - steerAngle) % (2.0 * Math.PI);
+        if (error >= Math.PI) {
+            error -= 2.0 * Math.PI;
+        } else if (error < -Math.PI) {
+            error += 2.0 * Math.PI;
+        }
+        double steerVoltage = Math.max(-batteryVoltage, Math.min(batteryVoltage, steeringGain * error));
+        double steerCurrent = steerMotor.getCurrent(steerVelocity * steerReduction, steerVoltage);
+        double steerTorque = steerMotor.getTorque(steerCurrent) * steerReduction;
+        steerVelocity += steerTorque / steerInertia * dt;
+        steerAngle += steerVelocity * dt;
+
+        // Split the movement of the module into along and across the wheel
+        double cos = Math.cos(steerAngle);
+        double sin = Math.sin(steerAngle);
+        double longitudinalSpeed = velocityX * cos + velocityY * sin;
+        double lateralSpeed = -velocityX * sin + velocityY * cos;
+
+        // The tire's force grows linearly with slip until it reaches the limit of friction
+        double maxForce = friction * normalForce;
+        double longitudinalForce = maxForce * (wheelSpeed * wheelRadius - longitudinalSpeed) / SATURATION_SLIP_SPEED;
+        double lateralForce = -maxForce * lateralSpeed / SATURATION_SLIP_SPEED;
+        double force = Math.hypot(longitudinalForce, lateralForce);
+        if (force > maxForce) {
+            longitudinalForce *= maxForce / force;
+            lateralForce *= maxForce / force;
+        }
+
+        // Drive
+        driveCurrent = driveMotor.getCurrent(wheelSpeed * driveReduction, driveOutput * batteryVoltage);
+        double wheelTorque = driveMotor.getTorque(driveCurrent) * driveReduction;
+        wheelSpeed += (wheelTorque - longitudinalForce * wheelRadius) / wheelInertia * dt;
+        wheelRotation += wheelSpeed * dt;
+
+        forceX = longitudinalForce * cos - lateralForce * sin;
+        forceY = longitudinalForce * sin + lateralForce * cos;
+    }
+}
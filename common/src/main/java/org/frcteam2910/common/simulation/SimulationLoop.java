@@ -0,0 +1,101 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.scheduling.SimulatedClock;
+import org.frcteam2910.common.scheduling.UpdateScheduler;
+
+import java.util.Random;
+
+/**
+ * Runs robot code against a {@link SimulatedSwerveDrivetrain} as fast as possible.
+ * <p>
+ * Every step ticks the scheduler, which runs the robot code with the time of the {@link SimulatedClock}, then moves the
+ * drivetrain and the clock forwards by one period. Nothing waits for the real time so a 15 second autonomous takes as
+ * long as the robot code and the physics take to run, not 15 seconds.
+ * <p>
+ * The length of each period can be varied randomly to simulate a loop that does not run exactly on time.
+ */
+public final class SimulationLoop {
+    private final SimulatedSwerveDrivetrain drivetrain;
+    private final UpdateScheduler scheduler;
+    private final SimulatedClock clock;
+
+    private double periodJitter = 0.0;
+    private Random random = new Random(0);
+
+    /**
+     * @param drivetrain the drivetrain to simulate
+     * @param scheduler  the scheduler running the robot code. Must use the clock.
+     * @param clock      the clock to advance
+     */
+    public SimulationLoop(SimulatedSwerveDrivetrain drivetrain, UpdateScheduler scheduler, SimulatedClock clock) {
+        if (scheduler.getClock() != clock) {
+            throw new IllegalArgumentException("The scheduler must use the simulated clock");
+        }
+
+        this.drivetrain = drivetrain;
+        this.scheduler = scheduler;
+        this.clock = clock;
+    }
+
+    public SimulatedSwerveDrivetrain getDrivetrain() {
+        return drivetrain;
+    }
+
+    public UpdateScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public SimulatedClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets how much the length of each period varies.
+     *
+     * @param periodJitter the most a period can be longer or shorter than the scheduler's period in seconds. Must be
+     *                     less than the period.
+     * @param random       the random number generator to vary the periods with
+     */
+    public void setPeriodJitter(double periodJitter, Random random) {
+        if (periodJitter < 0.0 || periodJitter >= scheduler.getPeriod()) {
+            throw new IllegalArgumentException("The jitter must not be negative and must be less than the period");
+        }
+
+        this.periodJitter = periodJitter;
+        this.random = random;
+    }
+
+    /**
+     * Runs the robot code once and moves the drivetrain forwards by one period.
+     */
+    public void step() {
+        scheduler.tick();
+
+        double dt = scheduler.getPeriod();
+        if (periodJitter > 0.0) {
+            dt += (2.0 * random.nextDouble() - 1.0) * periodJitter;
+        }
+
+        drivetrain.step(dt);
+        clock.advance(dt);
+    }
+
+    /**
+     * Steps the simulation until an amount of simulated time has passed.
+     *
+     * @param duration the amount of time to simulate in seconds
+     * @return the amount of steps that were run
+     */
+    public long run(double duration) {
+        double endTime = clock.getTime() + duration;
+
+        long steps = 0;
+        // Stop half a period early so rounding errors in the clock do not add an extra step
+        while (clock.getTime() < endTime - scheduler.getPeriod() / 2.0) {
+            step();
+            steps++;
+        }
+
+        return steps;
+    }
+}
@@ -0,0 +1,130 @@
+package org.frcteam2910.common.telemetry;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A preallocated buffer of telemetry values that is written by the control loop and read by a publisher thread.
+ * <p>
+ * Every value is stored in a channel that is added before the control loop starts. Writing a value to a channel is a
+ * single atomic store of its bits, so the control loop never allocates, formats a string or waits for the publisher.
+ * The publisher reads the latest value of every channel whenever it wants to, usually at a much lower rate than the
+ * control loop writes them. Only the latest value of a channel is kept.
+ * <p>
+ * A channel that has never been written has a value of NaN.
+ */
+public final class TelemetryBuffer {
+    private static final long UNSET = Double.doubleToRawLongBits(Double.NaN);
+
+    private final String[] keys;
+    private final AtomicLongArray values;
+
+    private volatile int channelCount = 0;
+
+    /**
+     * @param capacity the maximum amount of channels
+     */
+    public TelemetryBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+
+        this.keys = new String[capacity];
+        this.values = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            values.set(i, UNSET);
+        }
+    }
+
+    /**
+     * Adds a channel to the buffer.
+     *
+     * @param key the key the channel is published under. The key is only built once so it doesn't need to be built
+     *            every time a value is published.
+     * @return the new channel
+     * @throws IllegalStateException    if the buffer is full
+     * @throws IllegalArgumentException if there is already a channel with the same key
+     */
+    public synchronized Channel addChannel(String key) {
+        int index = channelCount;
+        if (index == keys.length) {
+            throw new IllegalStateException("The telemetry buffer is full");
+        }
+        for (int i = 0; i < index; i++) {
+            if (keys[i].equals(key)) {
+                throw new IllegalArgumentException("There is already a channel with the key " + key);
+            }
+        }
+
+        keys[index] = key;
+        // Publishing the new count makes the key visible to readers
+        channelCount = index + 1;
+
+        return new Channel(index, key);
+    }
+
+    public int getChannelCount() {
+        return channelCount;
+    }
+
+    public String getKey(int channel) {
+        checkChannel(channel);
+        return keys[channel];
+    }
+
+    public double getValue(int channel) {
+        return Double.longBitsToDouble(getRawValue(channel));
+    }
+
+    /**
+     * Gets the bits of the value of a channel. Comparing the bits is a cheap way to check if a value changed.
+     *
+     * @param channel the index of the channel
+     * @return the bits of the channel's value
+     * @see Double#doubleToRawLongBits(double)
+     */
+    public long getRawValue(int channel) {
+        checkChannel(channel);
+        return values.getAcquire(channel);
+    }
+
+    private void checkChannel(int channel) {
+        if (channel < 0 || channel >= channelCount) {
+            throw new IndexOutOfBoundsException("Channel " + channel + " is out of bounds for " + channelCount +
+                    " channels");
+        }
+    }
+
+    /**
+     * A handle used to write a value to the buffer.
+     */
+    public final class Channel {
+        private final int index;
+        private final String key;
+
+        private Channel(int index, String key) {
+            this.index = index;
+            this.key = key;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void set(double value) {
+            values.setRelease(index, Double.doubleToRawLongBits(value));
+        }
+
+        /**
+         * Sets the value of the channel to 1 if true or 0 if false.
+         *
+         * @param value the value
+         */
+        public void set(boolean value) {
+            set(value ? 1.0 : 0.0);
+        }
+    }
+}
@@ -27,6 +27,10 @@ public class HolonomicFeedforward {
         strafeFeedforward += strafeConstants.getAccelerationConstant() * acceleration.y;
 
         Vector2 feedforwardVector = new Vector2(forwardFeedforward, strafeFeedforward);
+        if (feedforwardVector.length == 0.0) {
+            // There is no direction to apply the kS constant in, normalizing would divide by zero
+            return feedforwardVector;
+        }
 
         // Apply the kS constant proportionally to the forward and strafe feedforwards based on their relative
         // magnitudes
@@ -0,0 +1,241 @@
+package org.frcteam2910.common.util;
+
+import java.util.Arrays;
+
+/**
+ * A map sorted by <code>double</code> keys that can interpolate between values.
+ * <p>
+ * This behaves like an {@link InterpolatingTreeMap} with {@link InterpolatingDouble} keys but stores its keys in a
+ * primitive array which is binary searched. Looking up a value does not allocate a key and does not have to walk a
+ * tree.
+ * <p>
+ * A map can optionally be bounded. When a bounded map is full, adding a new key removes the smallest key. Keys are
+ * stored in a ring buffer so when keys are added in increasing order (e.g. timestamps) removing the smallest key
+ * takes constant time.
+ *
+ * @param <V> the type of the values
+ */
+public class InterpolatingDoubleMap<V extends Interpolable<V>> {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final int maxSize;
+
+    private double[] keys;
+    private Object[] values;
+
+    /**
+     * The index in the arrays of the smallest key.
+     */
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Creates a map with no maximum size.
+     */
+    public InterpolatingDoubleMap() {
+        this.maxSize = Integer.MAX_VALUE;
+        this.keys = new double[DEFAULT_CAPACITY];
+        this.values = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Creates a bounded map.
+     *
+     * @param maxSize the maximum amount of entries in the map
+     */
+    public InterpolatingDoubleMap(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the map must be positive");
+        }
+
+        this.maxSize = maxSize;
+        this.keys = new double[maxSize];
+        this.values = new Object[maxSize];
+    }
+
+    /**
+     * Converts an index into the sorted entries into an index into the arrays.
+     */
+    private int toArrayIndex(int index) {
+        int arrayIndex = head + index;
+        if (arrayIndex >= keys.length) {
+            arrayIndex -= keys.length;
+        }
+
+        return arrayIndex;
+    }
+
+    /**
+     * Finds the index of a key in the sorted entries.
+     *
+     * @return the index of the key if it is in the map. Otherwise, <code>-(insertion point) - 1</code>.
+     */
+    private int search(double key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = Double.compare(keys[toArrayIndex(mid)], key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /**
+     * Moves the entries so the smallest key is at the start of the arrays and resizes the arrays.
+     */
+    private void resize(int capacity) {
+        double[] newKeys = new double[capacity];
+        Object[] newValues = new Object[capacity];
+        for (int i = 0; i < size; i++) {
+            newKeys[i] = keys[toArrayIndex(i)];
+            newValues[i] = values[toArrayIndex(i)];
+        }
+
+        keys = newKeys;
+        values = newValues;
+        head = 0;
+    }
+
+    /**
+     * Adds a value to the map. If the key is already in the map its value is replaced. If the map is bounded and full,
+     * the entry with the smallest key is removed.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the value
+     */
+    public V put(double key, V value) {
+        int index = search(key);
+        if (index >= 0) {
+            values[toArrayIndex(index)] = value;
+            return value;
+        }
+        index = -index - 1;
+
+        if (size == maxSize) {
+            // Remove the smallest key
+            values[head] = null;
+            head = toArrayIndex(1);
+            size--;
+            index = Math.max(index - 1, 0);
+        } else if (size == keys.length) {
+            resize(Math.min(maxSize, keys.length * 2));
+        }
+
+        // Shift every entry after the insertion point back by one
+        for (int i = size; i > index; i--) {
+            int to = toArrayIndex(i);
+            int from = toArrayIndex(i - 1);
+            keys[to] = keys[from];
+            values[to] = values[from];
+        }
+
+        int arrayIndex = toArrayIndex(index);
+        keys[arrayIndex] = key;
+        values[arrayIndex] = value;
+        size++;
+
+        return value;
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value of the key or null if the key is not in the map
+     */
+    public V get(double key) {
+        int index = search(key);
+        if (index < 0) {
+            return null;
+        }
+
+        return getValue(index);
+    }
+
+    /**
+     * Gets the value at a key, interpolating between the values of the keys around it if the key is not in the map.
+     * <p>
+     * If the key is smaller than the smallest key or larger than the largest key, the value of the smallest or largest
+     * key is returned.
+     *
+     * @param key the key
+     * @return the interpolated value or null if the map is empty
+     */
+    public V getInterpolated(double key) {
+        if (size == 0) {
+            return null;
+        }
+
+        int index = search(key);
+        if (index >= 0) {
+            return getValue(index);
+        }
+
+        int ceiling = -index - 1;
+        if (ceiling == 0) {
+            // The key is before the first entry in the map
+            return getValue(0);
+        } else if (ceiling == size) {
+            // The key is after the last entry in the map
+            return getValue(size - 1);
+        }
+
+        int floor = ceiling - 1;
+        double floorKey = getKey(floor);
+        double ceilingKey = getKey(ceiling);
+
+        return getValue(floor).interpolate(getValue(ceiling), (key - floorKey) / (ceilingKey - floorKey));
+    }
+
+    /**
+     * Gets the key at an index. Keys are sorted from smallest to largest.
+     *
+     * @param index the index of the key
+     * @return the key
+     */
+    public double getKey(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+        }
+
+        return keys[toArrayIndex(index)];
+    }
+
+    /**
+     * Gets the value of the key at an index. Keys are sorted from smallest to largest.
+     *
+     * @param index the index of the key
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public V getValue(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+        }
+
+        return (V) values[toArrayIndex(index)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,200 @@
+package org.frcteam2910.common.util;
+
+import org.frcteam2910.common.math.MathUtils;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * A fixed size history of timestamped poses that can be interpolated between.
+ * <p>
+ * This is used to find where the robot was when a delayed measurement (e.g. a vision target) was taken. Poses are
+ * stored in primitive ring buffers so adding a pose never allocates.
+ * <p>
+ * The history does not use locks. Only a single thread may add poses but any number of threads may read from the
+ * history at the same time. A reader checks that the poses it read were not overwritten while it was reading them
+ * and tries again if they were.
+ */
+public final class PoseHistory {
+    /**
+     * The amount of times a read is retried when the poses being read are overwritten before giving up.
+     */
+    private static final int MAX_READ_ATTEMPTS = 8;
+
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int COS = 2;
+    private static final int SIN = 3;
+
+    private final int capacity;
+
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] coses;
+    private final double[] sins;
+
+    /**
+     * The amount of poses that have ever been added. The pose with index i is stored in slot i % capacity.
+     * <p>
+     * This is only written after a pose has been completely written to the buffers.
+     */
+    private volatile long writeCount = 0;
+
+    /**
+     * @param capacity the maximum amount of poses to keep
+     */
+    public PoseHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("A pose history must be able to hold at least 2 poses");
+        }
+
+        this.capacity = capacity;
+        this.timestamps = new double[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.coses = new double[capacity];
+        this.sins = new double[capacity];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the amount of poses in the history.
+     *
+     * @return the amount of poses
+     */
+    public int size() {
+        return (int) Math.min(writeCount, capacity);
+    }
+
+    /**
+     * Adds a pose to the history. If the history is full the oldest pose is replaced.
+     * <p>
+     * This must only be called from a single thread.
+     *
+     * @param timestamp the time the robot was at the pose. Must be greater than the timestamp of the last pose added.
+     * @param pose      the pose
+     */
+    public void add(double timestamp, RigidTransform2 pose) {
+        add(timestamp, pose.translation.x, pose.translation.y, pose.rotation.cos, pose.rotation.sin);
+    }
+
+    /**
+     * Adds a pose to the history. If the history is full the oldest pose is replaced.
+     * <p>
+     * This must only be called from a single thread.
+     *
+     * @param timestamp the time the robot was at the pose. Must be greater than the timestamp of the last pose added.
+     * @param x         the x coordinate of the pose
+     * @param y         the y coordinate of the pose
+     * @param cos       the cosine of the pose's rotation
+     * @param sin       the sine of the pose's rotation
+     */
+    public void add(double timestamp, double x, double y, double cos, double sin) {
+        long count = writeCount;
+        if (count > 0 && !(timestamp > timestamps[(int) ((count - 1) % capacity)])) {
+            throw new IllegalArgumentException("Poses must be added in order of increasing timestamp");
+        }
+
+        int slot = (int) (count % capacity);
+        timestamps[slot] = timestamp;
+        xs[slot] = x;
+        ys[slot] = y;
+        coses[slot] = cos;
+        sins[slot] = sin;
+
+        writeCount = count + 1;
+    }
+
+    /**
+     * Gets the pose at a time by interpolating between the poses before and after it.
+     * <p>
+     * If the time is before the oldest pose or after the newest pose, the oldest or newest pose is returned.
+     *
+     * @param timestamp the time to get the pose at
+     * @return the pose or null if the history is empty
+     */
+    public RigidTransform2 getPoseAt(double timestamp) {
+        double[] pose = new double[4];
+        if (!getPoseAt(timestamp, pose)) {
+            return null;
+        }
+
+        return new RigidTransform2(new Vector2(pose[X], pose[Y]), new Rotation2(pose[COS], pose[SIN], false));
+    }
+
+    /**
+     * Gets the pose at a time by interpolating between the poses before and after it without allocating.
+     * <p>
+     * If the time is before the oldest pose or after the newest pose, the oldest or newest pose is used.
+     *
+     * @param timestamp the time to get the pose at
+     * @param pose      the array to store the x coordinate, y coordinate, cosine and sine of the pose in, in that
+     *                  order. Must have a length of at least 4.
+     * @return true if a pose was found, false if the history is empty or the poses kept being overwritten while they
+     * were being read.
+     */
+    public boolean getPoseAt(double timestamp, double[] pose) {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long count = writeCount;
+            if (count == 0) {
+                return false;
+            }
+
+            // Poses older than this may be overwritten by the next write which could already be in progress
+            long oldest = Math.max(0, count - capacity + 1);
+            long newest = count - 1;
+
+            // Find the newest pose at or before the timestamp
+            long start = oldest;
+            long end = newest;
+            while (start < end) {
+                long mid = start + (end - start + 1) / 2;
+                if (timestamps[(int) (mid % capacity)] <= timestamp) {
+                    start = mid;
+                } else {
+                    end = mid - 1;
+                }
+            }
+
+            int before = (int) (start % capacity);
+            int after = (int) (Math.min(start + 1, newest) % capacity);
+
+            double beforeTimestamp = timestamps[before];
+            double afterTimestamp = timestamps[after];
+            double t = 0.0;
+            if (afterTimestamp > beforeTimestamp) {
+                t = MathUtils.clamp((timestamp - beforeTimestamp) / (afterTimestamp - beforeTimestamp), 0.0, 1.0);
+            }
+
+            double beforeCos = coses[before];
+            double beforeSin = sins[before];
+            double afterCos = coses[after];
+            double afterSin = sins[after];
+
+            pose[X] = MathUtils.lerp(xs[before], xs[after], t);
+            pose[Y] = MathUtils.lerp(ys[before], ys[after], t);
+
+            // Rotate from the rotation before the timestamp by a fraction of the angle between the two rotations
+            double angle = t * Math.atan2(beforeCos * afterSin - beforeSin * afterCos,
+                    beforeCos * afterCos + beforeSin * afterSin);
+            double cos = Math.cos(angle);
+            double sin = Math.sin(angle);
+            pose[COS] = beforeCos * cos - beforeSin * sin;
+            pose[SIN] = beforeSin * cos + beforeCos * sin;
+
+            // Make sure none of the poses we read were overwritten while we were reading them
+            VarHandle.acquireFence();
+            if (start >= writeCount - capacity + 1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
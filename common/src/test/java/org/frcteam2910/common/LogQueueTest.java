@@ -0,0 +1,87 @@
+package org.frcteam2910.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LogQueueTest {
+	@Test
+	public void eventsAreRemovedInOrder() {
+		LogQueue queue = new LogQueue(4);
+		LogQueue.Event event = new LogQueue.Event();
+
+		assertFalse(queue.poll(event));
+
+		assertTrue(queue.offer(Logger.Severity.INFO, 1, "A", "first", null, null));
+		assertTrue(queue.offer(Logger.Severity.ERROR, 2, "B", "second", new Object[]{1}, null));
+
+		assertTrue(queue.poll(event));
+		assertEquals(Logger.Severity.INFO, event.severity);
+		assertEquals("first", event.format);
+		assertTrue(queue.poll(event));
+		assertEquals(2, event.time);
+		assertEquals("second", event.format);
+		assertArrayEquals(new Object[]{1}, event.args);
+		assertFalse(queue.poll(event));
+
+		assertEquals(2, queue.getConsumerPosition());
+	}
+
+	@Test
+	public void fullQueueDropsEvents() {
+		LogQueue queue = new LogQueue(2);
+		LogQueue.Event event = new LogQueue.Event();
+
+		assertTrue(queue.offer(Logger.Severity.INFO, 0, null, "1", null, null));
+		assertTrue(queue.offer(Logger.Severity.INFO, 0, null, "2", null, null));
+		assertFalse(queue.offer(Logger.Severity.INFO, 0, null, "3", null, null));
+		assertEquals(1, queue.getDroppedCount());
+
+		// Removing an event makes room for another one
+		assertTrue(queue.poll(event));
+		assertTrue(queue.offer(Logger.Severity.INFO, 0, null, "4", null, null));
+		assertTrue(queue.poll(event));
+		assertEquals("2", event.format);
+		assertTrue(queue.poll(event));
+		assertEquals("4", event.format);
+	}
+
+	@Test
+	public void concurrentProducersDoNotLoseEvents() throws InterruptedException {
+		final int producerCount = 4;
+		final int eventsPerProducer = 10000;
+
+		LogQueue queue = new LogQueue(64);
+		Thread[] producers = new Thread[producerCount];
+		for (int i = 0; i < producerCount; i++) {
+			producers[i] = new Thread(() -> {
+				for (int j = 0; j < eventsPerProducer; j++) {
+					queue.offer(Logger.Severity.DEBUG, j, null, "", null, null);
+				}
+			});
+			producers[i].start();
+		}
+
+		LogQueue.Event event = new LogQueue.Event();
+		long received = 0;
+		boolean producing = true;
+		while (producing) {
+			producing = false;
+			for (Thread producer : producers) {
+				producing |= producer.isAlive();
+			}
+
+			while (queue.poll(event)) {
+				received++;
+			}
+		}
+
+		assertEquals(producerCount * eventsPerProducer, received + queue.getDroppedCount());
+		assertEquals(received, queue.getConsumerPosition());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void capacityMustBePowerOfTwo() {
+		new LogQueue(3);
+	}
+}
@@ -2,7 +2,11 @@ package org.frcteam2910.common;
 
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.junit.Assert.*;
 
 public class LoggerTest {
 	@Test
@@ -14,5 +18,45 @@ public class LoggerTest {
 		logger.error(new IOException("Failed to not fail!"));
 		logger.debug("Debugging message!");
 		Logger.getAnonymousLogger().error("Test");
+		Logger.flush();
+	}
+
+	@Test
+	public void messagesAreWrittenAsynchronously() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Logger.flush();
+		Logger.setOutputStream(new PrintStream(output, true));
+		try {
+			Logger logger = new Logger("LoggerTest");
+			logger.info("Value: %.2f", 1.5);
+			Logger.flush();
+
+			assertTrue(output.toString().contains("[LoggerTest/INFO]: Value: 1.50"));
+		} finally {
+			Logger.setOutputStream(new PrintStream(System.out));
+		}
+	}
+
+	@Test
+	public void messagesBelowMinimumSeverityAreDiscarded() {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Logger.flush();
+		Logger.setOutputStream(new PrintStream(output, true));
+		Logger.setMinimumSeverity(Logger.Severity.INFO);
+		try {
+			assertFalse(Logger.isEnabled(Logger.Severity.DEBUG));
+			assertTrue(Logger.isEnabled(Logger.Severity.ERROR));
+
+			Logger logger = new Logger("LoggerTest");
+			logger.debug("Discarded");
+			logger.info("Kept");
+			Logger.flush();
+
+			assertFalse(output.toString().contains("Discarded"));
+			assertTrue(output.toString().contains("Kept"));
+		} finally {
+			Logger.setMinimumSeverity(Logger.Severity.DEBUG);
+			Logger.setOutputStream(new PrintStream(System.out));
+		}
 	}
 }
@@ -0,0 +1,66 @@
+package org.frcteam2910.common.control;
+
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.math.spline.CubicBezierSpline;
+import org.frcteam2910.common.math.spline.CubicHermiteSpline;
+import org.frcteam2910.common.math.spline.Spline;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SplinePathSegmentTest {
+    private static final double LENGTH_ERROR = 1.0e-6;
+    private static final double DISTANCE_ERROR = 1.0e-6;
+
+    @Test
+    public void straightLineLength() {
+        SplinePathSegment segment = new SplinePathSegment(new CubicHermiteSpline(
+                Vector2.ZERO, Rotation2.fromDegrees(45.0),
+                new Vector2(30.0, 30.0), Rotation2.fromDegrees(45.0)
+        ));
+
+        assertEquals(Math.hypot(30.0, 30.0), segment.getLength(), LENGTH_ERROR);
+    }
+
+    @Test
+    public void lengthMatchesChordSum() {
+        Spline spline = new CubicBezierSpline(Vector2.ZERO, new Vector2(5.0, 0.0),
+                new Vector2(45.0, 50.0), new Vector2(50.0, 50.0));
+        SplinePathSegment segment = new SplinePathSegment(spline);
+
+        final int samples = 1000000;
+        double expectedLength = 0.0;
+        Vector2 last = spline.getPoint(0.0);
+        for (int i = 1; i <= samples; i++) {
+            Vector2 current = spline.getPoint(((double) i) / samples);
+            expectedLength += current.subtract(last).length;
+            last = current;
+        }
+
+        assertEquals(expectedLength, segment.getLength(), LENGTH_ERROR);
+    }
+
+    @Test
+    public void samplesAtConstantSpeed() {
+        // The control points are bunched up at the start of the spline so t does not map linearly to distance
+        SplinePathSegment segment = new SplinePathSegment(new CubicBezierSpline(Vector2.ZERO, new Vector2(1.0, 0.0),
+                new Vector2(2.0, 0.0), new Vector2(60.0, 0.0)));
+
+        assertEquals(60.0, segment.getLength(), LENGTH_ERROR);
+
+        for (int i = 0; i <= 60; i++) {
+            assertEquals(i, segment.calculate(i).getPosition().x, DISTANCE_ERROR);
+        }
+    }
+
+    @Test
+    public void endpointsMatchSpline() {
+        Spline spline = new CubicHermiteSpline(Vector2.ZERO, Rotation2.ZERO,
+                new Vector2(100.0, 100.0), Rotation2.fromDegrees(90.0));
+        SplinePathSegment segment = new SplinePathSegment(spline);
+
+        assertEquals(spline.getPoint(0.0), segment.getStart().getPosition());
+        assertEquals(spline.getPoint(1.0), segment.getEnd().getPosition());
+    }
+}
@@ -7,7 +7,10 @@ import org.frcteam2910.common.math.Vector2;
 import org.frcteam2910.common.util.MovingAverage;
 import org.junit.Test;
 
+import java.util.concurrent.ForkJoinPool;
+
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 public class TrajectoryTest {
@@ -62,6 +65,111 @@ public class TrajectoryTest {
         }
     }
 
+    @Test
+    public void parallelGenerationMatchesSerialGeneration() {
+        Path path = new SplinePathBuilder(Vector2.ZERO, Rotation2.fromDegrees(90.0), Rotation2.fromDegrees(90.0))
+                .hermite(new Vector2(50.0, 50.0), Rotation2.fromDegrees(90.0), Rotation2.ZERO)
+                .hermite(new Vector2(100.0, 0.0), Rotation2.fromDegrees(-90.0), Rotation2.fromDegrees(180.0))
+                .build();
+
+        // Use a small sample distance so the samples are split across multiple tasks
+        Trajectory serial = new Trajectory(path, CONSTRAINTS, 1.0e-3);
+        Trajectory parallel = new Trajectory(path, CONSTRAINTS, 1.0e-3, ForkJoinPool.commonPool());
+
+        assertEquals(serial.getDuration(), parallel.getDuration(), 0.0);
+
+        int samples = (int) Math.ceil(serial.getDuration() / DT);
+        for (int i = 0; i <= samples; i++) {
+            Trajectory.State expected = serial.calculate(i * DT);
+            Trajectory.State actual = parallel.calculate(i * DT);
+
+            assertEquals(expected.getPathState().getDistance(), actual.getPathState().getDistance(), 0.0);
+            assertEquals(expected.getVelocity(), actual.getVelocity(), 0.0);
+            assertEquals(expected.getAcceleration(), actual.getAcceleration(), 0.0);
+        }
+    }
+
+    @Test
+    public void profilesAreContiguous() {
+        Path path = new SplinePathBuilder(Vector2.ZERO, Rotation2.fromDegrees(90.0), Rotation2.fromDegrees(90.0))
+                .hermite(new Vector2(50.0, 50.0), Rotation2.fromDegrees(90.0), Rotation2.ZERO)
+                .build();
+        Trajectory trajectory = new Trajectory(path, CONSTRAINTS, SAMPLE_DISTANCE);
+
+        assertEquals(Math.ceil(path.getLength() / SAMPLE_DISTANCE), trajectory.getProfileCount(), 0.0);
+        assertEquals(0.0, trajectory.getProfileStartDistance(0), 0.0);
+        assertEquals(0.0, trajectory.getProfileStartTime(0), 0.0);
+        assertEquals("The trajectory should start stopped", 0.0, trajectory.getProfileStartingVelocity(0), 0.0);
+
+        int last = trajectory.getProfileCount() - 1;
+        assertEquals(path.getLength(),
+                trajectory.getProfileStartDistance(last) + trajectory.getProfileLength(last), 1.0e-9);
+
+        for (int i = 1; i <= last; i++) {
+            // Each profile starts where the previous one ended
+            assertEquals(trajectory.getProfileStartDistance(i - 1) + trajectory.getProfileLength(i - 1),
+                    trajectory.getProfileStartDistance(i), 1.0e-9);
+            assertThat(trajectory.getProfileStartTime(i), greaterThanOrEqualTo(trajectory.getProfileStartTime(i - 1)));
+        }
+
+        // Rebuilding the trajectory from its profiles gives the same trajectory
+        double[] startDistances = new double[trajectory.getProfileCount()];
+        double[] lengths = new double[trajectory.getProfileCount()];
+        double[] startingVelocities = new double[trajectory.getProfileCount()];
+        double[] accelerations = new double[trajectory.getProfileCount()];
+        double[] startTimes = new double[trajectory.getProfileCount()];
+        for (int i = 0; i <= last; i++) {
+            startDistances[i] = trajectory.getProfileStartDistance(i);
+            lengths[i] = trajectory.getProfileLength(i);
+            startingVelocities[i] = trajectory.getProfileStartingVelocity(i);
+            accelerations[i] = trajectory.getProfileAcceleration(i);
+            startTimes[i] = trajectory.getProfileStartTime(i);
+        }
+        Trajectory rebuilt = new Trajectory(path, trajectory.getDuration(), startDistances, lengths,
+                startingVelocities, accelerations, startTimes);
+
+        int samples = (int) Math.ceil(trajectory.getDuration() / DT);
+        for (int i = 0; i <= samples; i++) {
+            Trajectory.State expected = trajectory.calculate(i * DT);
+            Trajectory.State actual = rebuilt.calculate(i * DT);
+
+            assertEquals(expected.getPathState().getDistance(), actual.getPathState().getDistance(), 0.0);
+            assertEquals(expected.getVelocity(), actual.getVelocity(), 0.0);
+            assertEquals(expected.getAcceleration(), actual.getAcceleration(), 0.0);
+        }
+    }
+
+    @Test
+    public void cursorMatchesCalculate() {
+        Path path = new SplinePathBuilder(Vector2.ZERO, Rotation2.fromDegrees(90.0), Rotation2.fromDegrees(90.0))
+                .hermite(new Vector2(50.0, 50.0), Rotation2.fromDegrees(90.0), Rotation2.ZERO)
+                .hermite(new Vector2(100.0, 0.0), Rotation2.fromDegrees(-90.0), Rotation2.fromDegrees(180.0))
+                .build();
+        Trajectory trajectory = new Trajectory(path, CONSTRAINTS, SAMPLE_DISTANCE);
+        Trajectory.Cursor cursor = new Trajectory.Cursor(trajectory);
+
+        // Step forwards like a follower would, then jump backwards and forwards to make sure the cursor can recover
+        int samples = (int) Math.ceil(trajectory.getDuration() / DT);
+        double[] times = new double[samples + 4];
+        for (int i = 0; i <= samples; i++) {
+            times[i] = i * DT;
+        }
+        times[samples + 1] = 0.5 * trajectory.getDuration();
+        times[samples + 2] = 0.1;
+        times[samples + 3] = trajectory.getDuration() + 1.0;
+
+        for (double time : times) {
+            Trajectory.State expected = trajectory.calculate(time);
+            Trajectory.State actual = cursor.calculate(time);
+
+            assertEquals(expected.getPathState().getDistance(), actual.getPathState().getDistance(), 1.0e-9);
+            assertEquals(expected.getPathState().getPosition(), actual.getPathState().getPosition());
+            assertEquals(expected.getPathState().getRotation(), actual.getPathState().getRotation());
+            assertEquals(expected.getVelocity(), actual.getVelocity(), 1.0e-9);
+            assertEquals(expected.getAcceleration(), actual.getAcceleration(), 1.0e-9);
+        }
+    }
+
     @Test
     public void speedTest() {
         final int speedRuns = 10;
@@ -8,6 +8,9 @@ import static org.junit.Assert.assertTrue;
 public final class MockSwerveModule extends SwerveModule {
 	private double angle;
 	private double distance;
+	private double velocity;
+	private double driveCurrent;
+	private int angleReadCount;
 	private double targetAngle;
 	private double driveOutput;
 
@@ -17,9 +20,14 @@ public final class MockSwerveModule extends SwerveModule {
 
 	@Override
 	protected double readAngle() {
+		angleReadCount++;
 		return angle;
 	}
 
+	public int getAngleReadCount() {
+		return angleReadCount;
+	}
+
 	public void writeAngle(double angle) {
 		this.angle = angle;
 	}
@@ -33,6 +41,24 @@ public final class MockSwerveModule extends SwerveModule {
 		this.distance = distance;
 	}
 
+	@Override
+	protected double readVelocity() {
+		return velocity;
+	}
+
+	public void writeVelocity(double velocity) {
+		this.velocity = velocity;
+	}
+
+	@Override
+	protected double readDriveCurrent() {
+		return driveCurrent;
+	}
+
+	public void writeDriveCurrent(double driveCurrent) {
+		this.driveCurrent = driveCurrent;
+	}
+
 	@Override
 	protected void setTargetAngle(double angle) {
 		this.targetAngle = angle;
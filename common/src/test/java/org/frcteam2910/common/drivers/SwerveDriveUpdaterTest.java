@@ -0,0 +1,91 @@
+package org.frcteam2910.common.drivers;
+
+import org.frcteam2910.common.kinematics.SwerveOdometry;
+import org.frcteam2910.common.math.MathUtils;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.util.HolonomicDriveSignal;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SwerveDriveUpdaterTest {
+    private static final double UPDATE_DT = 5.0e-3;
+
+    private static MockSwerveModule[] createModules() {
+        return new MockSwerveModule[]{
+                new MockSwerveModule(new Vector2(0.25, 0.25)),
+                new MockSwerveModule(new Vector2(0.25, -0.25)),
+                new MockSwerveModule(new Vector2(-0.25, 0.25)),
+                new MockSwerveModule(new Vector2(-0.25, -0.25))
+        };
+    }
+
+    @Test
+    public void fieldOrientedTranslationIsRotatedIntoTheRobotFrame() {
+        MockSwerveModule[] modules = createModules();
+        SwerveDriveUpdater updater = new SwerveDriveUpdater(SwerveOdometry.IntegrationMethod.ARC,
+                new RigidTransform2(Vector2.ZERO, Rotation2.fromDegrees(90.0)), modules);
+
+        // Driving along the field's x axis while facing along its y axis is driving to the robot's right
+        updater.updateModules(new HolonomicDriveSignal(new Vector2(0.5, 0.0), 0.0, true), UPDATE_DT);
+        for (MockSwerveModule module : modules) {
+            assertEquals(1.5 * Math.PI, module.getTargetAngle(), MathUtils.EPSILON);
+        }
+
+        // Robot oriented translations are not rotated
+        updater.updateModules(new HolonomicDriveSignal(new Vector2(0.5, 0.0), 0.0, false), UPDATE_DT);
+        for (MockSwerveModule module : modules) {
+            assertEquals(0.0, module.getTargetAngle(), MathUtils.EPSILON);
+        }
+    }
+
+    @Test
+    public void fieldOrientedTranslationCanBeRotatedByTheHeading() {
+        MockSwerveModule[] modules = createModules();
+        SwerveDriveUpdater updater = new SwerveDriveUpdater(SwerveOdometry.IntegrationMethod.ARC,
+                SwerveDriveUpdater.FieldOrientedRotation.HEADING,
+                new RigidTransform2(Vector2.ZERO, Rotation2.fromDegrees(90.0)), modules);
+
+        updater.updateModules(new HolonomicDriveSignal(new Vector2(0.5, 0.0), 0.0, true), UPDATE_DT);
+        for (MockSwerveModule module : modules) {
+            assertEquals(0.5 * Math.PI, module.getTargetAngle(), MathUtils.EPSILON);
+        }
+    }
+
+    @Test
+    public void idleModulesPointForwards() {
+        MockSwerveModule[] modules = createModules();
+        SwerveDriveUpdater updater = new SwerveDriveUpdater(SwerveOdometry.IntegrationMethod.ARC,
+                RigidTransform2.ZERO, modules);
+
+        updater.updateModules(new HolonomicDriveSignal(new Vector2(0.0, 0.5), 0.0, false), UPDATE_DT);
+        updater.updateModules(null, UPDATE_DT);
+        for (MockSwerveModule module : modules) {
+            assertEquals(0.0, module.getTargetAngle(), MathUtils.EPSILON);
+            assertEquals(0.0, module.getDriveOutput(), MathUtils.EPSILON);
+        }
+    }
+
+    @Test
+    public void odometryUsesTheGyroscopeAngle() {
+        MockSwerveModule[] modules = createModules();
+        SwerveDriveUpdater updater = new SwerveDriveUpdater(SwerveOdometry.IntegrationMethod.ARC,
+                RigidTransform2.ZERO, modules);
+        updater.updateOdometry(0.0, Rotation2.fromDegrees(90.0));
+
+        // Every module drives 1 m forwards in the robot's frame, which is along the field's y axis
+        for (MockSwerveModule module : modules) {
+            module.writeDistance(1.0);
+            module.writeVelocity(2.0);
+        }
+        RigidTransform2 pose = updater.updateOdometry(UPDATE_DT, Rotation2.fromDegrees(90.0));
+
+        assertEquals(0.0, pose.translation.x, 1.0e-9);
+        assertEquals(1.0, pose.translation.y, 1.0e-9);
+        assertEquals(0.0, updater.getVelocity().x, 1.0e-9);
+        assertEquals(2.0, updater.getVelocity().y, 1.0e-9);
+        assertEquals(0.0, updater.getAngularVelocity(), 1.0e-9);
+    }
+}
@@ -97,4 +97,32 @@ public class SwerveModuleTest {
 
         assertEquals(new Vector2(5, 0), module.getCurrentPosition());
     }
+
+    @Test
+    public void snapshotTest() {
+        MockSwerveModule module = new MockSwerveModule(Vector2.ZERO);
+        module.writeAngle(0.25 * Math.PI);
+        module.writeDistance(12.0);
+        module.writeVelocity(36.0);
+        module.writeDriveCurrent(40.0);
+        module.updateSensors(1.5);
+
+        // Changing the sensors should not change the readings until the next update
+        module.writeAngle(0.0);
+        module.writeDistance(0.0);
+
+        SwerveModuleSnapshot snapshot = module.getSnapshot(new SwerveModuleSnapshot());
+        assertEquals(1.5, snapshot.getTimestamp(), MathUtils.EPSILON);
+        assertEquals(0.25 * Math.PI, snapshot.getAngle(), MathUtils.EPSILON);
+        assertEquals(12.0, snapshot.getDistance(), MathUtils.EPSILON);
+        assertEquals(36.0, snapshot.getVelocity(), MathUtils.EPSILON);
+        assertEquals(40.0, snapshot.getDriveCurrent(), MathUtils.EPSILON);
+        assertEquals(36.0, module.getCurrentVelocity(), MathUtils.EPSILON);
+        assertEquals(40.0, module.getDriveCurrent(), MathUtils.EPSILON);
+
+        // Controlling the module should use the angle from the snapshot instead of reading the encoder again
+        module.setTargetVelocity(new Vector2(1.0, 0.0));
+        module.updateState(UPDATE_DT);
+        assertEquals(1, module.getAngleReadCount());
+    }
 }
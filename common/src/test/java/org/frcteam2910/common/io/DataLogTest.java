@@ -0,0 +1,168 @@
+package org.frcteam2910.common.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DataLogTest {
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("data-log-");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void readRecordsMatchWrittenRecords() throws IOException {
+        try (DataLog log = new DataLog(directory, "test")) {
+            DataLog.Signal x = log.addSignal("Pose X", DataLog.SignalType.DOUBLE);
+            DataLog.Signal count = log.addSignal("Count", DataLog.SignalType.LONG);
+            DataLog.Signal fieldOriented = log.addSignal("Field Oriented", DataLog.SignalType.BOOLEAN);
+
+            x.append(0.005, 1.5);
+            count.append(0.005, 42L);
+            fieldOriented.append(0.010, true);
+            assertEquals(3, log.getRecordCount());
+        }
+
+        try (DataLogReader reader = new DataLogReader(directory, "test")) {
+            assertEquals(3, reader.getSignals().size());
+            assertEquals(DataLog.SignalType.LONG, reader.getSignal("Count").getType());
+
+            DataLogReader.Record record = new DataLogReader.Record();
+            assertTrue(reader.next(record));
+            assertSame(reader.getSignal("Pose X"), record.getSignal());
+            assertEquals(0.005, record.getTimestamp(), 0.0);
+            assertEquals(1.5, record.getDouble(), 0.0);
+
+            assertTrue(reader.next(record));
+            assertEquals(42L, record.getLong());
+
+            assertTrue(reader.next(record));
+            assertEquals(0.010, record.getTimestamp(), 0.0);
+            assertTrue(record.getBoolean());
+
+            assertFalse(reader.next(record));
+        }
+    }
+
+    @Test
+    public void logRollsOverAndDeletesOldSegments() throws IOException {
+        final int recordsPerSegment = 10;
+        final int recordCount = 45;
+
+        try (DataLog log = new DataLog(directory, "test",
+                DataLog.HEADER_SIZE + recordsPerSegment * DataLog.RECORD_SIZE, 2)) {
+            DataLog.Signal value = log.addSignal("Value", DataLog.SignalType.LONG);
+            for (int i = 0; i < recordCount; i++) {
+                value.append(i, (long) i);
+            }
+
+            assertEquals(4, log.getSegmentIndex());
+        }
+
+        assertFalse(Files.exists(DataLog.getSegmentFile(directory, "test", 2)));
+        assertFalse("The segment created ahead of time should be deleted",
+                Files.exists(DataLog.getSegmentFile(directory, "test", 5)));
+        assertEquals(DataLog.HEADER_SIZE + 5 * DataLog.RECORD_SIZE,
+                Files.size(DataLog.getSegmentFile(directory, "test", 4)));
+
+        // Only the last two segments are kept
+        try (DataLogReader reader = new DataLogReader(directory, "test")) {
+            DataLogReader.Record record = new DataLogReader.Record();
+            for (long i = 30; i < recordCount; i++) {
+                assertTrue(reader.next(record));
+                assertEquals(i, record.getLong());
+            }
+            assertFalse(reader.next(record));
+        }
+    }
+
+    @Test
+    public void oldestLogsAreDeletedOverBudget() throws IOException {
+        final long segmentSize = DataLog.HEADER_SIZE + 10 * DataLog.RECORD_SIZE;
+
+        // Three runs, each with a log that has two full segments and one with a single record
+        for (int run = 0; run < 3; run++) {
+            try (DataLog log = new DataLog(directory, "drivebase-" + run, segmentSize, Integer.MAX_VALUE)) {
+                DataLog.Signal value = log.addSignal("Value", DataLog.SignalType.LONG);
+                for (int i = 0; i < 21; i++) {
+                    value.append(i, (long) i);
+                }
+            }
+            Files.setLastModifiedTime(directory.resolve("drivebase-" + run + DataLog.SIGNALS_SUFFIX),
+                    FileTime.fromMillis(1000L * run));
+        }
+        try (DataLog other = new DataLog(directory, "other")) {
+            other.addSignal("Value", DataLog.SignalType.LONG).append(0.0, 0L);
+        }
+
+        long logSize = Files.size(directory.resolve("drivebase-0" + DataLog.SIGNALS_SUFFIX)) + 2 * segmentSize
+                + DataLog.HEADER_SIZE + DataLog.RECORD_SIZE;
+        DataLog.deleteOldLogs(directory, "drivebase-", 2 * logSize);
+
+        // The two newest logs fit in the budget and logs with other names are never deleted
+        assertFalse(Files.exists(directory.resolve("drivebase-0" + DataLog.SIGNALS_SUFFIX)));
+        assertTrue(DataLog.findSegmentFiles(directory, "drivebase-0").isEmpty());
+        assertEquals(3, DataLog.findSegmentFiles(directory, "drivebase-1").size());
+        assertEquals(3, DataLog.findSegmentFiles(directory, "drivebase-2").size());
+        assertEquals(1, DataLog.findSegmentFiles(directory, "other").size());
+    }
+
+    @Test
+    public void unclosedSegmentIsReadUpToLastRecord() throws IOException {
+        DataLog log = new DataLog(directory, "test");
+        log.addSignal("Value", DataLog.SignalType.DOUBLE).append(1.0, 2.0);
+        log.force();
+
+        // The segment has not been truncated so the rest of it is zeros
+        try (DataLogReader reader = new DataLogReader(directory, "test")) {
+            DataLogReader.Record record = new DataLogReader.Record();
+            assertTrue(reader.next(record));
+            assertEquals(2.0, record.getDouble(), 0.0);
+            assertFalse(reader.next(record));
+        }
+
+        log.close();
+    }
+
+    @Test
+    public void unwrittenNextSegmentIsIgnored() throws IOException {
+        try (DataLog log = new DataLog(directory, "test")) {
+            log.addSignal("Value", DataLog.SignalType.DOUBLE).append(1.0, 2.0);
+        }
+
+        // The power was lost after the next segment was created but before its header was written
+        Files.write(DataLog.getSegmentFile(directory, "test", 1), new byte[DataLog.HEADER_SIZE]);
+
+        try (DataLogReader reader = new DataLogReader(directory, "test")) {
+            DataLogReader.Record record = new DataLogReader.Record();
+            assertTrue(reader.next(record));
+            assertEquals(2.0, record.getDouble(), 0.0);
+            assertFalse(reader.next(record));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void appendingWrongTypeThrows() throws IOException {
+        try (DataLog log = new DataLog(directory, "test")) {
+            log.addSignal("Value", DataLog.SignalType.BOOLEAN).append(0.0, 1.0);
+        }
+    }
+}
@@ -10,9 +10,9 @@ import org.junit.Test;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Map;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 public class PathIoTests {
     private void assertPathsAreEqual(Path expectedPath, Path actualPath) {
@@ -99,4 +99,40 @@ public class PathIoTests {
             pathReader.read();
         }
     }
+
+    @Test
+    public void loaderReadsEveryPathInDirectory() throws IOException {
+        Path firstPath = new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO)
+                .hermite(new Vector2(50.0, 50.0), Rotation2.fromDegrees(90.0), Rotation2.fromDegrees(90.0))
+                .build();
+        Path secondPath = new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO)
+                .bezier(new Vector2(5.0, 0.0), new Vector2(45.0, 50.0), new Vector2(50.0, 50.0), Rotation2.fromDegrees(90.0))
+                .build();
+
+        java.nio.file.Path directory = Files.createTempDirectory("paths-");
+        Files.createDirectories(directory.resolve("autos"));
+        try (PathWriter writer = new PathWriter(Files.newBufferedWriter(directory.resolve("first.json"), StandardCharsets.UTF_8))) {
+            writer.write(firstPath);
+        }
+        try (PathWriter writer = new PathWriter(Files.newBufferedWriter(directory.resolve("autos/second.json"), StandardCharsets.UTF_8))) {
+            writer.write(secondPath);
+        }
+        Files.write(directory.resolve("notes.txt"), "This is not a path".getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Path> paths = PathLoader.loadAll(directory);
+        assertEquals("Wrong amount of paths loaded", 2, paths.size());
+        assertTrue("First path was not loaded", paths.containsKey("first"));
+        assertTrue("Second path was not loaded", paths.containsKey("autos/second"));
+
+        assertPathsAreEqual(firstPath, paths.get("first"));
+        assertPathsAreEqual(secondPath, paths.get("autos/second"));
+    }
+
+    @Test(expected = IOException.class)
+    public void loaderThrowsOnBadPath() throws IOException {
+        java.nio.file.Path directory = Files.createTempDirectory("paths-");
+        Files.write(directory.resolve("bad.json"), "This is not json".getBytes(StandardCharsets.UTF_8));
+
+        PathLoader.loadAll(directory);
+    }
 }
@@ -0,0 +1,103 @@
+package org.frcteam2910.common.io;
+
+import org.frcteam2910.common.control.*;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class TrajectoryCacheTest {
+    private static final double SAMPLE_DISTANCE = 1.0e-2;
+
+    private static final TrajectoryConstraint[] CONSTRAINTS = {
+            new MaxVelocityConstraint(12.0 * 12.0),
+            new MaxAccelerationConstraint(15.0 * 12.0),
+            new CentripetalAccelerationConstraint(25.0 * 12.0)
+    };
+
+    private static Path createPath() {
+        return new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO)
+                .hermite(new Vector2(50.0, 50.0), Rotation2.fromDegrees(90.0), Rotation2.fromDegrees(90.0))
+                .build();
+    }
+
+    private static java.nio.file.Path createTempFile() throws IOException {
+        File file = File.createTempFile("trajectory-", ".bin");
+        file.deleteOnExit();
+        return file.toPath();
+    }
+
+    @Test
+    public void readTrajectoryMatchesWrittenTrajectory() throws IOException {
+        java.nio.file.Path file = createTempFile();
+
+        Path path = createPath();
+        Trajectory expected = new Trajectory(path, CONSTRAINTS, SAMPLE_DISTANCE);
+        TrajectoryCache.write(file, expected, CONSTRAINTS, SAMPLE_DISTANCE);
+
+        Optional<Trajectory> actual = TrajectoryCache.read(file, createPath(), CONSTRAINTS, SAMPLE_DISTANCE);
+        assertTrue("Trajectory could not be read", actual.isPresent());
+        assertEquals(expected.getDuration(), actual.get().getDuration(), 0.0);
+        assertEquals(expected.getProfileCount(), actual.get().getProfileCount());
+
+        for (double time = 0.0; time < expected.getDuration(); time += 5.0e-3) {
+            Trajectory.State expectedState = expected.calculate(time);
+            Trajectory.State actualState = actual.get().calculate(time);
+
+            assertEquals(expectedState.getPathState().getDistance(), actualState.getPathState().getDistance(), 0.0);
+            assertEquals(expectedState.getVelocity(), actualState.getVelocity(), 0.0);
+            assertEquals(expectedState.getAcceleration(), actualState.getAcceleration(), 0.0);
+        }
+    }
+
+    @Test
+    public void changedInputsAreNotRead() throws IOException {
+        java.nio.file.Path file = createTempFile();
+
+        Path path = createPath();
+        TrajectoryCache.write(file, new Trajectory(path, CONSTRAINTS, SAMPLE_DISTANCE), CONSTRAINTS, SAMPLE_DISTANCE);
+
+        TrajectoryConstraint[] changedConstraints = {
+                new MaxVelocityConstraint(10.0 * 12.0),
+                new MaxAccelerationConstraint(15.0 * 12.0),
+                new CentripetalAccelerationConstraint(25.0 * 12.0)
+        };
+        Path changedPath = new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO)
+                .hermite(new Vector2(50.0, 60.0), Rotation2.fromDegrees(90.0), Rotation2.fromDegrees(90.0))
+                .build();
+
+        assertFalse("Changed constraints were not detected",
+                TrajectoryCache.read(file, path, changedConstraints, SAMPLE_DISTANCE).isPresent());
+        assertFalse("Changed path was not detected",
+                TrajectoryCache.read(file, changedPath, CONSTRAINTS, SAMPLE_DISTANCE).isPresent());
+        assertFalse("Changed sample distance was not detected",
+                TrajectoryCache.read(file, path, CONSTRAINTS, 2.0 * SAMPLE_DISTANCE).isPresent());
+    }
+
+    @Test(expected = IOException.class)
+    public void readerThrowsOnBadFile() throws IOException {
+        java.nio.file.Path file = createTempFile();
+        Files.write(file, new byte[]{1, 2, 3, 4});
+
+        TrajectoryCache.read(file, createPath(), CONSTRAINTS, SAMPLE_DISTANCE);
+    }
+
+    @Test
+    public void loadOrGenerateRegeneratesBadFile() throws IOException {
+        java.nio.file.Path file = createTempFile();
+        Files.write(file, new byte[]{1, 2, 3, 4});
+
+        Path path = createPath();
+        Trajectory trajectory = TrajectoryCache.loadOrGenerate(file, path, CONSTRAINTS, SAMPLE_DISTANCE);
+        assertEquals(new Trajectory(path, CONSTRAINTS, SAMPLE_DISTANCE).getDuration(), trajectory.getDuration(), 0.0);
+
+        // The regenerated trajectory should have replaced the bad file
+        assertTrue(TrajectoryCache.read(file, path, CONSTRAINTS, SAMPLE_DISTANCE).isPresent());
+    }
+}
@@ -112,4 +112,66 @@ public class SwerveKinematicsTest {
         assertEquals(7.0 * factor, moduleVelocities[3].length, MathUtils.EPSILON);
     }
 
+    @Test
+    public void arrayInverseKinematicsMatchesVectorInverseKinematics() {
+        ChassisVelocity velocity = new ChassisVelocity(new Vector2(3.0, -4.0), 1.5);
+        Vector2[] expected = kinematics.toModuleVelocities(velocity);
+
+        double[] actual = new double[8];
+        kinematics.toModuleVelocities(3.0, -4.0, 1.5, actual);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].x, actual[i * 2], 0.0);
+            assertEquals(expected[i].y, actual[i * 2 + 1], 0.0);
+        }
+    }
+
+    @Test
+    public void arrayForwardKinematicsMatchesVectorForwardKinematics() {
+        Vector2[] moduleVelocities = {
+                new Vector2(1.0, 2.0),
+                new Vector2(-3.0, 0.5),
+                new Vector2(2.5, -1.0),
+                new Vector2(0.0, 4.0)
+        };
+        ChassisVelocity expected = kinematics.toChassisVelocity(moduleVelocities);
+
+        double[] moduleVelocitiesArray = new double[8];
+        for (int i = 0; i < moduleVelocities.length; i++) {
+            moduleVelocitiesArray[i * 2] = moduleVelocities[i].x;
+            moduleVelocitiesArray[i * 2 + 1] = moduleVelocities[i].y;
+        }
+        double[] actual = new double[3];
+        kinematics.toChassisVelocity(moduleVelocitiesArray, actual);
+
+        assertEquals(expected.getTranslationalVelocity().x, actual[0], 0.0);
+        assertEquals(expected.getTranslationalVelocity().y, actual[1], 0.0);
+        assertEquals(expected.getAngularVelocity(), actual[2], 0.0);
+    }
+
+    @Test
+    public void arrayKinematicsRoundTrip() {
+        double[] moduleVelocities = new double[8];
+        kinematics.toModuleVelocities(3.0, -4.0, 1.5, moduleVelocities);
+
+        double[] chassisVelocity = new double[3];
+        kinematics.toChassisVelocity(moduleVelocities, chassisVelocity);
+
+        assertEquals(3.0, chassisVelocity[0], MathUtils.EPSILON);
+        assertEquals(-4.0, chassisVelocity[1], MathUtils.EPSILON);
+        assertEquals(1.5, chassisVelocity[2], MathUtils.EPSILON);
+    }
+
+    @Test
+    public void normalizeModuleVelocityArrayTest() {
+        double[] moduleVelocities = {5.0, 0.0, 0.0, 6.0, -4.0, 0.0, 0.0, -7.0};
+        SwerveKinematics.normalizeModuleVelocities(moduleVelocities, 5.5);
+
+        double factor = 5.5 / 7.0;
+
+        assertEquals(5.0 * factor, moduleVelocities[0], MathUtils.EPSILON);
+        assertEquals(6.0 * factor, moduleVelocities[3], MathUtils.EPSILON);
+        assertEquals(-4.0 * factor, moduleVelocities[4], MathUtils.EPSILON);
+        assertEquals(-7.0 * factor, moduleVelocities[7], MathUtils.EPSILON);
+    }
 }
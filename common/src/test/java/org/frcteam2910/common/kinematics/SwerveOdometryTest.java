@@ -7,6 +7,7 @@ import org.frcteam2910.common.math.Vector2;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SwerveOdometryTest {
     private final Vector2 frontLeft = new Vector2(12.0, 12.0);
@@ -89,4 +90,73 @@ public class SwerveOdometryTest {
         assertEquals(0.0, pose.translation.y, MathUtils.EPSILON);
         assertEquals(0.0, pose.rotation.toDegrees(), MathUtils.EPSILON);
     }
+
+    @Test
+    public void distanceForwardTest() {
+        final double[] moduleDisplacements = {
+                5.0, 0.0,
+                5.0, 0.0,
+                5.0, 0.0,
+                5.0, 0.0
+        };
+
+        odometry.resetPose(RigidTransform2.ZERO);
+        var pose = odometry.updateFromDistances(Rotation2.ZERO, moduleDisplacements);
+
+        assertEquals(5.0, pose.translation.x, MathUtils.EPSILON);
+        assertEquals(0.0, pose.translation.y, MathUtils.EPSILON);
+        assertEquals(0.0, pose.rotation.toDegrees(), MathUtils.EPSILON);
+    }
+
+    @Test
+    public void arcMatchesEulerWhenNotRotatingTest() {
+        final Vector2[] moduleVelocities = {
+                new Vector2(3.0, 4.0),
+                new Vector2(3.0, 4.0),
+                new Vector2(3.0, 4.0),
+                new Vector2(3.0, 4.0)
+        };
+        final RigidTransform2 initialPose = new RigidTransform2(new Vector2(10.0, -20.0), Rotation2.fromDegrees(30.0));
+
+        SwerveOdometry euler = new SwerveOdometry(kinematics, initialPose, SwerveOdometry.IntegrationMethod.EULER);
+        SwerveOdometry arc = new SwerveOdometry(kinematics, initialPose, SwerveOdometry.IntegrationMethod.ARC);
+        var eulerPose = euler.update(initialPose.rotation, 0.5, moduleVelocities);
+        var arcPose = arc.update(initialPose.rotation, 0.5, moduleVelocities);
+
+        assertEquals(eulerPose.translation.x, arcPose.translation.x, MathUtils.EPSILON);
+        assertEquals(eulerPose.translation.y, arcPose.translation.y, MathUtils.EPSILON);
+    }
+
+    @Test
+    public void arcTranslatingWhileRotatingTest() {
+        // Drive forwards relative to the robot while turning at a constant rate. The robot follows a circle of radius
+        // speed / angularVelocity.
+        final double speed = 100.0;
+        final double angularVelocity = Math.toRadians(180.0);
+        final double dt = 10.0e-3;
+        final int steps = 100;
+
+        Vector2[] moduleVelocities = kinematics.toModuleVelocities(
+                new ChassisVelocity(new Vector2(speed, 0.0), angularVelocity));
+
+        SwerveOdometry euler = new SwerveOdometry(kinematics, RigidTransform2.ZERO,
+                SwerveOdometry.IntegrationMethod.EULER);
+        SwerveOdometry arc = new SwerveOdometry(kinematics, RigidTransform2.ZERO,
+                SwerveOdometry.IntegrationMethod.ARC);
+        for (int i = 1; i <= steps; i++) {
+            Rotation2 gyroAngle = Rotation2.fromRadians(angularVelocity * dt * i);
+            euler.update(gyroAngle, dt, moduleVelocities);
+            arc.update(gyroAngle, dt, moduleVelocities);
+        }
+
+        double theta = angularVelocity * dt * steps;
+        double radius = speed / angularVelocity;
+        Vector2 expected = new Vector2(radius * Math.sin(theta), radius * (1.0 - Math.cos(theta)));
+
+        double arcError = arc.getPose().translation.subtract(expected).length;
+        double eulerError = euler.getPose().translation.subtract(expected).length;
+        assertEquals("Arc integration should be exact for a constant velocity", 0.0, arcError, 1.0e-6);
+        assertTrue("Euler integration should drift while rotating", eulerError > 0.1);
+        assertEquals(180.0, arc.getPose().rotation.toDegrees(), 1.0e-6);
+    }
 }
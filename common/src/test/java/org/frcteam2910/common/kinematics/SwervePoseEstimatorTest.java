@@ -0,0 +1,123 @@
+package org.frcteam2910.common.kinematics;
+
+import org.frcteam2910.common.math.MathUtils;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SwervePoseEstimatorTest {
+    private static final double DT = 10.0e-3;
+
+    private final SwerveKinematics kinematics = new SwerveKinematics(
+            new Vector2(12.0, 12.0),
+            new Vector2(12.0, -12.0),
+            new Vector2(-12.0, 12.0),
+            new Vector2(-12.0, -12.0)
+    );
+
+    /**
+     * Gets how far each module moves in one update while driving forwards and turning.
+     */
+    private double[] getModuleDisplacements() {
+        double[] displacements = new double[8];
+        kinematics.toModuleVelocities(50.0 * DT, 0.0, Math.toRadians(45.0) * DT, displacements);
+        return displacements;
+    }
+
+    private static Rotation2 getGyroAngle(int update) {
+        return Rotation2.fromRadians(Math.toRadians(45.0) * DT * update);
+    }
+
+    @Test
+    public void matchesOdometryWithoutVision() {
+        SwervePoseEstimator estimator = new SwervePoseEstimator(kinematics, RigidTransform2.ZERO, Rotation2.ZERO, 10);
+        SwerveOdometry odometry = new SwerveOdometry(kinematics, RigidTransform2.ZERO,
+                SwerveOdometry.IntegrationMethod.ARC);
+
+        double[] displacements = getModuleDisplacements();
+        for (int i = 1; i <= 200; i++) {
+            estimator.update(i * DT, getGyroAngle(i), displacements);
+            odometry.updateFromDistances(getGyroAngle(i), displacements);
+        }
+
+        RigidTransform2 expected = odometry.getPose();
+        assertEquals(expected.translation.x, estimator.getX(), 1.0e-6);
+        assertEquals(expected.translation.y, estimator.getY(), 1.0e-6);
+        assertEquals(expected.rotation.toRadians(), estimator.getPose().rotation.toRadians(), 1.0e-6);
+    }
+
+    @Test
+    public void visionIsWeighedByUncertainty() {
+        double[] displacements = getModuleDisplacements();
+        RigidTransform2 measurement = new RigidTransform2(new Vector2(100.0, 0.0), Rotation2.ZERO);
+
+        SwervePoseEstimator trusted = new SwervePoseEstimator(kinematics, RigidTransform2.ZERO, Rotation2.ZERO, 10);
+        SwervePoseEstimator ignored = new SwervePoseEstimator(kinematics, RigidTransform2.ZERO, Rotation2.ZERO, 10);
+        for (int i = 1; i <= 5; i++) {
+            trusted.update(i * DT, getGyroAngle(i), displacements);
+            ignored.update(i * DT, getGyroAngle(i), displacements);
+        }
+        double odometryX = trusted.getX();
+
+        assertTrue(trusted.addVisionMeasurement(5 * DT, measurement, 1.0e-6, 1.0e-6));
+        assertTrue(ignored.addVisionMeasurement(5 * DT, measurement, 1.0e6, 1.0e6));
+
+        assertEquals("An accurate measurement should replace the estimate", 100.0, trusted.getX(), 1.0e-3);
+        assertEquals("An inaccurate measurement should be ignored", odometryX, ignored.getX(), 1.0e-3);
+
+        double[] covariance = new double[9];
+        trusted.getCovariance(covariance);
+        assertEquals(covariance[1], covariance[3], MathUtils.EPSILON);
+        assertTrue(covariance[0] < 1.0e-6);
+    }
+
+    @Test
+    public void delayedVisionIsReplayed() {
+        double[] displacements = getModuleDisplacements();
+        RigidTransform2 measurement = new RigidTransform2(new Vector2(5.0, 3.0), Rotation2.fromDegrees(10.0));
+
+        // One estimator gets the measurement as soon as it is taken, the other gets it 20 updates later
+        SwervePoseEstimator immediate = new SwervePoseEstimator(kinematics, RigidTransform2.ZERO, Rotation2.ZERO, 50);
+        SwervePoseEstimator delayed = new SwervePoseEstimator(kinematics, RigidTransform2.ZERO, Rotation2.ZERO, 50);
+        for (int i = 1; i <= 100; i++) {
+            immediate.update(i * DT, getGyroAngle(i), displacements);
+            delayed.update(i * DT, getGyroAngle(i), displacements);
+
+            if (i == 60) {
+                immediate.addVisionMeasurement(i * DT, measurement, 2.0, 0.1);
+            } else if (i == 80) {
+                assertTrue(delayed.addVisionMeasurement(60 * DT, measurement, 2.0, 0.1));
+            }
+        }
+
+        assertEquals(immediate.getX(), delayed.getX(), 1.0e-9);
+        assertEquals(immediate.getY(), delayed.getY(), 1.0e-9);
+        assertEquals(immediate.getAngle(), delayed.getAngle(), 1.0e-9);
+    }
+
+    @Test
+    public void measurementsOlderThanHistoryAreRejected() {
+        SwervePoseEstimator estimator = new SwervePoseEstimator(kinematics, RigidTransform2.ZERO, Rotation2.ZERO, 10);
+        assertFalse("There is no history to apply the measurement to",
+                estimator.addVisionMeasurement(0.0, RigidTransform2.ZERO, 1.0, 1.0));
+
+        double[] displacements = getModuleDisplacements();
+        for (int i = 1; i <= 20; i++) {
+            estimator.update(i * DT, getGyroAngle(i), displacements);
+        }
+
+        assertFalse(estimator.addVisionMeasurement(5 * DT, RigidTransform2.ZERO, 1.0, 1.0));
+        assertTrue(estimator.addVisionMeasurement(15 * DT, RigidTransform2.ZERO, 1.0, 1.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timestampsMustIncrease() {
+        SwervePoseEstimator estimator = new SwervePoseEstimator(kinematics, RigidTransform2.ZERO, Rotation2.ZERO, 10);
+        double[] displacements = getModuleDisplacements();
+        estimator.update(1.0, Rotation2.ZERO, displacements);
+        estimator.update(1.0, Rotation2.ZERO, displacements);
+    }
+}
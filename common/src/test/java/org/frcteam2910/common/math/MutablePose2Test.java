@@ -0,0 +1,25 @@
+package org.frcteam2910.common.math;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MutablePose2Test {
+    @Test
+    public void matchesImmutableOperations() {
+        RigidTransform2 a = new RigidTransform2(new Vector2(5.0, -3.0), Rotation2.fromDegrees(30.0));
+        RigidTransform2 b = new RigidTransform2(new Vector2(-2.0, 7.0), Rotation2.fromDegrees(-110.0));
+
+        assertEquals(a.transformBy(b), new MutablePose2(a).transformBy(b).toRigidTransform2());
+        assertEquals(a.inverse(), new MutablePose2(a).inverse().toRigidTransform2());
+        assertEquals(RigidTransform2.ZERO, new MutablePose2(a).transformBy(a.inverse()).toRigidTransform2());
+    }
+
+    @Test
+    public void transformByItself() {
+        RigidTransform2 pose = new RigidTransform2(new Vector2(1.0, 2.0), Rotation2.fromDegrees(45.0));
+        MutablePose2 mutablePose = new MutablePose2(pose);
+
+        assertEquals(pose.transformBy(pose), mutablePose.transformBy(mutablePose).toRigidTransform2());
+    }
+}
@@ -0,0 +1,40 @@
+package org.frcteam2910.common.math;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MutableRotation2Test {
+    @Test
+    public void matchesImmutableOperations() {
+        Rotation2 a = Rotation2.fromDegrees(-50.0);
+        Rotation2 b = Rotation2.fromDegrees(230.0);
+
+        assertTrue(new MutableRotation2(a).rotateBy(b).equals(a.rotateBy(b)));
+        assertTrue(new MutableRotation2(a).inverse().equals(a.inverse()));
+        assertTrue(new MutableRotation2(a).normal().equals(a.normal()));
+        assertEquals(a.toDegrees(), new MutableRotation2(a).toDegrees(), MathUtils.EPSILON);
+        assertEquals(a.toRadians(), new MutableRotation2(a).toRadians(), MathUtils.EPSILON);
+        assertEquals(a.tan, new MutableRotation2(a).getTan(), MathUtils.EPSILON);
+        assertEquals(Rotation2.fromDegrees(90.0).tan, new MutableRotation2().setDegrees(90.0).getTan(), 0.0);
+    }
+
+    @Test
+    public void setNormalizes() {
+        assertTrue(new MutableRotation2().set(1.0, 1.0, true).equals(Rotation2.fromDegrees(45.0)));
+        assertTrue(new MutableRotation2().set(0.0, 0.0, true).equals(Rotation2.ZERO));
+    }
+
+    @Test
+    public void repeatedRotationsStayNormalized() {
+        MutableRotation2 rotation = new MutableRotation2();
+        Rotation2 step = Rotation2.fromDegrees(0.1);
+        for (int i = 0; i < 100000; i++) {
+            rotation.rotateBy(step);
+        }
+
+        assertEquals(1.0, Math.hypot(rotation.getCos(), rotation.getSin()), MathUtils.EPSILON);
+        assertEquals(10000.0 % 360.0, rotation.toDegrees(), 1.0e-6);
+    }
+}
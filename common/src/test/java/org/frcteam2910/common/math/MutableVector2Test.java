@@ -0,0 +1,41 @@
+package org.frcteam2910.common.math;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MutableVector2Test {
+    @Test
+    public void matchesImmutableOperations() {
+        Vector2 a = new Vector2(3.0, -4.0);
+        Vector2 b = new Vector2(-1.5, 2.0);
+        Rotation2 rotation = Rotation2.fromDegrees(37.0);
+
+        Vector2 expected = a.add(b).subtract(new Vector2(0.5, 0.5)).scale(2.0).rotateBy(rotation).inverse();
+        MutableVector2 actual = new MutableVector2(a).add(b).subtract(0.5, 0.5).scale(2.0).rotateBy(rotation).inverse();
+        assertTrue(actual.equals(expected, MathUtils.EPSILON));
+
+        assertEquals(a.length, new MutableVector2(a).getLength(), MathUtils.EPSILON);
+        assertTrue(new MutableVector2(a).normalize().equals(a.normal(), MathUtils.EPSILON));
+        assertEquals(a.dot(b), new MutableVector2(a).dot(new MutableVector2(b)), MathUtils.EPSILON);
+        assertEquals(a.cross(b), new MutableVector2(a).cross(new MutableVector2(b)), MathUtils.EPSILON);
+        assertEquals(a.extrapolate(b, 0.25), new MutableVector2(a).extrapolate(new MutableVector2(b), 0.25).toVector2());
+    }
+
+    @Test
+    public void operationsModifyInPlace() {
+        MutableVector2 vector = new MutableVector2();
+
+        assertSame(vector, vector.set(1.0, 2.0).add(1.0, 1.0));
+        assertEquals(new Vector2(2.0, 3.0), vector.toVector2());
+
+        assertTrue(vector.setFromAngle(Rotation2.fromDegrees(90.0)).equals(new Vector2(0.0, 1.0), MathUtils.EPSILON));
+    }
+
+    @Test
+    public void normalizingZeroVectorDoesNothing() {
+        assertTrue(new MutableVector2().normalize().equals(Vector2.ZERO, MathUtils.EPSILON));
+    }
+}
@@ -1,6 +1,9 @@
 package org.frcteam2910.common.math.spline;
 
 import org.ejml.simple.SimpleMatrix;
+import org.frcteam2910.common.math.MathUtils;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -39,4 +42,43 @@ public class SplineTest {
 
         assertEquals(dcoefficients.toString(), dspline.getBasisWeightMatrix().toString());
     }
+
+    @Test
+    public void evaluationMatchesMatrixRepresentation() {
+        Spline spline = new QuinticBezierSpline(
+                new Vector2(0.0, 0.0),
+                new Vector2(10.0, 5.0),
+                new Vector2(25.0, -10.0),
+                new Vector2(40.0, 30.0),
+                new Vector2(45.0, 45.0),
+                new Vector2(60.0, 50.0)
+        );
+        Spline d = spline.derivative();
+        Spline dd = d.derivative();
+
+        for (int i = 0; i <= 100; i++) {
+            double t = i / 100.0;
+
+            SimpleMatrix point = SplineHelper.createPowerMatrix(spline.getDegree(), t)
+                    .mult(spline.getBasisMatrix()).mult(spline.getBasisWeightMatrix());
+            SimpleMatrix dv = SplineHelper.createPowerMatrix(d.getDegree(), t)
+                    .mult(d.getBasisMatrix()).mult(d.getBasisWeightMatrix());
+            SimpleMatrix ddv = SplineHelper.createPowerMatrix(dd.getDegree(), t)
+                    .mult(dd.getBasisMatrix()).mult(dd.getBasisWeightMatrix());
+
+            assertEquals(point.get(0), spline.getPoint(t).x, MathUtils.EPSILON);
+            assertEquals(point.get(1), spline.getPoint(t).y, MathUtils.EPSILON);
+            assertEquals(dv.get(0), spline.getFirstDerivative(t).x, MathUtils.EPSILON);
+            assertEquals(dv.get(1), spline.getFirstDerivative(t).y, MathUtils.EPSILON);
+            assertEquals(ddv.get(0), spline.getSecondDerivative(t).x, MathUtils.EPSILON);
+            assertEquals(ddv.get(1), spline.getSecondDerivative(t).y, MathUtils.EPSILON);
+
+            Rotation2 expectedHeading = new Rotation2(dv.get(0), dv.get(1), true);
+            assertEquals(expectedHeading, spline.getHeading(t));
+
+            double expectedCurvature = (dv.get(0) * ddv.get(1) - dv.get(1) * ddv.get(0)) /
+                    Math.pow(dv.get(0) * dv.get(0) + dv.get(1) * dv.get(1), 1.5);
+            assertEquals(expectedCurvature, spline.getCurvature(t), MathUtils.EPSILON);
+        }
+    }
 }
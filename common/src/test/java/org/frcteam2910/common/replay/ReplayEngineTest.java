@@ -0,0 +1,173 @@
+package org.frcteam2910.common.replay;
+
+import org.frcteam2910.common.control.HolonomicMotionProfiledTrajectoryFollower;
+import org.frcteam2910.common.control.MaxAccelerationConstraint;
+import org.frcteam2910.common.control.MaxVelocityConstraint;
+import org.frcteam2910.common.control.PidConstants;
+import org.frcteam2910.common.control.SimplePathBuilder;
+import org.frcteam2910.common.control.Trajectory;
+import org.frcteam2910.common.control.TrajectoryConstraint;
+import org.frcteam2910.common.io.DataLog;
+import org.frcteam2910.common.io.DataLogReader;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.util.HolonomicFeedforward;
+import org.frcteam2910.common.util.DrivetrainFeedforwardConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class ReplayEngineTest {
+    private static final double DT = 5.0e-3;
+    private static final int FRAME_COUNT = 200;
+    private static final double SPEED = 10.0;
+
+    private static final Vector2[] MODULE_POSITIONS = {
+            new Vector2(10.0, 10.0),
+            new Vector2(10.0, -10.0),
+            new Vector2(-10.0, 10.0),
+            new Vector2(-10.0, -10.0)
+    };
+
+    private Path directory;
+
+    @Before
+    public void recordLog() throws IOException {
+        directory = Files.createTempDirectory("replay-");
+
+        // The robot drives straight forwards at a constant speed while facing forwards
+        try (DataLog log = new DataLog(directory, "match")) {
+            log.addSignal("Other", DataLog.SignalType.DOUBLE).append(0.0, 1.0);
+            ReplayRecorder recorder = new ReplayRecorder(log, MODULE_POSITIONS.length);
+
+            ReplayFrame frame = new ReplayFrame(MODULE_POSITIONS.length);
+            for (int i = 0; i < FRAME_COUNT; i++) {
+                frame.setTime(i * DT, DT);
+                for (int j = 0; j < MODULE_POSITIONS.length; j++) {
+                    frame.setModule(j, 0.0, i * DT * SPEED, SPEED);
+                }
+                frame.setGyro(Rotation2.fromDegrees(30.0), Rotation2.fromDegrees(30.0), false);
+                if (i % 2 == 0) {
+                    frame.setDriveSignal(0.5, 0.0, 0.0, false);
+                } else {
+                    frame.clearDriveSignal();
+                }
+
+                recorder.record(frame);
+            }
+
+            assertEquals(FRAME_COUNT, recorder.getFrameCount());
+        }
+    }
+
+    @After
+    public void deleteLog() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private String replay(ReplayEngine engine) throws IOException {
+        StringWriter out = new StringWriter();
+        try (ReplayReader reader = new ReplayReader(new DataLogReader(directory, "match"))) {
+            assertEquals(FRAME_COUNT, engine.run(reader, out));
+        }
+
+        return out.toString();
+    }
+
+    @Test
+    public void framesAreReadAsRecorded() throws IOException {
+        try (ReplayReader reader = new ReplayReader(new DataLogReader(directory, "match"))) {
+            assertEquals(MODULE_POSITIONS.length, reader.getModuleCount());
+
+            ReplayFrame frame = new ReplayFrame(reader.getModuleCount());
+            assertTrue(reader.next(frame));
+            assertEquals(0.0, frame.getTimestamp(), 0.0);
+            assertEquals(DT, frame.getDt(), 0.0);
+            assertEquals(Math.toRadians(30.0), frame.getGyroAngle(), 1e-12);
+            assertTrue(frame.hasDriveSignal());
+            assertEquals(0.5, frame.getDriveTranslationX(), 0.0);
+
+            assertTrue(reader.next(frame));
+            assertEquals(DT * SPEED, frame.getModuleDistance(2), 0.0);
+            assertFalse("Frames without a drive signal should not keep the previous one", frame.hasDriveSignal());
+        }
+    }
+
+    @Test
+    public void replayReproducesOdometry() throws IOException {
+        ReplayEngine engine = new ReplayEngine(MODULE_POSITIONS);
+        String output = replay(engine);
+
+        // The adjustment cancels out the gyro angle so the robot drives along the x axis
+        assertEquals((FRAME_COUNT - 1) * DT * SPEED, engine.getPose().translation.x, 1e-9);
+        assertEquals(0.0, engine.getPose().translation.y, 1e-9);
+        assertEquals(FRAME_COUNT + 1, output.split("\n").length);
+        assertTrue(output.startsWith("timestamp,pose_x,pose_y,pose_angle,"));
+
+        // Replaying is deterministic so the output can be diffed
+        assertEquals(output, replay(new ReplayEngine(MODULE_POSITIONS)));
+    }
+
+    @Test
+    public void followerReplacesRecordedDriveSignal() throws IOException {
+        Trajectory trajectory = new Trajectory(
+                new SimplePathBuilder(Vector2.ZERO, Rotation2.ZERO)
+                        .lineTo(new Vector2(100.0, 0.0))
+                        .build(),
+                new TrajectoryConstraint[]{
+                        new MaxVelocityConstraint(50.0),
+                        new MaxAccelerationConstraint(50.0)
+                },
+                1.0e-2
+        );
+        HolonomicMotionProfiledTrajectoryFollower follower = new HolonomicMotionProfiledTrajectoryFollower(
+                new PidConstants(0.1, 0.0, 0.0),
+                new PidConstants(0.1, 0.0, 0.0),
+                new HolonomicFeedforward(new DrivetrainFeedforwardConstants(1.0 / 50.0, 0.0, 0.0))
+        );
+        follower.follow(trajectory);
+
+        ReplayEngine recordedEngine = new ReplayEngine(MODULE_POSITIONS);
+        String recordedOutput = replay(recordedEngine);
+
+        ReplayEngine followerEngine = new ReplayEngine(MODULE_POSITIONS);
+        followerEngine.setFollower(follower);
+        String followerOutput = replay(followerEngine);
+
+        // Odometry only depends on the recorded sensors but the outputs depend on the follower
+        assertEquals(recordedEngine.getPose().translation.x, followerEngine.getPose().translation.x, 0.0);
+        assertTrue(followerEngine.getDriveSignal().isFieldOriented());
+        assertNotEquals(recordedOutput, followerOutput);
+    }
+
+    @Test
+    public void gyroResetIsNotIntegratedAsRotation() {
+        ReplayEngine engine = new ReplayEngine(MODULE_POSITIONS);
+        ReplayFrame frame = new ReplayFrame(MODULE_POSITIONS.length);
+        for (int i = 0; i < 3; i++) {
+            frame.setTime(i * DT, DT);
+            for (int j = 0; j < MODULE_POSITIONS.length; j++) {
+                frame.setModule(j, 0.0, i * DT * SPEED, SPEED);
+            }
+            // The gyro is reset to 90 degrees before the last frame
+            frame.setGyro(Rotation2.ZERO, i < 2 ? Rotation2.ZERO : Rotation2.fromDegrees(-90.0), false);
+            engine.update(frame);
+        }
+
+        // The last frame moves straight along the new heading instead of along an arc
+        assertEquals(DT * SPEED, engine.getPose().translation.x, 1e-9);
+        assertEquals(DT * SPEED, engine.getPose().translation.y, 1e-9);
+        assertEquals(90.0, engine.getPose().rotation.toDegrees(), 1e-9);
+    }
+}
@@ -0,0 +1,184 @@
+package org.frcteam2910.common.scheduling;
+
+import org.frcteam2910.common.math.MathUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class UpdateSchedulerTest {
+    private static final double PERIOD = 5.0e-3;
+
+    @Test
+    public void updatablesRunAtTheirRate() {
+        SimulatedClock clock = new SimulatedClock();
+        UpdateScheduler scheduler = new UpdateScheduler(clock, PERIOD);
+
+        List<String> order = new ArrayList<>();
+        List<Double> slowDts = new ArrayList<>();
+        UpdateStatistics fast = scheduler.register((time, dt) -> order.add("fast"));
+        UpdateStatistics slow = scheduler.register((time, dt) -> {
+            order.add("slow");
+            slowDts.add(dt);
+        }, 2);
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.tick();
+            clock.advance(PERIOD);
+        }
+
+        assertEquals(10, fast.getUpdateCount());
+        assertEquals(5, slow.getUpdateCount());
+        assertEquals(10, scheduler.getTickCount());
+        assertEquals("Updatables should run in the order they were registered", "fast", order.get(0));
+        assertEquals("slow", order.get(1));
+        assertEquals("fast", order.get(2));
+        assertEquals("fast", order.get(3));
+
+        for (double dt : slowDts) {
+            assertEquals(2.0 * PERIOD, dt, MathUtils.EPSILON);
+        }
+        assertEquals(0.0, slow.getMaxJitter(), MathUtils.EPSILON);
+        assertEquals(0, scheduler.getMissedTickCount());
+    }
+
+    @Test
+    public void lateTicksAreMeasured() {
+        SimulatedClock clock = new SimulatedClock();
+        UpdateScheduler scheduler = new UpdateScheduler(clock, PERIOD);
+        List<Double> dts = new ArrayList<>();
+        UpdateStatistics statistics = scheduler.register((time, dt) -> dts.add(dt));
+
+        scheduler.tick();
+        clock.advance(1.25 * PERIOD);
+        scheduler.tick();
+        clock.advance(3.0 * PERIOD);
+        scheduler.tick();
+
+        assertEquals("The first update should assume it ran one period ago", PERIOD, dts.get(0), MathUtils.EPSILON);
+        assertEquals(1.25 * PERIOD, dts.get(1), MathUtils.EPSILON);
+        assertEquals(3.0 * PERIOD, dts.get(2), MathUtils.EPSILON);
+
+        assertEquals(2.0 * PERIOD, statistics.getMaxJitter(), MathUtils.EPSILON);
+        assertEquals(2.0 * PERIOD, statistics.getLastJitter(), MathUtils.EPSILON);
+        assertEquals(1.125 * PERIOD, statistics.getAverageJitter(), MathUtils.EPSILON);
+        assertEquals("Two ticks should have been skipped before the last tick", 2, scheduler.getMissedTickCount());
+    }
+
+    @Test
+    public void overrunsAreCounted() {
+        UpdateScheduler scheduler = new UpdateScheduler(new SimulatedClock(), 1.0e-3);
+        Updatable slowUpdatable = (time, dt) -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        UpdateStatistics quick = scheduler.register((time, dt) -> {
+        });
+        UpdateStatistics slow = scheduler.register(slowUpdatable);
+
+        scheduler.tick();
+        scheduler.tick();
+
+        assertEquals(0, quick.getOverrunCount());
+        assertEquals(2, slow.getOverrunCount());
+        assertEquals(2, scheduler.getOverrunCount());
+        assertTrue(slow.getMaxExecutionTime() >= 5.0e-3);
+        assertTrue(scheduler.getTickStatistics().getAverageExecutionTime() >= slow.getAverageExecutionTime());
+        assertSame(slow, scheduler.getStatistics(slowUpdatable));
+        assertNull(scheduler.getStatistics((time, dt) -> {
+        }));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void independentUpdatablesRunConcurrently() {
+        try (UpdateScheduler scheduler = new UpdateScheduler(new SimulatedClock(), PERIOD, 3)) {
+            List<String> events = Collections.synchronizedList(new ArrayList<>());
+            Updatable odometry = (time, dt) -> {
+                sleep(50);
+                events.add("odometry");
+            };
+            Updatable shooter = (time, dt) -> sleep(50);
+            Updatable intake = (time, dt) -> sleep(50);
+            Updatable vision = (time, dt) -> events.add("vision");
+
+            scheduler.register(odometry);
+            scheduler.register(shooter);
+            scheduler.register(intake);
+            scheduler.register(vision, 1, odometry);
+
+            long start = System.nanoTime();
+            scheduler.tick();
+            double elapsed = (System.nanoTime() - start) * 1.0e-9;
+
+            assertTrue("The three sleeping updatables should overlap", elapsed < 0.125);
+            assertEquals("Vision should run after the odometry it depends on", List.of("odometry", "vision"), events);
+        }
+    }
+
+    @Test
+    public void dependenciesRunInOrder() {
+        try (UpdateScheduler scheduler = new UpdateScheduler(new SimulatedClock(), PERIOD, 2)) {
+            List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+            Updatable first = (time, dt) -> order.add(1);
+            Updatable second = (time, dt) -> order.add(2);
+            Updatable third = (time, dt) -> order.add(3);
+
+            scheduler.register(first);
+            scheduler.register(second, 1, first);
+            scheduler.register(third, 1, second);
+
+            for (int i = 0; i < 100; i++) {
+                order.clear();
+                scheduler.tick();
+                assertEquals(List.of(1, 2, 3), order);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dependenciesMustBeRegistered() {
+        UpdateScheduler scheduler = new UpdateScheduler(new SimulatedClock(), PERIOD);
+        scheduler.register((time, dt) -> {
+        }, 1, (time, dt) -> {
+        });
+    }
+
+    @Test
+    public void workerExceptionsAreThrownFromTick() {
+        try (UpdateScheduler scheduler = new UpdateScheduler(new SimulatedClock(), PERIOD, 2)) {
+            // Only the first update fails. It is run on a worker because the last updatable is run on this thread.
+            scheduler.register((time, dt) -> {
+                if (scheduler.getTickCount() == 1) {
+                    throw new IllegalStateException("Broken");
+                }
+            });
+            scheduler.register((time, dt) -> {
+            });
+
+            try {
+                scheduler.tick();
+                fail("The exception should have been thrown");
+            } catch (IllegalStateException e) {
+                assertEquals("Broken", e.getMessage());
+            }
+
+            // The scheduler should still work after an updatable fails
+            scheduler.tick();
+            assertEquals(2, scheduler.getTickCount());
+        }
+    }
+}
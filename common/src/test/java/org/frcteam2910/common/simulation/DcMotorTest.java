@@ -0,0 +1,36 @@
+package org.frcteam2910.common.simulation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DcMotorTest {
+    private static final double EPSILON = 1.0e-6;
+
+    @Test
+    public void matchesDataSheet() {
+        DcMotor motor = DcMotor.neo(2);
+
+        double stallCurrent = motor.getCurrent(0.0, 12.0);
+        assertEquals(210.0, stallCurrent, EPSILON);
+        assertEquals(motor.getStallTorque(), motor.getTorque(stallCurrent), EPSILON);
+
+        double freeCurrent = motor.getCurrent(motor.getFreeSpeed(), 12.0);
+        assertEquals(3.6, freeCurrent, EPSILON);
+    }
+
+    @Test
+    public void backDrivenMotorBrakes() {
+        DcMotor motor = DcMotor.cim(1);
+
+        // Spinning faster than the applied voltage can drive the motor makes it push back
+        double current = motor.getCurrent(motor.getFreeSpeed(), 6.0);
+        assertEquals(-1.0, Math.signum(current), 0.0);
+        assertEquals(-1.0, Math.signum(motor.getTorque(current)), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsImpossibleMotors() {
+        new DcMotor(1.0, 1.0, 100.0, 2.0, 1);
+    }
+}
@@ -0,0 +1,121 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.control.*;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.util.DrivetrainFeedforwardConstants;
+import org.frcteam2910.common.util.HolonomicFeedforward;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class MonteCarloEvaluatorTest {
+    private static final int TRIAL_COUNT = 8;
+    private static final long SEED = 2910;
+
+    private static MonteCarloEvaluator createEvaluator() {
+        Path path = new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO)
+                .hermite(new Vector2(2.0, 0.5), Rotation2.ZERO, Rotation2.fromDegrees(45.0))
+                .build();
+        Trajectory trajectory = new Trajectory(path, new TrajectoryConstraint[]{
+                new MaxVelocityConstraint(2.0),
+                new MaxAccelerationConstraint(3.0)
+        }, 1.0e-2);
+
+        double maxSpeed = SimulatedSwerveModule.mk2(Vector2.ZERO).getMaxSpeed(12.0);
+        MonteCarloEvaluator evaluator = new MonteCarloEvaluator(trajectory,
+                () -> SimulatedSwerveDrivetrain.mk2(50.0, 0.5, 0.5),
+                new PidConstants(2.0, 0.0, 0.0),
+                new PidConstants(2.0, 0.0, 0.0),
+                new HolonomicFeedforward(new DrivetrainFeedforwardConstants(1.0 / maxSpeed, 0.0, 0.0)));
+        evaluator.setDuration(trajectory.getDuration() + 1.0);
+
+        return evaluator;
+    }
+
+    @Test
+    public void parallelResultsMatchSerialResults() {
+        MonteCarloEvaluator evaluator = createEvaluator();
+        evaluator.setFrictionCoefficientRange(0.3, 1.1);
+        evaluator.setGyroError(1.0e-3, 1.0e-4);
+        evaluator.setEncoderNoise(1.0e-3, 1.0e-4);
+        evaluator.setPeriodJitter(1.0e-3);
+        evaluator.setGainVariation(0.25);
+
+        MonteCarloResults serial = evaluator.evaluate(TRIAL_COUNT, SEED);
+        MonteCarloResults parallel;
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            parallel = evaluator.evaluate(TRIAL_COUNT, SEED, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(TRIAL_COUNT, parallel.getTrialCount());
+        for (int i = 0; i < TRIAL_COUNT; i++) {
+            assertEquals(serial.getFrictionCoefficient(i), parallel.getFrictionCoefficient(i), 0.0);
+            assertThat(serial.getFrictionCoefficient(i), both(greaterThanOrEqualTo(0.3)).and(lessThanOrEqualTo(1.1)));
+            assertThat(serial.getTranslationGainScale(i), both(greaterThanOrEqualTo(0.75)).and(lessThanOrEqualTo(1.25)));
+
+            for (MonteCarloResults.Metric metric : MonteCarloResults.Metric.values()) {
+                assertEquals(serial.get(metric, i), parallel.get(metric, i), 0.0);
+            }
+        }
+
+        // Every trial should have been different
+        assertNotEquals(serial.getFrictionCoefficient(0), serial.getFrictionCoefficient(1), 0.0);
+    }
+
+    @Test
+    public void trialsWithoutVariationAreIdentical() {
+        MonteCarloResults results = createEvaluator().evaluate(3, SEED);
+
+        for (MonteCarloResults.Metric metric : MonteCarloResults.Metric.values()) {
+            assertEquals(results.get(metric, 0), results.get(metric, 1), 0.0);
+            assertEquals(results.get(metric, 0), results.get(metric, 2), 0.0);
+        }
+        assertThat(results.get(MonteCarloResults.Metric.END_TRANSLATION_ERROR, 0), lessThan(0.1));
+        assertThat(results.get(MonteCarloResults.Metric.END_ROTATION_ERROR, 0), lessThan(5.0));
+        assertThat(results.get(MonteCarloResults.Metric.RMS_TRACKING_ERROR, 0), lessThan(0.1));
+        assertThat(results.get(MonteCarloResults.Metric.MAX_TRACKING_ERROR, 0),
+                greaterThanOrEqualTo(results.get(MonteCarloResults.Metric.RMS_TRACKING_ERROR, 0)));
+    }
+
+    @Test
+    public void summarizesDistributions() throws IOException {
+        MonteCarloEvaluator evaluator = createEvaluator();
+        evaluator.setFrictionCoefficientRange(0.2, 1.1);
+        MonteCarloResults results = evaluator.evaluate(TRIAL_COUNT, SEED);
+
+        for (MonteCarloResults.Metric metric : MonteCarloResults.Metric.values()) {
+            double p50 = results.getPercentile(metric, 50.0);
+            double p90 = results.getPercentile(metric, 90.0);
+            assertThat(p90, greaterThanOrEqualTo(p50));
+            assertThat(results.getPercentile(metric, 100.0), greaterThanOrEqualTo(p90));
+            assertThat(results.getPercentile(metric, 0.0), lessThanOrEqualTo(p50));
+        }
+
+        StringWriter summary = new StringWriter();
+        results.writeSummaryCsv(summary);
+        String[] lines = summary.toString().split("\n");
+        assertEquals("metric,trials,mean,p50,p90,p95,p99,max", lines[0]);
+        assertEquals(MonteCarloResults.Metric.values().length + 1, lines.length);
+        assertThat(lines[1], startsWith("end_translation_error," + TRIAL_COUNT + ","));
+
+        StringWriter trials = new StringWriter();
+        results.writeTrialsCsv(trials);
+        assertEquals(TRIAL_COUNT + 1, trials.toString().split("\n").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTrialsShorterThanTheTrajectory() {
+        MonteCarloEvaluator evaluator = createEvaluator();
+        evaluator.setDuration(0.5);
+        evaluator.evaluate(1, SEED);
+    }
+}
@@ -0,0 +1,157 @@
+package org.frcteam2910.common.simulation;
+
+import org.frcteam2910.common.control.*;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.frcteam2910.common.scheduling.SimulatedClock;
+import org.frcteam2910.common.scheduling.UpdateScheduler;
+import org.frcteam2910.common.util.DrivetrainFeedforwardConstants;
+import org.frcteam2910.common.util.HolonomicDriveSignal;
+import org.frcteam2910.common.util.HolonomicFeedforward;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.*;
+
+public class SimulatedSwerveDrivetrainTest {
+    private static final double PERIOD = 5.0e-3;
+
+    private static final double MASS = 50.0;
+    private static final double TRACKWIDTH = 0.5;
+    private static final double WHEELBASE = 0.5;
+
+    private static SimulationLoop createLoop(SimulatedDrivebase drivebase) {
+        SimulatedClock clock = new SimulatedClock();
+        UpdateScheduler scheduler = new UpdateScheduler(clock, PERIOD);
+        scheduler.register(drivebase);
+
+        return new SimulationLoop(drivebase.getDrivetrain(), scheduler, clock);
+    }
+
+    @Test
+    public void drivesStraightAtFreeSpeed() {
+        SimulatedSwerveDrivetrain drivetrain = SimulatedSwerveDrivetrain.mk2(MASS, TRACKWIDTH, WHEELBASE);
+        SimulatedDrivebase drivebase = new SimulatedDrivebase(drivetrain);
+        // Gently enough that the wheels do not slip when accelerating
+        drivebase.setDriveSignal(new HolonomicDriveSignal(new Vector2(0.25, 0.0), 0.0, false));
+
+        long steps = createLoop(drivebase).run(2.0);
+        assertEquals(400, steps);
+
+        double maxSpeed = drivetrain.getModule(0).getMaxSpeed(0.25 * drivetrain.getBatteryVoltage());
+        assertEquals("Robot should reach its free speed", maxSpeed, drivetrain.getVelocity().x, 0.05 * maxSpeed);
+        assertEquals(0.0, drivetrain.getVelocity().y, 1.0e-6);
+        assertEquals(0.0, drivetrain.getAngularVelocity(), 1.0e-6);
+
+        RigidTransform2 pose = drivetrain.getPose();
+        assertThat(pose.translation.x, greaterThan(0.0));
+        assertEquals("Odometry should match the true pose when the wheels do not slip",
+                pose.translation.x, drivebase.getPose().translation.x, 0.02 * pose.translation.x);
+    }
+
+    @Test
+    public void modulesSteerToTheTarget() {
+        SimulatedSwerveDrivetrain drivetrain = SimulatedSwerveDrivetrain.mk2(MASS, TRACKWIDTH, WHEELBASE);
+        SimulatedDrivebase drivebase = new SimulatedDrivebase(drivetrain);
+        drivebase.setDriveSignal(new HolonomicDriveSignal(new Vector2(0.0, 0.5), 0.0, false));
+
+        createLoop(drivebase).run(0.5);
+
+        for (int i = 0; i < drivetrain.getModuleCount(); i++) {
+            assertEquals(Math.PI / 2.0, drivetrain.getModule(i).getTrueAngle(), 0.02);
+        }
+        assertThat(drivetrain.getVelocity().y, greaterThan(0.5));
+        assertEquals(0.0, drivetrain.getPose().translation.x, 0.05);
+    }
+
+    @Test
+    public void drivesFieldOrientedWhenTurned() {
+        SimulatedSwerveDrivetrain drivetrain = SimulatedSwerveDrivetrain.mk2(MASS, TRACKWIDTH, WHEELBASE);
+        SimulatedDrivebase drivebase = new SimulatedDrivebase(drivetrain);
+        drivebase.resetPose(new RigidTransform2(Vector2.ZERO, Rotation2.fromDegrees(90.0)));
+        drivebase.setDriveSignal(new HolonomicDriveSignal(new Vector2(0.25, 0.0), 0.0, true));
+
+        createLoop(drivebase).run(1.0);
+
+        // Facing along the field's y axis, the robot has to drive sideways to move along the field's x axis
+        RigidTransform2 pose = drivetrain.getPose();
+        assertThat(pose.translation.x, greaterThan(0.1));
+        assertEquals(0.0, pose.translation.y, 0.01);
+        assertEquals(90.0, pose.rotation.toDegrees(), 0.5);
+        for (int i = 0; i < drivetrain.getModuleCount(); i++) {
+            assertEquals(-Math.PI / 2.0, drivetrain.getModule(i).getTrueAngle(), 0.02);
+        }
+    }
+
+    @Test
+    public void wheelsSlipOnLowFriction() {
+        SimulatedSwerveDrivetrain drivetrain = SimulatedSwerveDrivetrain.mk2(MASS, TRACKWIDTH, WHEELBASE);
+        drivetrain.setFrictionCoefficient(0.05);
+        SimulatedDrivebase drivebase = new SimulatedDrivebase(drivetrain);
+        drivebase.setDriveSignal(new HolonomicDriveSignal(new Vector2(1.0, 0.0), 0.0, false));
+
+        createLoop(drivebase).run(1.0);
+
+        assertThat(drivetrain.getModule(0).getTrueWheelSpeed(), greaterThan(2.0 * drivetrain.getVelocity().x));
+        assertThat("Odometry should overestimate the distance driven",
+                drivetrain.getPose().translation.x, lessThan(0.5 * drivebase.getPose().translation.x));
+    }
+
+    @Test
+    public void gyroscopeDrifts() {
+        SimulatedSwerveDrivetrain drivetrain = SimulatedSwerveDrivetrain.mk2(MASS, TRACKWIDTH, WHEELBASE);
+        drivetrain.getGyroscope().setDriftRate(0.01);
+
+        createLoop(new SimulatedDrivebase(drivetrain)).run(10.0);
+
+        assertEquals(0.0, drivetrain.getPose().rotation.toRadians(), 1.0e-9);
+        assertEquals(0.1, drivetrain.getGyroscope().getAngle().toRadians(), 1.0e-6);
+
+        drivetrain.getGyroscope().calibrate();
+        assertEquals(0.0, drivetrain.getGyroscope().getAngle().toRadians(), 1.0e-9);
+    }
+
+    @Test
+    public void followsTrajectoriesRepeatably() {
+        Path path = new SplinePathBuilder(Vector2.ZERO, Rotation2.ZERO, Rotation2.ZERO)
+                .hermite(new Vector2(3.0, 1.0), Rotation2.ZERO, Rotation2.fromDegrees(90.0))
+                .build();
+        Trajectory trajectory = new Trajectory(path, new TrajectoryConstraint[]{
+                new MaxVelocityConstraint(2.5),
+                new MaxAccelerationConstraint(3.0)
+        }, 1.0e-2);
+
+        RigidTransform2 first = followTrajectory(trajectory);
+        RigidTransform2 second = followTrajectory(trajectory);
+
+        assertEquals(3.0, first.translation.x, 0.1);
+        assertEquals(1.0, first.translation.y, 0.1);
+        assertEquals(90.0, first.rotation.toDegrees(), 5.0);
+
+        assertEquals("Simulations should be deterministic", first.translation.x, second.translation.x, 0.0);
+        assertEquals(first.translation.y, second.translation.y, 0.0);
+        assertEquals(first.rotation.toRadians(), second.rotation.toRadians(), 0.0);
+    }
+
+    private static RigidTransform2 followTrajectory(Trajectory trajectory) {
+        SimulatedSwerveDrivetrain drivetrain = SimulatedSwerveDrivetrain.mk2(MASS, TRACKWIDTH, WHEELBASE);
+        double maxSpeed = drivetrain.getModule(0).getMaxSpeed(drivetrain.getBatteryVoltage());
+
+        HolonomicMotionProfiledTrajectoryFollower follower = new HolonomicMotionProfiledTrajectoryFollower(
+                new PidConstants(2.0, 0.0, 0.0),
+                new PidConstants(2.0, 0.0, 0.0),
+                new HolonomicFeedforward(new DrivetrainFeedforwardConstants(1.0 / maxSpeed, 0.0, 0.0))
+        );
+        SimulatedDrivebase drivebase = new SimulatedDrivebase(drivetrain);
+        drivebase.setFollower(follower);
+        follower.follow(trajectory);
+
+        // A whole autonomous period
+        createLoop(drivebase).run(15.0);
+
+        assertFalse(follower.getCurrentTrajectory().isPresent());
+        return drivetrain.getPose();
+    }
+}
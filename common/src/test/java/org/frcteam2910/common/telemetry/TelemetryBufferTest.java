@@ -0,0 +1,47 @@
+package org.frcteam2910.common.telemetry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TelemetryBufferTest {
+    @Test
+    public void channelsStoreTheirLatestValue() {
+        TelemetryBuffer buffer = new TelemetryBuffer(4);
+        TelemetryBuffer.Channel x = buffer.addChannel("Pose X");
+        TelemetryBuffer.Channel fieldOriented = buffer.addChannel("Field Oriented");
+
+        assertEquals(2, buffer.getChannelCount());
+        assertEquals("Pose X", buffer.getKey(x.getIndex()));
+        assertTrue("Channels that were never written should be NaN", Double.isNaN(buffer.getValue(x.getIndex())));
+
+        x.set(1.0);
+        x.set(2.5);
+        fieldOriented.set(true);
+
+        assertEquals(2.5, buffer.getValue(x.getIndex()), 0.0);
+        assertEquals(1.0, buffer.getValue(fieldOriented.getIndex()), 0.0);
+        assertEquals(Double.doubleToRawLongBits(2.5), buffer.getRawValue(x.getIndex()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fullBufferThrows() {
+        TelemetryBuffer buffer = new TelemetryBuffer(1);
+        buffer.addChannel("A");
+        buffer.addChannel("B");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateKeysThrow() {
+        TelemetryBuffer buffer = new TelemetryBuffer(2);
+        buffer.addChannel("A");
+        buffer.addChannel("A");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void unusedChannelsCannotBeRead() {
+        TelemetryBuffer buffer = new TelemetryBuffer(2);
+        buffer.addChannel("A");
+        buffer.getValue(1);
+    }
+}
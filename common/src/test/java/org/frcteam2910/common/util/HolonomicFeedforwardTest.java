@@ -17,5 +17,10 @@ public class HolonomicFeedforwardTest {
                 new DrivetrainFeedforwardConstants(0.0, 2.0, 0.0));
         assertEquals(new Vector2(1.0, 1.0), feedforward.calculateFeedforward(new Vector2(0.5, 0.5),
                 new Vector2(0.5, 0.5)));
+
+        feedforward = new HolonomicFeedforward(
+                new DrivetrainFeedforwardConstants(2.0, 0.0, 0.5));
+        assertEquals("A robot at rest should not be given a feedforward", Vector2.ZERO,
+                feedforward.calculateFeedforward(Vector2.ZERO, Vector2.ZERO));
     }
 }
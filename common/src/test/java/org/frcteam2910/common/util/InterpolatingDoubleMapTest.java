@@ -0,0 +1,89 @@
+package org.frcteam2910.common.util;
+
+import org.frcteam2910.common.math.MathUtils;
+import org.frcteam2910.common.math.Vector2;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class InterpolatingDoubleMapTest {
+    @Test
+    public void emptyMapHasNoValue() {
+        InterpolatingDoubleMap<Vector2> map = new InterpolatingDoubleMap<>();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0.0));
+        assertNull(map.getInterpolated(0.0));
+    }
+
+    @Test
+    public void interpolatesBetweenKeys() {
+        InterpolatingDoubleMap<Vector2> map = new InterpolatingDoubleMap<>();
+        map.put(10.0, new Vector2(10.0, 0.0));
+        map.put(0.0, Vector2.ZERO);
+        map.put(20.0, new Vector2(10.0, 10.0));
+
+        assertEquals(Vector2.ZERO, map.get(0.0));
+        assertEquals(new Vector2(5.0, 0.0), map.getInterpolated(5.0));
+        assertEquals(new Vector2(10.0, 2.5), map.getInterpolated(12.5));
+        assertEquals("Keys before the first key should use the first value", Vector2.ZERO, map.getInterpolated(-5.0));
+        assertEquals("Keys after the last key should use the last value",
+                new Vector2(10.0, 10.0), map.getInterpolated(25.0));
+    }
+
+    @Test
+    public void matchesInterpolatingTreeMap() {
+        Random random = new Random(3663);
+
+        InterpolatingDoubleMap<Vector2> map = new InterpolatingDoubleMap<>();
+        InterpolatingTreeMap<InterpolatingDouble, Vector2> treeMap = new InterpolatingTreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            double key = random.nextDouble() * 100.0;
+            Vector2 value = new Vector2(random.nextDouble(), random.nextDouble());
+
+            map.put(key, value);
+            treeMap.put(new InterpolatingDouble(key), value);
+        }
+
+        assertEquals(treeMap.size(), map.size());
+        for (int i = 1; i < map.size(); i++) {
+            assertTrue("Keys are not sorted", map.getKey(i - 1) < map.getKey(i));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            double key = random.nextDouble() * 120.0 - 10.0;
+
+            Vector2 expected = treeMap.getInterpolated(new InterpolatingDouble(key));
+            Vector2 actual = map.getInterpolated(key);
+            assertEquals(expected.x, actual.x, MathUtils.EPSILON);
+            assertEquals(expected.y, actual.y, MathUtils.EPSILON);
+        }
+    }
+
+    @Test
+    public void boundedMapRemovesSmallestKey() {
+        InterpolatingDoubleMap<Vector2> map = new InterpolatingDoubleMap<>(3);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, new Vector2(i, 0.0));
+        }
+
+        assertEquals(3, map.size());
+        assertEquals(7.0, map.getKey(0), 0.0);
+        assertEquals(9.0, map.getKey(2), 0.0);
+        assertEquals(new Vector2(7.5, 0.0), map.getInterpolated(7.5));
+
+        // Keys that are not the largest key are inserted in order
+        map.put(8.5, new Vector2(8.5, 0.0));
+        assertEquals(3, map.size());
+        assertEquals(8.0, map.getKey(0), 0.0);
+        assertEquals(8.5, map.getKey(1), 0.0);
+        assertEquals(9.0, map.getKey(2), 0.0);
+
+        // Replacing a value does not remove any keys
+        map.put(9.0, Vector2.ZERO);
+        assertEquals(3, map.size());
+        assertEquals(Vector2.ZERO, map.get(9.0));
+    }
+}
@@ -0,0 +1,89 @@
+package org.frcteam2910.common.util;
+
+import org.frcteam2910.common.math.MathUtils;
+import org.frcteam2910.common.math.RigidTransform2;
+import org.frcteam2910.common.math.Rotation2;
+import org.frcteam2910.common.math.Vector2;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PoseHistoryTest {
+    @Test
+    public void emptyHistoryHasNoPose() {
+        PoseHistory history = new PoseHistory(10);
+
+        assertNull(history.getPoseAt(0.0));
+        assertFalse(history.getPoseAt(0.0, new double[4]));
+    }
+
+    @Test
+    public void interpolatesBetweenPoses() {
+        PoseHistory history = new PoseHistory(10);
+        history.add(1.0, new RigidTransform2(new Vector2(0.0, 0.0), Rotation2.fromDegrees(170.0)));
+        history.add(2.0, new RigidTransform2(new Vector2(10.0, 20.0), Rotation2.fromDegrees(-170.0)));
+
+        RigidTransform2 pose = history.getPoseAt(1.25);
+        assertEquals(new Vector2(2.5, 5.0), pose.translation);
+        // The rotation should take the shortest path between the two rotations
+        assertEquals(Rotation2.fromDegrees(175.0), pose.rotation);
+
+        assertEquals("Times before the oldest pose should use the oldest pose",
+                Vector2.ZERO, history.getPoseAt(0.0).translation);
+        assertEquals("Times after the newest pose should use the newest pose",
+                new Vector2(10.0, 20.0), history.getPoseAt(5.0).translation);
+    }
+
+    @Test
+    public void oldestPosesAreReplaced() {
+        PoseHistory history = new PoseHistory(4);
+        for (int i = 0; i < 10; i++) {
+            history.add(i, new RigidTransform2(new Vector2(i, 0.0), Rotation2.ZERO));
+        }
+
+        assertEquals(4, history.size());
+        assertEquals(7.5, history.getPoseAt(7.5).translation.x, MathUtils.EPSILON);
+
+        // Pose 6 may be replaced by the next pose, so it is no longer used
+        assertEquals(7.0, history.getPoseAt(2.0).translation.x, MathUtils.EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void posesMustBeInOrder() {
+        PoseHistory history = new PoseHistory(4);
+        history.add(1.0, RigidTransform2.ZERO);
+        history.add(1.0, RigidTransform2.ZERO);
+    }
+
+    @Test
+    public void readersSeeConsistentPoses() throws InterruptedException {
+        final int poses = 200000;
+        PoseHistory history = new PoseHistory(16);
+        history.add(0.0, 0.0, 0.0, 1.0, 0.0);
+
+        // Every pose has its x and y set to its timestamp so an inconsistent read can be detected
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            double[] pose = new double[4];
+            while (running.get()) {
+                if (history.getPoseAt(Math.random() * poses, pose) && pose[0] != pose[1]) {
+                    failure.set(String.format("Read inconsistent pose (%f, %f)", pose[0], pose[1]));
+                    return;
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 1; i < poses; i++) {
+            history.add(i, i, i, 1.0, 0.0);
+        }
+        running.set(false);
+        reader.join();
+
+        assertNull(failure.get(), failure.get());
+    }
+}
@@ -8,10 +8,12 @@
 package frc.robot;
 
 import org.frcteam2910.common.math.Rotation2;
-import org.frcteam2910.common.robot.UpdateManager;
 import org.frcteam2910.common.robot.input.Controller;
 import org.frcteam2910.common.robot.input.XboxController;
+import org.frcteam2910.common.scheduling.UpdateScheduler;
 
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import frc.robot.Constants;
@@ -19,14 +21,17 @@ import frc.robot.commands.C_Drive;
 import frc.robot.subsystems.SS_Drivebase;
 
 public class RobotContainer {
+    private static final double UPDATE_PERIOD = 1.0e-2;
+
     private final Controller driveController = new XboxController(Constants.DRIVE_CONTROLLER_ID);
 
     // Instantiate subsystems here
     private final SS_Drivebase drivebase = new SS_Drivebase();
 
-    // All updatable subsystems should be passed as parameters into the
-    // UpdateManager constructor
-    private final UpdateManager updateManager = new UpdateManager(drivebase);
+    // All updatable subsystems should be registered with the update scheduler,
+    // which is ticked by the notifier and records their execution time and overruns
+    private final UpdateScheduler updateScheduler = new UpdateScheduler(Timer::getFPGATimestamp, UPDATE_PERIOD);
+    private final Notifier updateNotifier = new Notifier(updateScheduler::tick);
 
     public RobotContainer() {
         
@@ -43,11 +48,16 @@ public class RobotContainer {
                         () -> 0.0,
                         () -> driveController.getRightXAxis().get(true)));
         */
-        updateManager.startLoop(5.0e-3);
+        updateScheduler.register(drivebase);
+        updateNotifier.startPeriodic(UPDATE_PERIOD);
 
         configureButtonBindings();
     }
 
+    public UpdateScheduler getUpdateScheduler() {
+        return updateScheduler;
+    }
+
     private void configureButtonBindings() {
         driveController.getBackButton().whenPressed(new InstantCommand(() -> drivebase.resetGyroAngle(Rotation2.ZERO), drivebase));
     }
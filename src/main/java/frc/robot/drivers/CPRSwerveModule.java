@@ -39,6 +39,7 @@ public final class CPRSwerveModule extends SwerveModule {
 
     private final CANAnalog angleAbsoluteEncoder;
     private final CANEncoder angleMotorEncoder;
+    private final CANEncoder driveEncoder;
     private final PIDController anglePIDController;
     private final CANPIDController drivePIDController;
 
@@ -55,6 +56,11 @@ public final class CPRSwerveModule extends SwerveModule {
      */
     private volatile double driveTicksPerUnit = DEFAULT_DRIVE_TICKS_PER_UNIT;
 
+    /**
+     * The absolute encoder voltage from the last time the angle was read so telemetry doesn't read it over CAN again.
+     */
+    private volatile double encoderVoltage = 0.0;
+
     /**
      * @param modulePosition the module's offset from the center of the robot
      * @param offsetAngle    how much to offset the angle encoder by in radians
@@ -80,6 +86,8 @@ public final class CPRSwerveModule extends SwerveModule {
         anglePIDController = new PIDController(ANGLE_P, ANGLE_I, ANGLE_D);
         anglePIDController.enableContinuousInput(0, 2 * Math.PI);
 
+        driveEncoder = this.driveMotor.getEncoder();
+
         drivePIDController = this.driveMotor.getPIDController();
         drivePIDController.setOutputRange(-1.0, 1.0);
 
@@ -114,7 +122,8 @@ public final class CPRSwerveModule extends SwerveModule {
 
     @Override
     public double readAngle() {
-        double voltage = angleAbsoluteEncoder.getVoltage() - .03; //account for dead encoder spot
+        encoderVoltage = angleAbsoluteEncoder.getVoltage();
+        double voltage = encoderVoltage - .03; //account for dead encoder spot
         double angle = (voltage / 3.22) * 2.0 * Math.PI + offsetAngle; 
         angle %= 2.0 * Math.PI;
         if (angle < 0.0) {
@@ -124,8 +133,14 @@ public final class CPRSwerveModule extends SwerveModule {
         return angle;
     }
 
+    /**
+     * Gets the absolute encoder voltage read by the last {@link #updateSensors(double)}. This does not read the
+     * encoder so it is safe to call from any thread.
+     *
+     * @return the absolute encoder voltage
+     */
     public double getEncoderVoltage() {
-        return angleAbsoluteEncoder.getPosition();
+        return encoderVoltage;
     }
 
     public double getIntegratedEncoderAngle() {
@@ -138,15 +153,28 @@ public final class CPRSwerveModule extends SwerveModule {
 
     @Override
     public double readDistance() {
-        return driveMotor.getEncoder().getPosition() / driveTicksPerUnit;
+        return driveEncoder.getPosition() / driveTicksPerUnit;
     }
+
+    @Override
+    protected double readVelocity() {
+        // The encoder's velocity is in RPM
+        return driveEncoder.getVelocity() / driveTicksPerUnit / 60.0;
+    }
+
+    @Override
+    protected double readDriveCurrent() {
+        return driveMotor.getOutputCurrent();
+    }
+
     /**
      * @param angle IN RADIANS
      */
     @Override
 	public void setTargetAngle(double angle) {
         //System.out.println(anglePIDController.getPositionError());
-        angleMotor.set(anglePIDController.calculate(readAngle(), angle));
+        // Use the angle read by updateSensors() this update instead of reading the encoder again
+        angleMotor.set(anglePIDController.calculate(getCurrentAngle(), angle));
     }
 
     @Override
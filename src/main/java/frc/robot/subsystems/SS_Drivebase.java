@@ -7,29 +7,63 @@
 
 package frc.robot.subsystems;
 
-import javax.annotation.concurrent.GuardedBy;
-
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.shuffleboard.*;
-import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.SerialPort.Port;
 import frc.robot.drivers.*;
+import frc.robot.util.TelemetryPublisher;
 import frc.robot.Constants;
 
+import org.frcteam2910.common.Logger;
+import org.frcteam2910.common.drivers.SwerveDriveUpdater;
+import org.frcteam2910.common.drivers.SwerveModuleSnapshot;
+import org.frcteam2910.common.io.DataLog;
 import org.frcteam2910.common.math.*;
 import org.frcteam2910.common.util.HolonomicDriveSignal;
-import org.frcteam2910.common.kinematics.ChassisVelocity;
-import org.frcteam2910.common.kinematics.SwerveKinematics;
+import org.frcteam2910.common.util.PoseHistory;
 import org.frcteam2910.common.kinematics.SwerveOdometry;
-import org.frcteam2910.common.robot.UpdateManager;
+import org.frcteam2910.common.replay.ReplayFrame;
+import org.frcteam2910.common.replay.ReplayRecorder;
+import org.frcteam2910.common.scheduling.Updatable;
+import org.frcteam2910.common.telemetry.TelemetryBuffer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SS_Drivebase extends SubsystemBase implements Updatable{
 
-public class SS_Drivebase extends SubsystemBase implements UpdateManager.Updatable{
+    private static final Logger LOGGER = new Logger(SS_Drivebase.class);
 
     private static final double ROTATION_VELOCITY_MULTIPLIER = 2.0;
 
+    // Two seconds of poses at the 100 Hz update rate, far longer than any vision latency
+    private static final int POSE_HISTORY_CAPACITY = 200;
+
+    // Pose, field oriented, gyro and correction entries plus an angle and encoder voltage entry per module
+    private static final int TELEMETRY_CAPACITY = 14;
+
+    // Keep the newest 32 MB of each data log. Updates append 24 records of 24 bytes at 100 Hz, so this is about the
+    // last 9 minutes, enough for a match and the time queueing for it.
+    private static final long DATA_LOG_SEGMENT_SIZE = 4L * 1024 * 1024;
+    private static final int DATA_LOG_MAX_SEGMENTS = 8;
+    // The current segments and the next one, which is created ahead of time
+    private static final long DATA_LOG_BOOT_SIZE = (DATA_LOG_MAX_SEGMENTS + 1) * DATA_LOG_SEGMENT_SIZE;
+
+    // Every boot starts a new data log, the oldest are deleted to keep all of them within 96 MB so the full log of the
+    // previous boot is kept. The roboRIO's flash is small and deploys and its own logs need space too, so no log is
+    // made if it would leave less than 64 MB free.
+    private static final String DATA_LOG_PREFIX = "drivebase-";
+    private static final long DATA_LOG_TOTAL_SIZE = 96L * 1024 * 1024;
+    private static final long DATA_LOG_MIN_FREE_SPACE = 64L * 1024 * 1024;
+
     //SWERVE MODULE ANGLE ENCODER OFFSETS (in radians, obviously)
     public static final double FRONT_LEFT_MODULE_OFFSET = Math.toRadians(67);
     public static final double FRONT_RIGHT_MODULE_OFFSET = Math.toRadians(-12);
@@ -60,194 +94,248 @@ public class SS_Drivebase extends SubsystemBase implements UpdateManager.Updatab
 
   private final CPRSwerveModule[] modules = {frontLeftModule, frontRightModule, backLeftModule, backRightModule};
 
-  private final SwerveKinematics kinematics = new SwerveKinematics(
-            frontLeftModulePosition, // Front Left
-            frontRightModulePosition, // Front Right
-            backLeftModulePosition, // Back Left
-            backRightModulePosition // Back Right
-    );
-  
-  private final SwerveOdometry odometry = new SwerveOdometry(kinematics, RigidTransform2.ZERO);
-
-  private final Object sensorLock = new Object();
-  @GuardedBy("sensorLock")
-  private final NavX navX = new NavX(Port.kUSB, Constants.NAVX_UPDATE_RATE);
-
-  private final Object kinematicsLock = new Object();
-  @GuardedBy("kinematicsLock")
-  private RigidTransform2 pose = RigidTransform2.ZERO;
+  // Runs the odometry and kinematics the same way the replay engine and the simulator do. Only used by the update
+  // thread. Arc integration of the module distances stays accurate at the 100 Hz update rate. The mirrored module
+  // layout and the inverted NavX flip the sense of rotation, so field oriented translations are rotated by the
+  // robot's rotation.
+  private final SwerveDriveUpdater updater = new SwerveDriveUpdater(SwerveOdometry.IntegrationMethod.ARC,
+          SwerveDriveUpdater.FieldOrientedRotation.HEADING, RigidTransform2.ZERO, modules);
 
-  private final Object stateLock = new Object();
-  @GuardedBy("stateLock")
-  private HolonomicDriveSignal driveSignal = null;
+  // Only used by the main thread for telemetry
+  private final SwerveModuleSnapshot telemetrySnapshot = new SwerveModuleSnapshot();
 
-  private NetworkTableEntry poseXEntry;
-  private NetworkTableEntry poseYEntry;
-  private NetworkTableEntry poseAngleEntry;
-
-  private NetworkTableEntry fieldOrientedEntry;  
-  private NetworkTableEntry gyroAngleEntry;
-  private NetworkTableEntry correctionAngleEntry;
+  // The NavX and Gyroscope are safe to use from any thread without a lock
+  private final NavX navX = new NavX(Port.kUSB, Constants.NAVX_UPDATE_RATE);
 
-  private NetworkTableEntry[] moduleAngleEntries = new NetworkTableEntry[modules.length];
-  private NetworkTableEntry[] moduleEncoderVoltageEntries = new NetworkTableEntry[modules.length];
+  // State shared between the command thread and the update thread is published as immutable objects through volatile
+  // fields so neither thread ever waits on the other. Each field only has one writer.
+  private volatile RigidTransform2 pose = RigidTransform2.ZERO;
+  private volatile HolonomicDriveSignal driveSignal = null;
+  // Set by resetGyroAngle, the update thread resets the gyro and the odometry's rotation together so the re-zero is not
+  // integrated as a real rotation
+  private final AtomicReference<Rotation2> requestedGyroAngle = new AtomicReference<>();
+
+  // Written only by the update thread, safe to read from any thread without a lock
+  private final PoseHistory poseHistory = new PoseHistory(POSE_HISTORY_CAPACITY);
+
+  // The update thread only writes telemetry values to channels, a background thread publishes them to Shuffleboard
+  private final TelemetryPublisher telemetry = new TelemetryPublisher(TELEMETRY_CAPACITY);
+
+  private final TelemetryBuffer.Channel poseXChannel;
+  private final TelemetryBuffer.Channel poseYChannel;
+  private final TelemetryBuffer.Channel poseAngleChannel;
+
+  private final TelemetryBuffer.Channel fieldOrientedChannel;
+  private final TelemetryBuffer.Channel gyroAngleChannel;
+  private final TelemetryBuffer.Channel correctionAngleChannel;
+
+  private final TelemetryBuffer.Channel[] moduleAngleChannels = new TelemetryBuffer.Channel[modules.length];
+  private final TelemetryBuffer.Channel[] moduleEncoderVoltageChannels = new TelemetryBuffer.Channel[modules.length];
+
+  // Every update is recorded so autonomous runs can be inspected afterwards. Only used by the update thread after the
+  // constructor. The log is null if it could not be created.
+  private DataLog dataLog;
+  private DataLog.Signal poseXSignal;
+  private DataLog.Signal poseYSignal;
+  private DataLog.Signal poseAngleSignal;
+  // Records every raw input of the update, the module readings, gyro and drive signal, so matches can be replayed
+  // offline. They are not logged again as separate signals.
+  private ReplayRecorder replayRecorder;
+  private final ReplayFrame replayFrame = new ReplayFrame(modules.length);
 
   public SS_Drivebase() {
-    synchronized (sensorLock) {
-      navX.setInverted(true);      
-    }
+    navX.setInverted(true);
 
     ShuffleboardTab drivebaseTab = Shuffleboard.getTab("Drivebase");
-    poseXEntry = drivebaseTab.add("Pose X", 0.0)
+    poseXChannel = telemetry.addEntry(drivebaseTab.add("Pose X", 0.0)
             .withPosition(0, 0)
             .withSize(1, 1)
-            .getEntry();
-    poseYEntry = drivebaseTab.add("Pose Y", 0.0)
+            .getEntry());
+    poseYChannel = telemetry.addEntry(drivebaseTab.add("Pose Y", 0.0)
             .withPosition(0, 1)
             .withSize(1, 1)
-            .getEntry();
-    poseAngleEntry = drivebaseTab.add("Pose Angle", 0.0)
+            .getEntry());
+    poseAngleChannel = telemetry.addEntry(drivebaseTab.add("Pose Angle", 0.0)
             .withPosition(0, 2)
             .withSize(1, 1)
-            .getEntry();
+            .getEntry());
 
     ShuffleboardLayout frontLeftModuleContainer = drivebaseTab.getLayout("Front Left Module", BuiltInLayouts.kList)
             .withPosition(5, 0)
             .withSize(2, 2);
-    moduleAngleEntries[0] = frontLeftModuleContainer.add("Angle", 0.0).getEntry();
-    moduleEncoderVoltageEntries[0] = frontLeftModuleContainer.add("Encoder Voltage", 0.0).getEntry();
+    moduleAngleChannels[0] = telemetry.addEntry(frontLeftModuleContainer.add("Angle", 0.0).getEntry());
+    moduleEncoderVoltageChannels[0] = telemetry.addEntry(frontLeftModuleContainer.add("Encoder Voltage", 0.0).getEntry());
 
     ShuffleboardLayout frontRightModuleContainer = drivebaseTab.getLayout("Front Right Module", BuiltInLayouts.kList)
             .withPosition(7, 0)
             .withSize(2, 2);
-    moduleAngleEntries[1] = frontRightModuleContainer.add("Angle", 0.0).getEntry();
-    moduleEncoderVoltageEntries[1] = frontRightModuleContainer.add("Encoder Voltage", 0.0).getEntry();
+    moduleAngleChannels[1] = telemetry.addEntry(frontRightModuleContainer.add("Angle", 0.0).getEntry());
+    moduleEncoderVoltageChannels[1] = telemetry.addEntry(frontRightModuleContainer.add("Encoder Voltage", 0.0).getEntry());
 
     ShuffleboardLayout backLeftModuleContainer = drivebaseTab.getLayout("Back Left Module", BuiltInLayouts.kList)
             .withPosition(5, 2)
             .withSize(2, 2);
-    moduleAngleEntries[2] = backLeftModuleContainer.add("Angle", 0.0).getEntry();
-    moduleEncoderVoltageEntries[2] = backLeftModuleContainer.add("Encoder Voltage", 0.0).getEntry();
+    moduleAngleChannels[2] = telemetry.addEntry(backLeftModuleContainer.add("Angle", 0.0).getEntry());
+    moduleEncoderVoltageChannels[2] = telemetry.addEntry(backLeftModuleContainer.add("Encoder Voltage", 0.0).getEntry());
 
     ShuffleboardLayout backRightModuleContainer = drivebaseTab.getLayout("Back Right Module", BuiltInLayouts.kList)
             .withPosition(7, 2)
             .withSize(2, 2);
-    moduleAngleEntries[3] = backRightModuleContainer.add("Angle", 0.0).getEntry();
-    moduleEncoderVoltageEntries[3] = backRightModuleContainer.add("Encoder Voltage", 0.0).getEntry();
+    moduleAngleChannels[3] = telemetry.addEntry(backRightModuleContainer.add("Angle", 0.0).getEntry());
+    moduleEncoderVoltageChannels[3] = telemetry.addEntry(backRightModuleContainer.add("Encoder Voltage", 0.0).getEntry());
 
     ShuffleboardLayout fieldOrientedContainer = drivebaseTab.getLayout("Field Oriented", BuiltInLayouts.kList).withPosition(1, 0).withSize(1, 1);
-    fieldOrientedEntry = fieldOrientedContainer.add("Field Oriented", 0.0).getEntry();
+    fieldOrientedChannel = telemetry.addEntry(fieldOrientedContainer.add("Field Oriented", 0.0).getEntry());
 
     ShuffleboardLayout gyroContainer = drivebaseTab.getLayout("Gyro", BuiltInLayouts.kList).withPosition(1, 1).withSize(1, 1);
-    gyroAngleEntry = gyroContainer.add("Gyro Angle", 0.0).getEntry();
+    gyroAngleChannel = telemetry.addEntry(gyroContainer.add("Gyro Angle", 0.0).getEntry());
 
     ShuffleboardLayout correctionContainer = drivebaseTab.getLayout("Correction", BuiltInLayouts.kList).withPosition(1, 2).withSize(1, 1);
-    correctionAngleEntry = correctionContainer.add("Correction", 0.0).getEntry();
+    correctionAngleChannel = telemetry.addEntry(correctionContainer.add("Correction", 0.0).getEntry());
+
+    telemetry.start(TelemetryPublisher.DEFAULT_RATE);
+
+    createDataLog();
   }
 
-  public RigidTransform2 getPose() {
-    synchronized (kinematicsLock) {
-        return pose;
+  private void createDataLog() {
+    Path directory = Filesystem.getOperatingDirectory().toPath().resolve("logs");
+    String name = DATA_LOG_PREFIX + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+    try {
+      // Leave room for this boot's log
+      DataLog.deleteOldLogs(directory, DATA_LOG_PREFIX, DATA_LOG_TOTAL_SIZE - DATA_LOG_BOOT_SIZE);
+    } catch (IOException e) {
+      LOGGER.error("Unable to delete old drivebase data logs in %s", directory);
+      LOGGER.error(e);
     }
+
+    try {
+      Files.createDirectories(directory);
+      long usableSpace = Files.getFileStore(directory).getUsableSpace();
+      if (usableSpace - DATA_LOG_BOOT_SIZE < DATA_LOG_MIN_FREE_SPACE) {
+        // The robot can still drive without a log
+        LOGGER.warn("Not creating the drivebase data log, only %d MB are free in %s", usableSpace / (1024 * 1024),
+                directory);
+        return;
+      }
+
+      dataLog = new DataLog(directory, name, DATA_LOG_SEGMENT_SIZE, DATA_LOG_MAX_SEGMENTS);
+
+      poseXSignal = dataLog.addSignal("Pose X", DataLog.SignalType.DOUBLE);
+      poseYSignal = dataLog.addSignal("Pose Y", DataLog.SignalType.DOUBLE);
+      poseAngleSignal = dataLog.addSignal("Pose Angle", DataLog.SignalType.DOUBLE);
+
+      replayRecorder = new ReplayRecorder(dataLog, modules.length);
+    } catch (IOException e) {
+      // The robot can still drive without a log
+      LOGGER.error("Unable to create the drivebase data log in %s", directory);
+      LOGGER.error(e);
+      if (dataLog != null) {
+        try {
+          dataLog.close();
+        } catch (IOException closeException) {
+          LOGGER.error(closeException);
+        }
+      }
+      dataLog = null;
+    }
+  }
+
+  public RigidTransform2 getPose() {
+    return pose;
 }
 
+  /**
+   * Gets where the robot was at a time in the recent past. This is used to line up delayed measurements, such as
+   * vision targets after subtracting the Limelight's pipeline latency, with the pose the robot had when they were
+   * taken.
+   *
+   * @param timestamp the FPGA timestamp to get the pose at
+   * @return the pose at the time or null if no poses have been recorded yet
+   */
+  public RigidTransform2 getPoseAt(double timestamp) {
+    return poseHistory.getPoseAt(timestamp);
+  }
+
 public void drive(Vector2 translationalVelocity, double rotationalVelocity, boolean fieldOriented) {
-    synchronized (stateLock) {
-        driveSignal = new HolonomicDriveSignal(translationalVelocity, rotationalVelocity, fieldOriented);
-    }
+    driveSignal = new HolonomicDriveSignal(translationalVelocity, rotationalVelocity, fieldOriented);
 }
 
 public void resetGyroAngle(Rotation2 angle) {
-    synchronized (sensorLock) {
-        navX.setAdjustmentAngle(
-                navX.getUnadjustedAngle().rotateBy(angle.inverse())
-        );
-    }
+    requestedGyroAngle.set(angle);
 }
 
 @Override
     public void update(double timestamp, double dt) {
-        updateOdometry(dt);
+        updateOdometry(timestamp, dt);
 
-        HolonomicDriveSignal driveSignal;
-        synchronized (stateLock) {
-            driveSignal = this.driveSignal;
-        }
+        HolonomicDriveSignal signal = driveSignal;
+        updateModules(signal, dt);
 
-        updateModules(driveSignal, dt);
+        if (dataLog != null) {
+            recordUpdate(timestamp, dt, signal);
+        }
     }
 
-    private void updateOdometry(double dt) {
-        Vector2[] moduleVelocities = new Vector2[modules.length];
-        for (int i = 0; i < modules.length; i++) {
-            var module = modules[i];
-            module.updateSensors();
-
-            moduleVelocities[i] = Vector2.fromAngle(Rotation2.fromRadians(module.getCurrentAngle())).scale(module.getCurrentVelocity());
+    private void updateOdometry(double timestamp, double dt) {
+        // Read the gyro once, the unadjusted angle is recorded for replay
+        Rotation2 unadjustedAngle = navX.getUnadjustedAngle();
+        Rotation2 requestedAngle = requestedGyroAngle.getAndSet(null);
+        if (requestedAngle != null) {
+            navX.setAdjustmentAngle(unadjustedAngle.rotateBy(requestedAngle.inverse()));
+            updater.resetRotation(navX.adjust(unadjustedAngle));
         }
-
-        Rotation2 angle;
-        synchronized (sensorLock) {
-            System.out.println("angle: " + navX.getAngle());
-            angle = navX.getAngle();
+        Rotation2 angle = navX.adjust(unadjustedAngle);
+        gyroAngleChannel.set(angle.toDegrees());
+        if (dataLog != null) {
+            replayFrame.setGyro(unadjustedAngle, navX.getAdjustmentAngle(), navX.isInverted());
         }
 
-        RigidTransform2 pose = odometry.update(angle, dt, moduleVelocities);
+        // Reads every module's sensors once, everything else this update uses the snapshots
+        RigidTransform2 pose = updater.updateOdometry(timestamp, angle);
 
-        synchronized (kinematicsLock) {
-            this.pose = pose;
-        }
-        System.out.println(pose);
+        this.pose = pose;
+        poseHistory.add(timestamp, pose);
     }
 
     private void updateModules(HolonomicDriveSignal signal, double dt) {
       RigidTransform2 pose = getPose();
-      ChassisVelocity velocity;
-      
-      if (signal == null) {
-          velocity = new ChassisVelocity(Vector2.ZERO, 0.0);
-      } else if (signal.isFieldOriented()) {
-
-          Rotation2 correction = pose.rotation;
-          velocity = new ChassisVelocity(
-                  signal.getTranslation().rotateBy(correction),
-                  signal.getRotation()
-          );
-
-          correctionAngleEntry.setDouble(correction.toRadians());
-
-      } else {
-          velocity = new ChassisVelocity(signal.getTranslation(), signal.getRotation());
-      }
-
-      Vector2[] moduleOutputs = kinematics.toModuleVelocities(velocity);
-      SwerveKinematics.normalizeModuleVelocities(moduleOutputs, 1.0);
-
-      for (int i = 0; i < modules.length; i++) {
-          var module = modules[i];
-          module.setTargetVelocity(moduleOutputs[i]);
-          module.updateState(dt);
+      if (signal != null && signal.isFieldOriented()) {
+          correctionAngleChannel.set(pose.rotation.toRadians());
       }
 
-//        var pose = getPose();
-        poseXEntry.setDouble(pose.translation.x);
-        poseYEntry.setDouble(pose.translation.y);
-        poseAngleEntry.setDouble(pose.rotation.toDegrees());
+      updater.updateModules(signal, dt);
 
-        fieldOrientedEntry.setDouble( signal == null ? 0 : (signal.isFieldOriented() ? 1 : 0));        
-        gyroAngleEntry.setDouble(navX.getAngle().toDegrees());
+        poseXChannel.set(pose.translation.x);
+        poseYChannel.set(pose.translation.y);
+        poseAngleChannel.set(pose.rotation.toDegrees());
 
+        fieldOrientedChannel.set(signal != null && signal.isFieldOriented());
+  }
 
+    private void recordUpdate(double timestamp, double dt, HolonomicDriveSignal signal) {
+        RigidTransform2 pose = this.pose;
+        poseXSignal.append(timestamp, pose.translation.x);
+        poseYSignal.append(timestamp, pose.translation.y);
+        poseAngleSignal.append(timestamp, pose.rotation.toDegrees());
 
-  }
+        replayFrame.setTime(timestamp, dt);
+        for (int i = 0; i < modules.length; i++) {
+            replayFrame.setModule(i, updater.getModuleSnapshot(i));
+        }
+        replayFrame.setDriveSignal(signal);
+        replayRecorder.record(replayFrame);
+    }
 
   @Override
     public void periodic() {
 
         for (int i = 0; i < modules.length; i++) {
             var module = modules[i];
-            moduleAngleEntries[i].setDouble(Math.toDegrees(module.readAngle()));
-            moduleEncoderVoltageEntries[i].setDouble(module.getEncoderVoltage());
+            module.getSnapshot(telemetrySnapshot);
+            moduleAngleChannels[i].set(Math.toDegrees(telemetrySnapshot.getAngle()));
+            // The voltage read by the update thread, reading it again here would be another CAN read
+            moduleEncoderVoltageChannels[i].set(module.getEncoderVoltage());
         }
     }
 }
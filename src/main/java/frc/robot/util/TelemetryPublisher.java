@@ -0,0 +1,120 @@
+package frc.robot.util;
+
+import edu.wpi.first.networktables.NetworkTableEntry;
+import org.frcteam2910.common.telemetry.TelemetryBuffer;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the values in a {@link TelemetryBuffer} to NetworkTables entries from a background thread.
+ * <p>
+ * The control loop writes values to the channels returned by {@link #addEntry(NetworkTableEntry)}, which never blocks
+ * or allocates. A low priority daemon thread publishes the latest value of every channel at a fixed rate, skipping
+ * values that have not changed since they were last published, so dashboard traffic never adds latency to the control
+ * loop.
+ */
+public final class TelemetryPublisher implements AutoCloseable {
+    public static final double DEFAULT_RATE = 20.0;
+
+    private final TelemetryBuffer buffer;
+    // Guarded by this
+    private final NetworkTableEntry[] entries;
+    private final long[] publishedValues;
+
+    private final ScheduledExecutorService executor;
+    // Guarded by this
+    private ScheduledFuture<?> publishTask = null;
+
+    /**
+     * @param capacity the maximum amount of entries
+     */
+    public TelemetryPublisher(int capacity) {
+        this.buffer = new TelemetryBuffer(capacity);
+        this.entries = new NetworkTableEntry[capacity];
+        this.publishedValues = new long[capacity];
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TelemetryPublisher");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds an entry to publish. Entries should be added before the control loop starts.
+     *
+     * @param entry the entry to publish to
+     * @return the channel the control loop writes the entry's value to
+     */
+    public synchronized TelemetryBuffer.Channel addEntry(NetworkTableEntry entry) {
+        TelemetryBuffer.Channel channel = buffer.addChannel(entry.getName());
+        entries[channel.getIndex()] = entry;
+        // Nothing is published until the channel is written
+        publishedValues[channel.getIndex()] = buffer.getRawValue(channel.getIndex());
+
+        return channel;
+    }
+
+    public TelemetryBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Starts publishing at the default rate.
+     */
+    public void start() {
+        start(DEFAULT_RATE);
+    }
+
+    /**
+     * Starts publishing at a rate. If the publisher has already been started the rate is changed.
+     *
+     * @param rate how many times a second to publish
+     */
+    public synchronized void start(double rate) {
+        if (rate <= 0.0) {
+            throw new IllegalArgumentException("The rate must be positive");
+        }
+
+        stop();
+        long period = Math.round(1.0e9 / rate);
+        publishTask = executor.scheduleAtFixedRate(this::publish, 0, period, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        if (publishTask != null) {
+            publishTask.cancel(false);
+            publishTask = null;
+        }
+    }
+
+    /**
+     * Publishes every value that changed since it was last published. This is called by the background thread but can
+     * also be called directly.
+     */
+    public synchronized void publish() {
+        int channelCount = buffer.getChannelCount();
+        for (int i = 0; i < channelCount; i++) {
+            long value = buffer.getRawValue(i);
+            if (value == publishedValues[i]) {
+                continue;
+            }
+
+            entries[i].setDouble(Double.longBitsToDouble(value));
+            publishedValues[i] = value;
+        }
+    }
+
+    /**
+     * Stops publishing and the background thread. The publisher can't be started after it has been closed.
+     */
+    @Override
+    public synchronized void close() {
+        stop();
+        executor.shutdown();
+    }
+}